@@ -0,0 +1,58 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import org.openjdk.jmh.annotations.*;
+import sandbox27.ila.backend.benchmark.InMemoryRepositories;
+import sandbox27.ila.backend.benchmark.SyntheticSchool;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Phasen vor dem Solver: Laden des {@link AssignmentSnapshot} über die In-Memory-Repositories
+ * (Gruppierung und Indizes im Loader, ohne Datenbank) und Aufbau des {@link AssignmentModel}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AssignmentModelBenchmark {
+
+    @Param({"500", "1500", "5000"})
+    int students;
+
+    @Param({"0.0", "1.2"})
+    double preferenceSkew;
+
+    private AssignmentSnapshotLoader loader;
+    private AssignmentSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticSchool school = SyntheticSchool.generate(SyntheticSchool.Spec.of(students, preferenceSkew));
+        loader = createLoader(new InMemoryRepositories(school));
+        snapshot = loader.load(school.getPeriod().getId());
+    }
+
+    @Benchmark
+    public AssignmentSnapshot loadSnapshot() {
+        return loader.load(snapshot.period().getId());
+    }
+
+    @Benchmark
+    public AssignmentModel buildModel() {
+        return snapshot.toModel();
+    }
+
+    static AssignmentSnapshotLoader createLoader(InMemoryRepositories repositories) {
+        return new AssignmentSnapshotLoader(
+                repositories.periodRepository(),
+                repositories.userRepository(),
+                repositories.courseRepository(),
+                repositories.blockRepository(),
+                repositories.courseBlockAssignmentRepository(),
+                repositories.preferenceRepository(),
+                repositories.userBlockExclusionRepository(),
+                repositories.courseUserAssignmentRepository());
+    }
+}
@@ -0,0 +1,96 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import org.openjdk.jmh.annotations.*;
+import sandbox27.ila.backend.benchmark.InMemoryRepositories;
+import sandbox27.ila.backend.benchmark.SyntheticSchool;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst einen geseedeten Solver-Lauf über einer {@link SyntheticSchool}; Laden und Modellaufbau misst
+ * {@link AssignmentModelBenchmark}.
+ * <p>
+ * {@code solver} wählt neben den beiden {@link AssignmentSolverType}s auch die Greedy-Phase allein
+ * ({@code GREEDY_ONLY}, lokale Suche mit 0 Zügen). Die lokale Suche läuft praktisch ohne Zeitbudget,
+ * damit jeder Aufruf dieselbe Zahl Züge macht. Die Qualität des letzten Laufs (Durchschnittspriorität, Fairness,
+ * unvollständige Schüler) wird am Ende jedes Trials ausgegeben.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AssignmentSolverBenchmark {
+
+    private static final long SEED = 42L;
+    private static final int LOCAL_SEARCH_MOVES = 200_000;
+
+    @Param({"GREEDY_ONLY", "GREEDY", "MIN_COST_FLOW"})
+    String solver;
+
+    @Param({"500", "1500"})
+    int students;
+
+    @Param({"0.0", "1.2"})
+    double preferenceSkew;
+
+    private AssignmentModel model;
+    private CourseAssignmentService service;
+    private AssignmentSolver assignmentSolver;
+    private AssignmentRun lastRun;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticSchool school = SyntheticSchool.generate(SyntheticSchool.Spec.of(students, preferenceSkew));
+        AssignmentSnapshotLoader loader = AssignmentModelBenchmark.createLoader(new InMemoryRepositories(school));
+
+        // Gespeichert wird im Benchmark nicht: Ergebnis-Repository, Batch-Writer, Event-Publisher und
+        // Platzzähler bleiben leer
+        assignmentSolver = switch (solver) {
+            case "GREEDY_ONLY" -> greedySolver(0);
+            case "GREEDY" -> greedySolver(LOCAL_SEARCH_MOVES);
+            default -> minCostFlowSolver(LOCAL_SEARCH_MOVES);
+        };
+        service = new CourseAssignmentService(null, null, loader, null,
+                List.of(assignmentSolver), new AssignmentSnapshotCache(), null, null, null);
+
+        model = service.prepareModel(loader.load(school.getPeriod().getId()));
+    }
+
+    @Benchmark
+    public AssignmentRun solve() {
+        lastRun = service.solve(model, assignmentSolver, 1, SEED, AssignmentProgress.NONE);
+        return lastRun;
+    }
+
+    @TearDown(Level.Trial)
+    public void reportQuality() {
+        if (lastRun == null) {
+            return;
+        }
+        AssignmentResult result = lastRun.result();
+        System.out.printf("%nQuality %s, %d students, skew %.1f: avg priority %.3f, fairness std dev %.3f, "
+                        + "complete %d, partial %d, unassigned %d, objective %.3f%n",
+                solver, students, preferenceSkew,
+                result.getAveragePriority(), result.getFairnessStdDeviation(),
+                result.getAssignedStudents(), result.getPartiallyAssigned(), result.getUnassigned(),
+                lastRun.objective());
+    }
+
+    private static MinCostFlowAssignmentSolver minCostFlowSolver(int maxMoves) {
+        return new MinCostFlowAssignmentSolver(localSearch(maxMoves));
+    }
+
+    private static GreedyAssignmentSolver greedySolver(int maxMoves) {
+        return new GreedyAssignmentSolver(localSearch(maxMoves));
+    }
+
+    private static LocalSearchProperties localSearch(int maxMoves) {
+        LocalSearchProperties localSearch = new LocalSearchProperties();
+        localSearch.setMaxMoves(maxMoves);
+        localSearch.setTimeBudgetMs(TimeUnit.MINUTES.toMillis(1));
+        return localSearch;
+    }
+}
@@ -0,0 +1,289 @@
+package sandbox27.ila.backend.benchmark;
+
+import org.springframework.context.ApplicationEventPublisher;
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.assignments.CourseUserAssignmentRepository;
+import sandbox27.ila.backend.assignments.StudentFairness;
+import sandbox27.ila.backend.assignments.StudentFairnessScoreRepository;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.block.BlockRepository;
+import sandbox27.ila.backend.course.Course;
+import sandbox27.ila.backend.course.CourseBlockAssignment;
+import sandbox27.ila.backend.course.CourseBlockAssignmentRepository;
+import sandbox27.ila.backend.course.CourseRepository;
+import sandbox27.ila.backend.course.CourseSeatCounterRepository;
+import sandbox27.ila.backend.exchange.ExchangeRequest;
+import sandbox27.ila.backend.exchange.ExchangeRequestRepository;
+import sandbox27.ila.backend.exchange.ExchangeRequestStatus;
+import sandbox27.ila.backend.exclusion.UserBlockExclusionRepository;
+import sandbox27.ila.backend.period.Period;
+import sandbox27.ila.backend.period.PeriodRepository;
+import sandbox27.ila.backend.preference.Preference;
+import sandbox27.ila.backend.preference.PreferenceRepository;
+import sandbox27.ila.backend.user.User;
+import sandbox27.ila.backend.user.UserRepository;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Repository-Fakes über einer {@link SyntheticSchool}, ohne Datenbank und ohne Mocking-Framework.
+ * <p>
+ * Jedes Repository ist ein {@link Proxy}, der nur die Methoden beantwortet, die die gemessenen Services
+ * tatsächlich aufrufen; alle anderen werfen {@link UnsupportedOperationException}, damit ein neuer
+ * Repository-Aufruf im Service nicht unbemerkt als {@code null} durchläuft. Lookups laufen über Indizes,
+ * damit die Fakes nicht selbst die Messung dominieren. Aufrufe werden je Methode gezählt.
+ */
+public final class InMemoryRepositories {
+
+    private final SyntheticSchool school;
+
+    private final Map<String, List<CourseUserAssignment>> assignmentsByUser = new HashMap<>();
+    private final Map<String, Preference> preferenceByUserBlockCourse = new HashMap<>();
+    private final Map<Long, CourseBlockAssignment> courseBlockAssignmentByCourse = new HashMap<>();
+    private final List<Object[]> exclusionRows = new ArrayList<>();
+
+    // Belegung je (Kurs, Block); save() verschiebt die Zuweisung vom zuletzt gespeicherten auf den neuen Schlüssel
+    private final Map<String, Integer> attendees = new HashMap<>();
+    private final Map<CourseUserAssignment, String> savedKey = new IdentityHashMap<>();
+
+    // Platzzähler je Kurs, wie CourseSeatCounter
+    private final Map<Long, Integer> seatCounters = new HashMap<>();
+
+    private final Map<String, AtomicLong> calls = new TreeMap<>();
+    private final AtomicLong publishedEvents = new AtomicLong();
+
+    public InMemoryRepositories(SyntheticSchool school) {
+        this.school = school;
+        for (Preference preference : school.getPreferences()) {
+            preferenceByUserBlockCourse.put(
+                    key(preference.getUser().getUserName(), preference.getBlock().getId(), preference.getCourse().getId()),
+                    preference);
+        }
+        for (CourseBlockAssignment cba : school.getCourseBlockAssignments()) {
+            courseBlockAssignmentByCourse.put(cba.getCourse().getId(), cba);
+        }
+        school.getBlockExclusions().forEach((userName, blockIds) ->
+                blockIds.forEach(blockId -> exclusionRows.add(new Object[]{userName, blockId})));
+        for (CourseUserAssignment assignment : school.getAssignments()) {
+            assignmentsByUser.computeIfAbsent(assignment.getUser().getUserName(), userName -> new ArrayList<>())
+                    .add(assignment);
+        }
+        reset();
+    }
+
+    /**
+     * Baut die Belegungszähler nach {@link SyntheticSchool#reset()} neu auf und setzt die Aufrufzähler zurück.
+     */
+    public void reset() {
+        attendees.clear();
+        savedKey.clear();
+        seatCounters.clear();
+        for (CourseUserAssignment assignment : school.getAssignments()) {
+            track(assignment);
+            seatCounters.merge(assignment.getCourse().getId(), 1, Integer::sum);
+        }
+        calls.clear();
+        publishedEvents.set(0);
+    }
+
+    public PeriodRepository periodRepository() {
+        return fake(PeriodRepository.class, Map.of(
+                "findById", args -> Optional.of(school.getPeriod())
+                        .filter(period -> period.getId().equals(args[0])),
+                "findByIdForUpdate", args -> Optional.of(school.getPeriod())
+                        .filter(period -> period.getId().equals(args[0]))
+        ));
+    }
+
+    public UserRepository userRepository() {
+        return fake(UserRepository.class, Map.of(
+                "findAllIlaMembersWithGradeByRole", args -> school.getStudents().stream()
+                        .filter(User::isIlaMember)
+                        .filter(user -> user.getGrade() > 0)
+                        .filter(user -> user.getRoles().contains(args[0]))
+                        .toList()
+        ));
+    }
+
+    public CourseRepository courseRepository() {
+        return fake(CourseRepository.class, Map.of(
+                "findAllByPeriodIdFetchCategories", args -> school.getCourses(),
+                "findAllByPeriodIdFetchGrades", args -> school.getCourses(),
+                "findAllByPeriodIdFetchExcludedGenders", args -> school.getCourses()
+        ));
+    }
+
+    public CourseSeatCounterRepository courseSeatCounterRepository() {
+        return fake(CourseSeatCounterRepository.class, Map.of(
+                "reserve", args -> {
+                    Integer reserved = seatCounters.get((Long) args[0]);
+                    if (reserved == null || reserved >= (Integer) args[1]) {
+                        return 0;
+                    }
+                    seatCounters.put((Long) args[0], reserved + 1);
+                    return 1;
+                },
+                "release", args -> {
+                    Integer reserved = seatCounters.get((Long) args[0]);
+                    if (reserved == null || reserved == 0) {
+                        return 0;
+                    }
+                    seatCounters.put((Long) args[0], reserved - 1);
+                    return 1;
+                },
+                "insertIfAbsent", args -> seatCounters.putIfAbsent((Long) args[0], (int) school.getAssignments().stream()
+                        .filter(assignment -> assignment.getCourse().getId() == (Long) args[0]
+                                && assignment.getBlock().getId()
+                                == courseBlockAssignmentByCourse.get((Long) args[0]).getBlock().getId())
+                        .count()) == null ? 1 : 0
+        ));
+    }
+
+    public BlockRepository blockRepository() {
+        return fake(BlockRepository.class, Map.of(
+                "findByPeriod", args -> school.getBlocks()
+        ));
+    }
+
+    public CourseBlockAssignmentRepository courseBlockAssignmentRepository() {
+        return fake(CourseBlockAssignmentRepository.class, Map.of(
+                "findAllByPeriodId", args -> school.getCourseBlockAssignments(),
+                "findByCourse", args -> Optional.ofNullable(
+                        courseBlockAssignmentByCourse.get(((Course) args[0]).getId()))
+        ));
+    }
+
+    public PreferenceRepository preferenceRepository() {
+        return fake(PreferenceRepository.class, Map.of(
+                "findAllByPeriodIdWithDetails", args -> school.getPreferences()
+        ));
+    }
+
+    public UserBlockExclusionRepository userBlockExclusionRepository() {
+        return fake(UserBlockExclusionRepository.class, Map.of(
+                "findUserNameAndBlockIdByPeriodId", args -> exclusionRows,
+                "findExcludedBlockIdsByUserAndPeriod", args -> new HashSet<>(
+                        school.getBlockExclusions().getOrDefault((String) args[0], Set.of()))
+        ));
+    }
+
+    public CourseUserAssignmentRepository courseUserAssignmentRepository() {
+        return fake(CourseUserAssignmentRepository.class, Map.of(
+                "findAllByPeriodIdWithDetails", args -> school.getAssignments(),
+                "findByUserAndCourse_Period_Id", args -> new ArrayList<>(
+                        assignmentsByUser.getOrDefault(((User) args[0]).getUserName(), List.of())),
+                "findFairnessByPeriodId", args -> fairness(),
+                "countByCourseAndBlock", args -> attendees.getOrDefault(
+                        key(((Course) args[0]).getId(), ((Block) args[1]).getId()), 0),
+                "save", args -> {
+                    track((CourseUserAssignment) args[0]);
+                    return args[0];
+                }
+        ));
+    }
+
+    /**
+     * Ohne gespeicherte Scores, wie vor dem Finalisieren: die Fairness wird bei jeder Auflösung aggregiert.
+     */
+    public StudentFairnessScoreRepository studentFairnessScoreRepository() {
+        return fake(StudentFairnessScoreRepository.class, Map.of(
+                "findAllByPeriodIdWithUser", args -> List.of()
+        ));
+    }
+
+    public ExchangeRequestRepository exchangeRequestRepository() {
+        return fake(ExchangeRequestRepository.class, Map.of(
+                "findPendingRequestsWithDetails", args -> school.getExchangeRequests().stream()
+                        .filter(request -> request.getPeriod() == args[0])
+                        .filter(request -> request.getStatus() == ExchangeRequestStatus.PENDING)
+                        .toList(),
+                "save", args -> (ExchangeRequest) args[0],
+                "flush", args -> null
+        ));
+    }
+
+    public ApplicationEventPublisher eventPublisher() {
+        return event -> publishedEvents.incrementAndGet();
+    }
+
+    public long getPublishedEvents() {
+        return publishedEvents.get();
+    }
+
+    /**
+     * @return Anzahl Aufrufe je {@code Repository.methode}, alphabetisch sortiert
+     */
+    public Map<String, Long> getCalls() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        calls.forEach((method, count) -> result.put(method, count.get()));
+        return result;
+    }
+
+    /**
+     * Entspricht {@code CourseUserAssignmentRepository.findFairnessByPeriodId}.
+     */
+    private List<StudentFairness> fairness() {
+        List<StudentFairness> result = new ArrayList<>();
+        assignmentsByUser.forEach((userName, assignments) -> {
+            long ranked = 0;
+            double total = 0;
+            for (CourseUserAssignment assignment : assignments) {
+                Preference preference = preferenceByUserBlockCourse.get(
+                        key(userName, assignment.getBlock().getId(), assignment.getCourse().getId()));
+                if (!assignment.isPreset() && preference != null) {
+                    total += preference.getPreferenceIndex();
+                    ranked++;
+                }
+            }
+            if (ranked > 0) {
+                result.add(new StudentFairness(userName, total / ranked, ranked));
+            }
+        });
+        return result;
+    }
+
+    private void track(CourseUserAssignment assignment) {
+        String previous = savedKey.get(assignment);
+        if (previous != null) {
+            attendees.merge(previous, -1, Integer::sum);
+        }
+        String current = key(assignment.getCourse().getId(), assignment.getBlock().getId());
+        attendees.merge(current, 1, Integer::sum);
+        savedKey.put(assignment, current);
+    }
+
+    private <T> T fake(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (self, method, args) -> invoke(type, self, method, args, handlers));
+        return type.cast(proxy);
+    }
+
+    private Object invoke(Class<?> type, Object self, Method method, Object[] args,
+                          Map<String, Function<Object[], Object>> handlers) {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> self == args[0];
+                case "hashCode" -> System.identityHashCode(self);
+                default -> "InMemory" + type.getSimpleName();
+            };
+        }
+        Function<Object[], Object> handler = handlers.get(method.getName());
+        if (handler == null) {
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        }
+        calls.computeIfAbsent(type.getSimpleName() + "." + method.getName(), name -> new AtomicLong()).incrementAndGet();
+        return handler.apply(args != null ? args : new Object[0]);
+    }
+
+    private static String key(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            key.append(part).append(':');
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,399 @@
+package sandbox27.ila.backend.benchmark;
+
+import lombok.Getter;
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.course.Course;
+import sandbox27.ila.backend.course.CourseBlockAssignment;
+import sandbox27.ila.backend.course.CourseCategory;
+import sandbox27.ila.backend.exchange.ExchangeRequest;
+import sandbox27.ila.backend.exchange.ExchangeRequestStatus;
+import sandbox27.ila.backend.period.Period;
+import sandbox27.ila.backend.preference.Preference;
+import sandbox27.ila.backend.user.Gender;
+import sandbox27.ila.backend.user.Role;
+import sandbox27.ila.backend.user.User;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Erzeugt eine vollständige, synthetische Schule im Speicher: eine Periode mit Blöcken, Kursen, Schülern,
+ * Präferenzen, Sperren, Presets, einer Erstverteilung und offenen Wechselwünschen.
+ * <p>
+ * Die Beliebtheit der Kurse folgt einer Zipf-Verteilung ({@code preferenceSkew = 0} ist gleichverteilt, größere
+ * Werte ballen Präferenzen und Wechselwünsche auf wenige Kurse). Bei gleichem {@link Spec} ist das Ergebnis
+ * identisch, die Läufe verschiedener Benchmarks sind damit vergleichbar.
+ */
+@Getter
+public final class SyntheticSchool {
+
+    private static final int COURSES_PER_STUDENT = 3;
+    private static final int MAX_PREFERENCES_PER_BLOCK = 3;
+    private static final int MAX_DESIRED_COURSES = 3;
+    private static final DayOfWeek[] DAYS = {
+            DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY
+    };
+
+    /**
+     * @param students        Anzahl Schüler (alle iLa-Mitglieder mit Klassenstufe)
+     * @param blocks          Anzahl Blöcke, reihum auf die Wochentage verteilt
+     * @param courses         Anzahl Kurse, reihum auf die Blöcke verteilt
+     * @param capacityFactor  Plätze im Verhältnis zum Bedarf ({@code students * 3}), z.B. 1.15
+     * @param preferenceSkew  Zipf-Exponent der Kursbeliebtheit
+     * @param exclusionRate   Anteil Schüler mit ein oder zwei gesperrten Blöcken
+     * @param presetRate      Anteil Schüler mit einem Preset
+     * @param exchangeRate    Anteil Schüler mit einem offenen Wechselwunsch
+     * @param seed            Seed des Generators
+     */
+    public record Spec(int students, int blocks, int courses, double capacityFactor, double preferenceSkew,
+                       double exclusionRate, double presetRate, double exchangeRate, long seed) {
+
+        /**
+         * Größenordnung einer realen Schule: 8 Blöcke, ein Kurs je 20 Schüler.
+         */
+        public static Spec of(int students, double preferenceSkew) {
+            return new Spec(students, 8, Math.max(16, students / 20), 1.15, preferenceSkew, 0.1, 0.05, 0.2, 42L);
+        }
+    }
+
+    private final Spec spec;
+    private final Period period;
+    private final List<Block> blocks = new ArrayList<>();
+    private final List<Course> courses = new ArrayList<>();
+    private final List<CourseBlockAssignment> courseBlockAssignments = new ArrayList<>();
+    private final List<User> students = new ArrayList<>();
+    private final List<Preference> preferences = new ArrayList<>();
+    private final Map<String, Set<Long>> blockExclusions = new HashMap<>();
+    private final List<CourseUserAssignment> assignments = new ArrayList<>();
+    private final List<ExchangeRequest> exchangeRequests = new ArrayList<>();
+
+    // Ausgangszustand der Zuweisungen für reset()
+    private final Course[] initialCourse;
+    private final Block[] initialBlock;
+    private final boolean[] initialPreset;
+
+    private final Random random;
+    private final Map<Long, Block> courseToBlock = new HashMap<>();
+    private final Map<Long, Double> popularity = new HashMap<>();
+    private long nextId = 1;
+
+    private SyntheticSchool(Spec spec) {
+        this.spec = spec;
+        this.random = new Random(spec.seed());
+        this.period = Period.builder()
+                .id(nextId++)
+                .name("Benchmark")
+                .current(true)
+                .exchangePhaseStart(LocalDateTime.now().minusDays(1))
+                .exchangePhaseEnd(LocalDateTime.now().plusDays(1))
+                .build();
+
+        createBlocks();
+        createCourses();
+        assignPopularity(spec.preferenceSkew());
+        createStudents();
+        createInitialAssignments();
+        createExchangeRequests();
+
+        this.initialCourse = new Course[assignments.size()];
+        this.initialBlock = new Block[assignments.size()];
+        this.initialPreset = new boolean[assignments.size()];
+        for (int i = 0; i < assignments.size(); i++) {
+            initialCourse[i] = assignments.get(i).getCourse();
+            initialBlock[i] = assignments.get(i).getBlock();
+            initialPreset[i] = assignments.get(i).isPreset();
+        }
+    }
+
+    public static SyntheticSchool generate(Spec spec) {
+        return new SyntheticSchool(spec);
+    }
+
+    /**
+     * Setzt Zuweisungen und Wechselwünsche auf den generierten Zustand zurück, damit jeder Benchmark-Aufruf
+     * dieselbe Ausgangslage hat.
+     */
+    public void reset() {
+        for (int i = 0; i < assignments.size(); i++) {
+            CourseUserAssignment assignment = assignments.get(i);
+            assignment.setCourse(initialCourse[i]);
+            assignment.setBlock(initialBlock[i]);
+            assignment.setPreset(initialPreset[i]);
+        }
+        for (ExchangeRequest request : exchangeRequests) {
+            request.setStatus(ExchangeRequestStatus.PENDING);
+            request.setResolvedAt(null);
+            request.setFulfilledWithCourse(null);
+            request.setRejectionReason(null);
+            request.setResolutionTrace(null);
+        }
+    }
+
+    public Block getBlockForCourse(Course course) {
+        return courseToBlock.get(course.getId());
+    }
+
+    private void createBlocks() {
+        for (int i = 0; i < spec.blocks(); i++) {
+            int slotOfDay = i / DAYS.length;
+            blocks.add(Block.builder()
+                    .id(nextId++)
+                    .period(period)
+                    .dayOfWeek(DAYS[i % DAYS.length])
+                    .startTime(LocalTime.of(13 + slotOfDay, 0))
+                    .endTime(LocalTime.of(14 + slotOfDay, 0))
+                    .build());
+        }
+    }
+
+    private void createCourses() {
+        int averageCapacity = (int) Math.ceil(spec.students() * COURSES_PER_STUDENT * spec.capacityFactor()
+                / Math.max(1, spec.courses()));
+        CourseCategory[] categories = CourseCategory.values();
+
+        for (int i = 0; i < spec.courses(); i++) {
+            Set<CourseCategory> courseCategories = new HashSet<>();
+            courseCategories.add(categories[random.nextInt(categories.length)]);
+            if (random.nextInt(4) == 0) {
+                courseCategories.add(categories[random.nextInt(categories.length)]);
+            }
+            Set<Integer> grades = new HashSet<>();
+            if (random.nextInt(4) == 0) {
+                int from = 5 + random.nextInt(4);
+                for (int grade = from; grade < from + 3; grade++) {
+                    grades.add(grade);
+                }
+            }
+            Set<Gender> excludedGenders = new HashSet<>();
+            if (random.nextInt(20) == 0) {
+                excludedGenders.add(random.nextBoolean() ? Gender.male : Gender.female);
+            }
+
+            Course course = Course.builder()
+                    .id(nextId++)
+                    .courseId("K" + i)
+                    .period(period)
+                    .name("Kurs " + i)
+                    .courseCategories(courseCategories)
+                    .grades(grades)
+                    .excludedGenders(excludedGenders)
+                    .maxAttendees(Math.max(4, averageCapacity - 4 + random.nextInt(9)))
+                    .manualAssignmentOnly(random.nextInt(40) == 0)
+                    .placeholder(random.nextInt(50) == 0)
+                    .build();
+            courses.add(course);
+
+            Block block = blocks.get(i % blocks.size());
+            courseBlockAssignments.add(CourseBlockAssignment.builder()
+                    .id(nextId++)
+                    .course(course)
+                    .block(block)
+                    .build());
+            courseToBlock.put(course.getId(), block);
+        }
+    }
+
+    private void createStudents() {
+        Gender[] genders = {Gender.male, Gender.female, Gender.diverse};
+        for (int i = 0; i < spec.students(); i++) {
+            User student = new User();
+            student.setUserName("schueler" + i);
+            student.setFirstName("Schüler");
+            student.setLastName(String.valueOf(i));
+            student.setEmail("schueler" + i + "@example.org");
+            student.setGrade(5 + random.nextInt(6));
+            student.setGender(genders[random.nextInt(genders.length)]);
+            student.setRoles(new ArrayList<>(List.of(Role.STUDENT)));
+            student.setIlaMember(true);
+            students.add(student);
+
+            if (random.nextDouble() < spec.exclusionRate()) {
+                Set<Long> excluded = new HashSet<>();
+                excluded.add(blocks.get(random.nextInt(blocks.size())).getId());
+                if (random.nextBoolean()) {
+                    excluded.add(blocks.get(random.nextInt(blocks.size())).getId());
+                }
+                blockExclusions.put(student.getUserName(), excluded);
+            }
+
+            for (Block block : blocks) {
+                List<Course> chosen = sampleByPopularity(coursesInBlock(block), random.nextInt(MAX_PREFERENCES_PER_BLOCK + 1));
+                for (int priority = 0; priority < chosen.size(); priority++) {
+                    preferences.add(Preference.builder()
+                            .id(nextId++)
+                            .user(student)
+                            .block(block)
+                            .course(chosen.get(priority))
+                            .preferenceIndex(priority)
+                            .build());
+                }
+            }
+
+            if (random.nextDouble() < spec.presetRate()) {
+                Course course = courses.get(random.nextInt(courses.size()));
+                assignments.add(CourseUserAssignment.builder()
+                        .id(nextId++)
+                        .user(student)
+                        .course(course)
+                        .block(getBlockForCourse(course))
+                        .preset(true)
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * Einfache Erstverteilung: reihum je Schüler die beste noch mögliche Präferenz, bis alle drei Kurse belegt
+     * sind oder nichts mehr passt. Genügt als Ausgangslage für die Wechselwünsche.
+     */
+    private void createInitialAssignments() {
+        Map<Course, Integer> attendees = new HashMap<>();
+        Map<String, List<CourseUserAssignment>> byStudent = new HashMap<>();
+        for (CourseUserAssignment preset : assignments) {
+            attendees.merge(preset.getCourse(), 1, Integer::sum);
+            byStudent.computeIfAbsent(preset.getUser().getUserName(), userName -> new ArrayList<>()).add(preset);
+        }
+        Map<String, List<Preference>> preferencesByStudent = new HashMap<>();
+        for (Preference preference : preferences) {
+            preferencesByStudent.computeIfAbsent(preference.getUser().getUserName(), userName -> new ArrayList<>())
+                    .add(preference);
+        }
+        preferencesByStudent.values().forEach(list -> list.sort(Comparator.comparingInt(Preference::getPreferenceIndex)));
+
+        List<User> order = new ArrayList<>(students);
+        Collections.shuffle(order, random);
+        for (int round = 0; round < COURSES_PER_STUDENT; round++) {
+            for (User student : order) {
+                List<CourseUserAssignment> current = byStudent.computeIfAbsent(student.getUserName(), userName -> new ArrayList<>());
+                if (current.size() >= COURSES_PER_STUDENT) {
+                    continue;
+                }
+                for (Preference preference : preferencesByStudent.getOrDefault(student.getUserName(), List.of())) {
+                    Course course = preference.getCourse();
+                    Block block = getBlockForCourse(course);
+                    if (isAssignable(student, course, block, current, attendees)) {
+                        CourseUserAssignment assignment = CourseUserAssignment.builder()
+                                .id(nextId++)
+                                .user(student)
+                                .course(course)
+                                .block(block)
+                                .build();
+                        assignments.add(assignment);
+                        current.add(assignment);
+                        attendees.merge(course, 1, Integer::sum);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isAssignable(User student, Course course, Block block, List<CourseUserAssignment> current,
+                                 Map<Course, Integer> attendees) {
+        if (course.isManualAssignmentOnly() || course.isPlaceholder()) {
+            return false;
+        }
+        if (attendees.getOrDefault(course, 0) >= course.getMaxAttendees()) {
+            return false;
+        }
+        if (blockExclusions.getOrDefault(student.getUserName(), Set.of()).contains(block.getId())) {
+            return false;
+        }
+        if (!course.getGrades().isEmpty() && !course.getGrades().contains(student.getGrade())) {
+            return false;
+        }
+        if (course.getExcludedGenders().contains(student.getGender())) {
+            return false;
+        }
+        return current.stream().noneMatch(a -> a.getBlock().getDayOfWeek() == block.getDayOfWeek());
+    }
+
+    private void createExchangeRequests() {
+        Map<String, List<CourseUserAssignment>> byStudent = new HashMap<>();
+        for (CourseUserAssignment assignment : assignments) {
+            if (!assignment.isPreset()) {
+                byStudent.computeIfAbsent(assignment.getUser().getUserName(), userName -> new ArrayList<>()).add(assignment);
+            }
+        }
+
+        for (User student : students) {
+            List<CourseUserAssignment> candidates = byStudent.get(student.getUserName());
+            if (candidates == null || random.nextDouble() >= spec.exchangeRate()) {
+                continue;
+            }
+            CourseUserAssignment giveUp = candidates.get(random.nextInt(candidates.size()));
+
+            List<Course> others = courses.stream()
+                    .filter(course -> course != giveUp.getCourse())
+                    .toList();
+            List<Course> desired = sampleByPopularity(others, 1 + random.nextInt(MAX_DESIRED_COURSES));
+
+            ExchangeRequest request = ExchangeRequest.builder()
+                    .id(nextId++)
+                    .student(student)
+                    .period(period)
+                    .currentAssignment(giveUp)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            for (int priority = 0; priority < desired.size(); priority++) {
+                request.addDesiredCourse(desired.get(priority), priority + 1);
+            }
+            exchangeRequests.add(request);
+        }
+    }
+
+    private List<Course> coursesInBlock(Block block) {
+        List<Course> result = new ArrayList<>();
+        for (CourseBlockAssignment cba : courseBlockAssignments) {
+            if (cba.getBlock() == block) {
+                result.add(cba.getCourse());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Zieht bis zu {@code count} verschiedene Kurse, gewichtet nach Beliebtheit; die Reihenfolge ist die Ziehung.
+     */
+    private List<Course> sampleByPopularity(List<Course> candidates, int count) {
+        List<Course> pool = new ArrayList<>(candidates);
+        List<Course> result = new ArrayList<>(count);
+        while (result.size() < count && !pool.isEmpty()) {
+            double total = 0;
+            for (Course course : pool) {
+                total += popularity(course);
+            }
+            double pick = random.nextDouble() * total;
+            int index = 0;
+            for (; index < pool.size() - 1; index++) {
+                pick -= popularity(pool.get(index));
+                if (pick < 0) {
+                    break;
+                }
+            }
+            result.add(pool.remove(index));
+        }
+        return result;
+    }
+
+    private double popularity(Course course) {
+        return popularity.get(course.getId());
+    }
+
+    /**
+     * Zipf-Gewichte {@code 1 / rank^skew} in zufälliger Rang-Reihenfolge.
+     */
+    private void assignPopularity(double skew) {
+        List<Integer> ranks = new ArrayList<>(courses.size());
+        for (int rank = 1; rank <= courses.size(); rank++) {
+            ranks.add(rank);
+        }
+        Collections.shuffle(ranks, random);
+        for (int i = 0; i < courses.size(); i++) {
+            popularity.put(courses.get(i).getId(), 1.0 / Math.pow(ranks.get(i), skew));
+        }
+    }
+}
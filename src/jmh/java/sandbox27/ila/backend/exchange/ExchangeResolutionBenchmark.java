@@ -0,0 +1,108 @@
+package sandbox27.ila.backend.exchange;
+
+import org.openjdk.jmh.annotations.*;
+import sandbox27.ila.backend.assignments.StudentFairnessService;
+import sandbox27.ila.backend.benchmark.InMemoryRepositories;
+import sandbox27.ila.backend.benchmark.SyntheticSchool;
+import sandbox27.ila.backend.course.CourseSeatService;
+import sandbox27.ila.backend.exclusion.UserBlockExclusionService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst {@link CourseExchangeService#resolveExchangeRequests} über einer {@link SyntheticSchool}.
+ * <p>
+ * Vor jedem Aufruf werden Zuweisungen und Wechselwünsche auf den generierten Stand zurückgesetzt. Am Ende
+ * jedes Trials werden die Qualität des letzten Laufs (erfüllte Wünsche, durchschnittlich erreichte
+ * Wunsch-Priorität, Runden) und die Repository-Aufrufe je Auflösung ausgegeben.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExchangeResolutionBenchmark {
+
+    @Param({"500", "1500"})
+    int students;
+
+    @Param({"0.0", "1.2"})
+    double preferenceSkew;
+
+    @Param({"0.2"})
+    double exchangeRate;
+
+    private SyntheticSchool school;
+    private InMemoryRepositories repositories;
+    private CourseExchangeService service;
+    private ExchangeResolutionResult lastResult;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticSchool.Spec defaults = SyntheticSchool.Spec.of(students, preferenceSkew);
+        school = SyntheticSchool.generate(new SyntheticSchool.Spec(defaults.students(), defaults.blocks(),
+                defaults.courses(), defaults.capacityFactor(), defaults.preferenceSkew(), defaults.exclusionRate(),
+                defaults.presetRate(), exchangeRate, defaults.seed()));
+        repositories = new InMemoryRepositories(school);
+
+        UserBlockExclusionService exclusionService = new UserBlockExclusionService(
+                repositories.userBlockExclusionRepository(), repositories.userRepository(),
+                repositories.blockRepository(), repositories.periodRepository(),
+                repositories.eventPublisher());
+        CourseEligibilityService eligibilityService = new CourseEligibilityService(
+                repositories.courseUserAssignmentRepository(),
+                repositories.courseBlockAssignmentRepository(),
+                exclusionService,
+                repositories.courseRepository());
+        service = new CourseExchangeService(
+                repositories.exchangeRequestRepository(),
+                repositories.courseUserAssignmentRepository(),
+                repositories.courseRepository(),
+                repositories.periodRepository(),
+                eligibilityService,
+                new StudentFairnessService(repositories.studentFairnessScoreRepository(),
+                        repositories.courseUserAssignmentRepository(), repositories.userRepository(),
+                        repositories.periodRepository()),
+                repositories.eventPublisher(),
+                new ExchangeCourseCatalogCache(),
+                exclusionService,
+                new CourseSeatService(repositories.courseSeatCounterRepository(),
+                        repositories.courseUserAssignmentRepository(), repositories.courseRepository(),
+                        repositories.courseBlockAssignmentRepository()));
+    }
+
+    @Setup(Level.Invocation)
+    public void resetRequests() {
+        school.reset();
+        repositories.reset();
+    }
+
+    @Benchmark
+    public ExchangeResolutionResult resolve() {
+        lastResult = service.resolveExchangeRequests(school.getPeriod().getId());
+        return lastResult;
+    }
+
+    @TearDown(Level.Trial)
+    public void reportQuality() {
+        if (lastResult == null) {
+            return;
+        }
+        double achievedPriority = school.getExchangeRequests().stream()
+                .filter(request -> request.getStatus() == ExchangeRequestStatus.FULFILLED)
+                .mapToInt(request -> request.getDesiredCourses().stream()
+                        .filter(option -> option.getDesiredCourse() == request.getFulfilledWithCourse())
+                        .mapToInt(ExchangeRequestOption::getPriority)
+                        .findFirst()
+                        .orElse(0))
+                .average()
+                .orElse(0);
+        System.out.printf("%nQuality %d students, skew %.1f: %d requests, %d fulfilled (%.1f%%), %d unfulfillable, "
+                        + "avg achieved priority %.2f, %d rounds, %d events%n",
+                students, preferenceSkew, lastResult.getTotalRequests(), lastResult.getFulfilled(),
+                lastResult.getFulfillmentRate(), lastResult.getUnfulfillable(), achievedPriority,
+                lastResult.getRounds(), repositories.getPublishedEvents());
+        System.out.println("Repository calls per resolution: " + repositories.getCalls());
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import sandbox27.ila.backend.exchange.ExchangeResolutionStrategy;
 
 import java.util.concurrent.Executor;
 
@@ -23,6 +24,76 @@ public class BackendConfiguration {
         return executor;
     }
 
+    /**
+     * Eigener Executor für Kurszuweisungs-Jobs, damit lange Solver-Läufe keine Event-Threads blockieren.
+     */
+    @Bean(name = "assignmentJobExecutor")
+    public ThreadPoolTaskExecutor assignmentJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("assignment-job-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Ein Thread für die laufende Wechselwunsch-Zuordnung, damit Zuordnungen einer Periode nacheinander laufen.
+     */
+    @Bean(name = "exchangeMatchingExecutor")
+    public ThreadPoolTaskExecutor exchangeMatchingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("exchange-matching-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Je ein Thread für die Strategien eines Probelaufs der Wechselwunsch-Auflösung.
+     */
+    @Bean(name = "exchangeSimulationExecutor")
+    public ThreadPoolTaskExecutor exchangeSimulationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(ExchangeResolutionStrategy.values().length);
+        executor.setMaxPoolSize(ExchangeResolutionStrategy.values().length);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("exchange-simulation-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Versand der Mail-Outbox: je Thread eine SMTP-Verbindung je Stapel.
+     */
+    @Bean(name = "mailDispatchExecutor")
+    public ThreadPoolTaskExecutor mailDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("mail-dispatch-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Übertragung der Absence-Outbox an Beste.Schule; begrenzt die parallelen API-Aufrufe.
+     */
+    @Bean(name = "absenceDispatchExecutor")
+    public ThreadPoolTaskExecutor absenceDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("absence-dispatch-");
+        executor.initialize();
+        return executor;
+    }
+
     @Bean
     ModelMapper modelMapper() {
         ModelMapper modelMapper = new ModelMapper();
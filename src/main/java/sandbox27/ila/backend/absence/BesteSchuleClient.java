@@ -8,7 +8,9 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 import sandbox27.ila.backend.absence.BesteSchuleDto.*;
+import sandbox27.ila.backend.besteschule.BesteSchulePageFetcher;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -28,86 +30,112 @@ public class BesteSchuleClient {
     private final String apiUrl;
     private final String apiToken;
     private final String absenceWriteToken;
+    private final String absenceDateFilter;
+    private final BesteSchulePageFetcher pageFetcher;
 
     public BesteSchuleClient(
             @Value("${besteschule.api.url:https://beste.schule/api}") String apiUrl,
             @Value("${besteschule.api.token:}") String apiToken,
-            @Value("${besteschule.api.absence-write-token:}") String absenceWriteToken
+            @Value("${besteschule.api.absence-write-token:}") String absenceWriteToken,
+            @Value("${besteschule.api.absence-date-filter:}") String absenceDateFilter,
+            BesteSchulePageFetcher pageFetcher
     ) {
         this.restTemplate = new RestTemplate();
         this.apiUrl = apiUrl;
         this.apiToken = apiToken;
         this.absenceWriteToken = absenceWriteToken;
+        this.absenceDateFilter = absenceDateFilter;
+        this.pageFetcher = pageFetcher;
     }
 
     /**
      * Ruft alle Abwesenheiten ab (mit automatischer Paginierung).
      * Verwendet den Lese-Token (apiToken).
+     *
+     * @return alle Abwesenheiten, auch eine leere Liste, oder Optional.empty(), wenn der Abruf fehlgeschlagen ist
      */
-    public List<AbsenceResponse> fetchAllAbsences() {
+    public Optional<List<AbsenceResponse>> fetchAllAbsences() {
         return fetchAbsencesWithPagination(null);
     }
 
+    /**
+     * Ruft die Abwesenheiten ab, die ein Datum betreffen können. Mit {@code besteschule.api.absence-date-filter}
+     * (Query-Parameter, {@code {date}} wird durch das Datum ersetzt) filtert bereits die API, sonst werden alle
+     * Abwesenheiten geladen. Der Aufrufer muss in beiden Fällen selbst auf das Datum filtern.
+     *
+     * @return wie {@link #fetchAllAbsences}
+     */
+    public Optional<List<AbsenceResponse>> fetchAbsencesForDate(LocalDate date) {
+        if (absenceDateFilter == null || absenceDateFilter.isBlank()) {
+            return fetchAllAbsences();
+        }
+        return fetchAbsencesWithPagination(absenceDateFilter.replace("{date}", date.toString()));
+    }
+
     /**
      * Ruft Abwesenheiten ab, die nach einem bestimmten Zeitpunkt erfasst wurden.
+     *
+     * @return alle Seiten, oder Optional.empty() ohne Token oder wenn eine Seite fehlschlägt; eine leere Liste
+     *         heißt, dass Beste.Schule tatsächlich keine Abwesenheiten geliefert hat
      */
-    public List<AbsenceResponse> fetchAbsencesWithPagination(String additionalParams) {
+    public Optional<List<AbsenceResponse>> fetchAbsencesWithPagination(String additionalParams) {
         if (apiToken == null || apiToken.isBlank()) {
             log.warn("Beste.Schule API-Token nicht konfiguriert - Sync übersprungen");
-            return Collections.emptyList();
+            return Optional.empty();
         }
 
         List<AbsenceResponse> allAbsences = new ArrayList<>();
-        int page = 1;
         int maxPages = 100;
 
         try {
-            while (page <= maxPages) {
-                String url = buildUrl(page, additionalParams);
-                log.debug("Rufe Beste.Schule API ab: Seite {}", page);
-
-                ResponseEntity<AbsencePageResponse> response = restTemplate.exchange(
-                        url,
-                        HttpMethod.GET,
-                        createReadRequestEntity(),
-                        AbsencePageResponse.class
-                );
-
-                if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
-                    log.error("Fehler bei Beste.Schule API: Status {}", response.getStatusCode());
-                    break;
-                }
-
-                AbsencePageResponse pageResponse = response.getBody();
-                if (pageResponse.data() != null) {
-                    allAbsences.addAll(pageResponse.data());
-                }
-
-                MetaResponse meta = pageResponse.meta();
-                if (meta == null || meta.currentPage() >= meta.lastPage()) {
-                    break;
-                }
-
-                page++;
-            }
+            int pages = pageFetcher.fetchAll(apiUrl, maxPages,
+                    page -> fetchAbsencePage(page, additionalParams),
+                    pageResponse -> pageResponse.meta() != null ? pageResponse.meta().lastPage() : 0,
+                    pageResponse -> {
+                        if (pageResponse.data() != null) {
+                            allAbsences.addAll(pageResponse.data());
+                        }
+                    });
 
-            log.info("Beste.Schule: {} Abwesenheiten von {} Seiten abgerufen", allAbsences.size(), page);
+            log.info("Beste.Schule: {} Abwesenheiten von {} Seiten abgerufen", allAbsences.size(), pages);
 
         } catch (RestClientException e) {
+            // Unvollständige Daten würden beim Abgleich als gelöschte Abwesenheiten gelten
             log.error("Fehler beim Abrufen der Beste.Schule API: {}", e.getMessage(), e);
+            return Optional.empty();
         }
 
-        return allAbsences;
+        return Optional.of(allAbsences);
+    }
+
+    private AbsencePageResponse fetchAbsencePage(int page, String additionalParams) {
+        String url = buildUrl(page, additionalParams);
+        log.debug("Rufe Beste.Schule API ab: Seite {}", page);
+
+        ResponseEntity<AbsencePageResponse> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                createReadRequestEntity(),
+                AbsencePageResponse.class
+        );
+
+        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+            throw new RestClientException("Fehler bei Beste.Schule API: Status " + response.getStatusCode()
+                    + " auf Seite " + page);
+        }
+        return response.getBody();
     }
 
     /**
      * Trägt eine Abwesenheit in Beste.Schule ein.
      * Verwendet den Schreib-Token (absenceWriteToken).
      *
+     * @param idempotencyKey wird als {@code Idempotency-Key} mitgeschickt, damit ein Wiederholungsversuch
+     *                       nach verlorener Antwort keine zweite Abwesenheit anlegt; darf null sein
      * @return Optional mit der von Beste.Schule vergebenen Absence-ID
      *         oder Optional.empty() bei Fehler / fehlendem Token.
      */
-    public Optional<Long> createAbsence(CreateAbsenceRequest request) {
+    public Optional<Long> createAbsence(CreateAbsenceRequest request, String idempotencyKey) {
         if (absenceWriteToken == null || absenceWriteToken.isBlank()) {
             log.warn("Beste.Schule Absence-Write-Token nicht konfiguriert " +
                     "(besteschule.api.absence-write-token) - Abwesenheit kann nicht eingetragen werden");
@@ -121,6 +149,7 @@ public class BesteSchuleClient {
             headers.setBearerAuth(absenceWriteToken);
             headers.setContentType(MediaType.APPLICATION_JSON);
             headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+            setIdempotencyKey(headers, idempotencyKey);
 
             HttpEntity<CreateAbsenceRequest> entity = new HttpEntity<>(request, headers);
 
@@ -161,9 +190,10 @@ public class BesteSchuleClient {
      * Löscht eine Abwesenheit in Beste.Schule.
      * Verwendet den Schreib-Token (absenceWriteToken).
      *
+     * @param idempotencyKey wird als {@code Idempotency-Key} mitgeschickt; darf null sein
      * @return true bei Erfolg (2xx oder 404 = bereits weg), false sonst.
      */
-    public boolean deleteAbsence(long absenceId) {
+    public boolean deleteAbsence(long absenceId, String idempotencyKey) {
         if (absenceWriteToken == null || absenceWriteToken.isBlank()) {
             log.warn("Beste.Schule Absence-Write-Token nicht konfiguriert - " +
                     "Abwesenheit {} kann nicht gelöscht werden", absenceId);
@@ -176,6 +206,7 @@ public class BesteSchuleClient {
             HttpHeaders headers = new HttpHeaders();
             headers.setBearerAuth(absenceWriteToken);
             headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+            setIdempotencyKey(headers, idempotencyKey);
 
             ResponseEntity<String> response = restTemplate.exchange(
                     url,
@@ -216,6 +247,12 @@ public class BesteSchuleClient {
         return builder.toUriString();
     }
 
+    private static void setIdempotencyKey(HttpHeaders headers, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            headers.set("Idempotency-Key", idempotencyKey);
+        }
+    }
+
     /**
      * Request-Entity für lesende Zugriffe (mit apiToken).
      */
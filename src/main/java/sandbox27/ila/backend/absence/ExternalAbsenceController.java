@@ -38,6 +38,8 @@ public class ExternalAbsenceController {
                 targetDate,
                 result.totalRelevant(),
                 result.created(),
+                result.updated(),
+                result.deleted(),
                 result.errors(),
                 result.message(),
                 result.isSuccess()
@@ -91,6 +93,8 @@ public class ExternalAbsenceController {
             LocalDate date,
             int totalRelevant,
             int created,
+            int updated,
+            int deleted,
             int errors,
             String message,
             boolean success
@@ -0,0 +1,119 @@
+package sandbox27.ila.backend.absence;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sandbox27.ila.backend.absence.events.ExternalAbsencesChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Hält alle gespeicherten {@link ExternalAbsence}s im Speicher, je Schüler ({@code studentLocalId}) nach
+ * {@code fromDateTime} sortiert. Die Abfrage „abwesend zum Zeitpunkt t?“ ist eine binäre Suche statt einer
+ * Datenbankabfrage je Schüler.
+ * <p>
+ * Der Index wird beim ersten Zugriff geladen und nach jedem Commit, der Abwesenheiten ändert
+ * ({@link ExternalAbsencesChangedEvent}), komplett neu aufgebaut und danach atomar ausgetauscht; Leser sehen immer
+ * einen vollständigen Stand. Die enthaltenen Entities sind losgelöst und dürfen nur gelesen werden.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExternalAbsenceIndex {
+
+    private final ExternalAbsenceRepository absenceRepository;
+
+    private volatile Map<String, StudentAbsences> byStudent;
+
+    /**
+     * Liefert eine Abwesenheit des Schülers, die den Zeitpunkt einschließt; bei mehreren die zuletzt begonnene.
+     */
+    public Optional<ExternalAbsence> findActive(String studentLocalId, LocalDateTime dateTime) {
+        StudentAbsences absences = current().get(studentLocalId);
+        return absences != null ? absences.findActive(dateTime) : Optional.empty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExternalAbsencesChanged(ExternalAbsencesChangedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Lädt alle Abwesenheiten und tauscht den Index aus. Schlägt das Laden fehl, bleibt der bisherige Stand.
+     */
+    public synchronized void rebuild() {
+        Map<String, List<ExternalAbsence>> grouped = absenceRepository.findAll().stream()
+                .filter(absence -> absence.getStudentLocalId() != null
+                        && absence.getFromDateTime() != null && absence.getToDateTime() != null)
+                .collect(Collectors.groupingBy(ExternalAbsence::getStudentLocalId));
+
+        Map<String, StudentAbsences> rebuilt = new HashMap<>(grouped.size() * 2);
+        int count = 0;
+        for (Map.Entry<String, List<ExternalAbsence>> entry : grouped.entrySet()) {
+            rebuilt.put(entry.getKey(), new StudentAbsences(entry.getValue()));
+            count += entry.getValue().size();
+        }
+        byStudent = Collections.unmodifiableMap(rebuilt);
+        log.debug("Abwesenheitsindex neu aufgebaut: {} Abwesenheiten von {} Schülern", count, rebuilt.size());
+    }
+
+    private Map<String, StudentAbsences> current() {
+        Map<String, StudentAbsences> current = byStudent;
+        if (current == null) {
+            synchronized (this) {
+                if (byStudent == null) {
+                    rebuild();
+                }
+                current = byStudent;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Abwesenheiten eines Schülers, sortiert nach Beginn. {@code maxTo[i]} ist das späteste Ende unter den ersten
+     * {@code i + 1} Einträgen; damit endet die Suche rückwärts, sobald kein früherer Eintrag mehr bis t reichen
+     * kann, auch wenn sich Zeiträume überlappen.
+     */
+    private static final class StudentAbsences {
+
+        private final ExternalAbsence[] byFrom;
+        private final LocalDateTime[] maxTo;
+
+        StudentAbsences(List<ExternalAbsence> absences) {
+            byFrom = absences.stream()
+                    .sorted(Comparator.comparing(ExternalAbsence::getFromDateTime))
+                    .toArray(ExternalAbsence[]::new);
+            maxTo = new LocalDateTime[byFrom.length];
+            for (int i = 0; i < byFrom.length; i++) {
+                LocalDateTime to = byFrom[i].getToDateTime();
+                maxTo[i] = i > 0 && maxTo[i - 1].isAfter(to) ? maxTo[i - 1] : to;
+            }
+        }
+
+        Optional<ExternalAbsence> findActive(LocalDateTime dateTime) {
+            // Letzter Eintrag mit fromDateTime <= dateTime
+            int low = 0;
+            int high = byFrom.length - 1;
+            int last = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (byFrom[mid].getFromDateTime().isAfter(dateTime)) {
+                    high = mid - 1;
+                } else {
+                    last = mid;
+                    low = mid + 1;
+                }
+            }
+            for (int i = last; i >= 0 && !maxTo[i].isBefore(dateTime); i--) {
+                if (!byFrom[i].getToDateTime().isBefore(dateTime)) {
+                    return Optional.of(byFrom[i]);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+}
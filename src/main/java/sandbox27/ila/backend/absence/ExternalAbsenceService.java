@@ -2,9 +2,11 @@ package sandbox27.ila.backend.absence;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sandbox27.ila.backend.absence.BesteSchuleDto.AbsenceResponse;
+import sandbox27.ila.backend.absence.events.ExternalAbsencesChangedEvent;
 import sandbox27.ila.backend.user.User;
 import sandbox27.ila.backend.user.UserRepository;
 
@@ -27,6 +29,8 @@ public class ExternalAbsenceService {
     private final ExternalAbsenceRepository absenceRepository;
     private final BesteSchuleClient besteSchuleClient;
     private final UserRepository userRepository;
+    private final ExternalAbsenceIndex absenceIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final DateTimeFormatter BESTE_SCHULE_FORMAT = 
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -42,17 +46,24 @@ public class ExternalAbsenceService {
 
     /**
      * Synchronisiert die Abwesenheiten für ein bestimmtes Datum.
+     * <p>
+     * Gleicht die gespeicherten Einträge des Datums über die {@code externalId} ab: neue werden angelegt, geänderte
+     * aktualisiert, nicht mehr gelieferte gelöscht; unveränderte bleiben unberührt. Alles läuft in einer
+     * Transaktion, Leser sehen also nie ein Datum ohne Abwesenheiten.
+     * <p>
+     * Liefert Beste.Schule erfolgreich keine Abwesenheiten, werden alle gespeicherten des Datums gelöscht. Schlägt
+     * der Abruf fehl, bleibt der gespeicherte Stand unverändert und das Ergebnis meldet den Fehler.
      */
     @Transactional
     public SyncResult syncAbsencesForDate(LocalDate date) {
         log.info("Starte Sync der Abwesenheiten für {}", date);
 
-        List<AbsenceResponse> allAbsences = besteSchuleClient.fetchAllAbsences();
-        
-        if (allAbsences.isEmpty()) {
-            log.warn("Keine Abwesenheiten von Beste.Schule abgerufen");
-            return new SyncResult(0, 0, 0, "Keine Daten von API");
+        Optional<List<AbsenceResponse>> fetched = besteSchuleClient.fetchAbsencesForDate(date);
+        if (fetched.isEmpty()) {
+            log.warn("Abwesenheiten von Beste.Schule konnten nicht abgerufen werden, gespeicherter Stand bleibt");
+            return new SyncResult(0, 0, 0, 0, 0, "Abruf von Beste.Schule fehlgeschlagen");
         }
+        List<AbsenceResponse> allAbsences = fetched.get();
 
         // Filtere nur Abwesenheiten, die das angegebene Datum betreffen
         List<AbsenceResponse> relevantAbsences = allAbsences.stream()
@@ -62,19 +73,39 @@ public class ExternalAbsenceService {
         log.info("Von {} Abwesenheiten sind {} für {} relevant", 
                 allAbsences.size(), relevantAbsences.size(), date);
 
-        // Alte Einträge für dieses Datum löschen
-        absenceRepository.deleteByDate(date);
+        // Gespeicherte Einträge des Datums nach externer ID; doppelte aus früheren Importen werden entfernt
+        Map<Long, ExternalAbsence> stored = new HashMap<>();
+        List<ExternalAbsence> obsolete = new ArrayList<>();
+        for (ExternalAbsence absence : absenceRepository.findByDate(date)) {
+            if (stored.putIfAbsent(absence.getExternalId(), absence) != null) {
+                obsolete.add(absence);
+            }
+        }
 
-        // Neue Einträge speichern
         int created = 0;
+        int updated = 0;
         int errors = 0;
         LocalDateTime now = LocalDateTime.now();
+        List<ExternalAbsence> changed = new ArrayList<>();
 
         for (AbsenceResponse absence : relevantAbsences) {
+            // Auch bei Fehlern behalten wir den gespeicherten Stand, statt ihn zu löschen
+            ExternalAbsence existing = stored.remove(absence.id());
             try {
-                ExternalAbsence entity = mapToEntity(absence, date, now);
-                absenceRepository.save(entity);
-                created++;
+                ExternalAbsence incoming = mapToEntity(absence, date, now);
+                if (existing == null) {
+                    changed.add(incoming);
+                    created++;
+                } else if (!sameContent(existing, incoming)) {
+                    existing.setStudentLocalId(incoming.getStudentLocalId());
+                    existing.setBesteSchuleStudentId(incoming.getBesteSchuleStudentId());
+                    existing.setFromDateTime(incoming.getFromDateTime());
+                    existing.setToDateTime(incoming.getToDateTime());
+                    existing.setAbsenceType(incoming.getAbsenceType());
+                    existing.setFetchedAt(now);
+                    changed.add(existing);
+                    updated++;
+                }
             } catch (Exception e) {
                 log.warn("Fehler beim Importieren der Abwesenheit {}: {}", 
                         absence.id(), e.getMessage());
@@ -82,12 +113,25 @@ public class ExternalAbsenceService {
             }
         }
 
-        log.info("Sync abgeschlossen: {} erstellt, {} Fehler", created, errors);
-        return new SyncResult(relevantAbsences.size(), created, errors, null);
+        // Was Beste.Schule nicht mehr liefert, wurde dort gelöscht oder betrifft das Datum nicht mehr
+        obsolete.addAll(stored.values());
+
+        absenceRepository.saveAll(changed);
+        if (!obsolete.isEmpty()) {
+            absenceRepository.deleteAllInBatch(obsolete);
+        }
+
+        log.info("Sync abgeschlossen: {} erstellt, {} aktualisiert, {} gelöscht, {} Fehler",
+                created, updated, obsolete.size(), errors);
+        if (!changed.isEmpty() || !obsolete.isEmpty()) {
+            eventPublisher.publishEvent(new ExternalAbsencesChangedEvent());
+        }
+        return new SyncResult(relevantAbsences.size(), created, updated, obsolete.size(), errors, null);
     }
 
     /**
-     * Prüft, ob ein Schüler zu einem bestimmten Zeitpunkt als abwesend gemeldet ist.
+     * Prüft, ob ein Schüler zu einem bestimmten Zeitpunkt als abwesend gemeldet ist. Beantwortet aus dem
+     * {@link ExternalAbsenceIndex}, ohne Datenbankabfrage.
      *
      * @param user     Der Benutzer (Schüler)
      * @param dateTime Der zu prüfende Zeitpunkt
@@ -98,12 +142,7 @@ public class ExternalAbsenceService {
             return Optional.empty();
         }
 
-        List<ExternalAbsence> absences = absenceRepository.findActiveAbsences(
-                user.getInternalId(), 
-                dateTime
-        );
-
-        return absences.stream().findFirst();
+        return absenceIndex.findActive(user.getInternalId(), dateTime);
     }
 
     /**
@@ -129,7 +168,8 @@ public class ExternalAbsenceService {
 
     /**
      * Gibt die Abwesenheiten für mehrere Schüler an einem Datum/Uhrzeit zurück.
-     * Nützlich für die Anwesenheitserfassung.
+     * Nützlich für die Anwesenheitserfassung. Lädt nur die Benutzer; wer sie schon hat, nimmt
+     * {@link #getAbsencesForStudents}.
      *
      * @param userNames Liste der Benutzernamen
      * @param dateTime  Der zu prüfende Zeitpunkt
@@ -140,14 +180,9 @@ public class ExternalAbsenceService {
             LocalDateTime dateTime
     ) {
         // Lade alle Users mit ihren internalIds
-        List<User> users = userRepository.findAllById(userNames);
-        
-        Map<String, Optional<ExternalAbsence>> result = new HashMap<>();
-        
-        for (User user : users) {
-            result.put(user.getUserName(), getActiveAbsence(user, dateTime));
-        }
-        
+        Map<String, Optional<ExternalAbsence>> result =
+                getAbsencesForStudents(userRepository.findAllById(userNames), dateTime);
+
         // Für nicht gefundene User: empty
         for (String userName : userNames) {
             result.putIfAbsent(userName, Optional.empty());
@@ -156,6 +191,22 @@ public class ExternalAbsenceService {
         return result;
     }
 
+    /**
+     * Gibt die Abwesenheiten bereits geladener Schüler an einem Datum/Uhrzeit zurück, ohne Datenbankabfrage.
+     *
+     * @return Map von userName zu Optional<ExternalAbsence>
+     */
+    public Map<String, Optional<ExternalAbsence>> getAbsencesForStudents(
+            Collection<User> users,
+            LocalDateTime dateTime
+    ) {
+        Map<String, Optional<ExternalAbsence>> result = new HashMap<>();
+        for (User user : users) {
+            result.put(user.getUserName(), getActiveAbsence(user, dateTime));
+        }
+        return result;
+    }
+
     /**
      * Ermittelt die Beste.Schule Student-ID für einen Schüler anhand seiner internalId (SaxSVS UUID).
      * Sucht in den gespeicherten Abwesenheitsdaten nach einem Eintrag mit passender studentLocalId.
@@ -180,6 +231,9 @@ public class ExternalAbsenceService {
         LocalDate cutoffDate = LocalDate.now().minusDays(daysToKeep);
         int deleted = absenceRepository.deleteOlderThan(cutoffDate);
         log.info("Alte Abwesenheiten gelöscht: {} Einträge älter als {}", deleted, cutoffDate);
+        if (deleted > 0) {
+            eventPublisher.publishEvent(new ExternalAbsencesChangedEvent());
+        }
         return deleted;
     }
 
@@ -202,6 +256,14 @@ public class ExternalAbsenceService {
         }
     }
 
+    private boolean sameContent(ExternalAbsence stored, ExternalAbsence incoming) {
+        return Objects.equals(stored.getStudentLocalId(), incoming.getStudentLocalId())
+                && Objects.equals(stored.getBesteSchuleStudentId(), incoming.getBesteSchuleStudentId())
+                && Objects.equals(stored.getFromDateTime(), incoming.getFromDateTime())
+                && Objects.equals(stored.getToDateTime(), incoming.getToDateTime())
+                && Objects.equals(stored.getAbsenceType(), incoming.getAbsenceType());
+    }
+
     /**
      * Mappt eine API-Response zu einer Entity.
      */
@@ -239,6 +301,8 @@ public class ExternalAbsenceService {
     public record SyncResult(
             int totalRelevant,
             int created,
+            int updated,
+            int deleted,
             int errors,
             String message
     ) {
@@ -36,7 +36,8 @@ public class ExternalAbsenceSyncScheduler {
             ExternalAbsenceService.SyncResult result = externalAbsenceService.syncAbsencesForToday();
             
             if (result.isSuccess()) {
-                log.info("Abwesenheits-Sync erfolgreich: {} Einträge synchronisiert", result.created());
+                log.info("Abwesenheits-Sync erfolgreich: {} erstellt, {} aktualisiert, {} gelöscht",
+                        result.created(), result.updated(), result.deleted());
             } else {
                 log.warn("Abwesenheits-Sync mit Problemen: {} erstellt, {} Fehler, Nachricht: {}", 
                         result.created(), result.errors(), result.message());
@@ -0,0 +1,7 @@
+package sandbox27.ila.backend.absence.events;
+
+/**
+ * Gespeicherte externe Abwesenheiten wurden synchronisiert oder aufgeräumt.
+ */
+public record ExternalAbsencesChangedEvent() {
+}
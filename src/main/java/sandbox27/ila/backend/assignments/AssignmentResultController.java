@@ -19,6 +19,7 @@ import java.util.List;
 public class AssignmentResultController {
 
     final AssignmentResultService assignmentResultService;
+    final StudentFairnessService studentFairnessService;
 
     @RequiredRole(Role.ADMIN_ROLE_NAME)
     @PutMapping("/mark-final/{assignmentResultId}")
@@ -32,6 +33,18 @@ public class AssignmentResultController {
         assignmentResultService.deleteAssignmentResult(assignmentResultId);
     }
 
+    @RequiredRole(Role.ADMIN_ROLE_NAME)
+    @GetMapping("/fairness/{periodId}")
+    public List<StudentFairnessDto> getFairnessReport(@PathVariable("periodId") long periodId) {
+        return studentFairnessService.getReport(periodId);
+    }
+
+    @RequiredRole(Role.ADMIN_ROLE_NAME)
+    @PostMapping("/fairness/{periodId}")
+    public List<StudentFairnessDto> recomputeFairness(@PathVariable("periodId") long periodId) {
+        return studentFairnessService.recompute(periodId);
+    }
+
     @GetMapping("/is-finalized")
     public boolean isCurrentPeriodFinalized() {
         return assignmentResultService.isCurrentPeriodFinalized();
@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import sandbox27.ila.backend.assignments.algorithm.AssignmentResult;
 import sandbox27.ila.backend.assignments.algorithm.AssignmentResultRepository;
 import sandbox27.ila.backend.assignments.algorithm.CourseAssignmentService;
+import sandbox27.ila.backend.assignments.events.CourseAssignmentsChangedEvent;
+import sandbox27.ila.backend.course.CourseSeatService;
 import sandbox27.ila.backend.period.Period;
 import sandbox27.ila.backend.period.PeriodRepository;
 import sandbox27.infrastructure.error.ErrorCode;
@@ -23,6 +25,7 @@ public class AssignmentResultService {
     final AssignmentResultRepository assignmentResultRepository;
     final PeriodRepository periodRepository;
     final CourseUserAssignmentRepository courseUserAssignmentRepository;
+    final CourseSeatService courseSeatService;
 
     @Transactional
     public List<AssignmentResult> markCourseAssignmentProcessFinal(@PathVariable long assignmentResultId) throws ServiceException {
@@ -59,6 +62,8 @@ public class AssignmentResultService {
         // Nur beim letzten Durchlauf auch die algorithmischen Zuweisungen löschen
         if (isLatest) {
             courseUserAssignmentRepository.deleteByPresetFalseAndBlock_Period(period);
+            courseSeatService.resync(period.getId());
+            applicationEventPublisher.publishEvent(new CourseAssignmentsChangedEvent(period.getId()));
         }
     }
 }
@@ -28,6 +28,13 @@ public interface CourseUserAssignmentRepository extends JpaRepository<CourseUser
 
     List<CourseUserAssignment> findByCourse_idOrderByUser_LastName(Long courseId);
 
+    /**
+     * Wie {@link #findByCourse_idOrderByUser_LastName}, lädt Benutzer, Kurs und Block aber in derselben Abfrage.
+     */
+    @Query("select a from CourseUserAssignment a join fetch a.user u join fetch a.course join fetch a.block " +
+            "where a.course.id = :courseId order by u.lastName")
+    List<CourseUserAssignment> findByCourseIdWithDetails(@Param("courseId") long courseId);
+
     int deleteAllByPreset(boolean b);
 
     List<CourseUserAssignment> findByUser_userName(String userName);
@@ -97,4 +104,37 @@ public interface CourseUserAssignmentRepository extends JpaRepository<CourseUser
     int countByCourseAndBlock(Course course, Block block);
 
     void deleteByPresetFalseAndBlock_Period(Period period);
-}
\ No newline at end of file
+
+    /**
+     * Löscht alle Nicht-Preset-Zuweisungen der Kurse einer Periode mit einem einzigen Statement.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from CourseUserAssignment a where a.preset = false " +
+            "and a.course.id in (select c.id from Course c where c.period.id = :periodId)")
+    int deleteNonPresetByPeriodId(@Param("periodId") long periodId);
+
+    @Query("select a from CourseUserAssignment a join fetch a.user join fetch a.course join fetch a.block " +
+            "where a.course.period.id = :periodId")
+    List<CourseUserAssignment> findAllByPeriodIdWithDetails(@Param("periodId") long periodId);
+
+    /**
+     * Teilnehmerzahlen aller Kurse einer Periode je Kurs und Block: Zeilen {@code [courseId, blockId, count]}.
+     */
+    @Query("select a.course.id, a.block.id, count(a) from CourseUserAssignment a " +
+            "where a.course.period.id = :periodId group by a.course.id, a.block.id")
+    List<Object[]> countAttendeesByPeriodId(@Param("periodId") long periodId);
+
+    /**
+     * Durchschnittliche Präferenz-Priorität der nicht voreingestellten Kurse je Schüler; Kurse ohne passende
+     * Präferenz zählen nicht. Schüler ohne solche Kurse fehlen im Ergebnis.
+     */
+    @Query("""
+            select new sandbox27.ila.backend.assignments.StudentFairness(
+                a.user.userName, avg(p.preferenceIndex), count(p))
+            from CourseUserAssignment a
+            join Preference p on p.user = a.user and p.block = a.block and p.course = a.course
+            where a.preset = false and a.course.period.id = :periodId
+            group by a.user.userName
+            """)
+    List<StudentFairness> findFairnessByPeriodId(@Param("periodId") long periodId);
+}
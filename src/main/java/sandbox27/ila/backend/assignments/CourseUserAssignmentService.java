@@ -11,6 +11,7 @@ import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.bind.annotation.*;
 import sandbox27.ila.backend.assignments.events.CourseAssignmentDeleteEvent;
+import sandbox27.ila.backend.assignments.events.CourseAssignmentsChangedEvent;
 import sandbox27.ila.backend.block.Block;
 import sandbox27.ila.backend.block.BlockDto;
 import sandbox27.ila.backend.block.BlockRepository;
@@ -18,6 +19,7 @@ import sandbox27.ila.backend.course.Course;
 import sandbox27.ila.backend.course.CourseBlockAssignmentRepository;
 import sandbox27.ila.backend.course.CourseDto;
 import sandbox27.ila.backend.course.CourseRepository;
+import sandbox27.ila.backend.course.CourseSeatService;
 import sandbox27.ila.backend.course.events.CourseBlockChangedEvent;
 import sandbox27.ila.backend.courseexclusions.CourseExclusionRepository;
 import sandbox27.ila.backend.period.Period;
@@ -54,6 +56,7 @@ public class CourseUserAssignmentService {
     private final PeriodRepository periodRepository;
     private final ErrorHandlingService errorHandlingService;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final CourseSeatService courseSeatService;
 
     @GetMapping("/{blockId}")
     @Transactional
@@ -159,7 +162,9 @@ public class CourseUserAssignmentService {
                 .block(block)
                 .preset(true)
                 .build();
+        courseSeatService.reserve(course);
         courseUserAssignmentRepository.save(courseUserAssignment);
+        applicationEventPublisher.publishEvent(new CourseAssignmentsChangedEvent(period.getId()));
         return Feedback.builder()
                 .info(List.of("Zuweisung gespeichert."))
                 .build();
@@ -196,6 +201,7 @@ public class CourseUserAssignmentService {
         int assignmentCount = 0;
         int skippedExcluded = 0;
         int skippedDayConflict = 0;
+        int skippedFull = 0;
         List<String> warnings = new ArrayList<>();
 
         for (CourseUserAssignment sourceAssignment : sourceAssignments) {
@@ -223,6 +229,11 @@ public class CourseUserAssignmentService {
                 continue;
             }
 
+            if (!courseSeatService.tryReserve(destinationCourse)) {
+                skippedFull++;
+                continue;
+            }
+
             courseUserAssignmentRepository.save(
                     CourseUserAssignment.builder()
                             .user(user)
@@ -233,6 +244,10 @@ public class CourseUserAssignmentService {
             );
             assignmentCount++;
         }
+        if (assignmentCount > 0) {
+            applicationEventPublisher.publishEvent(
+                    new CourseAssignmentsChangedEvent(destinationCourse.getPeriod().getId()));
+        }
 
         List<String> infos = new ArrayList<>();
         infos.add(assignmentCount + " Teilnehmer:innen hinzugefügt.");
@@ -242,6 +257,9 @@ public class CourseUserAssignmentService {
         if (skippedDayConflict > 0) {
             infos.add(skippedDayConflict + " Teilnehmer:innen mit Tages-Konflikt übersprungen.");
         }
+        if (skippedFull > 0) {
+            warnings.add(skippedFull + " Teilnehmer:innen übersprungen, da der Kurs voll ist.");
+        }
         return new Feedback(infos, warnings, Collections.emptyList());
     }
 
@@ -253,7 +271,10 @@ public class CourseUserAssignmentService {
         CourseUserAssignment assignment = courseUserAssignmentRepository.findById(assignmentId)
                 .orElseThrow(() -> new ServiceException(ErrorCode.NotFound));
         applicationEventPublisher.publishEvent(new CourseAssignmentDeleteEvent(assignmentId));
+        courseSeatService.release(assignment.getCourse());
         courseUserAssignmentRepository.delete(assignment);
+        applicationEventPublisher.publishEvent(
+                new CourseAssignmentsChangedEvent(assignment.getCourse().getPeriod().getId()));
         return Feedback.builder()
                 .info(List.of("Die Kurszuordnung wurde entfernt"))
                 .build();
@@ -269,6 +290,10 @@ public class CourseUserAssignmentService {
             assignment.setBlock(newBlock);
             courseUserAssignmentRepository.save(assignment);
         }
+        if (!assignmentsForMovedCourse.isEmpty()) {
+            applicationEventPublisher.publishEvent(new CourseAssignmentsChangedEvent(
+                    assignmentsForMovedCourse.getFirst().getCourse().getPeriod().getId()));
+        }
     }
 
 
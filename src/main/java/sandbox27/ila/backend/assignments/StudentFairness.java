@@ -0,0 +1,11 @@
+package sandbox27.ila.backend.assignments;
+
+/**
+ * Ergebnis der Fairness-Aggregation je Schüler, siehe {@link CourseUserAssignmentRepository#findFairnessByPeriodId}.
+ */
+public record StudentFairness(
+        String userName,
+        Double averagePriority,
+        Long rankedAssignments
+) {
+}
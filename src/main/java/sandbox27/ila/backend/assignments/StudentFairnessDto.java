@@ -0,0 +1,11 @@
+package sandbox27.ila.backend.assignments;
+
+public record StudentFairnessDto(
+        String userName,
+        String firstName,
+        String lastName,
+        int grade,
+        double averagePriority,
+        int rankedAssignments
+) {
+}
@@ -0,0 +1,51 @@
+package sandbox27.ila.backend.assignments;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import sandbox27.ila.backend.period.Period;
+import sandbox27.ila.backend.user.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fairness-Score eines Schülers nach der Erstverteilung einer Periode: durchschnittliche Präferenz-Priorität
+ * seiner nicht voreingestellten Kurse. Höherer Wert = schlechter bedient. Wird beim Finalisieren der Zuweisungen
+ * berechnet und priorisiert danach die Wechselwünsche.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class StudentFairnessScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private User user;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Period period;
+
+    private double averagePriority;
+
+    // Anzahl Kurse mit passender Präferenz, über die gemittelt wurde
+    private int rankedAssignments;
+
+    private LocalDateTime computedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        computedAt = LocalDateTime.now();
+    }
+
+    public StudentFairnessScore(User user, Period period, double averagePriority, int rankedAssignments) {
+        this.user = user;
+        this.period = period;
+        this.averagePriority = averagePriority;
+        this.rankedAssignments = rankedAssignments;
+    }
+}
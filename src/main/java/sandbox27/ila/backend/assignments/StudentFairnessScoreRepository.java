@@ -0,0 +1,21 @@
+package sandbox27.ila.backend.assignments;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StudentFairnessScoreRepository extends JpaRepository<StudentFairnessScore, Long> {
+
+    @Query("select s from StudentFairnessScore s join fetch s.user u where s.period.id = :periodId " +
+            "order by s.averagePriority desc, u.lastName, u.firstName")
+    List<StudentFairnessScore> findAllByPeriodIdWithUser(@Param("periodId") long periodId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from StudentFairnessScore s where s.period.id = :periodId")
+    int deleteByPeriodId(@Param("periodId") long periodId);
+}
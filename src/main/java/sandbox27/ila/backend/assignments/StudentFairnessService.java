@@ -0,0 +1,89 @@
+package sandbox27.ila.backend.assignments;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sandbox27.ila.backend.period.Period;
+import sandbox27.ila.backend.period.PeriodRepository;
+import sandbox27.ila.backend.user.User;
+import sandbox27.ila.backend.user.UserRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Berechnet und speichert die Fairness-Scores der Erstverteilung (siehe {@link StudentFairnessScore}) mit einer
+ * Aggregat-Abfrage über Zuweisungen und Präferenzen.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentFairnessService {
+
+    private final StudentFairnessScoreRepository fairnessScoreRepository;
+    private final CourseUserAssignmentRepository courseUserAssignmentRepository;
+    private final UserRepository userRepository;
+    private final PeriodRepository periodRepository;
+
+    /**
+     * Speichert die Scores im selben Zug wie das Finalisieren, damit sie die Erstverteilung widerspiegeln.
+     */
+    @EventListener
+    @Transactional
+    public void onAssignmentsFinal(AssignmentsFinalEvent event) {
+        recompute(event.periodId());
+    }
+
+    /**
+     * Ersetzt die gespeicherten Scores der Periode durch die des aktuellen Zuweisungsstands.
+     */
+    @Transactional
+    public List<StudentFairnessDto> recompute(long periodId) {
+        List<StudentFairness> fairness = courseUserAssignmentRepository.findFairnessByPeriodId(periodId);
+        Period period = periodRepository.getReferenceById(periodId);
+
+        fairnessScoreRepository.deleteByPeriodId(periodId);
+        fairnessScoreRepository.saveAll(fairness.stream()
+                .map(f -> new StudentFairnessScore(userRepository.getReferenceById(f.userName()), period,
+                        f.averagePriority(), f.rankedAssignments().intValue()))
+                .toList());
+        log.info("Stored fairness scores for {} students of period {}", fairness.size(), periodId);
+
+        return getReport(periodId);
+    }
+
+    /**
+     * @return gespeicherte Scores der Periode, schlechter bediente Schüler zuerst
+     */
+    @Transactional(readOnly = true)
+    public List<StudentFairnessDto> getReport(long periodId) {
+        return fairnessScoreRepository.findAllByPeriodIdWithUser(periodId).stream()
+                .map(score -> {
+                    User user = score.getUser();
+                    return new StudentFairnessDto(user.getUserName(), user.getFirstName(), user.getLastName(),
+                            user.getGrade(), score.getAveragePriority(), score.getRankedAssignments());
+                })
+                .toList();
+    }
+
+    /**
+     * Fairness-Score je Schüler für die Priorisierung von Wechselwünschen. Schüler ohne Score (nur Preset-Kurse
+     * oder ohne Präferenzen) fehlen und gelten als neutral. Ist die Periode noch nicht finalisiert, wird der
+     * aktuelle Stand berechnet, ohne ihn zu speichern.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Double> getScoresByUser(long periodId) {
+        Map<String, Double> scores = new HashMap<>();
+        List<StudentFairnessScore> stored = fairnessScoreRepository.findAllByPeriodIdWithUser(periodId);
+        if (!stored.isEmpty()) {
+            stored.forEach(score -> scores.put(score.getUser().getUserName(), score.getAveragePriority()));
+            return scores;
+        }
+        courseUserAssignmentRepository.findFairnessByPeriodId(periodId)
+                .forEach(f -> scores.put(f.userName(), f.averagePriority()));
+        return scores;
+    }
+}
@@ -0,0 +1,63 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schreibt Solver-Ergebnisse per JDBC-Batch in {@code course_user_assignment}.
+ * <p>
+ * {@code CourseUserAssignment} verwendet {@code GenerationType.IDENTITY}; Hibernate kann solche Inserts nicht
+ * bündeln und schickt jede Zeile einzeln. Hier gehen die Zeilen in Batches von {@link #BATCH_SIZE} raus, mit
+ * {@code rewriteBatchedStatements} macht der MySQL-Treiber daraus mehrzeilige Inserts. Die Zeilen laufen am
+ * Persistence Context vorbei: vorher geladene Zuweisungen der Periode sind danach nicht mehr aktuell.
+ */
+@Component
+@RequiredArgsConstructor
+class AssignmentBatchWriter {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+            "insert into course_user_assignment (course_id, user_user_name, block_id, preset) values (?, ?, ?, false)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Legt für alle Nicht-Preset-Slots des Zustands eine Zuweisung an.
+     *
+     * @return Anzahl geschriebener Zeilen
+     */
+    int insertAll(AssignmentState state) {
+        List<Integer> slots = new ArrayList<>();
+        for (int student = 0; student < state.model.studentCount(); student++) {
+            int from = student * state.slotCapacity;
+            for (int slot = from; slot < from + state.getAssignmentCount(student); slot++) {
+                if (state.slotPriority[slot] != -1) {
+                    slots.add(slot);
+                }
+            }
+        }
+        return insertSlots(state, slots);
+    }
+
+    /**
+     * @param slots absolute Slot-Indizes im Zustand
+     * @return Anzahl geschriebener Zeilen
+     */
+    int insertSlots(AssignmentState state, List<Integer> slots) {
+        if (slots.isEmpty()) {
+            return 0;
+        }
+        AssignmentModel model = state.model;
+        jdbcTemplate.batchUpdate(INSERT_SQL, slots, BATCH_SIZE, (ps, slot) -> {
+            ps.setLong(1, model.courses[state.slotCourse[slot]].getId());
+            ps.setString(2, model.students[slot / state.slotCapacity].getUserName());
+            ps.setLong(3, model.blocks[state.slotBlock[slot]].getId());
+        });
+        return slots.size();
+    }
+}
@@ -0,0 +1,59 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.course.Course;
+import sandbox27.ila.backend.user.User;
+
+import java.util.*;
+
+/**
+ * Unterschied zwischen bestehenden Nicht-Preset-Zuweisungen und einem berechneten Zustand,
+ * abgeglichen über (Schüler, Kurs, Block).
+ *
+ * @param addedSlots absolute Slot-Indizes im Zustand, die neu angelegt werden müssen
+ * @param removed    bestehende Zuweisungen, die im Zustand nicht mehr vorkommen
+ * @param unchanged  Anzahl unveränderter Zuweisungen
+ */
+record AssignmentDiff(List<Integer> addedSlots, List<CourseUserAssignment> removed, int unchanged) {
+
+    static AssignmentDiff between(List<CourseUserAssignment> currentAssignments, AssignmentState state) {
+        AssignmentModel model = state.model;
+        Map<String, Deque<CourseUserAssignment>> existingByKey = new HashMap<>();
+        for (CourseUserAssignment assignment : currentAssignments) {
+            existingByKey.computeIfAbsent(key(assignment.getUser(), assignment.getCourse(), assignment.getBlock()),
+                    k -> new ArrayDeque<>()).add(assignment);
+        }
+
+        List<Integer> addedSlots = new ArrayList<>();
+        int unchanged = 0;
+        for (int student = 0; student < model.studentCount(); student++) {
+            int from = student * state.slotCapacity;
+            for (int slot = from; slot < from + state.getAssignmentCount(student); slot++) {
+                if (state.slotPriority[slot] == -1) {
+                    continue;
+                }
+                Deque<CourseUserAssignment> existing = existingByKey.get(key(model.students[student],
+                        model.courses[state.slotCourse[slot]], model.blocks[state.slotBlock[slot]]));
+                if (existing != null && !existing.isEmpty()) {
+                    existing.poll();
+                    unchanged++;
+                } else {
+                    addedSlots.add(slot);
+                }
+            }
+        }
+
+        List<CourseUserAssignment> removed = new ArrayList<>();
+        existingByKey.values().forEach(removed::addAll);
+        return new AssignmentDiff(addedSlots, removed, unchanged);
+    }
+
+    int changeCount() {
+        return addedSlots.size() + removed.size();
+    }
+
+    private static String key(User user, Course course, Block block) {
+        return user.getUserName() + "|" + course.getId() + "|" + block.getId();
+    }
+}
@@ -0,0 +1,214 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+
+/**
+ * Eine asynchron laufende Kurszuweisung. Nimmt die Fortschrittsmeldungen der Solver entgegen, verteilt sie
+ * an die SSE-Abonnenten und bricht den Lauf bei der nächsten Meldung ab, sobald ein Abbruch angefordert wurde.
+ * <p>
+ * Fortschritts-Events werden höchstens alle {@link #EMIT_INTERVAL_NANOS} ns verschickt, Phasenwechsel sofort;
+ * Meldungen dazwischen kosten nur die Prüfung auf Abbruch.
+ */
+@Slf4j
+final class AssignmentJob implements AssignmentProgress {
+
+    private static final long EMIT_INTERVAL_NANOS = 250_000_000L;
+
+    final String id = UUID.randomUUID().toString();
+    final long periodId;
+    final AssignmentSolverType solver;
+    final int runs;
+    final Long seed;
+    final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelRequested;
+    private Future<?> future;
+
+    private AssignmentJobStatus.State state = AssignmentJobStatus.State.QUEUED;
+    private AssignmentPhase phase = AssignmentPhase.QUEUED;
+    private int iteration;
+    private double objective;
+    private int unassignedStudents;
+    private Long resultId;
+    private String error;
+    private LocalDateTime finishedAt;
+    private long lastEmitNanos;
+
+    AssignmentJob(long periodId, AssignmentSolverType solver, int runs, Long seed) {
+        this.periodId = periodId;
+        this.solver = solver;
+        this.runs = runs;
+        this.seed = seed;
+    }
+
+    @Override
+    public void report(AssignmentPhase phase, int iteration, AssignmentState state) {
+        checkCancelled();
+        synchronized (this) {
+            long now = System.nanoTime();
+            boolean emit = phase != this.phase || now - lastEmitNanos >= EMIT_INTERVAL_NANOS;
+            this.phase = phase;
+            this.iteration = iteration;
+            if (!emit) {
+                return;
+            }
+            lastEmitNanos = now;
+        }
+
+        // Kennzahlen laufen über alle Schüler und werden nur für tatsächlich verschickte Events berechnet
+        double objective = state.getAveragePriority();
+        int unassignedStudents = state.countIncompleteStudents();
+        synchronized (this) {
+            this.objective = objective;
+            this.unassignedStudents = unassignedStudents;
+        }
+        publish(false);
+    }
+
+    void checkCancelled() {
+        if (cancelRequested) {
+            throw new CancellationException("Assignment job " + id + " cancelled");
+        }
+    }
+
+    synchronized void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * @return {@code false}, wenn der Job vor dem Start abgebrochen wurde
+     */
+    boolean start() {
+        synchronized (this) {
+            if (state != AssignmentJobStatus.State.QUEUED) {
+                return false;
+            }
+            state = AssignmentJobStatus.State.RUNNING;
+            phase = AssignmentPhase.LOADING;
+        }
+        publish(false);
+        return true;
+    }
+
+    void setPhase(AssignmentPhase phase) {
+        checkCancelled();
+        synchronized (this) {
+            this.phase = phase;
+        }
+        publish(false);
+    }
+
+    void complete(AssignmentResult result) {
+        synchronized (this) {
+            objective = result.getAveragePriority();
+            unassignedStudents = result.getPartiallyAssigned() + result.getUnassigned();
+            resultId = result.getId();
+            finish(AssignmentJobStatus.State.COMPLETED);
+        }
+        publish(true);
+    }
+
+    void fail(Exception e) {
+        synchronized (this) {
+            error = e.toString();
+            finish(AssignmentJobStatus.State.FAILED);
+        }
+        publish(true);
+    }
+
+    void cancelled() {
+        synchronized (this) {
+            finish(AssignmentJobStatus.State.CANCELLED);
+        }
+        publish(true);
+    }
+
+    /**
+     * Ein wartender Job wird sofort beendet, ein laufender bricht bei der nächsten Fortschrittsmeldung ab.
+     *
+     * @return {@code false}, wenn der Job bereits beendet ist
+     */
+    boolean cancel() {
+        synchronized (this) {
+            if (state.isFinished()) {
+                return false;
+            }
+            cancelRequested = true;
+            if (state != AssignmentJobStatus.State.QUEUED) {
+                return true;
+            }
+            if (future != null) {
+                future.cancel(false);
+            }
+            finish(AssignmentJobStatus.State.CANCELLED);
+        }
+        publish(true);
+        return true;
+    }
+
+    synchronized boolean isFinished() {
+        return state.isFinished();
+    }
+
+    synchronized LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    synchronized AssignmentJobStatus toStatus() {
+        return new AssignmentJobStatus(id, periodId, solver, state, phase, iteration, objective, unassignedStudents,
+                resultId, error, submittedAt, finishedAt);
+    }
+
+    /**
+     * Registriert einen Abonnenten und schickt ihm sofort den aktuellen Stand.
+     */
+    void subscribe(SseEmitter emitter) {
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        AssignmentJobStatus status = toStatus();
+        boolean finished = status.state().isFinished();
+        if (send(emitter, status, finished) && finished) {
+            emitter.complete();
+        }
+    }
+
+    private void finish(AssignmentJobStatus.State state) {
+        this.state = state;
+        this.phase = state == AssignmentJobStatus.State.COMPLETED ? AssignmentPhase.DONE : phase;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    private void publish(boolean finished) {
+        AssignmentJobStatus status = toStatus();
+        for (SseEmitter emitter : emitters) {
+            if (send(emitter, status, finished) && finished) {
+                emitter.complete();
+            }
+        }
+    }
+
+    private boolean send(SseEmitter emitter, AssignmentJobStatus status, boolean finished) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(finished ? "finished" : "progress")
+                    .data(status));
+            return true;
+        } catch (Exception e) {
+            log.debug("Removing SSE subscriber of assignment job {}: {}", id, e.toString());
+            emitters.remove(emitter);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import sandbox27.infrastructure.error.ErrorCode;
+import sandbox27.infrastructure.error.ServiceException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Führt Kurszuweisungen als Hintergrund-Jobs auf einem eigenen Executor aus.
+ * <p>
+ * Der Snapshot wird in der kurzen Lese-Transaktion des {@link AssignmentSnapshotLoader} geladen, gelöst wird ohne offene Transaktion.
+ * Erst das Ergebnis wird in einer eigenen, kurzen Transaktion geschrieben; ein abgebrochener Job
+ * ändert die Datenbank nicht. Die Schreib-Transaktion sperrt die Periode in der Datenbank
+ * ({@link CourseAssignmentService#saveRun}), gleichzeitige Läufe derselben Periode schreiben dadurch nacheinander,
+ * auch über mehrere Instanzen hinweg. Beendete Jobs werden nach {@link #RETENTION_MINUTES} Minuten vergessen.
+ */
+@Service
+@Slf4j
+public class AssignmentJobService {
+
+    private static final long RETENTION_MINUTES = 60;
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final CourseAssignmentService courseAssignmentService;
+    private final AssignmentSnapshotLoader snapshotLoader;
+    private final ThreadPoolTaskExecutor assignmentJobExecutor;
+    private final TransactionTemplate writeTransaction;
+
+    private final Map<String, AssignmentJob> jobs = new ConcurrentHashMap<>();
+
+    AssignmentJobService(CourseAssignmentService courseAssignmentService,
+                         AssignmentSnapshotLoader snapshotLoader,
+                         @Qualifier("assignmentJobExecutor") ThreadPoolTaskExecutor assignmentJobExecutor,
+                         PlatformTransactionManager transactionManager) {
+        this.courseAssignmentService = courseAssignmentService;
+        this.snapshotLoader = snapshotLoader;
+        this.assignmentJobExecutor = assignmentJobExecutor;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public synchronized AssignmentJobStatus submit(Long periodId, AssignmentSolverType solverType, int runs, Long seed) {
+        // Unbekannte Solver sofort ablehnen, nicht erst im Job
+        courseAssignmentService.getSolver(solverType);
+
+        AssignmentJob job = new AssignmentJob(periodId, solverType, runs, seed);
+        job.setFuture(assignmentJobExecutor.submit(() -> run(job)));
+        jobs.put(job.id, job);
+        log.info("Submitted assignment job {} for period {} with solver {}, runs {}, seed {}",
+                job.id, periodId, solverType, runs, seed);
+        return job.toStatus();
+    }
+
+    public AssignmentJobStatus getStatus(Long periodId, String jobId) {
+        return findJob(periodId, jobId).toStatus();
+    }
+
+    public List<AssignmentJobStatus> getJobs(Long periodId) {
+        return jobs.values().stream()
+                .filter(job -> job.periodId == periodId)
+                .map(AssignmentJob::toStatus)
+                .sorted((a, b) -> b.submittedAt().compareTo(a.submittedAt()))
+                .toList();
+    }
+
+    public SseEmitter subscribe(Long periodId, String jobId) {
+        AssignmentJob job = findJob(periodId, jobId);
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        job.subscribe(emitter);
+        return emitter;
+    }
+
+    public AssignmentJobStatus cancel(Long periodId, String jobId) {
+        AssignmentJob job = findJob(periodId, jobId);
+        if (job.cancel()) {
+            log.info("Cancellation requested for assignment job {}", jobId);
+        }
+        return job.toStatus();
+    }
+
+    @Scheduled(fixedDelay = 10 * 60 * 1000)
+    public void evictFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(RETENTION_MINUTES);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+
+    private AssignmentJob findJob(Long periodId, String jobId) {
+        AssignmentJob job = jobs.get(jobId);
+        if (job == null || job.periodId != periodId) {
+            throw new ServiceException(ErrorCode.NotFound, "AssignmentJob", jobId);
+        }
+        return job;
+    }
+
+    private void run(AssignmentJob job) {
+        if (!job.start()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            AssignmentSolver solver = courseAssignmentService.getSolver(job.solver);
+
+            AssignmentSnapshot snapshot = snapshotLoader.load(job.periodId);
+            AssignmentModel model = courseAssignmentService.prepareModel(snapshot);
+            job.checkCancelled();
+
+            AssignmentRun best = courseAssignmentService.solve(model, solver, job.runs, job.seed, job);
+
+            job.setPhase(AssignmentPhase.SAVING);
+            AssignmentResult result = writeTransaction.execute(
+                    status -> courseAssignmentService.saveRun(snapshot, best, startTime));
+
+            job.complete(result);
+            log.info("Assignment job {} completed in {}ms", job.id, System.currentTimeMillis() - startTime);
+        } catch (CancellationException e) {
+            log.info("Assignment job {} cancelled", job.id);
+            job.cancelled();
+        } catch (ServiceException e) {
+            log.error("Service error in assignment job {}: {}", job.id, e.toString());
+            job.fail(e);
+        } catch (Exception e) {
+            log.error("Unexpected error in assignment job {}", job.id, e);
+            job.fail(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import java.time.LocalDateTime;
+
+/**
+ * Momentaufnahme eines {@link AssignmentJob}, wie sie per REST und SSE ausgeliefert wird.
+ *
+ * @param objective          durchschnittliche Priorität der bisherigen Präferenz-Zuweisungen (1-basiert)
+ * @param unassignedStudents Schüler, die noch nicht alle Kurse haben
+ * @param resultId           gespeichertes {@link AssignmentResult}, sobald der Job abgeschlossen ist
+ */
+public record AssignmentJobStatus(String jobId,
+                                  long periodId,
+                                  AssignmentSolverType solver,
+                                  State state,
+                                  AssignmentPhase phase,
+                                  int iteration,
+                                  double objective,
+                                  int unassignedStudents,
+                                  Long resultId,
+                                  String error,
+                                  LocalDateTime submittedAt,
+                                  LocalDateTime finishedAt) {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+}
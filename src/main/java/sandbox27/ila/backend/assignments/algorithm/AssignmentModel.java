@@ -0,0 +1,327 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.course.Course;
+import sandbox27.ila.backend.course.CourseCategory;
+import sandbox27.ila.backend.preference.Preference;
+import sandbox27.ila.backend.user.Gender;
+import sandbox27.ila.backend.user.User;
+
+import java.time.DayOfWeek;
+import java.util.*;
+
+/**
+ * Unveränderliches, dicht indiziertes Problem-Modell für den Zuweisungs-Algorithmus.
+ * <p>
+ * Schüler, Kurse und Blöcke werden auf fortlaufende int-Indizes abgebildet. Alle Regeln
+ * (Kapazität, Klassenstufe, Geschlecht, Wochentag, Kategorien, Block-Ausschlüsse) liegen
+ * als primitive Arrays bzw. Bitmasken vor, damit die Suchschleifen ohne Map-Lookups,
+ * String-Keys und Streams auskommen.
+ * <p>
+ * Kurse: Indizes {@code [0, assignableCourseCount)} sind die regulär zuweisbaren Kurse der Periode,
+ * dahinter folgen Kurse, die nur über Präferenzen oder Presets referenziert werden.
+ * Blöcke: Indizes {@code [0, periodBlockCount)} sind die Blöcke der Periode.
+ */
+final class AssignmentModel {
+
+    /**
+     * Bit für Blöcke ohne Wochentag (DayOfWeek-Ordinalwerte belegen die Bits 0-6).
+     */
+    private static final int UNKNOWN_DAY_BIT = 1 << 7;
+
+    /**
+     * Bit 63 markiert Klassenstufen außerhalb von 0-62; solche Schüler passen nur in Kurse ohne Klassenbeschränkung.
+     */
+    private static final int MAX_GRADE_BIT = 63;
+
+    final User[] students;
+    final Course[] courses;
+    final Block[] blocks;
+    final int assignableCourseCount;
+    final int periodBlockCount;
+
+    // Kurs-Eigenschaften
+    final int[] courseBlock;
+    final int[] courseCapacity;
+    final int[] courseCategoryMask;
+    final long[] courseGradeMask;
+    final int[] courseExcludedGenderMask;
+
+    // Block-Eigenschaften
+    final int[] blockDayMask;
+    final int[][] blockCourses;
+
+    // Schüler-Eigenschaften
+    final long[] studentGradeBit;
+    final int[] studentGenderBit;
+    final int[] exclusionCount;
+    final boolean[][] excludedBlocks;
+
+    // Präferenzen je (Schüler, Block), sortiert nach preferenceIndex
+    final int[] prefStart;
+    final int[] prefCourse;
+    final int[] prefBlock;
+    final int[] prefPriority;
+
+    // Präferenzen je Schüler in Original-Reihenfolge (für getPriorityForCourse)
+    final int[] rawPrefStart;
+    final int[] rawPrefCourse;
+    final int[] rawPrefPriority;
+
+    // Presets (Schüler-Index -1 = kein Teilnehmer des Algorithmus, zählt nur zur Belegung)
+    final int[] presetStudent;
+    final int[] presetCourse;
+    final int[] presetBlock;
+    final int maxPresetsPerStudent;
+
+    private AssignmentModel(Indexer indexer,
+                            List<User> students,
+                            Map<String, List<Preference>> userPreferences,
+                            Map<String, Set<Long>> userBlockExclusions,
+                            Map<Long, Block> courseToBlock,
+                            List<CourseUserAssignment> presetAssignments) {
+        int studentCount = students.size();
+        this.students = students.toArray(new User[0]);
+        this.assignableCourseCount = indexer.courses.size();
+        this.periodBlockCount = indexer.blocks.size();
+
+        Map<String, Integer> studentIndex = new HashMap<>();
+        for (int s = 0; s < studentCount; s++) {
+            studentIndex.put(this.students[s].getUserName(), s);
+        }
+
+        // Alle referenzierten Kurse und Blöcke indizieren, bevor die Arrays dimensioniert werden
+        for (Block block : courseToBlock.values()) {
+            indexer.block(block);
+        }
+        for (CourseUserAssignment preset : presetAssignments) {
+            indexer.course(preset.getCourse());
+            indexer.block(preset.getBlock());
+        }
+        for (User student : this.students) {
+            for (Preference pref : userPreferences.getOrDefault(student.getUserName(), Collections.emptyList())) {
+                indexer.course(pref.getCourse());
+            }
+        }
+
+        this.courses = indexer.courses.toArray(new Course[0]);
+        this.blocks = indexer.blocks.toArray(new Block[0]);
+        int courseCount = courses.length;
+        int blockCount = blocks.length;
+
+        this.blockDayMask = new int[blockCount];
+        for (int b = 0; b < blockCount; b++) {
+            DayOfWeek day = blocks[b].getDayOfWeek();
+            blockDayMask[b] = day != null ? 1 << day.ordinal() : UNKNOWN_DAY_BIT;
+        }
+
+        this.courseBlock = new int[courseCount];
+        this.courseCapacity = new int[courseCount];
+        this.courseCategoryMask = new int[courseCount];
+        this.courseGradeMask = new long[courseCount];
+        this.courseExcludedGenderMask = new int[courseCount];
+        for (int c = 0; c < courseCount; c++) {
+            Course course = courses[c];
+            Block block = courseToBlock.get(course.getId());
+            courseBlock[c] = block != null ? indexer.blockIndex.get(block.getId()) : -1;
+            courseCapacity[c] = course.getMaxAttendees();
+            for (CourseCategory category : course.getCourseCategories()) {
+                courseCategoryMask[c] |= 1 << category.ordinal();
+            }
+            if (course.getGrades().isEmpty()) {
+                courseGradeMask[c] = -1L;
+            } else {
+                for (Integer grade : course.getGrades()) {
+                    if (grade != null && grade >= 0 && grade < MAX_GRADE_BIT) {
+                        courseGradeMask[c] |= 1L << grade;
+                    }
+                }
+            }
+            for (Gender gender : course.getExcludedGenders()) {
+                courseExcludedGenderMask[c] |= genderBit(gender);
+            }
+        }
+
+        int[] coursesPerBlock = new int[periodBlockCount];
+        for (int c = 0; c < assignableCourseCount; c++) {
+            if (courseBlock[c] >= 0 && courseBlock[c] < periodBlockCount) {
+                coursesPerBlock[courseBlock[c]]++;
+            }
+        }
+        this.blockCourses = new int[periodBlockCount][];
+        for (int b = 0; b < periodBlockCount; b++) {
+            blockCourses[b] = new int[coursesPerBlock[b]];
+            coursesPerBlock[b] = 0;
+        }
+        for (int c = 0; c < assignableCourseCount; c++) {
+            int b = courseBlock[c];
+            if (b >= 0 && b < periodBlockCount) {
+                blockCourses[b][coursesPerBlock[b]++] = c;
+            }
+        }
+
+        this.studentGradeBit = new long[studentCount];
+        this.studentGenderBit = new int[studentCount];
+        this.exclusionCount = new int[studentCount];
+        this.excludedBlocks = new boolean[studentCount][];
+        for (int s = 0; s < studentCount; s++) {
+            User student = this.students[s];
+            int grade = student.getGrade();
+            studentGradeBit[s] = 1L << (grade >= 0 && grade < MAX_GRADE_BIT ? grade : MAX_GRADE_BIT);
+            studentGenderBit[s] = genderBit(student.getGender());
+
+            Set<Long> excluded = userBlockExclusions.get(student.getUserName());
+            if (excluded != null && !excluded.isEmpty()) {
+                exclusionCount[s] = excluded.size();
+                excludedBlocks[s] = new boolean[blockCount];
+                for (Long blockId : excluded) {
+                    Integer b = indexer.blockIndex.get(blockId);
+                    if (b != null) {
+                        excludedBlocks[s][b] = true;
+                    }
+                }
+            }
+        }
+
+        // Präferenzen: pro Schüler nach Block gruppiert und innerhalb des Blocks stabil nach Index sortiert
+        List<int[]> rows = new ArrayList<>();
+        this.prefStart = new int[studentCount * blockCount + 1];
+        this.rawPrefStart = new int[studentCount + 1];
+        List<int[]> rawRows = new ArrayList<>();
+        for (int s = 0; s < studentCount; s++) {
+            List<Preference> prefs = userPreferences.getOrDefault(this.students[s].getUserName(), Collections.emptyList());
+            List<int[]> studentRows = new ArrayList<>(prefs.size());
+            for (Preference pref : prefs) {
+                int c = indexer.courseIndex.get(pref.getCourse().getId());
+                rawRows.add(new int[]{c, pref.getPreferenceIndex()});
+                if (courseBlock[c] >= 0) {
+                    studentRows.add(new int[]{c, courseBlock[c], pref.getPreferenceIndex()});
+                }
+            }
+            rawPrefStart[s + 1] = rawRows.size();
+            studentRows.sort(Comparator.<int[]>comparingInt(r -> r[1]).thenComparingInt(r -> r[2]));
+            int row = 0;
+            for (int b = 0; b < blockCount; b++) {
+                prefStart[s * blockCount + b] = rows.size();
+                while (row < studentRows.size() && studentRows.get(row)[1] == b) {
+                    rows.add(studentRows.get(row++));
+                }
+            }
+        }
+        prefStart[studentCount * blockCount] = rows.size();
+
+        this.prefCourse = new int[rows.size()];
+        this.prefBlock = new int[rows.size()];
+        this.prefPriority = new int[rows.size()];
+        for (int p = 0; p < rows.size(); p++) {
+            int[] row = rows.get(p);
+            prefCourse[p] = row[0];
+            prefBlock[p] = row[1];
+            prefPriority[p] = row[2];
+        }
+        this.rawPrefCourse = new int[rawRows.size()];
+        this.rawPrefPriority = new int[rawRows.size()];
+        for (int p = 0; p < rawRows.size(); p++) {
+            rawPrefCourse[p] = rawRows.get(p)[0];
+            rawPrefPriority[p] = rawRows.get(p)[1];
+        }
+
+        int presetCount = presetAssignments.size();
+        this.presetStudent = new int[presetCount];
+        this.presetCourse = new int[presetCount];
+        this.presetBlock = new int[presetCount];
+        int[] presetsPerStudent = new int[studentCount];
+        int maxPresets = 0;
+        for (int i = 0; i < presetCount; i++) {
+            CourseUserAssignment preset = presetAssignments.get(i);
+            Integer s = studentIndex.get(preset.getUser().getUserName());
+            presetStudent[i] = s != null ? s : -1;
+            presetCourse[i] = indexer.courseIndex.get(preset.getCourse().getId());
+            presetBlock[i] = indexer.blockIndex.get(preset.getBlock().getId());
+            if (s != null) {
+                maxPresets = Math.max(maxPresets, ++presetsPerStudent[s]);
+            }
+        }
+        this.maxPresetsPerStudent = maxPresets;
+    }
+
+    /**
+     * Baut das Modell aus den geladenen Entities auf.
+     *
+     * @param courses       die regulär zuweisbaren Kurse (ohne manualAssignmentOnly/Platzhalter)
+     * @param blocks        alle Blöcke der Periode
+     * @param courseToBlock courseId -> Block (aus CourseBlockAssignment!)
+     */
+    static AssignmentModel of(List<User> students,
+                              List<Course> courses,
+                              List<Block> blocks,
+                              Map<String, List<Preference>> userPreferences,
+                              Map<String, Set<Long>> userBlockExclusions,
+                              Map<Long, Block> courseToBlock,
+                              List<CourseUserAssignment> presetAssignments) {
+        Indexer indexer = new Indexer();
+        courses.forEach(indexer::course);
+        blocks.forEach(indexer::block);
+        return new AssignmentModel(indexer, students, userPreferences, userBlockExclusions, courseToBlock, presetAssignments);
+    }
+
+    int studentCount() {
+        return students.length;
+    }
+
+    int courseCount() {
+        return courses.length;
+    }
+
+    int blockCount() {
+        return blocks.length;
+    }
+
+    /**
+     * Klassenstufe und Geschlecht des Schülers passen zum Kurs.
+     */
+    boolean isCourseAllowed(int student, int course) {
+        return (courseGradeMask[course] & studentGradeBit[student]) != 0
+                && (courseExcludedGenderMask[course] & studentGenderBit[student]) == 0;
+    }
+
+    boolean isBlockExcluded(int student, int block) {
+        boolean[] excluded = excludedBlocks[student];
+        return excluded != null && excluded[block];
+    }
+
+    int prefFrom(int student, int block) {
+        return prefStart[student * blocks.length + block];
+    }
+
+    int prefTo(int student, int block) {
+        return prefStart[student * blocks.length + block + 1];
+    }
+
+    private static int genderBit(Gender gender) {
+        return gender != null ? 1 << gender.ordinal() : 0;
+    }
+
+    /**
+     * Vergibt fortlaufende Indizes für Kurse und Blöcke (Reihenfolge des ersten Auftretens).
+     */
+    private static final class Indexer {
+        final List<Course> courses = new ArrayList<>();
+        final List<Block> blocks = new ArrayList<>();
+        final Map<Long, Integer> courseIndex = new HashMap<>();
+        final Map<Long, Integer> blockIndex = new HashMap<>();
+
+        void course(Course course) {
+            if (courseIndex.putIfAbsent(course.getId(), courses.size()) == null) {
+                courses.add(course);
+            }
+        }
+
+        void block(Block block) {
+            if (blockIndex.putIfAbsent(block.getId(), blocks.size()) == null) {
+                blocks.add(block);
+            }
+        }
+    }
+}
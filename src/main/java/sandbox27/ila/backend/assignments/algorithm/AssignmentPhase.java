@@ -0,0 +1,16 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+/**
+ * Phasen einer Kurszuweisung, wie sie im Fortschritt eines {@link AssignmentJob} gemeldet werden.
+ */
+public enum AssignmentPhase {
+    QUEUED,
+    LOADING,
+    GREEDY,
+    LOCAL_SEARCH,
+    MIN_COST_FLOW,
+    WITHOUT_PREFERENCES,
+    FILL_INCOMPLETE,
+    SAVING,
+    DONE
+}
@@ -0,0 +1,18 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Rückkanal eines Zuweisungs-Laufs. Solver melden in ihren Schleifen den aktuellen Zustand;
+ * die Implementierung darf den Lauf dabei mit einer {@link CancellationException} abbrechen.
+ * <p>
+ * Bei mehreren parallelen Läufen wird aus mehreren Threads gemeldet.
+ */
+@FunctionalInterface
+interface AssignmentProgress {
+
+    AssignmentProgress NONE = (phase, iteration, state) -> {
+    };
+
+    void report(AssignmentPhase phase, int iteration, AssignmentState state);
+}
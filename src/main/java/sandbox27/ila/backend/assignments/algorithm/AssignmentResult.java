@@ -8,6 +8,7 @@ import sandbox27.ila.backend.period.Period;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Data
@@ -53,9 +54,48 @@ public class    AssignmentResult {
     @Column(name = "execution_duration_ms")
     private Long executionDurationMs;
 
+    /**
+     * Anteil von {@code executionDurationMs} für das Laden der Eingabedaten.
+     */
+    @Column(name = "load_duration_ms")
+    private Long loadDurationMs;
+
+    /**
+     * Anteil von {@code executionDurationMs} für das Schreiben der Zuweisungen.
+     */
+    @Column(name = "write_duration_ms")
+    private Long writeDurationMs;
+
     @Column(name = "students_without_preferences")
     private int studentsWithoutPreferences;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "solver")
+    private AssignmentSolverType solver;
+
+    /**
+     * Seed des gespeicherten Laufs; mit diesem Seed lässt sich die Zuweisung exakt reproduzieren.
+     */
+    private Long seed;
+
+    @ElementCollection
+    @CollectionTable(
+            name = "assignment_result_run_seeds",
+            joinColumns = @JoinColumn(name = "assignment_result_id")
+    )
+    @OrderColumn(name = "run_index")
+    @Column(name = "seed")
+    private List<Long> runSeeds;
+
+    /**
+     * {@code true} für inkrementelle Läufe, die bestehende Zuweisungen nur repariert haben.
+     */
+    @Column(name = "incremental")
+    private boolean incremental;
+
+    @Column(name = "changed_assignments")
+    private Integer changedAssignments;
+
     @PrePersist
     protected void onCreate() {
         if (executedAt == null) {
@@ -0,0 +1,26 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import java.util.Comparator;
+
+/**
+ * Ergebnis eines einzelnen geseedeten Zuweisungs-Laufs.
+ * <p>
+ * Verglichen wird zuerst nach der Anzahl nicht vollständig zugewiesener Schüler, danach nach dem
+ * Zielwert {@code averagePriority + fairnessStdDeviation} (kleiner ist besser), zuletzt nach dem Seed,
+ * damit die Auswahl unabhängig von der Reihenfolge der Läufe ist.
+ */
+record AssignmentRun(long seed, AssignmentState state, AssignmentResult result) {
+
+    static final Comparator<AssignmentRun> BY_QUALITY = Comparator
+            .comparingInt(AssignmentRun::incompleteStudents)
+            .thenComparingDouble(AssignmentRun::objective)
+            .thenComparingLong(AssignmentRun::seed);
+
+    int incompleteStudents() {
+        return result.getPartiallyAssigned() + result.getUnassigned();
+    }
+
+    double objective() {
+        return result.getAveragePriority() + result.getFairnessStdDeviation();
+    }
+}
@@ -0,0 +1,33 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import sandbox27.ila.backend.course.CourseCategory;
+import sandbox27.ila.backend.user.Gender;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hypothetische Änderungen für eine Simulation. Alle Felder sind optional.
+ *
+ * @param maxAttendees    Kurs-ID → geänderte maximale Teilnehmerzahl
+ * @param courseBlocks    Kurs-ID → Block-ID, in den der Kurs verschoben wird
+ * @param addedCourses    zusätzliche Kurse, die nur in der Simulation existieren
+ * @param refreshSnapshot Eingabedaten neu laden statt den gecachten Snapshot zu verwenden
+ */
+public record AssignmentSimulationRequest(AssignmentSolverType solver,
+                                          Integer runs,
+                                          Long seed,
+                                          Map<Long, Integer> maxAttendees,
+                                          Map<Long, Long> courseBlocks,
+                                          List<AddedCourse> addedCourses,
+                                          boolean refreshSnapshot) {
+
+    public record AddedCourse(String name,
+                              Long blockId,
+                              int maxAttendees,
+                              Set<CourseCategory> courseCategories,
+                              Set<Integer> grades,
+                              Set<Gender> excludedGenders) {
+    }
+}
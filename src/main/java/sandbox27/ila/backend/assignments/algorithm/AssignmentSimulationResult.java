@@ -0,0 +1,26 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ergebnis einer Simulation: Statistik wie bei einem echten Lauf (nicht gespeichert) und die Änderungen
+ * gegenüber den aktuell gespeicherten Zuweisungen. Simulierte Kurse haben negative IDs.
+ */
+public record AssignmentSimulationResult(AssignmentResult result,
+                                         LocalDateTime snapshotLoadedAt,
+                                         int unchangedAssignments,
+                                         int affectedStudents,
+                                         List<AssignmentChange> changes) {
+
+    public enum ChangeType {
+        ADDED, REMOVED
+    }
+
+    public record AssignmentChange(String userName,
+                                   long courseId,
+                                   String courseName,
+                                   long blockId,
+                                   ChangeType type) {
+    }
+}
@@ -0,0 +1,166 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.course.Course;
+import sandbox27.infrastructure.error.ErrorCode;
+import sandbox27.infrastructure.error.ServiceException;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Was-wäre-wenn-Simulation der Kurszuweisung. Arbeitet ausschließlich auf einem (gecachten) Snapshot der
+ * Periode und schreibt nichts in die Datenbank. Der Snapshot wird in der kurzen Lese-Transaktion des
+ * {@link AssignmentSnapshotLoader} geladen, gelöst wird ohne offene Transaktion und Datenbankverbindung.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AssignmentSimulationService {
+
+    private final CourseAssignmentService courseAssignmentService;
+    private final AssignmentSnapshotCache snapshotCache;
+    private final AssignmentSnapshotLoader snapshotLoader;
+
+    public AssignmentSimulationResult simulate(Long periodId, AssignmentSimulationRequest request) {
+        long startTime = System.currentTimeMillis();
+
+        AssignmentSolver solver = courseAssignmentService.getSolver(
+                request.solver() != null ? request.solver() : AssignmentSolverType.MIN_COST_FLOW);
+
+        if (request.refreshSnapshot()) {
+            snapshotCache.invalidate(periodId);
+        }
+        AssignmentSnapshot snapshot = snapshotCache.get(periodId, () -> snapshotLoader.load(periodId));
+        AssignmentSnapshot scenario = applyOverrides(snapshot, request);
+
+        AssignmentRun run = courseAssignmentService.solve(scenario.toModel(), solver,
+                request.runs() != null ? request.runs() : 1, request.seed(), AssignmentProgress.NONE);
+        AssignmentDiff diff = AssignmentDiff.between(snapshot.currentAssignments(), run.state());
+
+        AssignmentResult result = run.result();
+        result.setPeriod(snapshot.period());
+        result.setChangedAssignments(diff.changeCount());
+        result.setExecutionDurationMs(System.currentTimeMillis() - startTime);
+        result.setLoadDurationMs(snapshot.loadDurationMs());
+
+        List<AssignmentSimulationResult.AssignmentChange> changes = describeChanges(run.state(), diff);
+        int affectedStudents = (int) changes.stream()
+                .map(AssignmentSimulationResult.AssignmentChange::userName)
+                .distinct()
+                .count();
+
+        log.info("Simulation for period {} completed: {} changes for {} students, duration: {}ms",
+                periodId, changes.size(), affectedStudents, result.getExecutionDurationMs());
+
+        return new AssignmentSimulationResult(result, snapshot.loadedAt(), diff.unchanged(), affectedStudents, changes);
+    }
+
+    /**
+     * Wendet die Änderungen auf Kopien an; die Entities des gecachten Snapshots bleiben unverändert.
+     */
+    private AssignmentSnapshot applyOverrides(AssignmentSnapshot snapshot, AssignmentSimulationRequest request) {
+        Map<Long, Course> coursesById = snapshot.courses().stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+        Map<Long, Block> blocksById = snapshot.blocks().stream()
+                .collect(Collectors.toMap(Block::getId, Function.identity()));
+        Map<Long, Block> courseToBlock = new HashMap<>(snapshot.courseToBlock());
+
+        if (request.maxAttendees() != null) {
+            request.maxAttendees().forEach((courseId, maxAttendees) -> {
+                Course original = coursesById.get(courseId);
+                if (original == null) {
+                    throw new ServiceException(ErrorCode.NotFound, "Course", courseId);
+                }
+                coursesById.put(courseId, copyWithMaxAttendees(original, maxAttendees));
+            });
+        }
+
+        if (request.courseBlocks() != null) {
+            request.courseBlocks().forEach((courseId, blockId) -> {
+                if (!coursesById.containsKey(courseId)) {
+                    throw new ServiceException(ErrorCode.NotFound, "Course", courseId);
+                }
+                courseToBlock.put(courseId, findBlock(blocksById, blockId));
+            });
+        }
+
+        List<Course> courses = new ArrayList<>(coursesById.values());
+
+        if (request.addedCourses() != null) {
+            long syntheticId = -1;
+            for (AssignmentSimulationRequest.AddedCourse added : request.addedCourses()) {
+                Course course = Course.builder()
+                        .id(syntheticId--)
+                        .period(snapshot.period())
+                        .name(added.name())
+                        .courseCategories(added.courseCategories() != null ? added.courseCategories() : new HashSet<>())
+                        .grades(added.grades() != null ? added.grades() : new HashSet<>())
+                        .excludedGenders(added.excludedGenders() != null ? added.excludedGenders() : new HashSet<>())
+                        .maxAttendees(added.maxAttendees())
+                        .build();
+                courses.add(course);
+                courseToBlock.put(course.getId(), findBlock(blocksById, added.blockId()));
+            }
+        }
+
+        return snapshot.withCourses(courses, courseToBlock);
+    }
+
+    private Block findBlock(Map<Long, Block> blocksById, Long blockId) {
+        Block block = blocksById.get(blockId);
+        if (block == null) {
+            throw new ServiceException(ErrorCode.NotFound, "Block", blockId);
+        }
+        return block;
+    }
+
+    private Course copyWithMaxAttendees(Course original, int maxAttendees) {
+        return Course.builder()
+                .id(original.getId())
+                .courseId(original.getCourseId())
+                .period(original.getPeriod())
+                .name(original.getName())
+                .courseCategories(original.getCourseCategories())
+                .grades(original.getGrades())
+                .excludedGenders(original.getExcludedGenders())
+                .room(original.getRoom())
+                .minAttendees(original.getMinAttendees())
+                .maxAttendees(maxAttendees)
+                .manualAssignmentOnly(original.isManualAssignmentOnly())
+                .placeholder(original.isPlaceholder())
+                .build();
+    }
+
+    private List<AssignmentSimulationResult.AssignmentChange> describeChanges(AssignmentState state, AssignmentDiff diff) {
+        AssignmentModel model = state.model;
+        List<AssignmentSimulationResult.AssignmentChange> changes = new ArrayList<>();
+
+        for (CourseUserAssignment removed : diff.removed()) {
+            changes.add(new AssignmentSimulationResult.AssignmentChange(
+                    removed.getUser().getUserName(),
+                    removed.getCourse().getId(),
+                    removed.getCourse().getName(),
+                    removed.getBlock().getId(),
+                    AssignmentSimulationResult.ChangeType.REMOVED));
+        }
+        for (int slot : diff.addedSlots()) {
+            Course course = model.courses[state.slotCourse[slot]];
+            changes.add(new AssignmentSimulationResult.AssignmentChange(
+                    model.students[slot / state.slotCapacity].getUserName(),
+                    course.getId(),
+                    course.getName(),
+                    model.blocks[state.slotBlock[slot]].getId(),
+                    AssignmentSimulationResult.ChangeType.ADDED));
+        }
+
+        changes.sort(Comparator.comparing(AssignmentSimulationResult.AssignmentChange::userName)
+                .thenComparing(AssignmentSimulationResult.AssignmentChange::type));
+        return changes;
+    }
+}
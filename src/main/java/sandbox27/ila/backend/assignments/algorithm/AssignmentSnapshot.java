@@ -0,0 +1,49 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.course.Course;
+import sandbox27.ila.backend.period.Period;
+import sandbox27.ila.backend.preference.Preference;
+import sandbox27.ila.backend.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vollständig geladene Eingabedaten einer Zuweisung für eine Periode. Alle Entities sind initialisiert
+ * und werden nur gelesen, der Snapshot kann daher außerhalb der Transaktion gecacht und von mehreren
+ * Läufen gleichzeitig verwendet werden.
+ *
+ * @param courses            regulär zuweisbare Kurse (ohne manualAssignmentOnly und Platzhalter)
+ * @param courseToBlock      Kurs-ID → Block aus {@code CourseBlockAssignment}
+ * @param currentAssignments bestehende Nicht-Preset-Zuweisungen der Periode
+ * @param loadDurationMs     Dauer des Ladens aus der Datenbank
+ */
+record AssignmentSnapshot(Period period,
+                          List<User> students,
+                          List<Course> courses,
+                          List<Block> blocks,
+                          Map<Long, Block> courseToBlock,
+                          Map<String, List<Preference>> userPreferences,
+                          Map<String, Set<Long>> userBlockExclusions,
+                          List<CourseUserAssignment> presetAssignments,
+                          List<CourseUserAssignment> currentAssignments,
+                          LocalDateTime loadedAt,
+                          long loadDurationMs) {
+
+    AssignmentModel toModel() {
+        return AssignmentModel.of(students, courses, blocks, userPreferences,
+                userBlockExclusions, courseToBlock, presetAssignments);
+    }
+
+    /**
+     * Kopie mit geänderten Kursen und Kurs-Block-Zuordnungen (für Simulationen).
+     */
+    AssignmentSnapshot withCourses(List<Course> scenarioCourses, Map<Long, Block> scenarioCourseToBlock) {
+        return new AssignmentSnapshot(period, students, scenarioCourses, blocks, scenarioCourseToBlock,
+                userPreferences, userBlockExclusions, presetAssignments, currentAssignments, loadedAt, loadDurationMs);
+    }
+}
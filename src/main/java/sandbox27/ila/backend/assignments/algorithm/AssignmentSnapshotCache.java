@@ -0,0 +1,116 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sandbox27.ila.backend.assignments.events.CourseAssignmentDeleteEvent;
+import sandbox27.ila.backend.assignments.events.CourseAssignmentsChangedEvent;
+import sandbox27.ila.backend.course.events.CourseBlockChangedEvent;
+import sandbox27.ila.backend.course.events.CourseCapacityChangedEvent;
+import sandbox27.ila.backend.course.events.CourseChangedEvent;
+import sandbox27.ila.backend.course.events.CourseDeletedEvent;
+import sandbox27.ila.backend.exclusion.events.BlockExclusionsChangedEvent;
+import sandbox27.ila.backend.preference.events.PreferencesChangedEvent;
+import sandbox27.ila.backend.user.events.StudentsChangedEvent;
+import sandbox27.ila.backend.user.events.UserCreatedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hält je Periode einen {@link AssignmentSnapshot}, damit mehrere Simulationen hintereinander nicht jedes Mal
+ * Schüler, Präferenzen und Sperren neu laden. Einträge verfallen nach {@link #TIME_TO_LIVE} und werden nach dem
+ * Commit jeder Änderung an Eingabedaten der Zuweisung verworfen: Zuweisungen und Presets, Präferenzen, Block-Sperren,
+ * Kapazitäten, Kurs-Blöcke, angelegte, geänderte und gelöschte Kurse sowie neue oder geänderte Schüler
+ * (Klassenstufe, ILA-Mitgliedschaft).
+ * <p>
+ * Ein Snapshot, dessen Laden eine Invalidierung überlappt, wird zurückgegeben, aber nicht gecacht; sonst könnte ein
+ * vor dem Commit begonnenes Laden den veralteten Stand nach der Invalidierung wieder eintragen.
+ */
+@Component
+@Slf4j
+public class AssignmentSnapshotCache {
+
+    static final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private final Map<Long, AssignmentSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    AssignmentSnapshot get(Long periodId, Supplier<AssignmentSnapshot> loader) {
+        AssignmentSnapshot snapshot = snapshots.get(periodId);
+        if (snapshot != null && snapshot.loadedAt().plus(TIME_TO_LIVE).isAfter(LocalDateTime.now())) {
+            return snapshot;
+        }
+        log.info("Loading assignment snapshot for period {}", periodId);
+        long loadGeneration = generation.get();
+        snapshot = loader.get();
+        if (generation.get() == loadGeneration) {
+            snapshots.put(periodId, snapshot);
+        }
+        return snapshot;
+    }
+
+    public void invalidate(Long periodId) {
+        generation.incrementAndGet();
+        snapshots.remove(periodId);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        snapshots.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseAssignmentsChanged(CourseAssignmentsChangedEvent event) {
+        invalidate(event.periodId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPreferencesChanged(PreferencesChangedEvent event) {
+        invalidate(event.periodId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlockExclusionsChanged(BlockExclusionsChangedEvent event) {
+        invalidate(event.periodId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseCapacityChanged(CourseCapacityChangedEvent event) {
+        invalidate(event.periodId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        invalidate(event.periodId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseBlockChanged(CourseBlockChangedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseDeleted(CourseDeletedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseAssignmentDelete(CourseAssignmentDeleteEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCreated(UserCreatedEvent event) {
+        invalidateAll();
+    }
+}
@@ -0,0 +1,107 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.assignments.CourseUserAssignmentRepository;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.block.BlockRepository;
+import sandbox27.ila.backend.course.Course;
+import sandbox27.ila.backend.course.CourseBlockAssignment;
+import sandbox27.ila.backend.course.CourseBlockAssignmentRepository;
+import sandbox27.ila.backend.course.CourseRepository;
+import sandbox27.ila.backend.exclusion.UserBlockExclusionRepository;
+import sandbox27.ila.backend.period.Period;
+import sandbox27.ila.backend.period.PeriodRepository;
+import sandbox27.ila.backend.preference.Preference;
+import sandbox27.ila.backend.preference.PreferenceRepository;
+import sandbox27.ila.backend.user.Role;
+import sandbox27.ila.backend.user.User;
+import sandbox27.ila.backend.user.UserRepository;
+import sandbox27.infrastructure.error.ErrorCode;
+import sandbox27.infrastructure.error.ServiceException;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Lädt den {@link AssignmentSnapshot} einer Periode mit einer festen Anzahl mengenbasierter Abfragen,
+ * unabhängig von der Zahl der Schüler und Kurse: Schüler samt Rollen, Kurse mit je einer Abfrage pro
+ * Element-Collection, Blöcke, Kurs-Block-Zuordnungen, Präferenzen und Zuweisungen per Fetch-Join sowie
+ * alle Sperren als {@code (userName, blockId)}-Paare.
+ * <p>
+ * Danach sind alle Entities, die {@link AssignmentModel#of} und das Speichern benötigen, initialisiert;
+ * der Snapshot kann außerhalb der Transaktion verwendet werden.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class AssignmentSnapshotLoader {
+
+    private final PeriodRepository periodRepository;
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final BlockRepository blockRepository;
+    private final CourseBlockAssignmentRepository courseBlockAssignmentRepository;
+    private final PreferenceRepository preferenceRepository;
+    private final UserBlockExclusionRepository userBlockExclusionRepository;
+    private final CourseUserAssignmentRepository courseUserAssignmentRepository;
+
+    @Transactional(readOnly = true)
+    public AssignmentSnapshot load(Long periodId) {
+        long startTime = System.currentTimeMillis();
+
+        Period period = periodRepository.findById(periodId)
+                .orElseThrow(() -> new ServiceException(ErrorCode.NotFound, "Period", periodId));
+
+        List<User> students = userRepository.findAllIlaMembersWithGradeByRole(Role.STUDENT);
+
+        // Alle Kurse der Periode, auch manuelle und Platzhalter: Präferenzen und Zuweisungen können darauf zeigen
+        List<Course> periodCourses = courseRepository.findAllByPeriodIdFetchCategories(periodId);
+        courseRepository.findAllByPeriodIdFetchGrades(periodId);
+        courseRepository.findAllByPeriodIdFetchExcludedGenders(periodId);
+        List<Course> courses = periodCourses.stream()
+                .filter(c -> !c.isManualAssignmentOnly())
+                .filter(c -> !c.isPlaceholder())
+                .collect(Collectors.toList());
+
+        List<Block> blocks = blockRepository.findByPeriod(period);
+
+        // WICHTIG: Erstelle Course -> Block Mapping aus CourseBlockAssignment
+        // Dies ist die EINZIGE Quelle der Wahrheit für den Block eines Kurses!
+        Map<Long, Block> courseToBlock = new HashMap<>();
+        for (CourseBlockAssignment cba : courseBlockAssignmentRepository.findAllByPeriodId(periodId)) {
+            courseToBlock.put(cba.getCourse().getId(), cba.getBlock());
+        }
+        log.info("Loaded {} course-block assignments", courseToBlock.size());
+
+        Map<String, List<Preference>> userPreferences = preferenceRepository.findAllByPeriodIdWithDetails(periodId)
+                .stream()
+                .collect(Collectors.groupingBy(p -> p.getUser().getUserName()));
+
+        Map<String, Set<Long>> userBlockExclusions = new HashMap<>();
+        for (Object[] row : userBlockExclusionRepository.findUserNameAndBlockIdByPeriodId(periodId)) {
+            userBlockExclusions.computeIfAbsent((String) row[0], userName -> new HashSet<>()).add((Long) row[1]);
+        }
+        log.info("Loaded {} user block exclusions", userBlockExclusions.size());
+
+        // Separate preset and non-preset assignments
+        List<CourseUserAssignment> presetAssignments = new ArrayList<>();
+        List<CourseUserAssignment> currentAssignments = new ArrayList<>();
+        for (CourseUserAssignment assignment : courseUserAssignmentRepository.findAllByPeriodIdWithDetails(periodId)) {
+            (assignment.isPreset() ? presetAssignments : currentAssignments).add(assignment);
+        }
+
+        long loadDuration = System.currentTimeMillis() - startTime;
+        log.info("Loaded snapshot for period {}: {} students, {} courses, {} preferences, {} assignments in {}ms",
+                periodId, students.size(), courses.size(),
+                userPreferences.values().stream().mapToInt(List::size).sum(),
+                presetAssignments.size() + currentAssignments.size(), loadDuration);
+
+        return new AssignmentSnapshot(period, students, courses, blocks, courseToBlock, userPreferences,
+                userBlockExclusions, presetAssignments, currentAssignments, LocalDateTime.now(), loadDuration);
+    }
+}
@@ -0,0 +1,26 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import java.util.Random;
+
+/**
+ * Strategie für die präferenzbasierte Zuweisung. Der übergebene Zustand enthält bereits alle Presets;
+ * die Lösung wird direkt in den Zustand geschrieben. Schüler ohne Präferenzen und das Auffüllen
+ * unvollständiger Zuweisungen übernimmt anschließend {@link CourseAssignmentService}.
+ * <p>
+ * Zufallsentscheidungen dürfen ausschließlich aus dem übergebenen {@link Random} kommen, damit ein Lauf
+ * über seinen Seed exakt reproduzierbar ist. Fortschritt wird über {@link AssignmentProgress} gemeldet,
+ * der Lauf kann dabei abgebrochen werden.
+ */
+interface AssignmentSolver {
+
+    AssignmentSolverType getType();
+
+    void solve(AssignmentState state, Random random, AssignmentProgress progress);
+
+    /**
+     * @return {@code true}, wenn das Ergebnis vom Seed abhängt und sich mehrere Läufe lohnen
+     */
+    default boolean isRandomized() {
+        return false;
+    }
+}
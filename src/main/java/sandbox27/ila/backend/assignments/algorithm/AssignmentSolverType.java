@@ -0,0 +1,18 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+/**
+ * Verfahren, mit dem die präferenzbasierten Zuweisungen (Phase 1 und 2) berechnet werden.
+ */
+public enum AssignmentSolverType {
+
+    /**
+     * Greedy-Zuweisung nach "Most Constrained First" mit anschließendem Simulated Annealing.
+     */
+    GREEDY,
+
+    /**
+     * Min-Cost-Flow über Schüler, Wochentage und Kurse bis zur Zweitwahl-Grenze, Kategorien-Regel per gezielter
+     * Reparatur, danach dieselbe lokale Suche wie {@link #GREEDY}.
+     */
+    MIN_COST_FLOW
+}
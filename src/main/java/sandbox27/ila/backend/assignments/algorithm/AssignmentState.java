@@ -0,0 +1,302 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import static sandbox27.ila.backend.assignments.algorithm.CourseAssignmentService.COURSES_PER_STUDENT;
+import static sandbox27.ila.backend.assignments.algorithm.CourseAssignmentService.MIN_CATEGORIES;
+
+/**
+ * Veränderlicher Zustand eines Zuweisungs-Laufs über einem {@link AssignmentModel}.
+ * <p>
+ * Jeder Schüler hat einen festen Bereich von Slots ({@code slotCapacity} Einträge ab {@code s * slotCapacity}),
+ * in dem seine Zuweisungen in Einfüge-Reihenfolge liegen. Belegte Wochentage und Kategorien werden als Bitmasken
+ * mitgeführt, Teilnehmerzahlen als {@code int[]} je Kurs.
+ */
+final class AssignmentState {
+
+    final AssignmentModel model;
+    final int slotCapacity;
+
+    final int[] courseAttendees;
+    final int[] assignmentCount;
+    final int[] slotBlock;
+    final int[] slotCourse;
+    final int[] slotPriority;
+    final int[] dayMask;
+    final int[] categoryMask;
+
+    // Anzahl führender Slots je Schüler, die die lokale Suche nicht verändern darf
+    final int[] lockedCount;
+
+    AssignmentState(AssignmentModel model) {
+        this.model = model;
+        this.slotCapacity = Math.max(COURSES_PER_STUDENT, model.maxPresetsPerStudent);
+        int studentCount = model.studentCount();
+        this.courseAttendees = new int[model.courseCount()];
+        this.assignmentCount = new int[studentCount];
+        this.slotBlock = new int[studentCount * slotCapacity];
+        this.slotCourse = new int[studentCount * slotCapacity];
+        this.slotPriority = new int[studentCount * slotCapacity];
+        this.dayMask = new int[studentCount];
+        this.categoryMask = new int[studentCount];
+        this.lockedCount = new int[studentCount];
+    }
+
+    /**
+     * Übernimmt alle Presets des Modells mit Priorität -1.
+     */
+    void applyPresets() {
+        for (int i = 0; i < model.presetCourse.length; i++) {
+            assign(model.presetStudent[i], model.presetBlock[i], model.presetCourse[i], -1);
+        }
+    }
+
+    /**
+     * Sperrt alle bisherigen Zuweisungen gegen Änderungen durch die lokale Suche (inkrementelle Zuweisung).
+     */
+    void lockAssignments() {
+        System.arraycopy(assignmentCount, 0, lockedCount, 0, assignmentCount.length);
+    }
+
+    /**
+     * Slot aus einer Präferenz oder einem Fallback, der weder Preset noch gesperrt ist.
+     *
+     * @param slot absoluter Slot-Index ({@code student * slotCapacity + i})
+     */
+    boolean isMovable(int slot) {
+        return slotPriority[slot] >= 0 && slot % slotCapacity >= lockedCount[slot / slotCapacity];
+    }
+
+    /**
+     * @param student Schüler-Index oder -1 für Nutzer außerhalb des Algorithmus (zählt nur zur Belegung)
+     */
+    void assign(int student, int block, int course, int priority) {
+        if (model.courseBlock[course] == block) {
+            courseAttendees[course]++;
+        }
+        if (student < 0) {
+            return;
+        }
+        int slot = student * slotCapacity + assignmentCount[student]++;
+        slotBlock[slot] = block;
+        slotCourse[slot] = course;
+        slotPriority[slot] = priority;
+        dayMask[student] |= model.blockDayMask[block];
+        categoryMask[student] |= model.courseCategoryMask[course];
+    }
+
+    /**
+     * Ersetzt Kurs und Block eines bestehenden Slots an Ort und Stelle (Position und Anzahl bleiben erhalten).
+     *
+     * @param slot absoluter Slot-Index ({@code student * slotCapacity + i})
+     */
+    void reassign(int slot, int block, int course, int priority) {
+        int oldCourse = slotCourse[slot];
+        if (model.courseBlock[oldCourse] == slotBlock[slot]) {
+            courseAttendees[oldCourse]--;
+        }
+        if (model.courseBlock[course] == block) {
+            courseAttendees[course]++;
+        }
+        slotBlock[slot] = block;
+        slotCourse[slot] = course;
+        slotPriority[slot] = priority;
+        recomputeMasks(slot / slotCapacity);
+    }
+
+    /**
+     * Wochentage der übrigen Slots des Schülers, ohne den angegebenen Slot.
+     */
+    int dayMaskWithout(int slot) {
+        int student = slot / slotCapacity;
+        int days = 0;
+        for (int other = student * slotCapacity; other < student * slotCapacity + assignmentCount[student]; other++) {
+            if (other != slot) {
+                days |= model.blockDayMask[slotBlock[other]];
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Kategorien der übrigen Slots des Schülers, ohne den angegebenen Slot.
+     */
+    int categoryMaskWithout(int slot) {
+        int student = slot / slotCapacity;
+        int categories = 0;
+        for (int other = student * slotCapacity; other < student * slotCapacity + assignmentCount[student]; other++) {
+            if (other != slot) {
+                categories |= model.courseCategoryMask[slotCourse[other]];
+            }
+        }
+        return categories;
+    }
+
+    private void recomputeMasks(int student) {
+        int days = 0;
+        int categories = 0;
+        int from = student * slotCapacity;
+        int to = from + assignmentCount[student];
+        for (int slot = from; slot < to; slot++) {
+            days |= model.blockDayMask[slotBlock[slot]];
+            categories |= model.courseCategoryMask[slotCourse[slot]];
+        }
+        dayMask[student] = days;
+        categoryMask[student] = categories;
+    }
+
+    int getAssignmentCount(int student) {
+        return assignmentCount[student];
+    }
+
+    int getRemainingSlots(int student) {
+        return COURSES_PER_STUDENT - assignmentCount[student];
+    }
+
+    int getExclusionCount(int student) {
+        return model.exclusionCount[student];
+    }
+
+    int getCourseAttendees(int course) {
+        return courseAttendees[course];
+    }
+
+    boolean isCourseFull(int course) {
+        return courseAttendees[course] >= model.courseCapacity[course];
+    }
+
+    /**
+     * Block ist weder gesperrt noch fällt er auf einen bereits belegten Wochentag.
+     */
+    boolean isBlockAvailable(int student, int block) {
+        return !model.isBlockExcluded(student, block) && (dayMask[student] & model.blockDayMask[block]) == 0;
+    }
+
+    int countAvailableBlocks(int student) {
+        int count = 0;
+        for (int b = 0; b < model.periodBlockCount; b++) {
+            if (isBlockAvailable(student, b)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Prüft alle harten Regeln (Sperre, Kapazität, Klassenstufe, Geschlecht, Wochentag)
+     * und optional die Kategorien-Regel für den letzten freien Slot.
+     */
+    boolean isValidAssignment(int student, int block, int course, boolean strictCategoryCheck) {
+        if (model.isBlockExcluded(student, block)) {
+            return false;
+        }
+
+        if (isCourseFull(course)) {
+            return false;
+        }
+
+        if (!model.isCourseAllowed(student, course)) {
+            return false;
+        }
+
+        if ((dayMask[student] & model.blockDayMask[block]) != 0) {
+            return false;
+        }
+
+        if (strictCategoryCheck) {
+            int newCategories = categoryMask[student] | model.courseCategoryMask[course];
+            int remainingSlots = COURSES_PER_STUDENT - assignmentCount[student] - 1;
+
+            if (remainingSlots == 0 && Integer.bitCount(newCategories) < MIN_CATEGORIES) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Sucht die beste gültige Präferenz des Schülers über alle verfügbaren Blöcke.
+     *
+     * @return Index der Präferenz im Modell oder -1
+     */
+    int findBestPreference(int student, boolean strictCategoryCheck) {
+        int bestPref = -1;
+        int bestPriority = Integer.MAX_VALUE;
+
+        for (int block = 0; block < model.periodBlockCount; block++) {
+            if (!isBlockAvailable(student, block)) {
+                continue;
+            }
+            // Präferenzen sind nach dem Block des Kurses gruppiert (CourseBlockAssignment, nicht Preference.block!)
+            for (int pref = model.prefFrom(student, block); pref < model.prefTo(student, block); pref++) {
+                if (isValidAssignment(student, block, model.prefCourse[pref], strictCategoryCheck)) {
+                    if (model.prefPriority[pref] < bestPriority) {
+                        bestPriority = model.prefPriority[pref];
+                        bestPref = pref;
+
+                        if (bestPriority == 0) {
+                            return bestPref;
+                        }
+                    }
+                }
+            }
+        }
+
+        return bestPref;
+    }
+
+    /**
+     * @return Anzahl Schüler mit weniger als {@code COURSES_PER_STUDENT} Kursen
+     */
+    int countIncompleteStudents() {
+        int count = 0;
+        for (int student = 0; student < assignmentCount.length; student++) {
+            if (assignmentCount[student] < COURSES_PER_STUDENT) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Durchschnittliche Priorität (1-basiert) der Präferenz-Zuweisungen, wie in der Statistik des Ergebnisses.
+     */
+    double getAveragePriority() {
+        long sum = 0;
+        int count = 0;
+        for (int student = 0; student < assignmentCount.length; student++) {
+            int from = student * slotCapacity;
+            for (int slot = from; slot < from + assignmentCount[student]; slot++) {
+                if (slotPriority[slot] >= 0 && slotPriority[slot] < 999) {
+                    sum += slotPriority[slot] + 1;
+                    count++;
+                }
+            }
+        }
+        return count > 0 ? (double) sum / count : 0;
+    }
+
+    double getFairnessScore(int student) {
+        int count = assignmentCount[student];
+        if (count == 0) {
+            return Double.MAX_VALUE;
+        }
+        long sum = 0;
+        int from = student * slotCapacity;
+        for (int slot = from; slot < from + count; slot++) {
+            sum += slotPriority[slot];
+        }
+        return (double) sum / count;
+    }
+
+    /**
+     * Ermittelt die Priority für einen Kurs (unabhängig vom Block), erste Präferenz in Original-Reihenfolge.
+     */
+    int getPriorityForCourse(int student, int course) {
+        for (int p = model.rawPrefStart[student]; p < model.rawPrefStart[student + 1]; p++) {
+            if (model.rawPrefCourse[p] == course) {
+                return model.rawPrefPriority[p];
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+}
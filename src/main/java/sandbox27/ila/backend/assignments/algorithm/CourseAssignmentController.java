@@ -2,8 +2,10 @@ package sandbox27.ila.backend.assignments.algorithm;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import sandbox27.ila.backend.user.Role;
 import sandbox27.infrastructure.security.RequiredRole;
 import sandbox27.infrastructure.error.ServiceException;
@@ -17,6 +19,8 @@ import java.util.List;
 public class CourseAssignmentController {
 
     private final CourseAssignmentService courseAssignmentService;
+    private final AssignmentSimulationService assignmentSimulationService;
+    private final AssignmentJobService assignmentJobService;
 
     @GetMapping("/history")
     @RequiredRole(Role.ADMIN_ROLE_NAME)
@@ -26,10 +30,20 @@ public class CourseAssignmentController {
 
     @PostMapping
     @RequiredRole(Role.ADMIN_ROLE_NAME)
-    public ResponseEntity<AssignmentResult> assignCourses(@PathVariable Long periodId) {
+    public ResponseEntity<AssignmentResult> assignCourses(@PathVariable Long periodId,
+                                                          @RequestParam(name = "solver", defaultValue = "MIN_COST_FLOW") AssignmentSolverType solver,
+                                                          @RequestParam(name = "runs", defaultValue = "1") int runs,
+                                                          @RequestParam(name = "seed", required = false) Long seed,
+                                                          @RequestParam(name = "incremental", defaultValue = "false") boolean incremental) {
         try {
-            log.info("Starting course assignment for period {}", periodId);
-            AssignmentResult result = courseAssignmentService.assignCourses(periodId);
+            if (incremental) {
+                log.info("Starting incremental course assignment for period {} with solver {}, seed {}", periodId, solver, seed);
+                AssignmentResult result = courseAssignmentService.repairAssignments(periodId, solver, seed);
+                log.info("Incremental course assignment completed successfully");
+                return ResponseEntity.ok(result);
+            }
+            log.info("Starting course assignment for period {} with solver {}, runs {}, seed {}", periodId, solver, runs, seed);
+            AssignmentResult result = courseAssignmentService.assignCourses(periodId, solver, runs, seed);
             log.info("Course assignment completed successfully");
             return ResponseEntity.ok(result);
         } catch (ServiceException e) {
@@ -41,4 +55,51 @@ public class CourseAssignmentController {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Was-wäre-wenn-Simulation ohne Datenbankänderungen.
+     */
+    @PostMapping("/simulate")
+    @RequiredRole(Role.ADMIN_ROLE_NAME)
+    public AssignmentSimulationResult simulateAssignment(@PathVariable Long periodId,
+                                                         @RequestBody AssignmentSimulationRequest request) {
+        log.info("Starting assignment simulation for period {}", periodId);
+        return assignmentSimulationService.simulate(periodId, request);
+    }
+
+    /**
+     * Startet die Zuweisung als Hintergrund-Job; der Fortschritt ist über {@code /jobs/{jobId}/events} abrufbar.
+     */
+    @PostMapping("/jobs")
+    @RequiredRole(Role.ADMIN_ROLE_NAME)
+    public AssignmentJobStatus submitAssignmentJob(@PathVariable Long periodId,
+                                                   @RequestParam(name = "solver", defaultValue = "MIN_COST_FLOW") AssignmentSolverType solver,
+                                                   @RequestParam(name = "runs", defaultValue = "1") int runs,
+                                                   @RequestParam(name = "seed", required = false) Long seed) {
+        return assignmentJobService.submit(periodId, solver, runs, seed);
+    }
+
+    @GetMapping("/jobs")
+    @RequiredRole(Role.ADMIN_ROLE_NAME)
+    public List<AssignmentJobStatus> getAssignmentJobs(@PathVariable Long periodId) {
+        return assignmentJobService.getJobs(periodId);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @RequiredRole(Role.ADMIN_ROLE_NAME)
+    public AssignmentJobStatus getAssignmentJob(@PathVariable Long periodId, @PathVariable String jobId) {
+        return assignmentJobService.getStatus(periodId, jobId);
+    }
+
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequiredRole(Role.ADMIN_ROLE_NAME)
+    public SseEmitter streamAssignmentJob(@PathVariable Long periodId, @PathVariable String jobId) {
+        return assignmentJobService.subscribe(periodId, jobId);
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    @RequiredRole(Role.ADMIN_ROLE_NAME)
+    public AssignmentJobStatus cancelAssignmentJob(@PathVariable Long periodId, @PathVariable String jobId) {
+        return assignmentJobService.cancel(periodId, jobId);
+    }
+
+}
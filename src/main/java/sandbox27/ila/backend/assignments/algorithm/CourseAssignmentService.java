@@ -2,158 +2,118 @@ package sandbox27.ila.backend.assignments.algorithm;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sandbox27.ila.backend.block.Block;
-import sandbox27.ila.backend.block.BlockRepository;
 import sandbox27.ila.backend.course.Course;
 import sandbox27.ila.backend.course.CourseCategory;
-import sandbox27.ila.backend.course.CourseRepository;
-import sandbox27.ila.backend.course.CourseBlockAssignment;
-import sandbox27.ila.backend.course.CourseBlockAssignmentRepository;
+import sandbox27.ila.backend.course.CourseSeatService;
 import sandbox27.ila.backend.assignments.CourseUserAssignment;
 import sandbox27.ila.backend.assignments.CourseUserAssignmentRepository;
+import sandbox27.ila.backend.assignments.events.CourseAssignmentsChangedEvent;
 import sandbox27.ila.backend.period.Period;
 import sandbox27.ila.backend.period.PeriodRepository;
 import sandbox27.ila.backend.preference.Preference;
-import sandbox27.ila.backend.preference.PreferenceRepository;
 import sandbox27.ila.backend.user.User;
-import sandbox27.ila.backend.user.UserRepository;
-import sandbox27.ila.backend.exclusion.UserBlockExclusionService;
 import sandbox27.infrastructure.error.ErrorCode;
 import sandbox27.infrastructure.error.ServiceException;
 
-import java.time.DayOfWeek;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CourseAssignmentService {
 
-    private final PeriodRepository periodRepository;
-    private final UserRepository userRepository;
-    private final CourseRepository courseRepository;
-    private final BlockRepository blockRepository;
-    private final PreferenceRepository preferenceRepository;
     private final CourseUserAssignmentRepository courseUserAssignmentRepository;
-    private final CourseBlockAssignmentRepository courseBlockAssignmentRepository;
-    private final UserBlockExclusionService userBlockExclusionService;
     private final AssignmentResultRepository assignmentResultRepository;
+    private final AssignmentSnapshotLoader snapshotLoader;
+    private final AssignmentBatchWriter batchWriter;
+    private final List<AssignmentSolver> assignmentSolvers;
+    private final AssignmentSnapshotCache snapshotCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CourseSeatService courseSeatService;
+    private final PeriodRepository periodRepository;
 
-    private static final int COURSES_PER_STUDENT = 3;
-    private static final int MIN_CATEGORIES = 2;
-    private static final int MAX_ITERATIONS = 50;
-    private static final int SWAP_ATTEMPTS = 1000;
+    static final int COURSES_PER_STUDENT = 3;
+    static final int MIN_CATEGORIES = 2;
+    private static final int MAX_RUNS = 64;
 
     List<AssignmentResult> getAllAssignmentResultsForPeriod(long periodId) {
         return assignmentResultRepository.findByPeriod_IdOrderByExecutedAtDesc(periodId);
     }
 
+    /**
+     * Führt die Zuweisung in {@code runs} unabhängigen, geseedeten Läufen parallel aus und speichert den besten.
+     * Mit explizitem {@code seed} wird genau dieser eine Lauf reproduziert.
+     */
     @Transactional
-    public AssignmentResult assignCourses(Long periodId) {
+    public AssignmentResult assignCourses(Long periodId, AssignmentSolverType solverType, int runs, Long seed) {
         long startTime = System.currentTimeMillis();
 
-        Period period = periodRepository.findById(periodId)
-                .orElseThrow(() -> new ServiceException(ErrorCode.NotFound, "Period", periodId));
-
-        // Load all necessary data
-        List<User> students = userRepository.findAll().stream()
-                .filter(User::isIlaMember)
-                .filter(u -> u.getRoles().stream().anyMatch(r -> r.name().contains("STUDENT")))
-                .filter(u -> u.getGrade() > 0)
-                .collect(Collectors.toList());
-
-        List<Course> courses = courseRepository.findAllByPeriod(period).stream()
-                .filter(c -> !c.isManualAssignmentOnly())
-                .filter(c -> !c.isPlaceholder())
-                .collect(Collectors.toList());
-
-        List<Block> blocks = blockRepository.findByPeriod(period);
-
-        // WICHTIG: Erstelle Course -> Block Mapping aus CourseBlockAssignment
-        // Dies ist die EINZIGE Quelle der Wahrheit für den Block eines Kurses!
-        Map<Long, Block> courseToBlock = new HashMap<>();
-        List<CourseBlockAssignment> courseBlockAssignments = courseBlockAssignmentRepository.findAllByPeriodId(periodId);
-        for (CourseBlockAssignment cba : courseBlockAssignments) {
-            courseToBlock.put(cba.getCourse().getId(), cba.getBlock());
-        }
-        log.info("Loaded {} course-block assignments", courseToBlock.size());
-
-        Map<String, List<Preference>> userPreferences = preferenceRepository
-                .findAllByBlock_Period(period)
-                .stream()
-                .collect(Collectors.groupingBy(p -> p.getUser().getUserName()));
-
-        // Load user block exclusions
-        Map<String, Set<Long>> userBlockExclusions = new HashMap<>();
-        for (User student : students) {
-            Set<Long> excludedBlocks = userBlockExclusionService.getExcludedBlockIds(student.getUserName(), periodId);
-            if (!excludedBlocks.isEmpty()) {
-                userBlockExclusions.put(student.getUserName(), excludedBlocks);
-            }
-        }
-        log.info("Loaded {} user block exclusions", userBlockExclusions.size());
+        AssignmentSolver solver = getSolver(solverType);
 
-        // Clear existing assignments that are not preset
-        List<CourseUserAssignment> existingAssignments = courseUserAssignmentRepository
-                .findByCourse_Period(period);
+        lockPeriod(periodId);
+        AssignmentSnapshot snapshot = snapshotLoader.load(periodId);
+        AssignmentModel model = prepareModel(snapshot);
 
-        // Separate preset and non-preset assignments
-        List<CourseUserAssignment> presetAssignments = existingAssignments.stream()
-                .filter(CourseUserAssignment::isPreset)
-                .collect(Collectors.toList());
+        AssignmentRun best = solve(model, solver, runs, seed, AssignmentProgress.NONE);
 
-        List<CourseUserAssignment> toDelete = existingAssignments.stream()
-                .filter(a -> !a.isPreset())
-                .collect(Collectors.toList());
-        courseUserAssignmentRepository.deleteAll(toDelete);
+        return saveRun(snapshot, best, startTime);
+    }
 
-        // Initialize assignment state - jetzt mit courseToBlock Map!
-        AssignmentState state = new AssignmentState(students, courses, blocks, userPreferences, userBlockExclusions, courseToBlock);
+    /**
+     * Erstellt das Modell zum Snapshot und loggt die Schüler mit Einschränkungen.
+     */
+    AssignmentModel prepareModel(AssignmentSnapshot snapshot) {
+        AssignmentModel model = snapshot.toModel();
+        AssignmentState initialState = new AssignmentState(model);
 
         // Load preset assignments into state
-        log.info("Loading {} preset assignments into state", presetAssignments.size());
-        for (CourseUserAssignment preset : presetAssignments) {
-            User student = preset.getUser();
-            // Priority -1 indicates a preset assignment (not from preferences)
-            state.assign(student, preset.getBlock(), preset.getCourse(), -1);
-        }
+        // Priority -1 indicates a preset assignment (not from preferences)
+        log.info("Loading {} preset assignments into state", snapshot.presetAssignments().size());
+        initialState.applyPresets();
 
         // Log students with constraints
-        logStudentsWithConstraints(state);
-
-        // Phase 1: Greedy assignment with fairness
-        log.info("Phase 1: Greedy assignment with fairness balancing");
-        greedyAssignmentWithFairness(state);
-
-        // Phase 2: Local optimization through swaps
-        log.info("Phase 2: Local optimization through swaps");
-        localOptimization(state);
+        logStudentsWithConstraints(initialState);
+        return model;
+    }
 
-        // Phase 3: Assign students without preferences
-        log.info("Phase 3: Assigning students without preferences");
-        int studentsWithoutPreferences = assignStudentsWithoutPreferences(state);
+    /**
+     * Ersetzt alle nicht-Preset-Zuweisungen der Periode durch die des Laufs und speichert das Ergebnis.
+     * Muss in einer Transaktion laufen; gelöscht wird mengenbasiert nach Periode, damit auch ein außerhalb
+     * der Transaktion berechneter Lauf den aktuellen Stand ersetzt. Die Periode bleibt bis zum Commit gesperrt.
+     */
+    AssignmentResult saveRun(AssignmentSnapshot snapshot, AssignmentRun run, long startTime) {
+        Period period = snapshot.period();
+        lockPeriod(period.getId());
+        long writeStart = System.currentTimeMillis();
 
-        // Phase 4: Fill incomplete assignments (relaxed category constraint)
-        log.info("Phase 4: Filling incomplete assignments (relaxed category constraint)");
-        int filledInPhase4 = fillIncompleteAssignmentsRelaxed(state);
-        if (filledInPhase4 > 0) {
-            log.info("Phase 4 completed: {} additional assignments made", filledInPhase4);
-        }
+        // Clear existing assignments that are not preset
+        int deleted = courseUserAssignmentRepository.deleteNonPresetByPeriodId(period.getId());
+        snapshotCache.invalidate(period.getId());
+        eventPublisher.publishEvent(new CourseAssignmentsChangedEvent(period.getId()));
 
         // Save assignments to database
-        log.info("Saving assignments to database");
-        saveAssignments(state, period);
+        int inserted = batchWriter.insertAll(run.state());
+        courseSeatService.resync(period.getId());
+        long writeDuration = System.currentTimeMillis() - writeStart;
+        log.info("Saved assignments to database: {} deleted, {} inserted in {}ms", deleted, inserted, writeDuration);
 
-        // Generate statistics
-        AssignmentResult result = generateStatistics(state, studentsWithoutPreferences);
+        AssignmentResult result = run.result();
 
         // Calculate execution duration
         long executionDuration = System.currentTimeMillis() - startTime;
         result.setExecutionDurationMs(executionDuration);
+        result.setLoadDurationMs(snapshot.loadDurationMs());
+        result.setWriteDurationMs(writeDuration);
         result.setPeriod(period);
 
         log.info("Assignment completed: {} students assigned, avg priority: {}, duration: {}ms",
@@ -163,215 +123,296 @@ public class CourseAssignmentService {
     }
 
     /**
-     * Loggt Schüler mit Einschränkungen (Block-Exclusions oder Presets) zur Transparenz.
+     * Löst ein Modell ohne Datenbankzugriff. Das Ergebnis trägt Statistik, Solver und Seeds, aber keine Periode.
      */
-    private void logStudentsWithConstraints(AssignmentState state) {
-        List<User> constrainedStudents = state.students.stream()
-                .filter(s -> state.getExclusionCount(s) > 0 || state.getAssignmentCount(s) > 0)
-                .sorted(Comparator.comparingInt(state::getRemainingSlots))
-                .collect(Collectors.toList());
+    AssignmentRun solve(AssignmentModel model, AssignmentSolver solver, int runs, Long seed, AssignmentProgress progress) {
+        List<Long> seeds = createSeeds(solver, runs, seed);
+        AssignmentRun best = runAll(model, solver, seeds, progress);
+        log.info("Selected run with seed {} out of {} runs (objective {})",
+                best.seed(), seeds.size(), best.objective());
+
+        AssignmentResult result = best.result();
+        result.setSolver(solver.getType());
+        result.setSeed(best.seed());
+        result.setRunSeeds(new ArrayList<>(seeds));
+        return best;
+    }
 
-        if (!constrainedStudents.isEmpty()) {
-            log.info("=== Schüler mit Einschränkungen (werden bevorzugt behandelt) ===");
-            for (User student : constrainedStudents) {
-                int exclusions = state.getExclusionCount(student);
-                int presets = state.getAssignmentCount(student);
-                int remainingSlots = state.getRemainingSlots(student);
-                int availableBlocks = state.getAvailableBlocks(student).size();
+    AssignmentSolver getSolver(AssignmentSolverType solverType) {
+        return assignmentSolvers.stream()
+                .filter(candidate -> candidate.getType() == solverType)
+                .findFirst()
+                .orElseThrow(() -> new ServiceException(ErrorCode.NotImplemented, solverType));
+    }
 
-                log.info("  {} (Klasse {}): {} Exclusions, {} Presets, {} verbleibende Slots, {} verfügbare Blöcke",
-                        student.getUserName(),
-                        student.getGrade(),
-                        exclusions,
-                        presets,
-                        remainingSlots,
-                        availableBlocks);
-            }
-        }
+    /**
+     * Sperrt die Periode bis zum Ende der Transaktion. Schreibende Läufe derselben Periode (synchron, inkrementell,
+     * Job) und die Auflösung der Wechselwünsche laufen dadurch auch über mehrere Instanzen nacheinander; die Sperre
+     * muss vor dem ersten Lesen genommen werden, damit danach der Stand nach dem vorherigen Commit gelesen wird.
+     */
+    private void lockPeriod(long periodId) {
+        periodRepository.findByIdForUpdate(periodId)
+                .orElseThrow(() -> new ServiceException(ErrorCode.NotFound, "Period", periodId));
     }
 
-    private void greedyAssignmentWithFairness(AssignmentState state) {
-        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
-            // Sort students using "Most Constrained Variable First" principle
-            List<User> sortedStudents = new ArrayList<>(state.students);
-            sortedStudents.sort(
-                    Comparator.comparingInt(state::getRemainingSlots)
-                            .thenComparingInt(s -> state.getAvailableBlocks(s).size())
-                            .thenComparing(Comparator.comparingDouble(state::getFairnessScore).reversed())
-            );
+    /**
+     * Inkrementelle Zuweisung: übernimmt die bestehenden Zuweisungen der Periode und verwirft nur die,
+     * die unter den aktuellen Regeln (neue Presets, Sperren, geänderte Kapazitäten oder Blöcke, nachgereichte
+     * Präferenzen) nicht mehr gültig sind. Nur die dadurch unvollständigen Schüler werden neu zugewiesen,
+     * geschrieben werden ausschließlich geänderte Zeilen.
+     * <p>
+     * Übernommene Zuweisungen werden für die lokale Suche gesperrt, vollständig zugewiesene Schüler bleiben dadurch
+     * mit jedem Solver unverändert. Der Lauf ist über den im Ergebnis gespeicherten Seed reproduzierbar.
+     */
+    @Transactional
+    public AssignmentResult repairAssignments(Long periodId, AssignmentSolverType solverType, Long seed) {
+        long startTime = System.currentTimeMillis();
 
-            boolean anyAssignment = false;
+        AssignmentSolver solver = getSolver(solverType);
+        long runSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
 
-            for (User student : sortedStudents) {
-                if (state.getAssignmentCount(student) >= COURSES_PER_STUDENT) {
-                    continue;
-                }
+        lockPeriod(periodId);
+        AssignmentSnapshot snapshot = snapshotLoader.load(periodId);
+        Period period = snapshot.period();
+        List<CourseUserAssignment> currentAssignments = snapshot.currentAssignments();
 
-                Assignment bestAssignment = findBestAssignment(student, state);
+        AssignmentState state = new AssignmentState(snapshot.toModel());
+        state.applyPresets();
 
-                if (bestAssignment != null) {
-                    state.assign(student, bestAssignment.block, bestAssignment.course, bestAssignment.priority);
-                    anyAssignment = true;
+        boolean[] preferencesChanged = findChangedPreferences(state.model, snapshot.userPreferences(),
+                assignmentResultRepository.findFirstByPeriod_IdOrderByExecutedAtDesc(periodId).orElse(null));
+        int kept = keepValidAssignments(state, currentAssignments, preferencesChanged);
+        state.lockAssignments();
+        log.info("Incremental assignment: kept {} of {} existing assignments", kept, currentAssignments.size());
 
-                    if (state.getExclusionCount(student) > 0) {
-                        log.debug("Constrained student {} assigned to {} (priority {}), now has {}/{} courses",
-                                student.getUserName(),
-                                bestAssignment.course.getName(),
-                                bestAssignment.priority,
-                                state.getAssignmentCount(student),
-                                COURSES_PER_STUDENT);
-                    }
-                }
-            }
+        log.info("Repairing incomplete students with solver {} (seed {})", solver.getType(), runSeed);
+        solver.solve(state, new Random(runSeed), AssignmentProgress.NONE);
 
-            if (!anyAssignment) {
-                log.info("No more assignments possible after iteration {}", iteration);
-                break;
-            }
+        log.info("Phase 3: Assigning students without preferences");
+        int studentsWithoutPreferences = assignStudentsWithoutPreferences(state);
+
+        log.info("Phase 4: Filling incomplete assignments (relaxed category constraint)");
+        int filledInPhase4 = fillIncompleteAssignmentsRelaxed(state);
+        if (filledInPhase4 > 0) {
+            log.info("Phase 4 completed: {} additional assignments made", filledInPhase4);
         }
-    }
 
-    private Assignment findBestAssignment(User student, AssignmentState state) {
-        List<Block> availableBlocks = state.getAvailableBlocks(student);
-        Assignment bestAssignment = null;
-        int bestPriority = Integer.MAX_VALUE;
+        long writeStart = System.currentTimeMillis();
+        int changedAssignments = saveAssignmentChanges(state, currentAssignments);
+        courseSeatService.resync(periodId);
+        long writeDuration = System.currentTimeMillis() - writeStart;
+        snapshotCache.invalidate(periodId);
+        eventPublisher.publishEvent(new CourseAssignmentsChangedEvent(periodId));
 
-        for (Block block : availableBlocks) {
-            // Hole Präferenzen für diesen Block (basierend auf CourseBlockAssignment, nicht Preference.block!)
-            List<Preference> prefs = state.getPreferencesForBlock(student, block);
+        AssignmentResult result = generateStatistics(state, studentsWithoutPreferences);
+        long executionDuration = System.currentTimeMillis() - startTime;
+        result.setExecutionDurationMs(executionDuration);
+        result.setLoadDurationMs(snapshot.loadDurationMs());
+        result.setWriteDurationMs(writeDuration);
+        result.setPeriod(period);
+        result.setIncremental(true);
+        result.setChangedAssignments(changedAssignments);
+        result.setSolver(solver.getType());
+        result.setSeed(runSeed);
+        result.setRunSeeds(new ArrayList<>(List.of(runSeed)));
 
-            for (Preference pref : prefs) {
-                Course course = pref.getCourse();
+        log.info("Incremental assignment completed: {} rows changed, {} students assigned, duration: {}ms",
+                changedAssignments, result.getAssignedStudents(), executionDuration);
 
-                if (isValidAssignment(student, block, course, state)) {
-                    if (pref.getPreferenceIndex() < bestPriority) {
-                        bestPriority = pref.getPreferenceIndex();
-                        bestAssignment = new Assignment(block, course, pref.getPreferenceIndex());
+        return assignmentResultRepository.save(result);
+    }
 
-                        if (bestPriority == 0) {
-                            return bestAssignment;
-                        }
-                    }
+    /**
+     * Markiert Schüler, deren Präferenzen seit Beginn des letzten gespeicherten Laufs angelegt oder geändert wurden.
+     * Ohne vorherigen Lauf gilt jeder Schüler mit Präferenzen als geändert.
+     */
+    private boolean[] findChangedPreferences(AssignmentModel model, Map<String, List<Preference>> userPreferences,
+                                             AssignmentResult lastResult) {
+        LocalDateTime lastRunStart = null;
+        if (lastResult != null && lastResult.getExecutedAt() != null) {
+            long durationMs = lastResult.getExecutionDurationMs() != null ? lastResult.getExecutionDurationMs() : 0;
+            lastRunStart = lastResult.getExecutedAt().minus(durationMs, ChronoUnit.MILLIS);
+        }
+
+        boolean[] changed = new boolean[model.studentCount()];
+        for (int s = 0; s < model.studentCount(); s++) {
+            for (Preference preference : userPreferences.getOrDefault(model.students[s].getUserName(), List.of())) {
+                if (lastRunStart == null
+                        || preference.getUpdatedAt() != null && preference.getUpdatedAt().isAfter(lastRunStart)) {
+                    changed[s] = true;
+                    break;
                 }
             }
         }
-
-        return bestAssignment;
-    }
-
-    private boolean isValidAssignment(User student, Block block, Course course, AssignmentState state) {
-        return isValidAssignment(student, block, course, state, true);
+        return changed;
     }
 
-    private boolean isValidAssignment(User student, Block block, Course course,
-                                      AssignmentState state, boolean strictCategoryCheck) {
-        if (state.isBlockExcludedForUser(student, block)) {
-            return false;
-        }
-
-        if (state.getCourseAttendees(course, block) >= course.getMaxAttendees()) {
-            return false;
-        }
-
-        if (!course.getGrades().isEmpty() && !course.getGrades().contains(student.getGrade())) {
-            return false;
-        }
-
-        if (course.getExcludedGenders().contains(student.getGender())) {
-            return false;
-        }
+    /**
+     * Übernimmt bestehende Zuweisungen in den Zustand, sofern sie weiterhin gültig sind. Präferenz-Zuweisungen
+     * werden nach Priorität zuerst übernommen, damit bei gesunkener Kapazität die schlechtesten herausfallen.
+     * Fallback-Zuweisungen bleiben erhalten; nur bei Schülern, deren Präferenzen sich seit dem letzten Lauf
+     * geändert haben, werden sie verworfen und neu berechnet.
+     *
+     * @return Anzahl übernommener Zuweisungen
+     */
+    private int keepValidAssignments(AssignmentState state, List<CourseUserAssignment> currentAssignments,
+                                     boolean[] preferencesChanged) {
+        AssignmentModel model = state.model;
+        Map<String, Integer> studentIndex = new HashMap<>();
+        for (int s = 0; s < model.studentCount(); s++) {
+            studentIndex.put(model.students[s].getUserName(), s);
+        }
+        Map<Long, Integer> courseIndex = new HashMap<>();
+        for (int c = 0; c < model.courseCount(); c++) {
+            courseIndex.put(model.courses[c].getId(), c);
+        }
+        Map<Long, Integer> blockIndex = new HashMap<>();
+        for (int b = 0; b < model.blockCount(); b++) {
+            blockIndex.put(model.blocks[b].getId(), b);
+        }
+
+        // {Schüler, Block, Kurs, Priorität}
+        List<int[]> candidates = new ArrayList<>(currentAssignments.size());
+        for (CourseUserAssignment assignment : currentAssignments) {
+            Integer student = studentIndex.get(assignment.getUser().getUserName());
+            Integer course = courseIndex.get(assignment.getCourse().getId());
+            Integer block = blockIndex.get(assignment.getBlock().getId());
+            if (student == null || course == null || block == null || model.courseBlock[course] != block) {
+                continue;
+            }
 
-        Set<DayOfWeek> assignedDays = state.getAssignedDays(student);
-        if (assignedDays.contains(block.getDayOfWeek())) {
-            return false;
+            int priority = state.getPriorityForCourse(student, course);
+            if (priority == Integer.MAX_VALUE) {
+                if (preferencesChanged[student] || course >= model.assignableCourseCount) {
+                    continue;
+                }
+                priority = 999;
+            }
+            candidates.add(new int[]{student, block, course, priority});
         }
 
-        if (strictCategoryCheck) {
-            Set<CourseCategory> currentCategories = state.getAssignedCategories(student);
-            Set<CourseCategory> newCategories = new HashSet<>(currentCategories);
-            newCategories.addAll(course.getCourseCategories());
-
-            int remainingSlots = COURSES_PER_STUDENT - state.getAssignmentCount(student) - 1;
+        candidates.sort(Comparator.comparingInt(candidate -> candidate[3]));
 
-            if (remainingSlots == 0 && newCategories.size() < MIN_CATEGORIES) {
-                return false;
+        int kept = 0;
+        for (int[] candidate : candidates) {
+            int student = candidate[0];
+            if (state.getAssignmentCount(student) >= COURSES_PER_STUDENT
+                    || !state.isValidAssignment(student, candidate[1], candidate[2], false)) {
+                continue;
             }
+            state.assign(student, candidate[1], candidate[2], candidate[3]);
+            kept++;
         }
-
-        return true;
+        return kept;
     }
 
-    private void localOptimization(AssignmentState state) {
-        Random random = new Random();
-
-        for (int attempt = 0; attempt < SWAP_ATTEMPTS; attempt++) {
-            List<User> completeStudents = state.students.stream()
-                    .filter(s -> state.getAssignmentCount(s) == COURSES_PER_STUDENT)
-                    .collect(Collectors.toList());
-
-            if (completeStudents.size() < 2) {
-                break;
-            }
-
-            User student1 = completeStudents.get(random.nextInt(completeStudents.size()));
-            User student2 = completeStudents.get(random.nextInt(completeStudents.size()));
-
-            if (student1.equals(student2)) {
-                continue;
-            }
+    /**
+     * Schreibt nur die Differenz zwischen bestehenden Zuweisungen und neuem Zustand.
+     *
+     * @return Anzahl gelöschter und neu angelegter Zeilen
+     */
+    private int saveAssignmentChanges(AssignmentState state, List<CourseUserAssignment> currentAssignments) {
+        AssignmentDiff diff = AssignmentDiff.between(currentAssignments, state);
+
+        log.info("Incremental assignment: deleting {} and inserting {} assignments",
+                diff.removed().size(), diff.addedSlots().size());
+        courseUserAssignmentRepository.deleteAllByIdInBatch(diff.removed().stream()
+                .map(CourseUserAssignment::getId)
+                .toList());
+        batchWriter.insertSlots(state, diff.addedSlots());
+        return diff.changeCount();
+    }
 
-            trySwap(student1, student2, state);
+    private List<Long> createSeeds(AssignmentSolver solver, int runs, Long seed) {
+        if (seed != null) {
+            return List.of(seed);
         }
+        // Deterministische Verfahren liefern bei jedem Seed dasselbe Ergebnis
+        int effectiveRuns = solver.isRandomized() ? Math.max(1, Math.min(runs, MAX_RUNS)) : 1;
+        return ThreadLocalRandom.current().longs(effectiveRuns).boxed().toList();
     }
 
-    private void trySwap(User student1, User student2, AssignmentState state) {
-        List<StudentAssignment> assignments1 = new ArrayList<>(state.getAssignments(student1));
-        List<StudentAssignment> assignments2 = new ArrayList<>(state.getAssignments(student2));
-
-        for (StudentAssignment a1 : assignments1) {
-            for (StudentAssignment a2 : assignments2) {
-                if (!a1.block.equals(a2.block)) {
-                    continue;
-                }
+    /**
+     * Startet je Seed einen Lauf auf einer eigenen Kopie des Zustands. Das {@link AssignmentModel} ist
+     * unveränderlich und wird von allen Läufen geteilt.
+     */
+    private AssignmentRun runAll(AssignmentModel model, AssignmentSolver solver, List<Long> seeds,
+                                 AssignmentProgress progress) {
+        if (seeds.size() == 1) {
+            return runOnce(model, solver, seeds.get(0), progress);
+        }
+
+        int parallelism = Math.min(seeds.size(), Runtime.getRuntime().availableProcessors());
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            List<ForkJoinTask<AssignmentRun>> tasks = seeds.stream()
+                    .map(runSeed -> pool.submit(() -> runOnce(model, solver, runSeed, progress)))
+                    .toList();
+            return tasks.stream()
+                    .map(ForkJoinTask::join)
+                    .min(AssignmentRun.BY_QUALITY)
+                    .orElseThrow();
+        }
+    }
 
-                double currentSatisfaction = state.getFairnessScore(student1) + state.getFairnessScore(student2);
+    private AssignmentRun runOnce(AssignmentModel model, AssignmentSolver solver, long seed, AssignmentProgress progress) {
+        AssignmentState state = new AssignmentState(model);
+        state.applyPresets();
 
-                state.unassign(student1, a1.block);
-                state.unassign(student2, a2.block);
+        // Phase 1+2: Preference-based assignment by the selected solver
+        log.info("Solving preference-based assignment with solver {} (seed {})", solver.getType(), seed);
+        solver.solve(state, new Random(seed), progress);
 
-                boolean swap1Valid = isValidAssignment(student1, a2.block, a2.course, state);
-                boolean swap2Valid = isValidAssignment(student2, a1.block, a1.course, state);
+        // Phase 3: Assign students without preferences
+        log.info("Phase 3: Assigning students without preferences");
+        progress.report(AssignmentPhase.WITHOUT_PREFERENCES, 0, state);
+        int studentsWithoutPreferences = assignStudentsWithoutPreferences(state);
 
-                if (swap1Valid && swap2Valid) {
-                    int priority1 = state.getPriorityForCourse(student1, a2.course);
-                    int priority2 = state.getPriorityForCourse(student2, a1.course);
+        // Phase 4: Fill incomplete assignments (relaxed category constraint)
+        log.info("Phase 4: Filling incomplete assignments (relaxed category constraint)");
+        progress.report(AssignmentPhase.FILL_INCOMPLETE, 0, state);
+        int filledInPhase4 = fillIncompleteAssignmentsRelaxed(state);
+        if (filledInPhase4 > 0) {
+            log.info("Phase 4 completed: {} additional assignments made", filledInPhase4);
+        }
 
-                    state.assign(student1, a2.block, a2.course, priority1);
-                    state.assign(student2, a1.block, a1.course, priority2);
+        return new AssignmentRun(seed, state, generateStatistics(state, studentsWithoutPreferences));
+    }
 
-                    double newSatisfaction = state.getFairnessScore(student1) + state.getFairnessScore(student2);
+    /**
+     * Loggt Schüler mit Einschränkungen (Block-Exclusions oder Presets) zur Transparenz.
+     */
+    private void logStudentsWithConstraints(AssignmentState state) {
+        List<Integer> constrainedStudents = new ArrayList<>();
+        for (int s = 0; s < state.model.studentCount(); s++) {
+            if (state.getExclusionCount(s) > 0 || state.getAssignmentCount(s) > 0) {
+                constrainedStudents.add(s);
+            }
+        }
+        constrainedStudents.sort(Comparator.comparingInt(state::getRemainingSlots));
 
-                    if (newSatisfaction < currentSatisfaction) {
-                        log.debug("Successful swap between {} and {}", student1.getUserName(), student2.getUserName());
-                        return;
-                    } else {
-                        state.unassign(student1, a2.block);
-                        state.unassign(student2, a1.block);
-                        state.assign(student1, a1.block, a1.course, a1.priority);
-                        state.assign(student2, a2.block, a2.course, a2.priority);
-                    }
-                } else {
-                    state.assign(student1, a1.block, a1.course, a1.priority);
-                    state.assign(student2, a2.block, a2.course, a2.priority);
-                }
+        if (!constrainedStudents.isEmpty()) {
+            log.info("=== Schüler mit Einschränkungen (werden bevorzugt behandelt) ===");
+            for (int s : constrainedStudents) {
+                User student = state.model.students[s];
+                log.info("  {} (Klasse {}): {} Exclusions, {} Presets, {} verbleibende Slots, {} verfügbare Blöcke",
+                        student.getUserName(),
+                        student.getGrade(),
+                        state.getExclusionCount(s),
+                        state.getAssignmentCount(s),
+                        state.getRemainingSlots(s),
+                        state.countAvailableBlocks(s));
             }
         }
     }
 
     private int assignStudentsWithoutPreferences(AssignmentState state) {
-        List<User> studentsWithoutPreferences = state.students.stream()
-                .filter(s -> state.getAssignmentCount(s) == 0)
-                .collect(Collectors.toList());
+        AssignmentModel model = state.model;
+        List<Integer> studentsWithoutPreferences = new ArrayList<>();
+        for (int s = 0; s < model.studentCount(); s++) {
+            if (state.getAssignmentCount(s) == 0) {
+                studentsWithoutPreferences.add(s);
+            }
+        }
 
         log.info("Found {} students without preferences", studentsWithoutPreferences.size());
 
@@ -381,29 +422,27 @@ public class CourseAssignmentService {
 
         studentsWithoutPreferences.sort(
                 Comparator.comparingInt(state::getExclusionCount).reversed()
-                        .thenComparingInt(s -> state.getAvailableBlocks(s).size())
+                        .thenComparingInt(state::countAvailableBlocks)
         );
 
-        for (User student : studentsWithoutPreferences) {
-            List<Block> availableBlocks = state.getAvailableBlocks(student);
-
-            for (Block block : availableBlocks) {
+        for (int student : studentsWithoutPreferences) {
+            for (int block = 0; block < model.periodBlockCount; block++) {
                 if (state.getAssignmentCount(student) >= COURSES_PER_STUDENT) {
                     break;
                 }
 
-                Course bestCourse = findMostPopularAvailableCourse(student, block, state);
+                int bestCourse = findMostPopularAvailableCourse(student, block, state);
 
-                if (bestCourse != null) {
+                if (bestCourse >= 0) {
                     state.assign(student, block, bestCourse, 999);
                     log.debug("Assigned {} to course {} (no preference)",
-                            student.getUserName(), bestCourse.getName());
+                            model.students[student].getUserName(), model.courses[bestCourse].getName());
                 }
             }
 
             if (state.getAssignmentCount(student) < COURSES_PER_STUDENT) {
                 log.warn("Student {} without preferences could only be assigned {} courses",
-                        student.getUserName(), state.getAssignmentCount(student));
+                        model.students[student].getUserName(), state.getAssignmentCount(student));
             }
         }
 
@@ -411,108 +450,105 @@ public class CourseAssignmentService {
     }
 
     private int fillIncompleteAssignmentsRelaxed(AssignmentState state) {
+        AssignmentModel model = state.model;
         int additionalAssignments = 0;
 
-        List<User> incompleteStudents = state.students.stream()
-                .filter(s -> {
-                    int count = state.getAssignmentCount(s);
-                    return count > 0 && count < COURSES_PER_STUDENT;
-                })
-                .collect(Collectors.toList());
+        List<Integer> incompleteStudents = new ArrayList<>();
+        for (int s = 0; s < model.studentCount(); s++) {
+            int count = state.getAssignmentCount(s);
+            if (count > 0 && count < COURSES_PER_STUDENT) {
+                incompleteStudents.add(s);
+            }
+        }
 
         log.info("Found {} students with incomplete assignments", incompleteStudents.size());
 
         incompleteStudents.sort(
                 Comparator.comparingInt(state::getExclusionCount).reversed()
-                        .thenComparingInt(s -> state.getAvailableBlocks(s).size())
+                        .thenComparingInt(state::countAvailableBlocks)
         );
 
-        for (User student : incompleteStudents) {
+        for (int student : incompleteStudents) {
+            User user = model.students[student];
             while (state.getAssignmentCount(student) < COURSES_PER_STUDENT) {
-                Assignment bestAssignment = findBestAssignmentRelaxed(student, state);
+                int course;
+                int block;
+                int priority;
+
+                int pref = state.findBestPreference(student, false);
+                if (pref >= 0) {
+                    course = model.prefCourse[pref];
+                    block = model.prefBlock[pref];
+                    priority = model.prefPriority[pref];
+                } else {
+                    // Fallback - suche nach IRGENDEINEM verfügbaren Kurs in ALLEN Blöcken
+                    course = findAnyAvailableCourse(student, state);
+                    block = course >= 0 ? model.courseBlock[course] : -1;
+                    priority = 999;
+                }
 
-                if (bestAssignment == null) {
+                if (course < 0) {
                     log.warn("Schüler {} (Klasse {}) konnte nicht vollständig zugewiesen werden: {}/{} Kurse. " +
                                     "Verfügbare Blöcke: {}, Exclusions: {}",
-                            student.getUserName(),
-                            student.getGrade(),
+                            user.getUserName(),
+                            user.getGrade(),
                             state.getAssignmentCount(student),
                             COURSES_PER_STUDENT,
-                            state.getAvailableBlocks(student).stream()
-                                    .map(b -> b.getDayOfWeek().toString() + " " + b.getStartTime().format(DateTimeFormatter.ofPattern("HH:mm")))
-                                    .collect(Collectors.joining(", ")),
+                            describeAvailableBlocks(student, state),
                             state.getExclusionCount(student));
                     break;
                 }
 
-                state.assign(student, bestAssignment.block, bestAssignment.course, bestAssignment.priority);
+                state.assign(student, block, course, priority);
                 additionalAssignments++;
 
-                Set<CourseCategory> categories = state.getAssignedCategories(student);
                 log.info("Phase 4: Assigned {} to {} (relaxed category check). Categories: {}",
-                        student.getUserName(),
-                        bestAssignment.course.getName(),
-                        categories);
+                        user.getUserName(),
+                        model.courses[course].getName(),
+                        describeCategories(state.categoryMask[student]));
             }
         }
 
         return additionalAssignments;
     }
 
-    private Assignment findBestAssignmentRelaxed(User student, AssignmentState state) {
-        List<Block> availableBlocks = state.getAvailableBlocks(student);
-        Assignment bestPreferenceAssignment = null;
-        int bestPriority = Integer.MAX_VALUE;
-
-        // Phase 1: Suche nach Präferenzen über alle Blöcke
-        for (Block block : availableBlocks) {
-            List<Preference> prefs = state.getPreferencesForBlock(student, block);
-
-            for (Preference pref : prefs) {
-                Course course = pref.getCourse();
-
-                if (isValidAssignment(student, block, course, state, false)) {
-                    if (pref.getPreferenceIndex() < bestPriority) {
-                        bestPriority = pref.getPreferenceIndex();
-                        bestPreferenceAssignment = new Assignment(block, course, pref.getPreferenceIndex());
-
-                        if (bestPriority == 0) {
-                            return bestPreferenceAssignment;
-                        }
-                    }
-                }
+    private String describeAvailableBlocks(int student, AssignmentState state) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int block = 0; block < state.model.periodBlockCount; block++) {
+            if (state.isBlockAvailable(student, block)) {
+                Block b = state.model.blocks[block];
+                joiner.add(b.getDayOfWeek().toString() + " " + b.getStartTime().format(DateTimeFormatter.ofPattern("HH:mm")));
             }
         }
+        return joiner.toString();
+    }
 
-        if (bestPreferenceAssignment != null) {
-            return bestPreferenceAssignment;
-        }
-
-        // Phase 2: Fallback - suche nach IRGENDEINEM verfügbaren Kurs in ALLEN Blöcken
-        for (Block block : availableBlocks) {
-            Course anyAvailable = findAnyAvailableCourse(student, block, state);
-            if (anyAvailable != null) {
-                return new Assignment(block, anyAvailable, 999);
-            } else {
-                logWhyNoCourseFound(student, block, state);
+    private Set<CourseCategory> describeCategories(int categoryMask) {
+        Set<CourseCategory> categories = EnumSet.noneOf(CourseCategory.class);
+        for (CourseCategory category : CourseCategory.values()) {
+            if ((categoryMask & (1 << category.ordinal())) != 0) {
+                categories.add(category);
             }
         }
-
-        return null;
+        return categories;
     }
 
-    private void logWhyNoCourseFound(User student, Block block, AssignmentState state) {
-        List<Course> coursesInBlock = getCoursesInBlock(block, state);
+    private void logWhyNoCourseFound(int student, int block, AssignmentState state) {
+        AssignmentModel model = state.model;
+        User user = model.students[student];
+        Block b = model.blocks[block];
+        int[] coursesInBlock = model.blockCourses[block];
 
-        if (coursesInBlock.isEmpty()) {
+        if (coursesInBlock.length == 0) {
             log.warn("  Block {} ({}): Keine Kurse diesem Block zugewiesen!",
-                    block.getId(), block.getDayOfWeek());
+                    b.getId(), b.getDayOfWeek());
             return;
         }
 
-        log.warn("  Block {} ({}) - Analyse warum kein Kurs passt:", block.getId(), block.getDayOfWeek());
+        log.warn("  Block {} ({}) - Analyse warum kein Kurs passt:", b.getId(), b.getDayOfWeek());
 
-        for (Course course : coursesInBlock) {
+        for (int c : coursesInBlock) {
+            Course course = model.courses[c];
             StringBuilder reasons = new StringBuilder();
 
             if (course.isManualAssignmentOnly()) {
@@ -521,16 +557,16 @@ public class CourseAssignmentService {
             if (course.isPlaceholder()) {
                 reasons.append("placeholder, ");
             }
-            if (state.isBlockExcludedForUser(student, block)) {
+            if (model.isBlockExcluded(student, block)) {
                 reasons.append("userExcluded, ");
             }
-            if (state.getCourseAttendees(course, block) >= course.getMaxAttendees()) {
-                reasons.append("voll (" + state.getCourseAttendees(course, block) + "/" + course.getMaxAttendees() + "), ");
+            if (state.isCourseFull(c)) {
+                reasons.append("voll (" + state.getCourseAttendees(c) + "/" + course.getMaxAttendees() + "), ");
             }
-            if (!course.getGrades().isEmpty() && !course.getGrades().contains(student.getGrade())) {
-                reasons.append("falsche Klasse (erlaubt: " + course.getGrades() + ", Schüler: " + student.getGrade() + "), ");
+            if (!course.getGrades().isEmpty() && !course.getGrades().contains(user.getGrade())) {
+                reasons.append("falsche Klasse (erlaubt: " + course.getGrades() + ", Schüler: " + user.getGrade() + "), ");
             }
-            if (course.getExcludedGenders().contains(student.getGender())) {
+            if (course.getExcludedGenders().contains(user.getGender())) {
                 reasons.append("Geschlecht ausgeschlossen, ");
             }
 
@@ -544,154 +580,105 @@ public class CourseAssignmentService {
     }
 
     /**
-     * Ermittelt alle Kurse in einem Block basierend auf CourseBlockAssignment.
+     * Sucht in allen verfügbaren Blöcken den ersten Block mit einem passenden Kurs
+     * und liefert dort den Kurs mit den wenigsten freien Plätzen.
+     *
+     * @return Kurs-Index oder -1
      */
-    private List<Course> getCoursesInBlock(Block block, AssignmentState state) {
-        return state.courses.stream()
-                .filter(course -> {
-                    Block courseBlock = state.getBlockForCourse(course);
-                    return courseBlock != null && courseBlock.equals(block);
-                })
-                .collect(Collectors.toList());
-    }
-
-    private Course findAnyAvailableCourse(User student, Block block, AssignmentState state) {
-        List<Course> coursesInBlock = getCoursesInBlock(block, state);
-
-        return coursesInBlock.stream()
-                .filter(course -> !course.isManualAssignmentOnly())
-                .filter(course -> !course.isPlaceholder())
-                .filter(course -> isValidAssignment(student, block, course, state, false))
-                .sorted(Comparator.comparingInt(course ->
-                        course.getMaxAttendees() - state.getCourseAttendees(course, block)))
-                .findFirst()
-                .orElse(null);
-    }
-
-    private Course findMostPopularAvailableCourse(User student, Block block, AssignmentState state) {
-        List<Course> coursesInBlock = getCoursesInBlock(block, state);
-
-        return coursesInBlock.stream()
-                .filter(course -> isValidAssignmentForStudentWithoutPreference(student, block, course, state))
-                .sorted(Comparator.comparingDouble(course -> {
-                    int attendees = state.getCourseAttendees(course, block);
-                    int maxAttendees = course.getMaxAttendees();
-                    return (double) (maxAttendees - attendees) / maxAttendees;
-                }))
-                .findFirst()
-                .orElse(null);
-    }
-
-    private boolean isValidAssignmentForStudentWithoutPreference(User student, Block block, Course course, AssignmentState state) {
-        if (course.isManualAssignmentOnly()) {
-            return false;
-        }
-
-        if (course.isPlaceholder()) {
-            return false;
-        }
-
-        if (state.isBlockExcludedForUser(student, block)) {
-            return false;
-        }
-
-        if (state.getCourseAttendees(course, block) >= course.getMaxAttendees()) {
-            return false;
-        }
-
-        if (!course.getGrades().isEmpty() && !course.getGrades().contains(student.getGrade())) {
-            return false;
-        }
-
-        if (course.getExcludedGenders().contains(student.getGender())) {
-            return false;
-        }
-
-        Set<DayOfWeek> assignedDays = state.getAssignedDays(student);
-        if (assignedDays.contains(block.getDayOfWeek())) {
-            return false;
+    private int findAnyAvailableCourse(int student, AssignmentState state) {
+        AssignmentModel model = state.model;
+        for (int block = 0; block < model.periodBlockCount; block++) {
+            if (!state.isBlockAvailable(student, block)) {
+                continue;
+            }
+            int bestCourse = -1;
+            int bestFreeSeats = Integer.MAX_VALUE;
+            for (int course : model.blockCourses[block]) {
+                if (state.isValidAssignment(student, block, course, false)) {
+                    int freeSeats = model.courseCapacity[course] - state.getCourseAttendees(course);
+                    if (freeSeats < bestFreeSeats) {
+                        bestFreeSeats = freeSeats;
+                        bestCourse = course;
+                    }
+                }
+            }
+            if (bestCourse >= 0) {
+                return bestCourse;
+            }
+            logWhyNoCourseFound(student, block, state);
         }
-
-        return true;
+        return -1;
     }
 
-    private void saveAssignments(AssignmentState state, Period period) {
-        List<CourseUserAssignment> assignments = new ArrayList<>();
-
-        for (User student : state.students) {
-            for (StudentAssignment assignment : state.getAssignments(student)) {
-                if (assignment.priority == -1) {
-                    continue;
-                }
-
-                CourseUserAssignment cua = CourseUserAssignment.builder()
-                        .user(student)
-                        .course(assignment.course)
-                        .block(assignment.block)
-                        .preset(false)
-                        .build();
-                assignments.add(cua);
+    /**
+     * @return Index des am stärksten belegten passenden Kurses im Block oder -1
+     */
+    private int findMostPopularAvailableCourse(int student, int block, AssignmentState state) {
+        AssignmentModel model = state.model;
+        int bestCourse = -1;
+        double bestFreeRatio = 0;
+
+        // manualAssignmentOnly- und Platzhalter-Kurse sind nicht in blockCourses enthalten
+        for (int course : model.blockCourses[block]) {
+            if (!state.isValidAssignment(student, block, course, false)) {
+                continue;
+            }
+            int maxAttendees = model.courseCapacity[course];
+            double freeRatio = (double) (maxAttendees - state.getCourseAttendees(course)) / maxAttendees;
+            if (bestCourse < 0 || Double.compare(freeRatio, bestFreeRatio) < 0) {
+                bestFreeRatio = freeRatio;
+                bestCourse = course;
             }
         }
-
-        courseUserAssignmentRepository.saveAll(assignments);
+        return bestCourse;
     }
 
     private AssignmentResult generateStatistics(AssignmentState state, int studentsWithoutPreferences) {
-        int totalStudents = state.students.size();
-
-        int assignedStudents = (int) state.students.stream()
-                .filter(s -> state.getAssignmentCount(s) == COURSES_PER_STUDENT)
-                .count();
+        int totalStudents = state.model.studentCount();
 
-        int partiallyAssigned = (int) state.students.stream()
-                .filter(s -> {
-                    int count = state.getAssignmentCount(s);
-                    return count > 0 && count < COURSES_PER_STUDENT;
-                })
-                .count();
-
-        int unassigned = (int) state.students.stream()
-                .filter(s -> state.getAssignmentCount(s) == 0)
-                .count();
-
-        List<User> studentsWithPreferences = state.students.stream()
-                .filter(s -> state.getAssignments(s).stream()
-                        .anyMatch(a -> a.priority >= 0 && a.priority < 999))
-                .collect(Collectors.toList());
+        int assignedStudents = 0;
+        int partiallyAssigned = 0;
+        int unassigned = 0;
 
         Map<Integer, Long> priorityDistribution = new HashMap<>();
         double totalPriority = 0;
         int totalAssignments = 0;
+        List<Double> fairnessScores = new ArrayList<>();
+
+        for (int student = 0; student < totalStudents; student++) {
+            int count = state.getAssignmentCount(student);
+            if (count == COURSES_PER_STUDENT) {
+                assignedStudents++;
+            } else if (count > 0 && count < COURSES_PER_STUDENT) {
+                partiallyAssigned++;
+            } else if (count == 0) {
+                unassigned++;
+            }
 
-        for (User student : studentsWithPreferences) {
-            for (StudentAssignment assignment : state.getAssignments(student)) {
-                if (assignment.priority < 0 || assignment.priority >= 999) {
+            // Nur Zuweisungen aus Präferenzen zählen (keine Presets, keine Fallbacks)
+            int preferenceAssignments = 0;
+            int prioritySum = 0;
+            int from = student * state.slotCapacity;
+            for (int slot = from; slot < from + count; slot++) {
+                int priority = state.slotPriority[slot];
+                if (priority < 0 || priority >= 999) {
                     continue;
                 }
-                int displayPriority = assignment.priority + 1;
+                int displayPriority = priority + 1;
                 priorityDistribution.merge(displayPriority, 1L, Long::sum);
                 totalPriority += displayPriority;
                 totalAssignments++;
+                preferenceAssignments++;
+                prioritySum += priority;
+            }
+
+            if (preferenceAssignments == COURSES_PER_STUDENT) {
+                fairnessScores.add((double) prioritySum / preferenceAssignments + 1.0);
             }
         }
 
         double averagePriority = totalAssignments > 0 ? totalPriority / totalAssignments : 0;
 
-        List<Double> fairnessScores = studentsWithPreferences.stream()
-                .filter(s -> state.getAssignments(s).stream()
-                        .filter(a -> a.priority >= 0 && a.priority < 999)
-                        .count() == COURSES_PER_STUDENT)
-                .map(s -> {
-                    double score = state.getAssignments(s).stream()
-                            .filter(a -> a.priority >= 0 && a.priority < 999)
-                            .mapToInt(a -> a.priority)
-                            .average()
-                            .orElse(0);
-                    return score + 1.0;
-                })
-                .collect(Collectors.toList());
-
         double avgFairnessScore = fairnessScores.stream()
                 .mapToDouble(Double::doubleValue)
                 .average()
@@ -723,181 +710,4 @@ public class CourseAssignmentService {
 
         return Math.sqrt(sumSquaredDiff / values.size());
     }
-
-    // Inner classes
-    private static class Assignment {
-        Block block;
-        Course course;
-        int priority;
-
-        Assignment(Block block, Course course, int priority) {
-            this.block = block;
-            this.course = course;
-            this.priority = priority;
-        }
-    }
-
-    private static class StudentAssignment {
-        Block block;
-        Course course;
-        int priority;
-
-        StudentAssignment(Block block, Course course, int priority) {
-            this.block = block;
-            this.course = course;
-            this.priority = priority;
-        }
-    }
-
-    // Assignment state management
-    private class AssignmentState {
-        final List<User> students;
-        final List<Course> courses;
-        final List<Block> blocks;
-        final Map<String, List<Preference>> userPreferences;
-        final Map<String, List<StudentAssignment>> assignments;
-        final Map<String, Integer> courseAttendees; // "courseId-blockId" -> count
-        final Map<String, Set<Long>> userBlockExclusions; // userName -> excluded block IDs
-        final Map<Long, Block> courseToBlock; // courseId -> Block (aus CourseBlockAssignment!)
-
-        AssignmentState(List<User> students, List<Course> courses, List<Block> blocks,
-                        Map<String, List<Preference>> userPreferences,
-                        Map<String, Set<Long>> userBlockExclusions,
-                        Map<Long, Block> courseToBlock) {
-            this.students = students;
-            this.courses = courses;
-            this.blocks = blocks;
-            this.userPreferences = userPreferences;
-            this.userBlockExclusions = userBlockExclusions;
-            this.courseToBlock = courseToBlock;
-            this.assignments = new HashMap<>();
-            this.courseAttendees = new HashMap<>();
-        }
-
-        void assign(User student, Block block, Course course, int priority) {
-            assignments.computeIfAbsent(student.getUserName(), k -> new ArrayList<>())
-                    .add(new StudentAssignment(block, course, priority));
-
-            String key = course.getId() + "-" + block.getId();
-            courseAttendees.merge(key, 1, Integer::sum);
-        }
-
-        void unassign(User student, Block block) {
-            List<StudentAssignment> userAssignments = assignments.get(student.getUserName());
-            if (userAssignments != null) {
-                StudentAssignment toRemove = userAssignments.stream()
-                        .filter(a -> a.block.equals(block))
-                        .findFirst()
-                        .orElse(null);
-
-                if (toRemove != null) {
-                    userAssignments.remove(toRemove);
-                    String key = toRemove.course.getId() + "-" + block.getId();
-                    courseAttendees.merge(key, -1, Integer::sum);
-                }
-            }
-        }
-
-        int getAssignmentCount(User student) {
-            return assignments.getOrDefault(student.getUserName(), Collections.emptyList()).size();
-        }
-
-        List<StudentAssignment> getAssignments(User student) {
-            return assignments.getOrDefault(student.getUserName(), new ArrayList<>());
-        }
-
-        Set<DayOfWeek> getAssignedDays(User student) {
-            return getAssignments(student).stream()
-                    .map(a -> a.block.getDayOfWeek())
-                    .collect(Collectors.toSet());
-        }
-
-        Set<CourseCategory> getAssignedCategories(User student) {
-            return getAssignments(student).stream()
-                    .flatMap(a -> a.course.getCourseCategories().stream())
-                    .collect(Collectors.toSet());
-        }
-
-        int getCourseAttendees(Course course, Block block) {
-            String key = course.getId() + "-" + block.getId();
-            return courseAttendees.getOrDefault(key, 0);
-        }
-
-        double getFairnessScore(User student) {
-            List<StudentAssignment> userAssignments = getAssignments(student);
-            if (userAssignments.isEmpty()) {
-                return Double.MAX_VALUE;
-            }
-            return userAssignments.stream()
-                    .mapToInt(a -> a.priority)
-                    .average()
-                    .orElse(Double.MAX_VALUE);
-        }
-
-        int getExclusionCount(User student) {
-            return userBlockExclusions.getOrDefault(student.getUserName(), Collections.emptySet()).size();
-        }
-
-        int getRemainingSlots(User student) {
-            return COURSES_PER_STUDENT - getAssignmentCount(student);
-        }
-
-        int getInitialAvailableBlockCount(User student) {
-            Set<Long> excludedBlocks = userBlockExclusions.getOrDefault(student.getUserName(), Collections.emptySet());
-            return (int) blocks.stream()
-                    .filter(b -> !excludedBlocks.contains(b.getId()))
-                    .count();
-        }
-
-        List<Block> getAvailableBlocks(User student) {
-            Set<DayOfWeek> assignedDays = getAssignedDays(student);
-            Set<Long> excludedBlocks = userBlockExclusions.getOrDefault(student.getUserName(), Collections.emptySet());
-            return blocks.stream()
-                    .filter(b -> !assignedDays.contains(b.getDayOfWeek()))
-                    .filter(b -> !excludedBlocks.contains(b.getId()))
-                    .collect(Collectors.toList());
-        }
-
-        /**
-         * Ermittelt den aktuellen Block eines Kurses aus CourseBlockAssignment.
-         * WICHTIG: Der Block aus Preference.getBlock() ist möglicherweise veraltet!
-         */
-        Block getBlockForCourse(Course course) {
-            return courseToBlock.get(course.getId());
-        }
-
-        /**
-         * Ermittelt Präferenzen für einen Block basierend auf dem AKTUELLEN Block des Kurses
-         * (aus CourseBlockAssignment), NICHT aus Preference.block!
-         */
-        List<Preference> getPreferencesForBlock(User student, Block block) {
-            return userPreferences.getOrDefault(student.getUserName(), Collections.emptyList())
-                    .stream()
-                    // WICHTIG: Den Block des Kurses aus courseToBlock ermitteln, NICHT aus p.getBlock()!
-                    .filter(p -> {
-                        Block courseBlock = courseToBlock.get(p.getCourse().getId());
-                        return courseBlock != null && courseBlock.equals(block);
-                    })
-                    .sorted(Comparator.comparingInt(Preference::getPreferenceIndex))
-                    .collect(Collectors.toList());
-        }
-
-        /**
-         * Ermittelt die Priority für einen Kurs (unabhängig vom Block).
-         * Der Block wird aus CourseBlockAssignment ermittelt.
-         */
-        int getPriorityForCourse(User student, Course course) {
-            return userPreferences.getOrDefault(student.getUserName(), Collections.emptyList())
-                    .stream()
-                    .filter(p -> p.getCourse().getId() == course.getId())
-                    .findFirst()
-                    .map(Preference::getPreferenceIndex)
-                    .orElse(Integer.MAX_VALUE);
-        }
-
-        boolean isBlockExcludedForUser(User student, Block block) {
-            Set<Long> excludedBlocks = userBlockExclusions.get(student.getUserName());
-            return excludedBlocks != null && excludedBlocks.contains(block.getId());
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static sandbox27.ila.backend.assignments.algorithm.CourseAssignmentService.COURSES_PER_STUDENT;
+
+/**
+ * Greedy-Zuweisung mit Fairness-Ausgleich (Phase 1) und lokale Suche per Simulated Annealing (Phase 2).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class GreedyAssignmentSolver implements AssignmentSolver {
+
+    private static final int MAX_ITERATIONS = 50;
+
+    private final LocalSearchProperties localSearch;
+
+    @Override
+    public AssignmentSolverType getType() {
+        return AssignmentSolverType.GREEDY;
+    }
+
+    @Override
+    public boolean isRandomized() {
+        return true;
+    }
+
+    @Override
+    public void solve(AssignmentState state, Random random, AssignmentProgress progress) {
+        // Phase 1: Greedy assignment with fairness
+        log.info("Phase 1: Greedy assignment with fairness balancing");
+        greedyAssignmentWithFairness(state, random, progress);
+
+        // Phase 2: Local search (simulated annealing)
+        log.info("Phase 2: Local optimization by simulated annealing");
+        int acceptedMoves = new SimulatedAnnealingOptimizer(state, random)
+                .optimize(localSearch.getMaxMoves(), localSearch.getTimeBudgetMs(), progress);
+        log.info("Phase 2 completed: {} moves accepted", acceptedMoves);
+    }
+
+    private void greedyAssignmentWithFairness(AssignmentState state, Random random, AssignmentProgress progress) {
+        AssignmentModel model = state.model;
+        List<Integer> students = new ArrayList<>(model.studentCount());
+        for (int s = 0; s < model.studentCount(); s++) {
+            students.add(s);
+        }
+        // Gleichrangige Schüler in Seed-abhängiger Reihenfolge, damit sich Läufe mit verschiedenen Seeds unterscheiden
+        Collections.shuffle(students, random);
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            // Sort students using "Most Constrained Variable First" principle
+            List<Integer> sortedStudents = new ArrayList<>(students);
+            sortedStudents.sort(
+                    Comparator.comparingInt(state::getRemainingSlots)
+                            .thenComparingInt(state::countAvailableBlocks)
+                            .thenComparing(Comparator.comparingDouble(state::getFairnessScore).reversed())
+            );
+
+            boolean anyAssignment = false;
+
+            for (int student : sortedStudents) {
+                if (state.getAssignmentCount(student) >= COURSES_PER_STUDENT) {
+                    continue;
+                }
+
+                int pref = state.findBestPreference(student, true);
+
+                if (pref >= 0) {
+                    state.assign(student, model.prefBlock[pref], model.prefCourse[pref], model.prefPriority[pref]);
+                    anyAssignment = true;
+
+                    if (state.getExclusionCount(student) > 0) {
+                        log.debug("Constrained student {} assigned to {} (priority {}), now has {}/{} courses",
+                                model.students[student].getUserName(),
+                                model.courses[model.prefCourse[pref]].getName(),
+                                model.prefPriority[pref],
+                                state.getAssignmentCount(student),
+                                COURSES_PER_STUDENT);
+                    }
+                }
+            }
+
+            if (!anyAssignment) {
+                log.info("No more assignments possible after iteration {}", iteration);
+                break;
+            }
+            progress.report(AssignmentPhase.GREEDY, iteration, state);
+        }
+    }
+}
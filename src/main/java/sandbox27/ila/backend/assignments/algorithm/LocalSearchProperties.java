@@ -0,0 +1,17 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Grenzen der lokalen Suche (Simulated Annealing), gemeinsam für alle Zuweisungsverfahren.
+ */
+@ConfigurationProperties(prefix = "ila.assignment.local-search")
+@Component
+@Data
+public class LocalSearchProperties {
+
+    private int maxMoves = 200000;
+    private long timeBudgetMs = 500;
+}
@@ -0,0 +1,322 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Zuweisung der Präferenzen als Min-Cost-Flow mit anschließender Reparatur und lokaler Suche.
+ * <p>
+ * Netzwerk: Quelle → Schüler (freie Slots) → Schüler-Wochentag (Kapazität 1) → Kurs (eine Kante je gültiger
+ * Präferenz) → Senke (freie Plätze). Damit sind Kapazität, Klassenstufe, Geschlecht, Sperren, Presets und
+ * "ein Kurs pro Tag" exakt abgebildet. Jede Präferenz kostet {@code (priority + 1)²}. Augmentiert wird nur, solange
+ * der kürzeste Weg günstiger ist als {@link #ASSIGNMENT_VALUE}: ein weiterer Präferenz-Platz ist höchstens eine
+ * Zweitwahl wert, einschließlich aller Verdrängungen, die der Weg auslöst. Ohne diese Grenze verdrängt der maximale
+ * Fluss reihenweise Erstwahlen auf Zweitwahlen, nur um einzelne Drittwahlen unterzubringen; übrige Slots füllen
+ * wie beim Greedy-Verfahren die Phasen 3 und 4.
+ * <p>
+ * Die Kategorien-Regel ist keine Fluss-Bedingung (Wochentag und Kategorie sind zwei sich kreuzende Partitionen
+ * derselben Kanten). Verstöße behebt {@link SimulatedAnnealingOptimizer#repairCategories()} gezielt per Wechsel,
+ * Tausch oder Kette; was sich nicht reparieren lässt, bleibt vollständig zugewiesen (wie in Phase 4). Danach folgt
+ * dieselbe lokale Suche wie beim Greedy-Verfahren.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class MinCostFlowAssignmentSolver implements AssignmentSolver {
+
+    private static final int MAX_COST_PRIORITY = 1000;
+    private static final long ASSIGNMENT_VALUE = cost(1) + 1;
+
+    private final LocalSearchProperties localSearch;
+
+    @Override
+    public AssignmentSolverType getType() {
+        return AssignmentSolverType.MIN_COST_FLOW;
+    }
+
+    @Override
+    public boolean isRandomized() {
+        return true;
+    }
+
+    @Override
+    public void solve(AssignmentState state, Random random, AssignmentProgress progress) {
+        log.info("Phase 1: Min-cost-flow assignment");
+        progress.report(AssignmentPhase.MIN_COST_FLOW, 0, state);
+        AssignmentModel model = state.model;
+        FlowNetwork network = buildNetwork(state);
+        network.solve(ASSIGNMENT_VALUE);
+        for (int pref = 0; pref < network.prefArc.length; pref++) {
+            if (network.prefArc[pref] >= 0 && network.cap[network.prefArc[pref]] == 0) {
+                state.assign(studentOf(model, pref), model.prefBlock[pref], model.prefCourse[pref], model.prefPriority[pref]);
+            }
+        }
+        log.info("Min-cost-flow: {} assignments, cost {}", network.flow, network.totalCost);
+
+        // Phase 2: Kategorien-Regel reparieren, danach lokale Suche wie beim Greedy-Verfahren
+        SimulatedAnnealingOptimizer optimizer = new SimulatedAnnealingOptimizer(state, random);
+        int unresolved = optimizer.repairCategories();
+        if (unresolved > 0) {
+            log.warn("Kategorien-Regel für {} Schüler nicht reparierbar, Zuweisung bleibt vollständig", unresolved);
+        }
+        log.info("Phase 2: Local optimization by simulated annealing");
+        int acceptedMoves = optimizer.optimize(localSearch.getMaxMoves(), localSearch.getTimeBudgetMs(), progress);
+        log.info("Phase 2 completed: {} moves accepted", acceptedMoves);
+    }
+
+    private FlowNetwork buildNetwork(AssignmentState state) {
+        AssignmentModel model = state.model;
+        int studentCount = model.studentCount();
+        int courseCount = model.courseCount();
+        int firstStudent = FlowNetwork.SINK + 1;
+        int firstCourse = firstStudent + studentCount;
+        int firstDay = firstCourse + courseCount;
+
+        FlowNetwork network = new FlowNetwork(firstDay + studentCount * 8,
+                studentCount * 9 + model.prefCourse.length + courseCount, model.prefCourse.length);
+
+        for (int course = 0; course < courseCount; course++) {
+            int freeSeats = model.courseCapacity[course] - state.getCourseAttendees(course);
+            if (freeSeats > 0) {
+                network.addArc(firstCourse + course, FlowNetwork.SINK, freeSeats, 0);
+            }
+        }
+
+        for (int student = 0; student < studentCount; student++) {
+            int remainingSlots = state.getRemainingSlots(student);
+            if (remainingSlots <= 0) {
+                continue;
+            }
+            network.addArc(FlowNetwork.SOURCE, firstStudent + student, remainingSlots, 0);
+
+            int daysWithArc = 0;
+            for (int block = 0; block < model.periodBlockCount; block++) {
+                if (!state.isBlockAvailable(student, block)) {
+                    continue;
+                }
+                int dayBit = model.blockDayMask[block];
+                int dayNode = firstDay + student * 8 + Integer.numberOfTrailingZeros(dayBit);
+
+                for (int pref = model.prefFrom(student, block); pref < model.prefTo(student, block); pref++) {
+                    int course = model.prefCourse[pref];
+                    if (!model.isCourseAllowed(student, course) || state.isCourseFull(course)) {
+                        continue;
+                    }
+                    if ((daysWithArc & dayBit) == 0) {
+                        network.addArc(firstStudent + student, dayNode, 1, 0);
+                        daysWithArc |= dayBit;
+                    }
+                    network.prefArc[pref] = network.addArc(dayNode, firstCourse + course, 1, cost(model.prefPriority[pref]));
+                }
+            }
+        }
+
+        return network;
+    }
+
+    private static long cost(int priority) {
+        long p = Math.min(Math.max(priority, 0), MAX_COST_PRIORITY) + 1L;
+        return p * p;
+    }
+
+    private static int studentOf(AssignmentModel model, int pref) {
+        // prefStart ist aufsteigend nach (Schüler, Block): binäre Suche nach dem Schüler-Bereich
+        int low = 0;
+        int high = model.studentCount() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (model.prefStart[mid * model.blockCount()] <= pref) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Residualnetz mit Kantenpaaren ({@code e}, {@code e ^ 1}) und Primal-Dual-Verfahren:
+     * Dijkstra mit Knotenpotentialen bestimmt die kürzesten Wege, anschließend wird entlang aller Kanten
+     * mit reduzierten Kosten 0 ein blockierender Fluss (Dinic) geschoben. Die Anzahl der Dijkstra-Läufe ist
+     * dadurch durch die Anzahl verschiedener Pfadkosten beschränkt, nicht durch die Flussmenge.
+     */
+    private static final class FlowNetwork {
+
+        static final int SOURCE = 0;
+        static final int SINK = 1;
+        private static final long INFINITY = Long.MAX_VALUE / 4;
+
+        final int nodeCount;
+        final int[] head;
+        final int[] next;
+        final int[] to;
+        final int[] cap;
+        final long[] arcCost;
+        final int[] prefArc;
+        int arcCount;
+
+        final long[] potential;
+        int flow;
+        long totalCost;
+
+        FlowNetwork(int nodeCount, int maxArcs, int prefCount) {
+            this.nodeCount = nodeCount;
+            this.head = new int[nodeCount];
+            Arrays.fill(head, -1);
+            this.next = new int[2 * maxArcs];
+            this.to = new int[2 * maxArcs];
+            this.cap = new int[2 * maxArcs];
+            this.arcCost = new long[2 * maxArcs];
+            this.prefArc = new int[prefCount];
+            Arrays.fill(prefArc, -1);
+            this.potential = new long[nodeCount];
+        }
+
+        int addArc(int from, int target, int capacity, long cost) {
+            int arc = arcCount;
+            link(from, target, capacity, cost);
+            link(target, from, 0, -cost);
+            return arc;
+        }
+
+        private void link(int from, int target, int capacity, long cost) {
+            to[arcCount] = target;
+            cap[arcCount] = capacity;
+            arcCost[arcCount] = cost;
+            next[arcCount] = head[from];
+            head[from] = arcCount++;
+        }
+
+        /**
+         * @param maxPathCost Wege ab diesen Kosten (in Originalkosten) werden nicht mehr augmentiert
+         */
+        void solve(long maxPathCost) {
+            long[] dist = new long[nodeCount];
+            int[] level = new int[nodeCount];
+            int[] current = new int[nodeCount];
+            int[] path = new int[nodeCount];
+            int[] queue = new int[nodeCount];
+
+            // Alle Kosten sind anfangs nicht-negativ, Potential 0 ist also zulässig
+            // potential[SINK] ist nach jedem Dijkstra-Lauf die Länge des kürzesten Weges in Originalkosten
+            while (shortestPaths(dist) && potential[SINK] < maxPathCost) {
+                while (buildLevels(level, queue)) {
+                    System.arraycopy(head, 0, current, 0, nodeCount);
+                    int pushed;
+                    while ((pushed = augment(level, current, path)) > 0) {
+                        flow += pushed;
+                    }
+                }
+            }
+        }
+
+        private long reducedCost(int arc, int from) {
+            return arcCost[arc] + potential[from] - potential[to[arc]];
+        }
+
+        private boolean shortestPaths(long[] dist) {
+            Arrays.fill(dist, INFINITY);
+            dist[SOURCE] = 0;
+            PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+            queue.add(new long[]{0, SOURCE});
+
+            while (!queue.isEmpty()) {
+                long[] entry = queue.poll();
+                int node = (int) entry[1];
+                if (entry[0] > dist[node]) {
+                    continue;
+                }
+                for (int arc = head[node]; arc != -1; arc = next[arc]) {
+                    if (cap[arc] == 0) {
+                        continue;
+                    }
+                    long candidate = dist[node] + reducedCost(arc, node);
+                    if (candidate < dist[to[arc]]) {
+                        dist[to[arc]] = candidate;
+                        queue.add(new long[]{candidate, to[arc]});
+                    }
+                }
+            }
+
+            if (dist[SINK] >= INFINITY) {
+                return false;
+            }
+            // Begrenzung auf dist[SINK] hält die reduzierten Kosten auch für nicht erreichte Knoten nicht-negativ
+            for (int node = 0; node < nodeCount; node++) {
+                potential[node] += Math.min(dist[node], dist[SINK]);
+            }
+            return true;
+        }
+
+        private boolean buildLevels(int[] level, int[] queue) {
+            Arrays.fill(level, -1);
+            level[SOURCE] = 0;
+            int headIndex = 0;
+            int tailIndex = 0;
+            queue[tailIndex++] = SOURCE;
+
+            while (headIndex < tailIndex) {
+                int node = queue[headIndex++];
+                for (int arc = head[node]; arc != -1; arc = next[arc]) {
+                    if (cap[arc] > 0 && level[to[arc]] < 0 && reducedCost(arc, node) == 0) {
+                        level[to[arc]] = level[node] + 1;
+                        queue[tailIndex++] = to[arc];
+                    }
+                }
+            }
+            return level[SINK] >= 0;
+        }
+
+        /**
+         * Sucht iterativ einen Pfad im Level-Graphen und schiebt den Engpass-Fluss.
+         *
+         * @return geschobene Flussmenge, 0 wenn der Level-Graph blockiert ist
+         */
+        private int augment(int[] level, int[] current, int[] path) {
+            int depth = 0;
+            int node = SOURCE;
+
+            while (true) {
+                if (node == SINK) {
+                    int bottleneck = Integer.MAX_VALUE;
+                    for (int i = 0; i < depth; i++) {
+                        bottleneck = Math.min(bottleneck, cap[path[i]]);
+                    }
+                    for (int i = 0; i < depth; i++) {
+                        cap[path[i]] -= bottleneck;
+                        cap[path[i] ^ 1] += bottleneck;
+                        totalCost += bottleneck * arcCost[path[i]];
+                    }
+                    return bottleneck;
+                }
+
+                boolean advanced = false;
+                for (; current[node] != -1; current[node] = next[current[node]]) {
+                    int arc = current[node];
+                    if (cap[arc] > 0 && level[to[arc]] == level[node] + 1 && reducedCost(arc, node) == 0) {
+                        path[depth++] = arc;
+                        node = to[arc];
+                        advanced = true;
+                        break;
+                    }
+                }
+
+                if (!advanced) {
+                    if (node == SOURCE) {
+                        return 0;
+                    }
+                    // Sackgasse aus dem Level-Graphen entfernen und zurückgehen
+                    level[node] = -1;
+                    int arc = path[--depth];
+                    node = to[arc ^ 1];
+                    current[node] = next[current[node]];
+                }
+            }
+        }
+    }
+}
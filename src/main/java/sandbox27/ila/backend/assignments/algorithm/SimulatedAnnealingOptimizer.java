@@ -0,0 +1,399 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static sandbox27.ila.backend.assignments.algorithm.CourseAssignmentService.COURSES_PER_STUDENT;
+import static sandbox27.ila.backend.assignments.algorithm.CourseAssignmentService.MIN_CATEGORIES;
+
+/**
+ * Simulated Annealing über die präferenzbasierten Zuweisungen eines {@link AssignmentState}.
+ * <p>
+ * Ein Zug startet bei einem zufälligen Slot (Presets und gesperrte Slots sind ausgenommen) und einer zufälligen Präferenz
+ * desselben Schülers:
+ * <ul>
+ *     <li>Wechsel auf einen freien Platz, falls der gewünschte Kurs nicht voll ist,</li>
+ *     <li>sonst Tausch mit einem Teilnehmer des gewünschten Kurses,</li>
+ *     <li>sonst Kette: der Teilnehmer weicht auf einen freien Platz einer eigenen Präferenz aus,</li>
+ *     <li>oder 3er-Zyklus A→B→C→A, wenn auch dieser Kurs voll ist.</li>
+ * </ul>
+ * Bewertet wird die Summe {@code (priority + 1)²} aller Slots; das Delta eines Zuges ergibt sich aus den
+ * höchstens drei geänderten Slots. Die Temperatur sinkt geometrisch über {@code maxMoves} Züge, das Zeitbudget
+ * begrenzt die Laufzeit zusätzlich. Solange das Zeitbudget nicht greift, ist ein Lauf über den Seed reproduzierbar.
+ */
+final class SimulatedAnnealingOptimizer {
+
+    private static final double START_TEMPERATURE = 8.0;
+    private static final double END_TEMPERATURE = 0.05;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    private static final int PROGRESS_INTERVAL = 16 * TIME_CHECK_INTERVAL;
+
+    private final AssignmentState state;
+    private final AssignmentModel model;
+    private final Random random;
+
+    // Verschiebbare Slots (weder Preset noch gesperrt); ihre Anzahl ändert sich während der Suche nicht
+    private final int[] movableSlots;
+
+    // Verschiebbare Slots je Kurs, für die Auswahl eines Tausch-Partners
+    private final int[][] courseMembers;
+    private final int[] courseMemberCount;
+    private final int[] memberPosition;
+
+    private long cost;
+    private int acceptedMoves;
+
+    SimulatedAnnealingOptimizer(AssignmentState state, Random random) {
+        this.state = state;
+        this.model = state.model;
+        this.random = random;
+
+        int courseCount = model.courseCount();
+        this.courseMemberCount = new int[courseCount];
+        this.memberPosition = new int[model.studentCount() * state.slotCapacity];
+
+        int movableCount = 0;
+        for (int student = 0; student < model.studentCount(); student++) {
+            int from = student * state.slotCapacity;
+            for (int slot = from; slot < from + state.getAssignmentCount(student); slot++) {
+                if (state.isMovable(slot)) {
+                    movableCount++;
+                    courseMemberCount[state.slotCourse[slot]]++;
+                }
+            }
+        }
+
+        this.movableSlots = new int[movableCount];
+        this.courseMembers = new int[courseCount][];
+        for (int course = 0; course < courseCount; course++) {
+            courseMembers[course] = new int[Math.max(courseMemberCount[course], model.courseCapacity[course])];
+            courseMemberCount[course] = 0;
+        }
+
+        int index = 0;
+        for (int student = 0; student < model.studentCount(); student++) {
+            int from = student * state.slotCapacity;
+            for (int slot = from; slot < from + state.getAssignmentCount(student); slot++) {
+                if (state.isMovable(slot)) {
+                    movableSlots[index++] = slot;
+                    addMember(state.slotCourse[slot], slot);
+                    cost += cost(state.slotPriority[slot]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Anzahl akzeptierter Züge
+     */
+    int optimize(int maxMoves, long timeBudgetMs, AssignmentProgress progress) {
+        if (movableSlots.length < 2 || maxMoves <= 0) {
+            return 0;
+        }
+
+        long initialCost = cost;
+        int[] initialBlock = new int[movableSlots.length];
+        int[] initialCourse = new int[movableSlots.length];
+        int[] initialPriority = new int[movableSlots.length];
+        for (int i = 0; i < movableSlots.length; i++) {
+            initialBlock[i] = state.slotBlock[movableSlots[i]];
+            initialCourse[i] = state.slotCourse[movableSlots[i]];
+            initialPriority[i] = state.slotPriority[movableSlots[i]];
+        }
+
+        long deadline = System.nanoTime() + timeBudgetMs * 1_000_000L;
+        double temperature = START_TEMPERATURE;
+        double cooling = Math.pow(END_TEMPERATURE / START_TEMPERATURE, 1.0 / maxMoves);
+
+        for (int move = 0; move < maxMoves; move++) {
+            if (move % TIME_CHECK_INTERVAL == 0) {
+                if (System.nanoTime() > deadline) {
+                    break;
+                }
+                if (move % PROGRESS_INTERVAL == 0) {
+                    progress.report(AssignmentPhase.LOCAL_SEARCH, move, state);
+                }
+            }
+            tryMove(temperature);
+            temperature *= cooling;
+        }
+
+        // Nie schlechter als die Ausgangslösung abgeben
+        if (cost > initialCost) {
+            for (int i = 0; i < movableSlots.length; i++) {
+                move(movableSlots[i], initialBlock[i], initialCourse[i], initialPriority[i]);
+            }
+            cost = initialCost;
+        }
+        return acceptedMoves;
+    }
+
+    /**
+     * Repariert die Kategorien-Regel für vollständig zugewiesene Schüler, deren Kurse weniger als
+     * {@link CourseAssignmentService#MIN_CATEGORIES} Kategorien abdecken. Je Schüler wird der günstigste Zug gesucht,
+     * der einen Slot auf eine Präferenz mit neuer Kategorie verlegt: auf einen freien Platz oder, wenn der Kurs voll
+     * ist, per Tausch bzw. Kette mit einem Teilnehmer, der dafür auf eine eigene gültige Präferenz ausweicht.
+     * Die Suche ist deterministisch; die anschließende {@link #optimize lokale Suche} macht eine Reparatur nie
+     * rückgängig.
+     *
+     * @return Anzahl der Schüler, deren Verstoß bestehen bleibt
+     */
+    int repairCategories() {
+        int unresolved = 0;
+        for (int student = 0; student < model.studentCount(); student++) {
+            if (state.getAssignmentCount(student) >= COURSES_PER_STUDENT
+                    && Integer.bitCount(state.categoryMask[student]) < MIN_CATEGORIES
+                    && !repairCategories(student)) {
+                unresolved++;
+            }
+        }
+        return unresolved;
+    }
+
+    private boolean repairCategories(int student) {
+        long bestDelta = Long.MAX_VALUE;
+        // {Slot, Block, Kurs, Priorität} für den Schüler und optional den Teilnehmer
+        int[] best = null;
+        int[] bestPartner = null;
+
+        int from = student * state.slotCapacity;
+        for (int slot = from; slot < from + state.getAssignmentCount(student); slot++) {
+            if (!state.isMovable(slot)) {
+                continue;
+            }
+            int priority = state.slotPriority[slot];
+            int otherCategories = state.categoryMaskWithout(slot);
+            for (int pref = model.prefStart[student * model.blockCount()];
+                 pref < model.prefStart[(student + 1) * model.blockCount()]; pref++) {
+                int course = model.prefCourse[pref];
+                int block = model.prefBlock[pref];
+                if (course == state.slotCourse[slot] || block >= model.periodBlockCount
+                        || Integer.bitCount(otherCategories | model.courseCategoryMask[course]) < MIN_CATEGORIES
+                        || !canTake(slot, block, course)) {
+                    continue;
+                }
+                long delta = cost(model.prefPriority[pref]) - cost(priority);
+                if (!state.isCourseFull(course)) {
+                    if (delta < bestDelta) {
+                        bestDelta = delta;
+                        best = new int[]{slot, block, course, model.prefPriority[pref]};
+                        bestPartner = null;
+                    }
+                    continue;
+                }
+                for (int i = 0; i < courseMemberCount[course]; i++) {
+                    int partnerSlot = courseMembers[course][i];
+                    int partner = partnerSlot / state.slotCapacity;
+                    if (partner == student) {
+                        continue;
+                    }
+                    int[] partnerMove = bestPartnerMove(partnerSlot, slot);
+                    if (partnerMove != null && delta + partnerMove[4] < bestDelta) {
+                        bestDelta = delta + partnerMove[4];
+                        best = new int[]{slot, block, course, model.prefPriority[pref]};
+                        bestPartner = partnerMove;
+                    }
+                }
+            }
+        }
+
+        if (best == null) {
+            return false;
+        }
+        if (bestPartner != null) {
+            move(bestPartner[0], bestPartner[1], bestPartner[2], bestPartner[3]);
+        }
+        move(best[0], best[1], best[2], best[3]);
+        cost += bestDelta;
+        return true;
+    }
+
+    /**
+     * Günstigster Ausweich-Zug für den Teilnehmer eines vollen Kurses: Tausch auf den Kurs des frei werdenden
+     * Slots oder Wechsel auf eine eigene Präferenz mit freiem Platz.
+     *
+     * @return {Slot, Block, Kurs, Priorität, Kosten-Delta} oder {@code null}
+     */
+    private int[] bestPartnerMove(int partnerSlot, int freedSlot) {
+        int partnerPriority = state.slotPriority[partnerSlot];
+        int partner = partnerSlot / state.slotCapacity;
+        int freedCourse = state.slotCourse[freedSlot];
+        int freedBlock = state.slotBlock[freedSlot];
+        int[] best = null;
+
+        int swapPriority = state.getPriorityForCourse(partner, freedCourse);
+        if (swapPriority != Integer.MAX_VALUE && canTake(partnerSlot, freedBlock, freedCourse)) {
+            best = new int[]{partnerSlot, freedBlock, freedCourse, swapPriority,
+                    (int) (cost(swapPriority) - cost(partnerPriority))};
+        }
+        for (int pref = model.prefStart[partner * model.blockCount()];
+             pref < model.prefStart[(partner + 1) * model.blockCount()]; pref++) {
+            int course = model.prefCourse[pref];
+            int block = model.prefBlock[pref];
+            if (course == state.slotCourse[partnerSlot] || block >= model.periodBlockCount
+                    || state.isCourseFull(course) || !canTake(partnerSlot, block, course)) {
+                continue;
+            }
+            int delta = (int) (cost(model.prefPriority[pref]) - cost(partnerPriority));
+            if (best == null || delta < best[4]) {
+                best = new int[]{partnerSlot, block, course, model.prefPriority[pref], delta};
+            }
+        }
+        return best;
+    }
+
+    private void tryMove(double temperature) {
+        int slot = movableSlots[random.nextInt(movableSlots.length)];
+        int student = slot / state.slotCapacity;
+        int course = state.slotCourse[slot];
+        int block = state.slotBlock[slot];
+        int priority = state.slotPriority[slot];
+
+        int pref = randomPreference(student);
+        if (pref < 0) {
+            return;
+        }
+        int targetCourse = model.prefCourse[pref];
+        int targetBlock = model.prefBlock[pref];
+        int targetPriority = model.prefPriority[pref];
+        if (targetCourse == course || targetBlock >= model.periodBlockCount || !canTake(slot, targetBlock, targetCourse)) {
+            return;
+        }
+
+        long delta = cost(targetPriority) - cost(priority);
+
+        // Freier Platz
+        if (!state.isCourseFull(targetCourse)) {
+            if (accept(delta, temperature)) {
+                move(slot, targetBlock, targetCourse, targetPriority);
+                commit(delta);
+            }
+            return;
+        }
+
+        if (courseMemberCount[targetCourse] == 0) {
+            return;
+        }
+        int partnerSlot = courseMembers[targetCourse][random.nextInt(courseMemberCount[targetCourse])];
+        int partner = partnerSlot / state.slotCapacity;
+        if (partner == student) {
+            return;
+        }
+        int partnerPriority = state.slotPriority[partnerSlot];
+
+        // Tausch: der Partner übernimmt den frei werdenden Platz
+        int partnerSwapPriority = state.getPriorityForCourse(partner, course);
+        if (partnerSwapPriority != Integer.MAX_VALUE && canTake(partnerSlot, block, course)) {
+            long swapDelta = delta + cost(partnerSwapPriority) - cost(partnerPriority);
+            if (accept(swapDelta, temperature)) {
+                move(slot, targetBlock, targetCourse, targetPriority);
+                move(partnerSlot, block, course, partnerSwapPriority);
+                commit(swapDelta);
+            }
+            return;
+        }
+
+        // Kette oder 3er-Zyklus: der Partner weicht auf eine eigene Präferenz aus
+        int partnerPref = randomPreference(partner);
+        if (partnerPref < 0) {
+            return;
+        }
+        int nextCourse = model.prefCourse[partnerPref];
+        int nextBlock = model.prefBlock[partnerPref];
+        int nextPriority = model.prefPriority[partnerPref];
+        if (nextCourse == targetCourse || nextCourse == course || nextBlock >= model.periodBlockCount
+                || !canTake(partnerSlot, nextBlock, nextCourse)) {
+            return;
+        }
+        long chainDelta = delta + cost(nextPriority) - cost(partnerPriority);
+
+        if (!state.isCourseFull(nextCourse)) {
+            if (accept(chainDelta, temperature)) {
+                move(slot, targetBlock, targetCourse, targetPriority);
+                move(partnerSlot, nextBlock, nextCourse, nextPriority);
+                commit(chainDelta);
+            }
+            return;
+        }
+
+        if (courseMemberCount[nextCourse] == 0) {
+            return;
+        }
+        int thirdSlot = courseMembers[nextCourse][random.nextInt(courseMemberCount[nextCourse])];
+        int third = thirdSlot / state.slotCapacity;
+        if (third == student || third == partner) {
+            return;
+        }
+        int thirdPriority = state.getPriorityForCourse(third, course);
+        if (thirdPriority == Integer.MAX_VALUE || !canTake(thirdSlot, block, course)) {
+            return;
+        }
+        long cycleDelta = chainDelta + cost(thirdPriority) - cost(state.slotPriority[thirdSlot]);
+        if (accept(cycleDelta, temperature)) {
+            move(slot, targetBlock, targetCourse, targetPriority);
+            move(partnerSlot, nextBlock, nextCourse, nextPriority);
+            move(thirdSlot, block, course, thirdPriority);
+            commit(cycleDelta);
+        }
+    }
+
+    private int randomPreference(int student) {
+        int from = model.prefStart[student * model.blockCount()];
+        int to = model.prefStart[(student + 1) * model.blockCount()];
+        return from < to ? from + random.nextInt(to - from) : -1;
+    }
+
+    /**
+     * Prüft, ob der Schüler des Slots den Kurs anstelle der bisherigen Zuweisung dieses Slots belegen darf.
+     * Die Kapazität prüft der Aufrufer.
+     */
+    private boolean canTake(int slot, int block, int course) {
+        int student = slot / state.slotCapacity;
+        if (model.isBlockExcluded(student, block) || !model.isCourseAllowed(student, course)) {
+            return false;
+        }
+        if ((state.dayMaskWithout(slot) & model.blockDayMask[block]) != 0) {
+            return false;
+        }
+        if (state.getAssignmentCount(student) < COURSES_PER_STUDENT) {
+            return true;
+        }
+        int categoriesAfter = Integer.bitCount(state.categoryMaskWithout(slot) | model.courseCategoryMask[course]);
+        return categoriesAfter >= MIN_CATEGORIES || categoriesAfter >= Integer.bitCount(state.categoryMask[student]);
+    }
+
+    private boolean accept(long delta, double temperature) {
+        return delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature);
+    }
+
+    private void commit(long delta) {
+        cost += delta;
+        acceptedMoves++;
+    }
+
+    private void move(int slot, int block, int course, int priority) {
+        removeMember(state.slotCourse[slot], slot);
+        state.reassign(slot, block, course, priority);
+        addMember(course, slot);
+    }
+
+    private void addMember(int course, int slot) {
+        if (courseMemberCount[course] == courseMembers[course].length) {
+            courseMembers[course] = Arrays.copyOf(courseMembers[course], 2 * courseMembers[course].length + 1);
+        }
+        memberPosition[slot] = courseMemberCount[course];
+        courseMembers[course][courseMemberCount[course]++] = slot;
+    }
+
+    private void removeMember(int course, int slot) {
+        int position = memberPosition[slot];
+        int last = courseMembers[course][--courseMemberCount[course]];
+        courseMembers[course][position] = last;
+        memberPosition[last] = position;
+    }
+
+    private static long cost(int priority) {
+        long p = priority + 1L;
+        return p * p;
+    }
+}
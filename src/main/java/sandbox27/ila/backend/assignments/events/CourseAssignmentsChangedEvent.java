@@ -0,0 +1,7 @@
+package sandbox27.ila.backend.assignments.events;
+
+/**
+ * Zuweisungen der Periode wurden angelegt, verschoben oder gelöscht.
+ */
+public record CourseAssignmentsChangedEvent(long periodId) {
+}
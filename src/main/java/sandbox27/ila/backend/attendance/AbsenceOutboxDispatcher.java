@@ -0,0 +1,123 @@
+package sandbox27.ila.backend.attendance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Überträgt die fälligen Änderungen aus {@link AbsenceOutboxService} an Beste.Schule.
+ * <p>
+ * Je Anwesenheitseintrag ist immer nur die älteste offene Änderung fällig; verschiedene Einträge laufen parallel
+ * auf den Threads des {@code absenceDispatchExecutor}. Fehlgeschlagene Übertragungen werden mit wachsendem Abstand
+ * erneut versucht; nach {@code ila.absence.outbox.max-attempts} Versuchen wird der Admin benachrichtigt.
+ */
+@Component
+@Slf4j
+public class AbsenceOutboxDispatcher {
+
+    private final AbsenceOutboxService outboxService;
+    private final UnexcusedAbsenceNotificationService notificationService;
+    private final ThreadPoolTaskExecutor absenceDispatchExecutor;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    AbsenceOutboxDispatcher(AbsenceOutboxService outboxService,
+                            UnexcusedAbsenceNotificationService notificationService,
+                            @Qualifier("absenceDispatchExecutor") ThreadPoolTaskExecutor absenceDispatchExecutor,
+                            @Value("${ila.absence.outbox.batch-size:50}") int batchSize,
+                            @Value("${ila.absence.outbox.max-attempts:5}") int maxAttempts) {
+        this.outboxService = outboxService;
+        this.notificationService = notificationService;
+        this.absenceDispatchExecutor = absenceDispatchExecutor;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${ila.absence.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        List<AbsenceOutboxEntry> due;
+        do {
+            due = outboxService.findDue(batchSize);
+            if (!due.isEmpty() && !dispatchBatch(due)) {
+                return;
+            }
+        } while (due.size() == batchSize);
+    }
+
+    /**
+     * @return false, wenn der Executor ausgelastet war; der Rest folgt beim nächsten Lauf
+     */
+    private boolean dispatchBatch(List<AbsenceOutboxEntry> entries) {
+        List<CompletableFuture<Void>> transfers = new ArrayList<>();
+        boolean complete = true;
+        for (AbsenceOutboxEntry entry : entries) {
+            try {
+                transfers.add(CompletableFuture.runAsync(() -> transfer(entry), absenceDispatchExecutor));
+            } catch (TaskRejectedException e) {
+                log.warn("Absence-Outbox: Executor ausgelastet, {} Änderungen folgen später",
+                        entries.size() - transfers.size());
+                complete = false;
+                break;
+            }
+        }
+        CompletableFuture.allOf(transfers.toArray(CompletableFuture[]::new)).join();
+        log.debug("Absence-Outbox: {} Änderungen bearbeitet", transfers.size());
+        return complete;
+    }
+
+    private void transfer(AbsenceOutboxEntry outboxEntry) {
+        UnexcusedAbsenceInfo info = outboxEntry.getAbsenceInfo();
+        try {
+            Optional<AttendanceEntry> entry = outboxService.findEntryIfRequired(outboxEntry);
+            if (entry.isEmpty() || !notificationService.isEnabled()) {
+                outboxService.recordSkipped(outboxEntry);
+                return;
+            }
+
+            switch (outboxEntry.getOperation()) {
+                case CREATE -> {
+                    Optional<Long> absenceId = notificationService.notifyUnexcusedAbsence(info,
+                            outboxEntry.getIdempotencyKey());
+                    if (absenceId.isPresent()) {
+                        outboxService.recordCreated(outboxEntry, absenceId.get());
+                    } else {
+                        recordFailure(outboxEntry, "Beste.Schule hat keine Absence-ID geliefert");
+                    }
+                }
+                case CANCEL -> {
+                    long absenceId = entry.get().getBesteSchuleAbsenceId();
+                    if (notificationService.cancelAbsence(absenceId, info.getStudentFullName(), info.courseName(),
+                            outboxEntry.getIdempotencyKey())) {
+                        outboxService.recordCancelled(outboxEntry, absenceId);
+                    } else {
+                        recordFailure(outboxEntry, "Storno der Abwesenheit " + absenceId + " fehlgeschlagen");
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Absence-Outbox: Übertragung {} fehlgeschlagen: {}", outboxEntry.getId(), e.getMessage());
+            recordFailure(outboxEntry, e.getMessage());
+        }
+    }
+
+    private void recordFailure(AbsenceOutboxEntry outboxEntry, String error) {
+        outboxService.recordFailure(outboxEntry, error, maxAttempts).ifPresent(givenUp -> {
+            UnexcusedAbsenceInfo info = givenUp.getAbsenceInfo();
+            String action = givenUp.getOperation() == AbsenceOutboxOperation.CREATE ? "Eintragen" : "Storno";
+            notificationService.sendAdminNotification(
+                    "Fehler bei Beste.Schule Abwesenheitsmeldung",
+                    String.format("%s der Abwesenheit von %s in Kurs %s am %s nach %d Versuchen aufgegeben: %s",
+                            action, info.getStudentFullName(), info.courseName(), info.sessionDate(),
+                            givenUp.getAttempts(), givenUp.getLastError()));
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package sandbox27.ila.backend.attendance;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Eine noch an Beste.Schule zu übertragende Änderung einer Abwesenheit. Wird in der Transaktion der
+ * Anwesenheitserfassung geschrieben und von {@link AbsenceOutboxDispatcher} übertragen.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "absence_outbox", indexes = {
+        @Index(name = "idx_absence_outbox_due", columnList = "status, nextAttemptAt"),
+        @Index(name = "idx_absence_outbox_entry", columnList = "attendanceEntryId, status")
+})
+public class AbsenceOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long attendanceEntryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AbsenceOutboxOperation operation;
+
+    /**
+     * Wird bei jedem Versuch als {@code Idempotency-Key} mitgeschickt
+     */
+    @Column(nullable = false, unique = true, length = 36)
+    private String idempotencyKey;
+
+    @Convert(converter = UnexcusedAbsenceInfoConverter.class)
+    @Column(columnDefinition = "TEXT")
+    private UnexcusedAbsenceInfo absenceInfo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AbsenceOutboxStatus status = AbsenceOutboxStatus.PENDING;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+
+    public AbsenceOutboxEntry(Long attendanceEntryId, AbsenceOutboxOperation operation,
+                              UnexcusedAbsenceInfo absenceInfo) {
+        setAttendanceEntryId(attendanceEntryId);
+        setOperation(operation);
+        setAbsenceInfo(absenceInfo);
+        setIdempotencyKey(UUID.randomUUID().toString());
+        setCreatedAt(LocalDateTime.now());
+        setNextAttemptAt(getCreatedAt());
+    }
+}
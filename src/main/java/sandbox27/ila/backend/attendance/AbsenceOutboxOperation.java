@@ -0,0 +1,13 @@
+package sandbox27.ila.backend.attendance;
+
+public enum AbsenceOutboxOperation {
+    /**
+     * Abwesenheit in Beste.Schule eintragen und die ID am Eintrag speichern
+     */
+    CREATE,
+
+    /**
+     * Von uns eingetragene Abwesenheit in Beste.Schule stornieren
+     */
+    CANCEL
+}
@@ -0,0 +1,31 @@
+package sandbox27.ila.backend.attendance;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AbsenceOutboxRepository extends JpaRepository<AbsenceOutboxEntry, Long> {
+
+    /**
+     * Fällige Änderungen in Eingangsreihenfolge, je Anwesenheitseintrag nur die älteste offene; spätere warten,
+     * bis sie übertragen oder aufgegeben ist
+     */
+    @Query("select e from AbsenceOutboxEntry e where e.status = 'PENDING' and e.nextAttemptAt <= :now " +
+            "and not exists (select 1 from AbsenceOutboxEntry o where o.attendanceEntryId = e.attendanceEntryId " +
+            "and o.status = 'PENDING' and o.id < e.id) order by e.id")
+    List<AbsenceOutboxEntry> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Offene Änderungen der Einträge: Zeilen {@code [attendanceEntryId, operation]}
+     */
+    @Query("select e.attendanceEntryId, e.operation from AbsenceOutboxEntry e " +
+            "where e.status = 'PENDING' and e.attendanceEntryId in :attendanceEntryIds")
+    List<Object[]> findPendingOperations(@Param("attendanceEntryIds") Collection<Long> attendanceEntryIds);
+}
@@ -0,0 +1,135 @@
+package sandbox27.ila.backend.attendance;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Ablage für Abwesenheitsmeldungen und -stornos an Beste.Schule. Die Anwesenheitserfassung schreibt nur eine
+ * Zeile je Änderung in ihrer eigenen Transaktion und wartet nicht auf die API; übertragen wird von
+ * {@link AbsenceOutboxDispatcher}.
+ * <p>
+ * Vor jeder Übertragung wird der aktuelle Stand des Eintrags geprüft: eine Meldung nur, solange der Schüler noch
+ * abwesend und nicht gemeldet ist, ein Storno nur, solange er wieder anwesend ist und unsere Meldung noch besteht.
+ * Schnelles Hin- und Herschalten erzeugt so keine Aufrufe, und wiederholte Versuche melden nicht doppelt.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AbsenceOutboxService {
+
+    static final Duration FIRST_RETRY_DELAY = Duration.ofMinutes(1);
+    static final Duration MAX_RETRY_DELAY = Duration.ofHours(1);
+
+    private final AbsenceOutboxRepository outboxRepository;
+    private final AttendanceEntryRepository entryRepository;
+
+    /**
+     * Legt Änderungen in der laufenden Transaktion ab. Die Einträge müssen bereits eine ID haben.
+     */
+    @Transactional
+    public void enqueueAll(List<AbsenceOutboxEntry> entries) {
+        outboxRepository.saveAll(entries);
+    }
+
+    /**
+     * Noch auf die Übertragung wartende Änderungen je Anwesenheitseintrag.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Set<AbsenceOutboxOperation>> findPendingOperations(Collection<Long> attendanceEntryIds) {
+        if (attendanceEntryIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Set<AbsenceOutboxOperation>> pending = new HashMap<>();
+        for (Object[] row : outboxRepository.findPendingOperations(attendanceEntryIds)) {
+            pending.computeIfAbsent((Long) row[0], id -> EnumSet.noneOf(AbsenceOutboxOperation.class))
+                    .add((AbsenceOutboxOperation) row[1]);
+        }
+        return pending;
+    }
+
+    @Transactional(readOnly = true)
+    List<AbsenceOutboxEntry> findDue(int limit) {
+        return outboxRepository.findDue(LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Liefert den Anwesenheitseintrag, wenn die Änderung nach seinem aktuellen Stand noch übertragen werden muss.
+     */
+    @Transactional(readOnly = true)
+    Optional<AttendanceEntry> findEntryIfRequired(AbsenceOutboxEntry outboxEntry) {
+        return entryRepository.findById(outboxEntry.getAttendanceEntryId())
+                .filter(entry -> switch (outboxEntry.getOperation()) {
+                    case CREATE -> !entry.isPresent() && entry.getBesteSchuleAbsenceId() == null;
+                    case CANCEL -> entry.isPresent() && entry.getBesteSchuleAbsenceId() != null;
+                });
+    }
+
+    @Transactional
+    void recordSkipped(AbsenceOutboxEntry outboxEntry) {
+        complete(outboxEntry, AbsenceOutboxStatus.SKIPPED);
+    }
+
+    /**
+     * Speichert die von Beste.Schule vergebene ID am Eintrag, ohne dessen übrige Felder zu überschreiben.
+     */
+    @Transactional
+    void recordCreated(AbsenceOutboxEntry outboxEntry, long absenceId) {
+        if (entryRepository.setBesteSchuleAbsenceId(outboxEntry.getAttendanceEntryId(), absenceId) == 0) {
+            log.warn("Abwesenheit {} eingetragen, aber Anwesenheitseintrag {} hat bereits eine Absence-ID oder "
+                    + "existiert nicht mehr", absenceId, outboxEntry.getAttendanceEntryId());
+        }
+        complete(outboxEntry, AbsenceOutboxStatus.SENT);
+    }
+
+    @Transactional
+    void recordCancelled(AbsenceOutboxEntry outboxEntry, long absenceId) {
+        entryRepository.clearBesteSchuleAbsenceId(outboxEntry.getAttendanceEntryId(), absenceId);
+        complete(outboxEntry, AbsenceOutboxStatus.SENT);
+    }
+
+    /**
+     * Plant die Änderung mit wachsendem Abstand erneut ein oder gibt sie nach {@code maxAttempts} Versuchen auf.
+     *
+     * @return die Änderung, wenn sie aufgegeben wurde
+     */
+    @Transactional
+    Optional<AbsenceOutboxEntry> recordFailure(AbsenceOutboxEntry outboxEntry, String error, int maxAttempts) {
+        AbsenceOutboxEntry entry = outboxRepository.findById(outboxEntry.getId()).orElseThrow();
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(abbreviate(error));
+        if (entry.getAttempts() >= maxAttempts) {
+            entry.setStatus(AbsenceOutboxStatus.FAILED);
+            entry.setProcessedAt(LocalDateTime.now());
+            return Optional.of(entry);
+        }
+        entry.setNextAttemptAt(LocalDateTime.now().plus(retryDelay(entry.getAttempts())));
+        return Optional.empty();
+    }
+
+    private void complete(AbsenceOutboxEntry outboxEntry, AbsenceOutboxStatus status) {
+        AbsenceOutboxEntry entry = outboxRepository.findById(outboxEntry.getId()).orElseThrow();
+        entry.setStatus(status);
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(null);
+        entry.setProcessedAt(LocalDateTime.now());
+    }
+
+    static Duration retryDelay(int attempts) {
+        Duration delay = FIRST_RETRY_DELAY.multipliedBy(1L << Math.min(attempts - 1, 10));
+        return delay.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : delay;
+    }
+
+    private static String abbreviate(String error) {
+        if (error == null || error.length() <= 500) {
+            return error;
+        }
+        return error.substring(0, 497) + "...";
+    }
+}
@@ -0,0 +1,23 @@
+package sandbox27.ila.backend.attendance;
+
+public enum AbsenceOutboxStatus {
+    /**
+     * Wartet auf (erneute) Übertragung
+     */
+    PENDING,
+
+    /**
+     * An Beste.Schule übertragen
+     */
+    SENT,
+
+    /**
+     * Nicht mehr nötig, weil der Eintrag inzwischen wieder umgestellt wurde
+     */
+    SKIPPED,
+
+    /**
+     * Nach der maximalen Anzahl an Versuchen aufgegeben
+     */
+    FAILED
+}
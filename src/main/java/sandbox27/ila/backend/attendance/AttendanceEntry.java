@@ -29,6 +29,10 @@ public class AttendanceEntry {
 
     private String note;
 
-    @Column(name = "beste_schule_absence_id")
+    /**
+     * Wird ausschließlich über die bedingten Updates in {@link AttendanceEntryRepository} geschrieben; ein Flush der
+     * Entity (z.B. beim Umschalten von {@code present}) darf eine vom Outbox-Dispatcher gesetzte Id nicht überschreiben.
+     */
+    @Column(name = "beste_schule_absence_id", updatable = false)
     Long besteSchuleAbsenceId;
 }
@@ -1,6 +1,7 @@
 package sandbox27.ila.backend.attendance;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -18,4 +19,20 @@ public interface AttendanceEntryRepository extends JpaRepository<AttendanceEntry
     Optional<AttendanceEntry> findBySessionIdAndUserName(@Param("sessionId") Long sessionId, @Param("userName") String userName);
 
     void deleteBySessionId(Long sessionId);
+
+    /**
+     * Setzt die Beste.Schule Absence-ID, sofern noch keine gesetzt ist; Anwesenheit und Notiz bleiben unberührt.
+     */
+    @Modifying
+    @Query("UPDATE AttendanceEntry e SET e.besteSchuleAbsenceId = :absenceId " +
+            "WHERE e.id = :id AND e.besteSchuleAbsenceId IS NULL")
+    int setBesteSchuleAbsenceId(@Param("id") Long id, @Param("absenceId") Long absenceId);
+
+    /**
+     * Entfernt die Beste.Schule Absence-ID, sofern sie noch die stornierte ist.
+     */
+    @Modifying
+    @Query("UPDATE AttendanceEntry e SET e.besteSchuleAbsenceId = NULL " +
+            "WHERE e.id = :id AND e.besteSchuleAbsenceId = :absenceId")
+    int clearBesteSchuleAbsenceId(@Param("id") Long id, @Param("absenceId") Long absenceId);
 }
@@ -38,7 +38,7 @@ public class AttendanceService {
     private final CourseBlockAssignmentRepository courseBlockAssignmentRepository;
     private final UserRepository userRepository;
     private final ExternalAbsenceService externalAbsenceService;
-    private final UnexcusedAbsenceNotificationService notificationService;
+    private final AbsenceOutboxService absenceOutboxService;
 
     public List<AttendanceSessionDto> getSessionsForCourse(Long courseId) {
         return sessionRepository.findByCourseIdOrderByDateDesc(courseId)
@@ -66,16 +66,21 @@ public class AttendanceService {
         LocalTime courseStartTime = getCourseStartTime(session.getCourse());
         LocalDateTime checkTime = LocalDateTime.of(sessionDate, courseStartTime);
 
-        // Alle UserNames sammeln
-        List<String> userNames = session.getEntries().stream()
-                .map(e -> e.getUser().getUserName())
+        // Alle Teilnehmer sammeln
+        List<User> users = session.getEntries().stream()
+                .map(AttendanceEntry::getUser)
                 .toList();
 
-        // Externe Abwesenheiten für alle Teilnehmer auf einmal laden
+        // Externe Abwesenheiten für alle Teilnehmer auf einmal ermitteln
         Map<String, Optional<ExternalAbsence>> externalAbsences =
-                externalAbsenceService.getAbsencesForUsers(userNames, checkTime);
+                externalAbsenceService.getAbsencesForStudents(users, checkTime);
 
-        return session.getEntries().stream()
+        return toEntryDtos(session.getEntries(), externalAbsences);
+    }
+
+    private List<AttendanceEntryDto> toEntryDtos(Collection<AttendanceEntry> entries,
+                                                 Map<String, Optional<ExternalAbsence>> externalAbsences) {
+        return entries.stream()
                 .map(entry -> {
                     ExternalAbsence absence = externalAbsences
                             .getOrDefault(entry.getUser().getUserName(), Optional.empty())
@@ -93,7 +98,8 @@ public class AttendanceService {
     /**
      * Erstellt einen neuen Termin für einen Kurs.
      * Schüler, die in Beste.Schule als abwesend gemeldet sind, werden automatisch
-     * als abwesend vormarkiert.
+     * als abwesend vormarkiert. Die Einträge werden gesammelt in einem Batch
+     * geschrieben.
      */
     @Transactional
     public AttendanceSessionDto createSession(CreateAttendanceSessionRequest request) {
@@ -117,18 +123,18 @@ public class AttendanceService {
         LocalTime courseStartTime = getCourseStartTime(course);
         LocalDateTime checkTime = LocalDateTime.of(request.date(), courseStartTime);
 
-        // Alle aktuellen Kursteilnehmer laden
+        // Alle aktuellen Kursteilnehmer samt Benutzer laden
         List<CourseUserAssignment> assignments = assignmentRepository
-                .findByCourse_idOrderByUser_LastName(course.getId());
+                .findByCourseIdWithDetails(course.getId());
 
-        // UserNames sammeln
-        List<String> userNames = assignments.stream()
-                .map(a -> a.getUser().getUserName())
+        // Teilnehmer sammeln
+        List<User> users = assignments.stream()
+                .map(CourseUserAssignment::getUser)
                 .toList();
 
-        // Externe Abwesenheiten für alle Teilnehmer auf einmal laden
+        // Externe Abwesenheiten für alle Teilnehmer auf einmal ermitteln
         Map<String, Optional<ExternalAbsence>> externalAbsences =
-                externalAbsenceService.getAbsencesForUsers(userNames, checkTime);
+                externalAbsenceService.getAbsencesForStudents(users, checkTime);
 
         for (CourseUserAssignment assignment : assignments) {
             User user = assignment.getUser();
@@ -151,9 +157,9 @@ public class AttendanceService {
                     .present(!isExternallyAbsent)
                     .note(note)
                     .build();
-            entry = entryRepository.save(entry);
             session.getEntries().add(entry);
         }
+        entryRepository.saveAll(session.getEntries());
 
         return AttendanceSessionDto.fromEntity(session);
     }
@@ -198,13 +204,18 @@ public class AttendanceService {
      *
      *   abwesend -> anwesend:
      *     Wenn die Abwesenheit von uns selbst angelegt wurde (besteSchuleAbsenceId
-     *     gesetzt), wird sie in Beste.Schule storniert. Bei extern gemeldeter
+     *     gesetzt oder Meldung noch ausstehend), wird sie in Beste.Schule
+     *     storniert. Bei extern gemeldeter
      *     Abwesenheit (z.B. durch die Eltern) wird eine Warnung ans Frontend
      *     zurückgegeben — wir dürfen fremde Einträge nicht löschen, weil sie
      *     für andere Zeiträume des Tages gelten könnten.
      *
      *   sonst:
      *     Nur Status/Notiz aktualisieren.
+     *
+     * Meldungen und Stornos landen in der {@link AbsenceOutboxService Absence-Outbox}
+     * und werden nach dem Commit im Hintergrund übertragen; das Speichern wartet
+     * nicht auf Beste.Schule.
      */
     @Transactional
     public UpdateAttendanceEntriesResult updateEntries(Long sessionId,
@@ -229,18 +240,35 @@ public class AttendanceService {
         Map<String, AttendanceEntry> existingEntries = session.getEntries().stream()
                 .collect(Collectors.toMap(e -> e.getUser().getUserName(), Function.identity()));
 
-        // Externe Abwesenheiten für ALLE betroffenen User laden — wir brauchen
-        // sie sowohl beim Wechsel "anwesend -> abwesend" (Doppelmeldung verhindern)
-        // als auch beim Wechsel "abwesend -> anwesend" (Storno-Schutz für fremde
-        // Einträge).
-        List<String> userNamesToCheck = requests.stream()
+        // Benutzer für neue Einträge auf einmal laden - alle müssen existieren
+        Set<String> newUserNames = requests.stream()
                 .map(UpdateAttendanceEntryRequest::userName)
-                .toList();
+                .filter(userName -> !existingEntries.containsKey(userName))
+                .collect(Collectors.toSet());
+        Map<String, User> newUsers = userRepository.findAllById(newUserNames).stream()
+                .collect(Collectors.toMap(User::getUserName, Function.identity()));
+        if (newUsers.size() < newUserNames.size()) {
+            throw new ServiceException(ErrorCode.UserNotFound);
+        }
 
+        // Externe Abwesenheiten für ALLE Teilnehmer ermitteln — wir brauchen
+        // sie sowohl beim Wechsel "anwesend -> abwesend" (Doppelmeldung verhindern)
+        // als auch beim Wechsel "abwesend -> anwesend" (Storno-Schutz für fremde
+        // Einträge) und für die zurückgegebenen Einträge.
+        List<User> users = new ArrayList<>(newUsers.values());
+        session.getEntries().forEach(entry -> users.add(entry.getUser()));
         Map<String, Optional<ExternalAbsence>> externalAbsences =
-                externalAbsenceService.getAbsencesForUsers(userNamesToCheck, checkTime);
+                externalAbsenceService.getAbsencesForStudents(users, checkTime);
+
+        AbsenceReporting reporting = new AbsenceReporting(course, sessionDate, courseStartTime, courseEndTime,
+                dayOfWeek, externalAbsences,
+                absenceOutboxService.findPendingOperations(existingEntries.values().stream()
+                        .map(AttendanceEntry::getId)
+                        .toList()),
+                reportingUser, new ArrayList<>());
 
         List<String> warnings = new ArrayList<>();
+        List<AttendanceEntry> newEntries = new ArrayList<>();
 
         for (UpdateAttendanceEntryRequest request : requests) {
             AttendanceEntry entry = existingEntries.get(request.userName());
@@ -251,66 +279,89 @@ public class AttendanceService {
 
                 if (wasPresent && !isNowPresent) {
                     // anwesend -> abwesend
-                    reportAbsenceIfNeeded(entry, course, sessionDate,
-                            courseStartTime, courseEndTime, dayOfWeek,
-                            externalAbsences, reportingUser);
+                    reportAbsenceIfNeeded(entry, reporting);
                 } else if (!wasPresent && isNowPresent) {
                     // abwesend -> anwesend
-                    handleReturnToPresent(entry, externalAbsences, warnings);
+                    handleReturnToPresent(entry, reporting, warnings);
                 }
 
+                // Verwaltete Entity: wird beim Commit gesammelt aktualisiert
                 entry.setPresent(request.present());
                 entry.setNote(request.note());
-                entryRepository.save(entry);
 
             } else {
-                // Neuer Eintrag - User muss existieren
-                User user = userRepository.findById(request.userName())
-                        .orElseThrow(() -> new ServiceException(ErrorCode.UserNotFound));
-
                 AttendanceEntry newEntry = AttendanceEntry.builder()
                         .session(session)
-                        .user(user)
+                        .user(newUsers.get(request.userName()))
                         .present(request.present())
                         .note(request.note())
                         .build();
-                newEntry = entryRepository.save(newEntry);
+                newEntries.add(newEntry);
                 session.getEntries().add(newEntry);
+            }
+        }
 
-                // Bei einem neuen Eintrag, der direkt abwesend angelegt wird:
-                // ggf. an Beste.Schule melden.
-                if (!request.present()) {
-                    reportAbsenceIfNeeded(newEntry, course, sessionDate,
-                            courseStartTime, courseEndTime, dayOfWeek,
-                            externalAbsences, reportingUser);
-                    // Erneut speichern, damit eine evtl. gesetzte Absence-ID persistiert wird
-                    entryRepository.save(newEntry);
-                }
+        // Neue Einträge gesammelt speichern; die IDs braucht die Outbox
+        entryRepository.saveAll(newEntries);
+
+        // Bei einem neuen Eintrag, der direkt abwesend angelegt wird:
+        // ggf. an Beste.Schule melden.
+        for (AttendanceEntry newEntry : newEntries) {
+            if (!newEntry.isPresent()) {
+                reportAbsenceIfNeeded(newEntry, reporting);
             }
         }
+        absenceOutboxService.enqueueAll(reporting.outbox());
 
-        return new UpdateAttendanceEntriesResult(getEntriesForSession(sessionId), warnings);
+        return new UpdateAttendanceEntriesResult(toEntryDtos(session.getEntries(), externalAbsences), warnings);
     }
 
     /**
-     * "anwesend -> abwesend": Trägt eine Abwesenheit in Beste.Schule ein, sofern
-     * noch keine Meldung für diesen Eintrag bekannt ist (weder von uns noch
-     * extern). Persistiert die zurückgegebene Absence-ID am übergebenen Entry,
-     * damit zukünftige Speicherungen derselben Session keine Doppelmeldungen
-     * erzeugen.
+     * Gemeinsamer Stand für die Beste.Schule-Meldungen eines Speichervorgangs. Die
+     * Outbox-Zeilen werden gesammelt und am Ende zusammen gespeichert.
      */
-    private void reportAbsenceIfNeeded(AttendanceEntry entry,
-                                       Course course,
-                                       LocalDate sessionDate,
-                                       LocalTime courseStartTime,
-                                       LocalTime courseEndTime,
-                                       String dayOfWeek,
-                                       Map<String, Optional<ExternalAbsence>> externalAbsences,
-                                       User reportingUser) {
-
-        // Schon von uns gemeldet? -> ID ist persistiert, nichts zu tun.
-        if (entry.getBesteSchuleAbsenceId() != null) {
-            log.debug("Abwesenheit für {} in Session {} bereits in Beste.Schule eingetragen (Absence-ID {}) — überspringe.",
+    private record AbsenceReporting(Course course,
+                                    LocalDate sessionDate,
+                                    LocalTime courseStartTime,
+                                    LocalTime courseEndTime,
+                                    String dayOfWeek,
+                                    Map<String, Optional<ExternalAbsence>> externalAbsences,
+                                    Map<Long, Set<AbsenceOutboxOperation>> pendingOperations,
+                                    User reportingUser,
+                                    List<AbsenceOutboxEntry> outbox) {
+
+        boolean hasPending(AttendanceEntry entry, AbsenceOutboxOperation operation) {
+            return pendingOperations.getOrDefault(entry.getId(), Set.of()).contains(operation);
+        }
+
+        boolean isExternallyAbsent(AttendanceEntry entry) {
+            return externalAbsences
+                    .getOrDefault(entry.getUser().getUserName(), Optional.empty())
+                    .isPresent();
+        }
+
+        void enqueue(AttendanceEntry entry, AbsenceOutboxOperation operation) {
+            outbox.add(new AbsenceOutboxEntry(entry.getId(), operation, UnexcusedAbsenceInfo.create(
+                    entry.getUser(), course, sessionDate, courseStartTime, courseEndTime, dayOfWeek,
+                    reportingUser)));
+        }
+    }
+
+    /**
+     * "anwesend -> abwesend": Legt eine Meldung an Beste.Schule in der Outbox ab,
+     * sofern noch keine Meldung für diesen Eintrag bekannt ist (weder von uns noch
+     * extern). Die zurückgegebene Absence-ID wird nach der Übertragung am Entry
+     * persistiert, damit zukünftige Speicherungen derselben Session keine
+     * Doppelmeldungen erzeugen.
+     */
+    private void reportAbsenceIfNeeded(AttendanceEntry entry, AbsenceReporting reporting) {
+
+        // Schon von uns gemeldet und kein Storno ausstehend? -> nichts zu tun.
+        boolean reported = entry.getBesteSchuleAbsenceId() != null
+                ? !reporting.hasPending(entry, AbsenceOutboxOperation.CANCEL)
+                : reporting.hasPending(entry, AbsenceOutboxOperation.CREATE);
+        if (reported) {
+            log.debug("Abwesenheit für {} in Session {} bereits an Beste.Schule gemeldet (Absence-ID {}) — überspringe.",
                     entry.getUser().getUserName(),
                     entry.getSession().getId(),
                     entry.getBesteSchuleAbsenceId());
@@ -318,62 +369,42 @@ public class AttendanceService {
         }
 
         // Extern (Sekretariat) bereits gemeldet? -> nicht doppelt eintragen.
-        boolean isExternallyAbsent = externalAbsences
-                .getOrDefault(entry.getUser().getUserName(), Optional.empty())
-                .isPresent();
-        if (isExternallyAbsent) {
+        if (reporting.isExternallyAbsent(entry)) {
             log.debug("Abwesenheit für {} ist bereits extern in Beste.Schule erfasst — überspringe.",
                     entry.getUser().getUserName());
             return;
         }
 
         User student = entry.getUser();
-        UnexcusedAbsenceInfo absenceInfo = UnexcusedAbsenceInfo.create(
-                student, course, sessionDate, courseStartTime, courseEndTime, dayOfWeek,
-                reportingUser);
-
         log.info("Unentschuldigte Abwesenheit erkannt: {} in Kurs {} am {} — wird an Beste.Schule gemeldet.",
                 student.getFirstName() + " " + student.getLastName(),
-                course.getName(),
-                sessionDate);
+                reporting.course().getName(),
+                reporting.sessionDate());
 
-        Optional<Long> absenceId = notificationService.notifyUnexcusedAbsence(absenceInfo);
-        absenceId.ifPresent(entry::setBesteSchuleAbsenceId);
+        reporting.enqueue(entry, AbsenceOutboxOperation.CREATE);
     }
 
     /**
-     * "abwesend -> anwesend": Storno der eigenen BS-Eintragung; bei extern
-     * gemeldeter Abwesenheit eine Warning sammeln. Fremde Einträge werden
-     * grundsätzlich nicht gelöscht, weil sie für andere Zeiträume des Tages
-     * gelten könnten.
+     * "abwesend -> anwesend": Storno der eigenen BS-Eintragung über die Outbox;
+     * bei extern gemeldeter Abwesenheit eine Warning sammeln. Fremde Einträge
+     * werden grundsätzlich nicht gelöscht, weil sie für andere Zeiträume des
+     * Tages gelten könnten.
      */
     private void handleReturnToPresent(AttendanceEntry entry,
-                                       Map<String, Optional<ExternalAbsence>> externalAbsences,
+                                       AbsenceReporting reporting,
                                        List<String> warnings) {
 
-        Long absenceId = entry.getBesteSchuleAbsenceId();
         String studentName = entry.getUser().getFirstName() + " " + entry.getUser().getLastName();
 
-        if (absenceId != null) {
-            // Eigene Eintragung -> Storno versuchen
-            String courseName = entry.getSession().getCourse().getName();
-            boolean ok = notificationService.cancelAbsence(absenceId, studentName, courseName);
-            if (ok) {
-                entry.setBesteSchuleAbsenceId(null);
-            } else {
-                warnings.add(String.format(
-                        "Die Abwesenheit von %s konnte in Beste.Schule nicht entfernt werden " +
-                                "(technischer Fehler). Der Admin wurde informiert.",
-                        studentName));
-            }
+        if (entry.getBesteSchuleAbsenceId() != null
+                || reporting.hasPending(entry, AbsenceOutboxOperation.CREATE)) {
+            // Eigene Eintragung (auch noch ausstehende) -> Storno
+            reporting.enqueue(entry, AbsenceOutboxOperation.CANCEL);
             return;
         }
 
         // Keine eigene ID -> wenn extern abwesend, dürfen wir nicht löschen.
-        boolean isExternallyAbsent = externalAbsences
-                .getOrDefault(entry.getUser().getUserName(), Optional.empty())
-                .isPresent();
-        if (isExternallyAbsent) {
+        if (reporting.isExternallyAbsent(entry)) {
             warnings.add(String.format(
                     "Die Abwesenheit von %s wurde extern in Beste.Schule eingetragen " +
                             "(z.B. durch die Eltern) und kann nicht aus der iLA-App entfernt werden. " +
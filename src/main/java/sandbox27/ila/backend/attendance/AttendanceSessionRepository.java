@@ -18,6 +18,10 @@ public interface AttendanceSessionRepository extends JpaRepository<AttendanceSes
     @Query("SELECT s FROM AttendanceSession s WHERE s.course.id = :courseId AND s.date = :date")
     Optional<AttendanceSession> findByCourseIdAndDate(@Param("courseId") Long courseId, @Param("date") LocalDate date);
 
-    @Query("SELECT s FROM AttendanceSession s LEFT JOIN FETCH s.entries WHERE s.id = :id")
+    /**
+     * Lädt den Termin samt Kurs, Einträgen und deren Schülern in einer Abfrage
+     */
+    @Query("SELECT s FROM AttendanceSession s JOIN FETCH s.course LEFT JOIN FETCH s.entries e " +
+            "LEFT JOIN FETCH e.user WHERE s.id = :id")
     Optional<AttendanceSession> findByIdWithEntries(@Param("id") Long id);
 }
@@ -0,0 +1,47 @@
+package sandbox27.ila.backend.attendance;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Speichert die {@link UnexcusedAbsenceInfo} einer {@link AbsenceOutboxEntry} als JSON, damit die Meldung später
+ * mit dem Stand zum Zeitpunkt der Erfassung (meldende Lehrkraft, Kurszeiten) übertragen wird.
+ */
+@Converter
+public class UnexcusedAbsenceInfoConverter implements AttributeConverter<UnexcusedAbsenceInfo, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            // getStudentFullName() wird mitgeschrieben, ist aber keine Komponente
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Override
+    public String convertToDatabaseColumn(UnexcusedAbsenceInfo info) {
+        if (info == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(info);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize absence info", e);
+        }
+    }
+
+    @Override
+    public UnexcusedAbsenceInfo convertToEntityAttribute(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(json, UnexcusedAbsenceInfo.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read absence info", e);
+        }
+    }
+}
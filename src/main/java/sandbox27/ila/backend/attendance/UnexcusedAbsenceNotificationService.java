@@ -24,7 +24,8 @@ import java.util.Optional;
  * Service für die Meldung unentschuldigter Abwesenheiten an Beste.Schule.
  * Ersetzt die vorherige E-Mail-Benachrichtigung ans Sekretariat.
  *
- * Bei Fehlern wird eine E-Mail an den Admin gesendet.
+ * Aufgerufen vom {@link AbsenceOutboxDispatcher}; der wiederholt fehlgeschlagene
+ * Aufrufe und sendet erst nach dem letzten Versuch eine E-Mail an den Admin.
  */
 @Service
 @RequiredArgsConstructor
@@ -52,17 +53,22 @@ public class UnexcusedAbsenceNotificationService {
     private static final DateTimeFormatter BESTE_SCHULE_RECORDED_AT_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    boolean isEnabled() {
+        return notificationsEnabled;
+    }
+
     /**
      * Meldet eine einzelne unentschuldigte Abwesenheit an Beste.Schule.
      *
+     * @param idempotencyKey bleibt über alle Versuche derselben Meldung gleich
      * @return Optional mit der von Beste.Schule vergebenen Absence-ID, falls
-     *         der Eintrag erfolgreich war. Optional.empty() bei Fehler, fehlender
-     *         Student-ID oder wenn Benachrichtigungen deaktiviert sind. Die ID
-     *         sollte vom Aufrufer auf dem zugehörigen AttendanceEntry persistiert
-     *         werden, um Doppelmeldungen zu verhindern und spätere Stornierung
-     *         zu ermöglichen.
+     *         der Eintrag erfolgreich war. Optional.empty() bei Fehler oder wenn
+     *         Benachrichtigungen deaktiviert sind. Die ID sollte vom Aufrufer auf
+     *         dem zugehörigen AttendanceEntry persistiert werden, um
+     *         Doppelmeldungen zu verhindern und spätere Stornierung zu ermöglichen.
+     * @throws IllegalStateException wenn die Beste.Schule Student-ID nicht bekannt ist
      */
-    public Optional<Long> notifyUnexcusedAbsence(UnexcusedAbsenceInfo absenceInfo) {
+    public Optional<Long> notifyUnexcusedAbsence(UnexcusedAbsenceInfo absenceInfo, String idempotencyKey) {
         if (!notificationsEnabled) {
             log.debug("Benachrichtigungen deaktiviert - Abwesenheit wird nicht gemeldet");
             return Optional.empty();
@@ -81,13 +87,12 @@ public class UnexcusedAbsenceNotificationService {
                     absenceInfo.courseName()
             );
             log.error(errorMsg);
-            sendAdminNotification("Beste.Schule Student-ID fehlt", errorMsg);
-            return Optional.empty();
+            throw new IllegalStateException(errorMsg);
         }
 
         CreateAbsenceRequest request = buildRequest(absenceInfo, studentId);
 
-        Optional<Long> absenceId = besteSchuleClient.createAbsence(request);
+        Optional<Long> absenceId = besteSchuleClient.createAbsence(request, idempotencyKey);
 
         if (absenceId.isPresent()) {
             log.info("Abwesenheit in Beste.Schule eingetragen (Absence-ID {}): {} in Kurs {} am {}",
@@ -96,15 +101,11 @@ public class UnexcusedAbsenceNotificationService {
                     absenceInfo.courseName(),
                     absenceInfo.sessionDate());
         } else {
-            String errorMsg = String.format(
-                    "Fehler beim Eintragen der Abwesenheit in Beste.Schule: %s (Student-ID %d) in Kurs %s am %s",
+            log.error("Fehler beim Eintragen der Abwesenheit in Beste.Schule: {} (Student-ID {}) in Kurs {} am {}",
                     absenceInfo.getStudentFullName(),
                     studentId,
                     absenceInfo.courseName(),
-                    absenceInfo.sessionDate()
-            );
-            log.error(errorMsg);
-            sendAdminNotification("Fehler bei Beste.Schule Abwesenheitsmeldung", errorMsg);
+                    absenceInfo.sessionDate());
         }
 
         return absenceId;
@@ -113,28 +114,25 @@ public class UnexcusedAbsenceNotificationService {
     /**
      * Storniert eine zuvor von uns angelegte Abwesenheit in Beste.Schule.
      *
-     * Wird vom AttendanceService aufgerufen, wenn ein Schüler von "abwesend"
-     * zurück auf "anwesend" gesetzt wird UND wir die Eintragung selbst
-     * angelegt hatten (d.h. besteSchuleAbsenceId ist gesetzt).
+     * Wird ausgeführt, wenn ein Schüler von "abwesend" zurück auf "anwesend"
+     * gesetzt wird UND wir die Eintragung selbst angelegt hatten (d.h.
+     * besteSchuleAbsenceId ist gesetzt).
      *
-     * @return true bei Erfolg, false bei Fehler (Admin wird per Mail informiert).
+     * @return true bei Erfolg, false bei Fehler.
      */
-    public boolean cancelAbsence(long absenceId, String studentName, String courseName) {
+    public boolean cancelAbsence(long absenceId, String studentName, String courseName, String idempotencyKey) {
         if (!notificationsEnabled) {
             log.debug("Benachrichtigungen deaktiviert - Storno wird nicht ausgeführt");
             return false;
         }
 
-        boolean ok = besteSchuleClient.deleteAbsence(absenceId);
+        boolean ok = besteSchuleClient.deleteAbsence(absenceId, idempotencyKey);
         if (ok) {
             log.info("Abwesenheit {} in Beste.Schule storniert ({} / Kurs {})",
                     absenceId, studentName, courseName);
         } else {
-            String errorMsg = String.format(
-                    "Storno der Abwesenheit %d in Beste.Schule fehlgeschlagen: %s in Kurs %s",
+            log.error("Storno der Abwesenheit {} in Beste.Schule fehlgeschlagen: {} in Kurs {}",
                     absenceId, studentName, courseName);
-            log.error(errorMsg);
-            sendAdminNotification("Fehler beim Storno einer Beste.Schule-Abwesenheit", errorMsg);
         }
         return ok;
     }
@@ -180,7 +178,7 @@ public class UnexcusedAbsenceNotificationService {
     /**
      * Sendet eine Fehler-E-Mail an den Admin.
      */
-    private void sendAdminNotification(String subject, String errorMessage) {
+    void sendAdminNotification(String subject, String errorMessage) {
         if (adminEmail == null || adminEmail.isBlank()) {
             log.warn("Keine Admin-E-Mail konfiguriert (ila.notification.admin-email). " +
                     "Fehlermeldung kann nicht zugestellt werden: {}", errorMessage);
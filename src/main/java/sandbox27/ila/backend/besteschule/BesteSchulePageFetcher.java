@@ -0,0 +1,139 @@
+package sandbox27.ila.backend.besteschule;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Lädt paginierte Beste.Schule-Endpunkte. Seite 1 liefert {@code meta.last_page}; die übrigen Seiten werden danach
+ * parallel auf virtuellen Threads geladen und in der Reihenfolge ihres Eintreffens an den Aufrufer weitergereicht.
+ * <p>
+ * Je Host laufen höchstens {@code besteschule.api.max-concurrent-requests} Anfragen gleichzeitig, und es starten
+ * höchstens {@code besteschule.api.requests-per-second} Anfragen pro Sekunde, auch über parallele Abrufe hinweg.
+ */
+@Component
+@Slf4j
+public class BesteSchulePageFetcher {
+
+    private final int maxConcurrentRequests;
+    private final long requestIntervalNanos;
+
+    private final Map<String, HostLimit> hostLimits = new ConcurrentHashMap<>();
+
+    public BesteSchulePageFetcher(
+            @Value("${besteschule.api.max-concurrent-requests:4}") int maxConcurrentRequests,
+            @Value("${besteschule.api.requests-per-second:10}") int requestsPerSecond
+    ) {
+        this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+        this.requestIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, requestsPerSecond);
+    }
+
+    /**
+     * Lädt alle Seiten bis {@code last_page}, höchstens {@code maxPages}.
+     *
+     * @param baseUrl    URL des Endpunkts, bestimmt das Limit
+     * @param loadPage   lädt eine Seite (ab 1); wirft {@link RestClientException}, wenn sie nicht geladen werden
+     *                   konnte
+     * @param lastPage   liest {@code meta.last_page} aus einer Seite; 0 oder weniger, wenn keine Meta-Daten
+     * @param onPage     erhält jede Seite, immer im aufrufenden Thread
+     * @return Anzahl geladener Seiten
+     * @throws RestClientException wenn eine Seite fehlschlägt; noch laufende Seiten werden abgebrochen
+     */
+    public <P> int fetchAll(String baseUrl, int maxPages, IntFunction<P> loadPage, ToIntFunction<P> lastPage,
+                            Consumer<P> onPage) {
+        HostLimit limit = hostLimits.computeIfAbsent(hostOf(baseUrl), host -> new HostLimit(maxConcurrentRequests));
+
+        P first = limit.call(() -> loadPage.apply(1));
+        onPage.accept(first);
+        int pages = Math.min(lastPage.applyAsInt(first), maxPages);
+        if (pages <= 1) {
+            return 1;
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<P> completion = new ExecutorCompletionService<>(executor);
+            for (int page = 2; page <= pages; page++) {
+                int current = page;
+                completion.submit(() -> limit.call(() -> loadPage.apply(current)));
+            }
+            try {
+                for (int received = 1; received < pages; received++) {
+                    onPage.accept(completion.take().get());
+                }
+            } catch (ExecutionException e) {
+                executor.shutdownNow();
+                throw e.getCause() instanceof RestClientException restClientException
+                        ? restClientException
+                        : new RestClientException("Seite konnte nicht geladen werden: " + e.getCause().getMessage(),
+                        e.getCause());
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new RestClientException("Abruf unterbrochen", e);
+            } catch (RuntimeException e) {
+                executor.shutdownNow();
+                throw e;
+            }
+        }
+        log.debug("{}: {} Seiten geladen", baseUrl, pages);
+        return pages;
+    }
+
+    private static String hostOf(String url) {
+        String host = URI.create(url).getHost();
+        return host != null ? host : url;
+    }
+
+    /**
+     * Gleichzeitige Anfragen und Startabstand für einen Host.
+     */
+    private final class HostLimit {
+
+        private final Semaphore permits;
+        private long nextStart = System.nanoTime();
+
+        HostLimit(int maxConcurrentRequests) {
+            this.permits = new Semaphore(maxConcurrentRequests, true);
+        }
+
+        <T> T call(Callable<T> request) {
+            try {
+                permits.acquire();
+                try {
+                    awaitStart();
+                    return request.call();
+                } finally {
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RestClientException("Abruf unterbrochen", e);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RestClientException(e.getMessage(), e);
+            }
+        }
+
+        private void awaitStart() throws InterruptedException {
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long start = Math.max(now, nextStart);
+                nextStart = start + requestIntervalNanos;
+                wait = start - now;
+            }
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+    }
+}
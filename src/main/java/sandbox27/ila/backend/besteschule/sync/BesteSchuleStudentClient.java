@@ -6,6 +6,7 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import sandbox27.ila.backend.besteschule.BesteSchulePageFetcher;
 import sandbox27.ila.backend.besteschule.sync.BesteSchuleStudentDto.*;
 
 import java.util.ArrayList;
@@ -23,14 +24,17 @@ public class BesteSchuleStudentClient {
     private final RestTemplate restTemplate;
     private final String apiUrl;
     private final String apiToken;
+    private final BesteSchulePageFetcher pageFetcher;
 
     public BesteSchuleStudentClient(
             @Value("${besteschule.api.url:https://beste.schule/api}") String apiUrl,
-            @Value("${besteschule.api.token:}") String apiToken
+            @Value("${besteschule.api.token:}") String apiToken,
+            BesteSchulePageFetcher pageFetcher
     ) {
         this.restTemplate = new RestTemplate();
         this.apiUrl = apiUrl;
         this.apiToken = apiToken;
+        this.pageFetcher = pageFetcher;
     }
 
     /**
@@ -43,45 +47,19 @@ public class BesteSchuleStudentClient {
         }
 
         List<StudentResponse> allStudents = new ArrayList<>();
-        int page = 1;
         int maxPages = 100;
 
         try {
-            while (page <= maxPages) {
-                String url = apiUrl + "/students?page=" + page;
-                log.debug("Rufe Beste.Schule Students API ab: Seite {}", page);
+            int pages = pageFetcher.fetchAll(apiUrl, maxPages,
+                    this::fetchStudentPage,
+                    pageResponse -> pageResponse.meta() != null ? pageResponse.meta().lastPage() : 0,
+                    pageResponse -> {
+                        if (pageResponse.data() != null) {
+                            allStudents.addAll(pageResponse.data());
+                        }
+                    });
 
-                HttpHeaders headers = new HttpHeaders();
-                headers.setBearerAuth(apiToken);
-                headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-                HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-                ResponseEntity<StudentPageResponse> response = restTemplate.exchange(
-                        url,
-                        HttpMethod.GET,
-                        entity,
-                        StudentPageResponse.class
-                );
-
-                if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
-                    log.error("Fehler bei Beste.Schule Students API: Status {}", response.getStatusCode());
-                    break;
-                }
-
-                StudentPageResponse pageResponse = response.getBody();
-                if (pageResponse.data() != null) {
-                    allStudents.addAll(pageResponse.data());
-                }
-
-                MetaResponse meta = pageResponse.meta();
-                if (meta == null || meta.currentPage() >= meta.lastPage()) {
-                    break;
-                }
-
-                page++;
-            }
-
-            log.info("Beste.Schule: {} Schüler von {} Seiten abgerufen", allStudents.size(), page);
+            log.info("Beste.Schule: {} Schüler von {} Seiten abgerufen", allStudents.size(), pages);
 
         } catch (RestClientException e) {
             log.error("Fehler beim Abrufen der Beste.Schule Students API: {}", e.getMessage(), e);
@@ -89,4 +67,27 @@ public class BesteSchuleStudentClient {
 
         return allStudents;
     }
+
+    private StudentPageResponse fetchStudentPage(int page) {
+        String url = apiUrl + "/students?page=" + page;
+        log.debug("Rufe Beste.Schule Students API ab: Seite {}", page);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(apiToken);
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
+
+        ResponseEntity<StudentPageResponse> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                entity,
+                StudentPageResponse.class
+        );
+
+        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+            throw new RestClientException("Fehler bei Beste.Schule Students API: Status " + response.getStatusCode()
+                    + " auf Seite " + page);
+        }
+        return response.getBody();
+    }
 }
@@ -27,11 +27,18 @@ public class Block {
 
     @Transient
     public String getName() {
-        String dayName = translateDayOfWeek(this.dayOfWeek);
+        return formatName(this.dayOfWeek, this.startTime, this.endTime);
+    }
+
+    /**
+     * Name eines Blocks wie {@link #getName()}, für Projektionen ohne Block-Entity.
+     */
+    public static String formatName(DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        String dayName = translateDayOfWeek(dayOfWeek);
 
         DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-        String start = this.startTime != null ? this.startTime.format(timeFormatter) : "?";
-        String end = this.endTime != null ? this.endTime.format(timeFormatter) : "?";
+        String start = startTime != null ? startTime.format(timeFormatter) : "?";
+        String end = endTime != null ? endTime.format(timeFormatter) : "?";
 
         return dayName + " " + start + "-" + end;
     }
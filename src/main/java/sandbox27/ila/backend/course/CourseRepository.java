@@ -3,6 +3,7 @@ package sandbox27.ila.backend.course;
 import jakarta.persistence.OrderBy;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sandbox27.ila.backend.period.Period;
 import sandbox27.ila.backend.user.User;
@@ -39,4 +40,16 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     Course getReferenceByCourseId(String courseId);
 
     List<Course> findByInstructorAndPeriod(User user, Period period);
+
+    // Je eine Element-Collection pro Abfrage, um kartesische Produkte zu vermeiden. Hibernate führt die
+    // Ergebnisse im Persistence Context auf denselben Instanzen zusammen.
+    @Query("select distinct c from Course c left join fetch c.courseCategories " +
+            "where c.period.id=:periodId order by c.name")
+    List<Course> findAllByPeriodIdFetchCategories(@Param("periodId") long periodId);
+
+    @Query("select distinct c from Course c left join fetch c.grades where c.period.id=:periodId")
+    List<Course> findAllByPeriodIdFetchGrades(@Param("periodId") long periodId);
+
+    @Query("select distinct c from Course c left join fetch c.excludedGenders where c.period.id=:periodId")
+    List<Course> findAllByPeriodIdFetchExcludedGenders(@Param("periodId") long periodId);
 }
@@ -0,0 +1,31 @@
+package sandbox27.ila.backend.course;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Belegte Plätze eines Kurses. Wird über {@link CourseSeatService} mit bedingten Updates geführt, damit die
+ * Kapazitätsprüfung auch bei parallelen Zuweisungen hält. Die Zeilensperre des Updates ersetzt eine Versionsspalte.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class CourseSeatCounter {
+
+    @Id
+    private Long courseId;
+
+    private Long periodId;
+
+    private int reserved;
+
+    public CourseSeatCounter(Long courseId, Long periodId, int reserved) {
+        this.courseId = courseId;
+        this.periodId = periodId;
+        this.reserved = reserved;
+    }
+}
@@ -0,0 +1,45 @@
+package sandbox27.ila.backend.course;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CourseSeatCounterRepository extends JpaRepository<CourseSeatCounter, Long> {
+
+    /**
+     * Belegt einen Platz, solange der Kurs nicht voll ist.
+     *
+     * @return 1, wenn reserviert wurde, sonst 0
+     */
+    @Modifying
+    @Query("update CourseSeatCounter c set c.reserved = c.reserved + 1 " +
+            "where c.courseId = :courseId and c.reserved < :capacity")
+    int reserve(@Param("courseId") long courseId, @Param("capacity") int capacity);
+
+    @Modifying
+    @Query("update CourseSeatCounter c set c.reserved = c.reserved - 1 " +
+            "where c.courseId = :courseId and c.reserved > 0")
+    int release(@Param("courseId") long courseId);
+
+    /**
+     * Legt die Zählerzeile aus den Zuweisungen im Block des Kurses an, falls sie noch fehlt. Läuft in der
+     * Transaktion des Aufrufers; legt eine andere Transaktion die Zeile gleichzeitig an, wartet das Insert auf deren
+     * Commit und entfällt dann.
+     *
+     * @return 1, wenn angelegt wurde, sonst 0
+     */
+    @Modifying
+    @Query(value = "insert ignore into course_seat_counter (course_id, period_id, reserved) " +
+            "select :courseId, :periodId, count(*) from course_user_assignment a " +
+            "join course_block_assignment cba on cba.course_id = a.course_id and cba.block_id = a.block_id " +
+            "where a.course_id = :courseId",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("courseId") long courseId, @Param("periodId") long periodId);
+
+    List<CourseSeatCounter> findAllByPeriodId(Long periodId);
+}
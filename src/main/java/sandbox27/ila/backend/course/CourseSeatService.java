@@ -0,0 +1,134 @@
+package sandbox27.ila.backend.course;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sandbox27.ila.backend.assignments.CourseUserAssignmentRepository;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.infrastructure.error.ErrorCode;
+import sandbox27.infrastructure.error.ServiceException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reserviert und gibt Kursplätze über je eine Zählerzeile pro Kurs ({@link CourseSeatCounter}) frei.
+ * <p>
+ * Belegt ist ein Platz durch eine Zuweisung im Block des Kurses; Zuweisungen in anderen Blöcken zählen nicht. Dieselbe
+ * Definition gilt für die Kapazitätsprüfung beim Wechsel, siehe {@link #countAttendeesInCourseBlock}.
+ * <p>
+ * Reservieren ist ein einziges bedingtes Update ({@code reserved < maxAttendees}); die Zeile bleibt bis zum
+ * Commit gesperrt. Parallele Zuweisungen auf denselben Kurs warten nur auf diese Zeile und sehen danach den neuen
+ * Stand, andere Kurse laufen ungehindert. Nur wenn das Update keine Zeile trifft, wird die fehlende Zeile in
+ * derselben Transaktion aus den Zuweisungen angelegt und das Update wiederholt. Reservieren und Freigeben müssen
+ * deshalb vor dem Schreiben der Zuweisung laufen, sonst wäre sie in der angelegten Zeile schon mitgezählt.
+ * Mengenbasierte Schreibvorgänge (Zuweisungsläufe, Löschen eines Laufs) gleichen die Zähler der Periode danach per
+ * {@link #resync} ab.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseSeatService {
+
+    private final CourseSeatCounterRepository counterRepository;
+    private final CourseUserAssignmentRepository assignmentRepository;
+    private final CourseRepository courseRepository;
+    private final CourseBlockAssignmentRepository courseBlockAssignmentRepository;
+
+    /**
+     * Belegt einen Platz im Kurs, sofern noch einer frei ist. Muss in der Transaktion laufen, die die Zuweisung
+     * schreibt.
+     *
+     * @return false, wenn der Kurs voll ist
+     */
+    @Transactional
+    public boolean tryReserve(Course course) {
+        if (counterRepository.reserve(course.getId(), course.getMaxAttendees()) > 0) {
+            return true;
+        }
+        // Kurs voll oder Zeile fehlt
+        createCounterIfAbsent(course);
+        return counterRepository.reserve(course.getId(), course.getMaxAttendees()) > 0;
+    }
+
+    /**
+     * Wie {@link #tryReserve}, wirft aber {@link ErrorCode#CourseFull}, wenn der Kurs voll ist.
+     */
+    @Transactional
+    public void reserve(Course course) throws ServiceException {
+        if (!tryReserve(course)) {
+            throw new ServiceException(ErrorCode.CourseFull, course.getName(), course.getMaxAttendees());
+        }
+    }
+
+    /**
+     * Gibt einen Platz frei. Muss vor dem Löschen oder Umhängen der Zuweisung laufen, siehe Klassenbeschreibung.
+     */
+    @Transactional
+    public void release(Course course) {
+        if (counterRepository.release(course.getId()) == 0) {
+            // Zähler schon 0 oder Zeile fehlt
+            createCounterIfAbsent(course);
+            counterRepository.release(course.getId());
+        }
+    }
+
+    @Transactional
+    public void remove(Course course) {
+        counterRepository.deleteById(course.getId());
+    }
+
+    /**
+     * Setzt die Zähler aller Kurse der Periode auf die tatsächliche Teilnehmerzahl.
+     */
+    @Transactional
+    public void resync(long periodId) {
+        Map<Long, Block> courseToBlock = new HashMap<>();
+        for (CourseBlockAssignment cba : courseBlockAssignmentRepository.findAllByPeriodId(periodId)) {
+            courseToBlock.put(cba.getCourse().getId(), cba.getBlock());
+        }
+        Map<Long, Integer> attendees = countAttendeesInCourseBlock(
+                assignmentRepository.countAttendeesByPeriodId(periodId), courseToBlock);
+        Map<Long, CourseSeatCounter> counters = counterRepository.findAllByPeriodId(periodId).stream()
+                .collect(Collectors.toMap(CourseSeatCounter::getCourseId, Function.identity()));
+
+        List<Course> courses = courseRepository.findAllByPeriod_Id(periodId);
+        for (Course course : courses) {
+            int reserved = attendees.getOrDefault(course.getId(), 0);
+            CourseSeatCounter counter = counters.get(course.getId());
+            if (counter == null) {
+                counterRepository.save(new CourseSeatCounter(course.getId(), periodId, reserved));
+            } else {
+                counter.setReserved(reserved);
+            }
+        }
+        log.info("Resynced seat counters of {} courses for period {}", courses.size(), periodId);
+    }
+
+    /**
+     * Belegte Plätze je Kurs aus den Zeilen von
+     * {@link CourseUserAssignmentRepository#countAttendeesByPeriodId}: nur Zuweisungen im Block des Kurses zählen.
+     * Kurse ohne Block fehlen im Ergebnis.
+     */
+    public static Map<Long, Integer> countAttendeesInCourseBlock(List<Object[]> attendeeRows,
+                                                                 Map<Long, Block> courseToBlock) {
+        Map<Long, Integer> attendees = new HashMap<>();
+        for (Object[] row : attendeeRows) {
+            Block block = courseToBlock.get((Long) row[0]);
+            if (block != null && block.getId() == (Long) row[1]) {
+                attendees.put((Long) row[0], ((Long) row[2]).intValue());
+            }
+        }
+        return attendees;
+    }
+
+    private void createCounterIfAbsent(Course course) {
+        if (counterRepository.insertIfAbsent(course.getId(), course.getPeriod().getId()) > 0) {
+            log.debug("Created seat counter for course {}", course.getId());
+        }
+    }
+}
@@ -9,6 +9,9 @@ import sandbox27.ila.backend.block.Block;
 import sandbox27.ila.backend.block.BlockRepository;
 import sandbox27.ila.backend.block.BlockService;
 import sandbox27.ila.backend.course.events.CourseBlockChangedEvent;
+import sandbox27.ila.backend.course.events.CourseCapacityChangedEvent;
+import sandbox27.ila.backend.course.events.CourseChangedEvent;
+import sandbox27.ila.backend.course.events.CourseDeletedEvent;
 import sandbox27.ila.backend.courseexclusions.CourseExclusionRepository;
 import sandbox27.ila.backend.period.Period;
 import sandbox27.ila.backend.period.PeriodRepository;
@@ -40,6 +43,7 @@ public class CourseService {
     private final UserRepository userRepository;
     private final CourseExclusionRepository courseExclusionRepository;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final CourseSeatService courseSeatService;
 
     @GetMapping
     public List<CourseDto> getCourses(@RequestParam(name = "block-id", required = false) Long blockId,
@@ -102,7 +106,9 @@ public class CourseService {
         Course course = new Course();
         map(courseDto, course);
         course.setPeriod(periodRepository.findById(courseDto.getPeriodId()).orElseThrow(() -> new ServiceException(ErrorCode.NotFound)));
-        return map(courseRepository.save(course));
+        course = courseRepository.save(course);
+        applicationEventPublisher.publishEvent(new CourseChangedEvent(course.getId(), course.getPeriod().getId()));
+        return map(course);
     }
 
     @RequiredRole(Role.ADMIN_ROLE_NAME)
@@ -116,7 +122,13 @@ public class CourseService {
                 applicationEventPublisher.publishEvent(new CourseBlockChangedEvent(course.getId(), newBlockId));
             }
         }
+        int previousMaxAttendees = course.getMaxAttendees();
         map(courseDto, course);
+        if (course.getMaxAttendees() != previousMaxAttendees) {
+            applicationEventPublisher.publishEvent(
+                    new CourseCapacityChangedEvent(course.getId(), course.getPeriod().getId()));
+        }
+        applicationEventPublisher.publishEvent(new CourseChangedEvent(course.getId(), course.getPeriod().getId()));
         return map(course);
     }
 
@@ -129,7 +141,9 @@ public class CourseService {
         courseUserAssignmentRepository.deleteByCourse(course);
         preferenceRepository.deleteByCourse(course);
         courseExclusionRepository.deleteByCourseId(id);
+        courseSeatService.remove(course);
         courseRepository.delete(course);
+        applicationEventPublisher.publishEvent(new CourseDeletedEvent(id));
     }
 
     private CourseDto map(Course c) {
@@ -0,0 +1,4 @@
+package sandbox27.ila.backend.course.events;
+
+public record CourseCapacityChangedEvent(Long courseId, Long periodId) {
+}
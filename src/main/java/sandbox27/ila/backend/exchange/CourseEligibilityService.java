@@ -3,6 +3,7 @@ package sandbox27.ila.backend.exchange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import sandbox27.ila.backend.assignments.CourseUserAssignment;
 import sandbox27.ila.backend.assignments.CourseUserAssignmentRepository;
 import sandbox27.ila.backend.block.Block;
@@ -10,15 +11,21 @@ import sandbox27.ila.backend.course.Course;
 import sandbox27.ila.backend.course.CourseBlockAssignment;
 import sandbox27.ila.backend.course.CourseBlockAssignmentRepository;
 import sandbox27.ila.backend.course.CourseCategory;
+import sandbox27.ila.backend.course.CourseRepository;
+import sandbox27.ila.backend.course.CourseSeatService;
 import sandbox27.ila.backend.exclusion.UserBlockExclusionService;
 import sandbox27.ila.backend.user.User;
 import sandbox27.infrastructure.error.ErrorCode;
 import sandbox27.infrastructure.error.ServiceException;
 
 import java.time.DayOfWeek;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +39,7 @@ public class CourseEligibilityService {
     private final CourseUserAssignmentRepository assignmentRepository;
     private final CourseBlockAssignmentRepository courseBlockAssignmentRepository;
     private final UserBlockExclusionService userBlockExclusionService;
+    private final CourseRepository courseRepository;
 
     /**
      * Ermittelt den Block eines Kurses über CourseBlockAssignment
@@ -43,6 +51,47 @@ public class CourseEligibilityService {
                         "Kein Block für Kurs " + course.getName() + " gefunden"));
     }
 
+    /**
+     * Lädt alles, was die Eignungsprüfung der Batch-Auflösung braucht, mit einer festen Anzahl Abfragen:
+     * Kurse samt Element-Collections, Kurs-Block-Zuordnungen, alle Zuweisungen und alle Sperren der Periode.
+     */
+    ExchangeEligibilitySnapshot loadResolutionSnapshot(Long periodId) {
+        courseRepository.findAllByPeriodIdFetchCategories(periodId);
+        courseRepository.findAllByPeriodIdFetchGrades(periodId);
+        courseRepository.findAllByPeriodIdFetchExcludedGenders(periodId);
+
+        Map<Long, Block> courseToBlock = new HashMap<>();
+        for (CourseBlockAssignment cba : courseBlockAssignmentRepository.findAllByPeriodId(periodId)) {
+            courseToBlock.put(cba.getCourse().getId(), cba.getBlock());
+        }
+
+        return new ExchangeEligibilitySnapshot(
+                courseToBlock,
+                assignmentRepository.findAllByPeriodIdWithDetails(periodId),
+                userBlockExclusionService.getExcludedBlockIdsByUser(periodId));
+    }
+
+    /**
+     * Lädt die Kursauswahl für Wechselwünsche mit einer festen Anzahl Abfragen: Kurse samt Element-Collections,
+     * Kurs-Block-Zuordnungen und die Teilnehmerzahlen aller Kurse als eine Aggregat-Abfrage.
+     */
+    @Transactional(readOnly = true)
+    ExchangeCourseCatalog loadCourseCatalog(Long periodId) {
+        List<Course> courses = courseRepository.findAllByPeriodIdFetchCategories(periodId);
+        courseRepository.findAllByPeriodIdFetchGrades(periodId);
+        courseRepository.findAllByPeriodIdFetchExcludedGenders(periodId);
+
+        Map<Long, Block> courseToBlock = new HashMap<>();
+        for (CourseBlockAssignment cba : courseBlockAssignmentRepository.findAllByPeriodId(periodId)) {
+            courseToBlock.put(cba.getCourse().getId(), cba.getBlock());
+        }
+
+        Map<Long, Integer> attendeesByCourse = CourseSeatService.countAttendeesInCourseBlock(
+                assignmentRepository.countAttendeesByPeriodId(periodId), courseToBlock);
+
+        return new ExchangeCourseCatalog(courses, courseToBlock, attendeesByCourse);
+    }
+
     /**
      * Prüft, ob ein Schüler einen bestimmten Kurs belegen darf.
      * Berücksichtigt alle aktuellen Zuweisungen des Schülers.
@@ -72,6 +121,25 @@ public class CourseEligibilityService {
         // Block über CourseBlockAssignment ermitteln
         Block targetBlock = getBlockForCourse(course);
 
+        return evaluate(student, course, targetBlock, currentAssignments, forResolution, false,
+                () -> userBlockExclusionService.getExcludedBlockIds(student.getUserName(), periodId),
+                () -> assignmentRepository.countByCourseAndBlock(course, targetBlock));
+    }
+
+    /**
+     * Die Regeln der Eignungsprüfung, unabhängig davon, woher Block, Sperren und Teilnehmerzahl stammen.
+     * Sperren und Teilnehmerzahl werden erst ermittelt, wenn die vorherigen Regeln erfüllt sind.
+     */
+    static EligibilityResult evaluate(
+            User student,
+            Course course,
+            Block targetBlock,
+            List<CourseUserAssignment> currentAssignments,
+            boolean forResolution,
+            boolean ignoreCapacity,
+            Supplier<Set<Long>> excludedBlockIds,
+            IntSupplier attendeeCount) {
+
         // === HARTE AUSSCHLÜSSE (Kurs wird nicht in der Liste angezeigt) ===
 
         // 1. Kurs ist nur für manuelle Zuweisung
@@ -85,8 +153,7 @@ public class CourseEligibilityService {
         }
 
         // 3. Block für User gesperrt?
-        Set<Long> excludedBlocks = userBlockExclusionService.getExcludedBlockIds(
-                student.getUserName(), periodId);
+        Set<Long> excludedBlocks = excludedBlockIds.get();
         if (excludedBlocks.contains(targetBlock.getId())) {
             return EligibilityResult.excluded("Block ist für diesen Schüler gesperrt");
         }
@@ -109,7 +176,7 @@ public class CourseEligibilityService {
                 .collect(Collectors.toSet());
 
         if (assignedDays.contains(targetBlock.getDayOfWeek())) {
-            return EligibilityResult.ineligible("Tageskonflikt");
+            return EligibilityResult.ineligible(IneligibilityCause.DAY_CONFLICT, "Tageskonflikt");
         }
 
         // 7. Kategorien-Regel: Nach Zuweisung mind. 2 Kategorien möglich?
@@ -128,22 +195,27 @@ public class CourseEligibilityService {
 
             // Wenn das der letzte Kurs wäre und wir nicht genug Kategorien haben
             if (remainingSlots == 0 && newCategories.size() < MIN_CATEGORIES) {
-                return EligibilityResult.ineligible("Mindestens " + MIN_CATEGORIES +
+                return EligibilityResult.ineligible(IneligibilityCause.CATEGORY_RULE, "Mindestens " + MIN_CATEGORIES +
                         " verschiedene Kategorien erforderlich");
             }
         }
 
         // 8. Schüler hat bereits max. Kurse? (Bei Wechsel irrelevant, da abzugebender Kurs simuliert entfernt wird)
         if (currentAssignments.size() >= COURSES_PER_STUDENT) {
-            return EligibilityResult.ineligible("Schüler hat bereits " + COURSES_PER_STUDENT + " Kurse");
+            return EligibilityResult.ineligible(IneligibilityCause.COURSE_LIMIT, "Schüler hat bereits " + COURSES_PER_STUDENT + " Kurse");
+        }
+
+        if (ignoreCapacity) {
+            return EligibilityResult.eligible();
         }
 
         // 9. Kurs voll?
-        int currentAttendees = assignmentRepository.countByCourseAndBlock(course, targetBlock);
+        int currentAttendees = attendeeCount.getAsInt();
         if (currentAttendees >= course.getMaxAttendees()) {
             if (forResolution) {
                 // Bei der Batch-Auflösung: Kurs ist voll → nicht möglich (Request bleibt PENDING für nächste Runde)
-                return EligibilityResult.ineligible("Kurs ist voll (" + currentAttendees + "/" + course.getMaxAttendees() + ")");
+                return EligibilityResult.ineligible(IneligibilityCause.FULL,
+                        "Kurs ist voll (" + currentAttendees + "/" + course.getMaxAttendees() + ")");
             } else {
                 // Bei der Anzeige: Kurs ist voll → wählbar für Wunschliste mit Warnung
                 return EligibilityResult.eligibleWithWarning("Kurs ist aktuell voll (" + currentAttendees + "/" + course.getMaxAttendees() + ")");
@@ -177,7 +249,8 @@ public class CourseEligibilityService {
                 .collect(Collectors.toList());
 
         // Prüfe mit simuliertem Zustand
-        return checkEligibilityWithAssignments(student, desiredCourse, simulatedAssignments, periodId, forResolution);
+        return checkEligibilityWithAssignments(student, desiredCourse, simulatedAssignments, periodId,
+                forResolution);
     }
 
     /**
@@ -2,6 +2,10 @@ package sandbox27.ila.backend.exchange;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import sandbox27.ila.backend.period.PeriodRepository;
@@ -13,6 +17,7 @@ import sandbox27.infrastructure.security.AuthenticatedUser;
 import sandbox27.infrastructure.security.RequiredRole;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -21,10 +26,12 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CourseExchangeController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final CourseExchangeService exchangeService;
     private final ExchangeRequestRepository exchangeRequestRepository;
     private final PeriodRepository periodRepository;
-    private final CourseEligibilityService eligibilityService;
+    private final ExchangeDryRunService dryRunService;
 
     // ==================== DTOs ====================
 
@@ -59,6 +66,30 @@ public class CourseExchangeController {
             int priority
     ) {}
 
+    public record ExchangeRequestPageDto(
+            List<ExchangeRequestResponseDto> content,
+            long totalElements,
+            int page,
+            int size
+    ) {}
+
+    public record ExchangeTraceDto(
+            Long requestId,
+            String studentName,
+            String currentCourseName,
+            String status,
+            String fulfilledWithCourseName,
+            List<OptionTraceDto> rejectedOptions
+    ) {}
+
+    public record OptionTraceDto(
+            int priority,
+            String courseName,
+            String cause,
+            String reason,
+            List<String> seatTakenBy // Benutzernamen der Schüler, die vorher einen Platz bekommen haben
+    ) {}
+
     // ==================== Schüler-Endpoints ====================
 
     /**
@@ -77,7 +108,7 @@ public class CourseExchangeController {
                 dto.desiredCourseIds()
         );
 
-        return ResponseEntity.ok(toResponseDto(request));
+        return ResponseEntity.ok(toResponseDtos(List.of(request)).getFirst());
     }
 
     /**
@@ -93,7 +124,7 @@ public class CourseExchangeController {
         ExchangeRequest request = exchangeService.updateDesiredCourses(
                 student, requestId, dto.desiredCourseIds());
 
-        return ResponseEntity.ok(toResponseDto(request));
+        return ResponseEntity.ok(toResponseDtos(List.of(request)).getFirst());
     }
 
     /**
@@ -121,9 +152,7 @@ public class CourseExchangeController {
 
         List<ExchangeRequest> requests = exchangeService.getAllRequestsForStudent(student, periodId);
 
-        return ResponseEntity.ok(requests.stream()
-                .map(this::toResponseDto)
-                .collect(Collectors.toList()));
+        return ResponseEntity.ok(toResponseDtos(requests));
     }
 
     /**
@@ -152,15 +181,33 @@ public class CourseExchangeController {
     public ResponseEntity<List<ExchangeRequestResponseDto>> getPendingRequests(
             @RequestParam Long periodId) {
 
-        List<ExchangeRequest> requests = exchangeRequestRepository
-                .findByPeriodAndStatusWithOptions(
-                        periodRepository.findById(periodId)
-                                .orElseThrow(() -> new ServiceException(ErrorCode.NotFound, "Period", periodId)),
-                        ExchangeRequestStatus.PENDING);
+        return ResponseEntity.ok(findRequestDtos(periodId, ExchangeRequestStatus.PENDING, null,
+                Pageable.unpaged(Sort.by(ExchangeRequestSortField.CREATED_AT.getProperty()))).getContent());
+    }
 
-        return ResponseEntity.ok(requests.stream()
-                .map(this::toResponseDto)
-                .collect(Collectors.toList()));
+    /**
+     * Seitenweise Liste der Wechselwünsche einer Periode, optional gefiltert nach Status und Kurs
+     * (aktueller oder gewünschter Kurs) (Admin). Höchstens {@value #MAX_PAGE_SIZE} Einträge je Seite.
+     */
+    @GetMapping("/admin/requests")
+    @RequiredRole(Role.ADMIN_ROLE_NAME)
+    public ResponseEntity<ExchangeRequestPageDto> getRequests(
+            @RequestParam Long periodId,
+            @RequestParam(required = false) ExchangeRequestStatus status,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "CREATED_AT") ExchangeRequestSortField sort,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction) {
+
+        Page<ExchangeRequestResponseDto> result = findRequestDtos(periodId, status, courseId,
+                PageRequest.of(Math.max(page, 0), Math.clamp(size, 1, MAX_PAGE_SIZE),
+                        Sort.by(direction, sort.getProperty())));
+        return ResponseEntity.ok(new ExchangeRequestPageDto(
+                result.getContent(),
+                result.getTotalElements(),
+                result.getNumber(),
+                result.getSize()));
     }
 
     /**
@@ -169,12 +216,28 @@ public class CourseExchangeController {
     @PostMapping("/admin/resolve")
     @RequiredRole(Role.ADMIN_ROLE_NAME)
     public ResponseEntity<ExchangeResolutionResult> resolveExchanges(
-            @RequestParam Long periodId) {
+            @RequestParam Long periodId,
+            @RequestParam(defaultValue = "FAIRNESS_ORDER") ExchangeResolutionStrategy strategy) {
 
-        ExchangeResolutionResult result = exchangeService.resolveExchangeRequests(periodId);
+        ExchangeResolutionResult result = exchangeService.resolveExchangeRequests(periodId, strategy);
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Probelauf der Batch-Auflösung mit einer oder mehreren Strategien, ohne zu speichern (Admin).
+     * Ohne {@code strategy} werden alle Strategien verglichen.
+     */
+    @PostMapping(value = "/admin/resolve", params = "dryRun=true")
+    @RequiredRole(Role.ADMIN_ROLE_NAME)
+    public ResponseEntity<List<ExchangeDryRunResult>> simulateExchanges(
+            @RequestParam Long periodId,
+            @RequestParam(required = false) List<ExchangeResolutionStrategy> strategy) {
+
+        List<ExchangeDryRunResult> results = dryRunService.simulate(periodId,
+                strategy == null || strategy.isEmpty() ? List.of(ExchangeResolutionStrategy.values()) : strategy);
+        return ResponseEntity.ok(results);
+    }
+
     /**
      * Gibt alle Wechselwünsche einer Periode zurück (Admin)
      */
@@ -183,12 +246,27 @@ public class CourseExchangeController {
     public ResponseEntity<List<ExchangeRequestResponseDto>> getAllRequests(
             @RequestParam Long periodId) {
 
+        return ResponseEntity.ok(findRequestDtos(periodId, null, null,
+                Pageable.unpaged(Sort.by(ExchangeRequestSortField.CREATED_AT.getProperty()))).getContent());
+    }
+
+    /**
+     * Gibt für die aufgelösten Wechselwünsche einer Periode zurück, woran die einzelnen Wunschkurse gescheitert
+     * sind und wer die Plätze voller Kurse bekommen hat (Admin)
+     */
+    @GetMapping("/admin/trace")
+    @RequiredRole(Role.ADMIN_ROLE_NAME)
+    public ResponseEntity<List<ExchangeTraceDto>> getResolutionTrace(
+            @RequestParam Long periodId) {
+
         List<ExchangeRequest> requests = exchangeRequestRepository
-                .findByPeriod(periodRepository.findById(periodId)
+                .findTracedRequestsWithDetails(periodRepository.findById(periodId)
                         .orElseThrow(() -> new ServiceException(ErrorCode.NotFound, "Period", periodId)));
+        Map<Long, String> studentByRequest = requests.stream()
+                .collect(Collectors.toMap(ExchangeRequest::getId, r -> r.getStudent().getUserName()));
 
         return ResponseEntity.ok(requests.stream()
-                .map(this::toResponseDto)
+                .map(request -> toTraceDto(request, studentByRequest))
                 .collect(Collectors.toList()));
     }
 
@@ -204,15 +282,70 @@ public class CourseExchangeController {
 
     // ==================== Helper ====================
 
-    private ExchangeRequestResponseDto toResponseDto(ExchangeRequest request) {
+    /**
+     * Liest die Admin-Liste über zwei Projektionen statt über die Entity-Graphen: eine Abfrage für die Zeilen,
+     * eine für die Wunschkurse der Seite.
+     */
+    private Page<ExchangeRequestResponseDto> findRequestDtos(Long periodId, ExchangeRequestStatus status,
+                                                             Long courseId, Pageable pageable) {
+        if (!periodRepository.existsById(periodId)) {
+            throw new ServiceException(ErrorCode.NotFound, "Period", periodId);
+        }
+        Page<ExchangeRequestRow> rows = exchangeRequestRepository.findRows(periodId, status, courseId, pageable);
+        Map<Long, List<DesiredCourseOptionDto>> optionsByRequest =
+                findOptionDtos(rows.map(ExchangeRequestRow::id).getContent());
+
+        return rows.map(row -> new ExchangeRequestResponseDto(
+                row.id(),
+                row.studentName(),
+                row.currentCourseName(),
+                row.currentBlockName(),
+                optionsByRequest.getOrDefault(row.id(), List.of()),
+                row.status().name(),
+                row.fulfilledWithCourseName(),
+                row.rejectionReason(),
+                row.createdAt() != null
+                        ? row.createdAt().toString()
+                        : null,
+                row.resolvedAt() != null
+                        ? row.resolvedAt().toString()
+                        : null
+        ));
+    }
+
+    /**
+     * Wunschkurse samt Blockname für alle angegebenen Wechselwünsche mit einer Abfrage, nach Priorität sortiert.
+     */
+    private Map<Long, List<DesiredCourseOptionDto>> findOptionDtos(List<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return exchangeRequestRepository.findOptionRows(requestIds).stream()
+                .collect(Collectors.groupingBy(ExchangeRequestOptionRow::requestId,
+                        Collectors.mapping(option -> new DesiredCourseOptionDto(
+                                option.id(),
+                                option.courseId(),
+                                option.name(),
+                                option.blockName(),
+                                option.priority()), Collectors.toList())));
+    }
+
+    private List<ExchangeRequestResponseDto> toResponseDtos(List<ExchangeRequest> requests) {
+        Map<Long, List<DesiredCourseOptionDto>> optionsByRequest =
+                findOptionDtos(requests.stream().map(ExchangeRequest::getId).toList());
+        return requests.stream()
+                .map(request -> toResponseDto(request, optionsByRequest.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private ExchangeRequestResponseDto toResponseDto(ExchangeRequest request,
+                                                     List<DesiredCourseOptionDto> desiredCourses) {
         return new ExchangeRequestResponseDto(
                 request.getId(),
                 request.getStudent().getUserName(),
                 request.getCurrentAssignment().getCourse().getName(),
                 request.getCurrentAssignment().getBlock().getName(),
-                request.getDesiredCourses().stream()
-                        .map(this::toOptionDto)
-                        .collect(Collectors.toList()),
+                desiredCourses,
                 request.getStatus().name(),
                 request.getFulfilledWithCourse() != null
                         ? request.getFulfilledWithCourse().getName()
@@ -227,18 +360,28 @@ public class CourseExchangeController {
         );
     }
 
-    private DesiredCourseOptionDto toOptionDto(ExchangeRequestOption option) {
-        sandbox27.ila.backend.block.Block block = eligibilityService.getBlockForCourse(option.getDesiredCourse());
-        return new DesiredCourseOptionDto(
-                option.getDesiredCourse().getId(),
-                option.getDesiredCourse().getCourseId(),
-                option.getDesiredCourse().getName(),
-                block.getName(),
-                option.getPriority()
+    private ExchangeTraceDto toTraceDto(ExchangeRequest request, Map<Long, String> studentByRequest) {
+        Map<Long, String> courseNames = request.getDesiredCourses().stream()
+                .collect(Collectors.toMap(o -> o.getDesiredCourse().getId(), o -> o.getDesiredCourse().getName(),
+                        (a, b) -> a));
+        return new ExchangeTraceDto(
+                request.getId(),
+                request.getStudent().getUserName(),
+                request.getCurrentAssignment().getCourse().getName(),
+                request.getStatus().name(),
+                request.getFulfilledWithCourse() != null
+                        ? request.getFulfilledWithCourse().getName()
+                        : null,
+                request.getResolutionTrace().stream()
+                        .map(trace -> new OptionTraceDto(
+                                trace.priority(),
+                                courseNames.get(trace.courseId()),
+                                trace.cause() != null ? trace.cause().name() : null,
+                                trace.reason(),
+                                trace.seatTakenBy().stream()
+                                        .map(id -> studentByRequest.getOrDefault(id, String.valueOf(id)))
+                                        .toList()))
+                        .collect(Collectors.toList())
         );
     }
-
-    private String getBlockNameForCourse(sandbox27.ila.backend.course.Course course) {
-        return eligibilityService.getBlockForCourse(course).getName();
-    }
-}
\ No newline at end of file
+}
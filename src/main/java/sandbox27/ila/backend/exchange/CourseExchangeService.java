@@ -4,22 +4,26 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 import sandbox27.ila.backend.assignments.CourseUserAssignment;
 import sandbox27.ila.backend.assignments.CourseUserAssignmentRepository;
+import sandbox27.ila.backend.assignments.StudentFairnessService;
 import sandbox27.ila.backend.assignments.events.CourseAssignmentDeleteEvent;
+import sandbox27.ila.backend.assignments.events.CourseAssignmentsChangedEvent;
 import sandbox27.ila.backend.block.Block;
 import sandbox27.ila.backend.course.Course;
 import sandbox27.ila.backend.course.CourseRepository;
+import sandbox27.ila.backend.course.CourseSeatService;
+import sandbox27.ila.backend.exclusion.UserBlockExclusionService;
 import sandbox27.ila.backend.exchange.events.ExchangeRequestFulfilledEvent;
+import sandbox27.ila.backend.exchange.events.ExchangeRequestSubmittedEvent;
 import sandbox27.ila.backend.exchange.events.ExchangeRequestUnfulfillableEvent;
 import sandbox27.ila.backend.period.Period;
 import sandbox27.ila.backend.period.PeriodRepository;
-import sandbox27.ila.backend.preference.Preference;
-import sandbox27.ila.backend.preference.PreferenceRepository;
 import sandbox27.ila.backend.user.User;
 import sandbox27.infrastructure.error.ErrorCode;
 import sandbox27.infrastructure.error.ServiceException;
@@ -38,8 +42,11 @@ public class CourseExchangeService {
     private final CourseRepository courseRepository;
     private final PeriodRepository periodRepository;
     private final CourseEligibilityService eligibilityService;
-    private final PreferenceRepository preferenceRepository;
+    private final StudentFairnessService fairnessService;
     private final ApplicationEventPublisher eventPublisher;
+    private final ExchangeCourseCatalogCache courseCatalogCache;
+    private final UserBlockExclusionService userBlockExclusionService;
+    private final CourseSeatService courseSeatService;
 
     /**
      * Erstellt einen neuen Wechselwunsch
@@ -131,6 +138,7 @@ public class CourseExchangeService {
                 student.getUserName(),
                 currentAssignment.getCourse().getName(),
                 desiredCourseIds.size());
+        eventPublisher.publishEvent(new ExchangeRequestSubmittedEvent(saved.getId(), periodId));
 
         return saved;
     }
@@ -182,7 +190,9 @@ public class CourseExchangeService {
             request.addDesiredCourse(course, i + 1);
         }
 
-        return exchangeRequestRepository.save(request);
+        ExchangeRequest saved = saveIfStillPending(request);
+        eventPublisher.publishEvent(new ExchangeRequestSubmittedEvent(saved.getId(), request.getPeriod().getId()));
+        return saved;
     }
 
     /**
@@ -202,7 +212,7 @@ public class CourseExchangeService {
         }
 
         request.withdraw();
-        exchangeRequestRepository.save(request);
+        saveIfStillPending(request);
 
         log.info("Wechselwunsch {} von {} zurückgezogen", requestId, student.getUserName());
     }
@@ -228,16 +238,36 @@ public class CourseExchangeService {
         return exchangeRequestRepository.findByStudentAndPeriod(student, period);
     }
 
+    /**
+     * Führt die Batch-Auflösung aller offenen Wechselwünsche mit dem Standardverfahren
+     * {@link ExchangeResolutionStrategy#FAIRNESS_ORDER} durch.
+     */
+    @Transactional
+    public ExchangeResolutionResult resolveExchangeRequests(Long periodId) {
+        return resolveExchangeRequests(periodId, ExchangeResolutionStrategy.FAIRNESS_ORDER);
+    }
+
     /**
      * Führt die Batch-Auflösung aller offenen Wechselwünsche durch.
      * Diese Methode sollte am Ende der Wechselphase aufgerufen werden.
+     * <p>
+     * Beim Standardverfahren werden zuerst Wünsche mit freien Plätzen erfüllt (samt Ketten über frei werdende
+     * Plätze), danach Ringtausche zwischen vollen Kursen per {@link TradingCycleResolver} ausgeführt, siehe
+     * {@link ExchangeResolver}. Alles läuft in einer Transaktion; ein Ringtausch wird damit ganz oder gar nicht
+     * übernommen.
+     * <p>
+     * Woran die einzelnen Wunschkurse gescheitert sind, wird nebenbei gesammelt und mit jedem aufgelösten Wunsch
+     * als {@link ExchangeRequest#getResolutionTrace()} gespeichert.
+     * <p>
+     * Die Periode bleibt bis zum Commit gesperrt, sodass keine laufende Zuordnung ({@link #fulfillPendingRequests})
+     * dazwischen dieselben Wünsche und Plätze vergibt. Ändert ein Schüler einen Wunsch währenddessen, scheitert die
+     * Auflösung als Ganzes mit {@link ErrorCode#ExchangeRequestsChanged}.
      */
     @Transactional
-    public ExchangeResolutionResult resolveExchangeRequests(Long periodId) {
-        Period period = periodRepository.findById(periodId)
-                .orElseThrow(() -> new ServiceException(ErrorCode.NotFound, "Period", periodId));
+    public ExchangeResolutionResult resolveExchangeRequests(Long periodId, ExchangeResolutionStrategy strategy) {
+        Period period = lockPeriod(periodId);
 
-        log.info("Starte Batch-Auflösung der Wechselwünsche für Periode {}", period.getName());
+        log.info("Starte Batch-Auflösung der Wechselwünsche für Periode {} ({})", period.getName(), strategy);
 
         // Lade alle offenen Requests mit Details
         List<ExchangeRequest> pendingRequests =
@@ -249,44 +279,28 @@ public class CourseExchangeService {
             return ExchangeResolutionResult.empty();
         }
 
+        // Ein Snapshot der Periode statt Abfragen je Eignungsprüfung
+        ExchangeEligibilitySnapshot snapshot = eligibilityService.loadResolutionSnapshot(periodId);
+
         // Sortiere nach Fairness-Score (Schüler mit schlechterem Erstverteilungs-Ergebnis zuerst)
         // Je höher der durchschnittliche Priority-Wert, desto schlechter wurde der Schüler bedient
-        List<ExchangeRequest> sortedRequests = sortByFairness(pendingRequests);
-
-        int fulfilled = 0;
-        int unfulfillable = 0;
-
-        // Mehrere Durchläufe, um Kettenwechsel zu ermöglichen
-        boolean anyFulfilledInRound;
-        int round = 0;
-        int maxRounds = 10;
-
-        do {
-            anyFulfilledInRound = false;
-            round++;
-            log.debug("Auflösungsrunde {}", round);
+        List<ExchangeRequest> sortedRequests = sortByFairness(pendingRequests,
+                fairnessService.getScoresByUser(periodId));
 
-            for (ExchangeRequest request : sortedRequests) {
-                if (request.getStatus() != ExchangeRequestStatus.PENDING) {
-                    continue;
-                }
+        // Begründungen je Option und Platzvergabe werden nebenbei im Speicher gesammelt
+        ExchangeResolutionTrace trace = new ExchangeResolutionTrace();
+        ExchangeResolutionResult result = new ExchangeResolver(sortedRequests, snapshot, trace, persistingEffects)
+                .resolve(strategy);
+        int fulfilled = result.getFulfilled();
 
-                // Versuche, den Wunsch zu erfüllen
-                boolean success = tryFulfillRequest(request);
-
-                if (success) {
-                    fulfilled++;
-                    anyFulfilledInRound = true;
-                }
-            }
-
-        } while (anyFulfilledInRound && round < maxRounds);
+        int unfulfillable = 0;
 
         // Markiere alle verbleibenden als nicht erfüllbar
         for (ExchangeRequest request : sortedRequests) {
             if (request.getStatus() == ExchangeRequestStatus.PENDING) {
                 String reason = "Kein passender Kurs mit freien Plätzen gefunden";
                 request.markAsUnfulfillable(reason);
+                request.setResolutionTrace(trace.get(request));
                 exchangeRequestRepository.save(request);
                 unfulfillable++;
 
@@ -311,147 +325,159 @@ public class CourseExchangeService {
             }
         }
 
-        log.info("Batch-Auflösung abgeschlossen: {} erfüllt, {} nicht erfüllbar", fulfilled, unfulfillable);
+        try {
+            exchangeRequestRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ServiceException(ErrorCode.ExchangeRequestsChanged);
+        }
 
-        return ExchangeResolutionResult.builder()
-                .totalRequests(pendingRequests.size())
-                .fulfilled(fulfilled)
-                .unfulfillable(unfulfillable)
-                .rounds(round)
-                .build();
+        log.info("Batch-Auflösung abgeschlossen: {} erfüllt ({} in {} Ringtauschen), {} nicht erfüllbar",
+                fulfilled, result.getFulfilledByCycles(), result.getTradingCycles(), unfulfillable);
+
+        if (fulfilled > 0) {
+            eventPublisher.publishEvent(new CourseAssignmentsChangedEvent(periodId));
+        }
+
+        return result;
     }
 
     /**
-     * Versucht, einen einzelnen Wechselwunsch zu erfüllen
+     * Lädt offene Wünsche in Fairness-Reihenfolge und den Snapshot der Periode für Probeläufe, siehe
+     * {@link ExchangeDryRunService}.
      */
-    private boolean tryFulfillRequest(ExchangeRequest request) {
-        User student = request.getStudent();
-        CourseUserAssignment currentAssignment = request.getCurrentAssignment();
-        Long periodId = request.getPeriod().getId();
-
-        // Gehe durch alle Wunschkurse in Prioritätsreihenfolge
-        for (ExchangeRequestOption option : request.getDesiredCourses()) {
-            Course desiredCourse = option.getDesiredCourse();
-
-            // Prüfe Berechtigung zum Zeitpunkt der Auflösung
-            EligibilityResult eligibility = eligibilityService.checkExchangeEligibilityForResolution(
-                    student, currentAssignment, desiredCourse, periodId);
-
-            if (eligibility.isEligible()) {
-                // Wechsel durchführen!
-                executeExchange(request, desiredCourse);
-                return true;
-            } else {
-                log.debug("Kurs {} nicht möglich für {}: {}",
-                        desiredCourse.getName(), student.getUserName(), eligibility.getReason());
-            }
-        }
-
-        return false;
+    @Transactional(readOnly = true)
+    ExchangeDryRun loadDryRun(Long periodId) {
+        Period period = periodRepository.findById(periodId)
+                .orElseThrow(() -> new ServiceException(ErrorCode.NotFound, "Period", periodId));
+        List<ExchangeRequest> pendingRequests = exchangeRequestRepository.findPendingRequestsWithDetails(period);
+        ExchangeEligibilitySnapshot snapshot = eligibilityService.loadResolutionSnapshot(periodId);
+        return new ExchangeDryRun(sortByFairness(pendingRequests, fairnessService.getScoresByUser(periodId)),
+                snapshot);
     }
 
     /**
-     * Führt den tatsächlichen Kurswechsel durch
+     * Laufende Zuordnung während der Wechselphase: erfüllt offene Wünsche, für die jetzt ein Platz frei ist,
+     * in Fairness-Reihenfolge und samt Ketten über die dabei frei werdenden Plätze. Nicht erfüllbare Wünsche
+     * bleiben offen; Ringtausche und die Absage übernimmt {@link #resolveExchangeRequests} am Ende der Phase.
+     * Außerhalb der Wechselphase passiert nichts. Läuft wie {@link #resolveExchangeRequests} unter der Sperre
+     * der Periode; ändert ein Schüler währenddessen einen Wunsch, scheitert der Commit mit
+     * {@link ObjectOptimisticLockingFailureException} und nichts wird übernommen.
+     *
+     * @return Anzahl erfüllter Wünsche
      */
-    private void executeExchange(ExchangeRequest request, Course newCourse) {
-        User student = request.getStudent();
-        CourseUserAssignment oldAssignment = request.getCurrentAssignment();
-        String oldCourseName = oldAssignment.getCourse().getName();
-        Block oldBlock = oldAssignment.getBlock();
-
-        // Block über CourseBlockAssignment ermitteln
-        Block newBlock = eligibilityService.getBlockForCourse(newCourse);
-
-        // Bestehende Zuweisung aktualisieren (nicht löschen, da ExchangeRequest per FK darauf verweist)
-        oldAssignment.setCourse(newCourse);
-        oldAssignment.setBlock(newBlock);
-        oldAssignment.setPreset(false);
-        assignmentRepository.save(oldAssignment);
-
-        // Markiere Request als erfüllt
-        request.markAsFulfilled(newCourse);
-        exchangeRequestRepository.save(request);
-
-        log.info("Wechsel durchgeführt: {} tauscht {} gegen {}",
-                student.getUserName(),
-                oldCourseName,
-                newCourse.getName());
+    @Transactional
+    public int fulfillPendingRequests(Long periodId) {
+        Period period = lockPeriod(periodId);
+        if (!isExchangePhaseActive(period)) {
+            return 0;
+        }
 
-        // Event für Email-Benachrichtigung auslösen
-        eventPublisher.publishEvent(new ExchangeRequestFulfilledEvent(
-                student.getUserName(),
-                student.getEmail(),
-                student.getFirstName(),
-                oldCourseName,
-                oldBlock.getName(),
-                oldBlock.getDayOfWeek().toString(),
-                newCourse.getName(),
-                newBlock.getName(),
-                newBlock.getDayOfWeek().toString()
-        ));
+        List<ExchangeRequest> pendingRequests = exchangeRequestRepository.findPendingRequestsWithDetails(period);
+        if (pendingRequests.isEmpty()) {
+            return 0;
+        }
+
+        ExchangeEligibilitySnapshot snapshot = eligibilityService.loadResolutionSnapshot(periodId);
+        List<ExchangeRequest> sortedRequests = sortByFairness(pendingRequests,
+                fairnessService.getScoresByUser(periodId));
+        int fulfilled = new ExchangeResolver(sortedRequests, snapshot, new ExchangeResolutionTrace(),
+                persistingEffects).fulfillFromFreeSeats();
+
+        if (fulfilled > 0) {
+            log.info("Laufende Zuordnung: {} von {} offenen Wechselwünschen erfüllt", fulfilled, pendingRequests.size());
+            eventPublisher.publishEvent(new CourseAssignmentsChangedEvent(periodId));
+        }
+        return fulfilled;
     }
 
     /**
-     * Sortiert Requests nach Fairness (schlechter bediente Schüler zuerst)
+     * Reserviert Plätze über {@link CourseSeatService}, speichert Zuweisung und Wunsch und löst die
+     * Benachrichtigung aus.
      */
-    private List<ExchangeRequest> sortByFairness(List<ExchangeRequest> requests) {
-        // Berechne Fairness-Score für jeden Schüler
-        Map<String, Double> studentFairnessScores = new HashMap<>();
+    private final ExchangeResolver.Effects persistingEffects = new ExchangeResolver.Effects() {
+        @Override
+        public boolean moveSeat(Course from, Course to) {
+            if (!courseSeatService.tryReserve(to)) {
+                return false;
+            }
+            courseSeatService.release(from);
+            return true;
+        }
 
-        for (ExchangeRequest request : requests) {
+        @Override
+        public void exchanged(ExchangeRequest request, Course oldCourse, Block oldBlock) {
             User student = request.getStudent();
-            if (!studentFairnessScores.containsKey(student.getUserName())) {
-                double score = calculateFairnessScore(student, request.getPeriod().getId());
-                studentFairnessScores.put(student.getUserName(), score);
-            }
+            CourseUserAssignment assignment = request.getCurrentAssignment();
+            Course newCourse = assignment.getCourse();
+            Block newBlock = assignment.getBlock();
+            assignmentRepository.save(assignment);
+            exchangeRequestRepository.save(request);
+
+            log.info("Wechsel durchgeführt: {} tauscht {} gegen {}",
+                    student.getUserName(),
+                    oldCourse.getName(),
+                    newCourse.getName());
+
+            // Event für Email-Benachrichtigung auslösen
+            eventPublisher.publishEvent(new ExchangeRequestFulfilledEvent(
+                    student.getUserName(),
+                    student.getEmail(),
+                    student.getFirstName(),
+                    oldCourse.getName(),
+                    oldBlock.getName(),
+                    oldBlock.getDayOfWeek().toString(),
+                    newCourse.getName(),
+                    newBlock.getName(),
+                    newBlock.getDayOfWeek().toString()
+            ));
+        }
+
+        @Override
+        public void cycleExecuted(List<TradingCycleResolver.Trade> cycle) {
+            log.info("Ringtausch mit {} Beteiligten: {}", cycle.size(), cycle.stream()
+                    .map(trade -> trade.request().getStudent().getUserName() + " → " + trade.course().getName())
+                    .collect(Collectors.joining(", ")));
         }
+    };
 
-        // Sortiere: Höherer Score = schlechter bedient = höhere Priorität
+    /**
+     * Sortiert Requests nach Fairness (schlechter bediente Schüler zuerst).
+     * Der Fairness-Score ist die durchschnittliche Präferenz-Priorität der Erstverteilung, siehe
+     * {@link StudentFairnessService}; höherer Score = schlechter bedient = höhere Priorität beim Tausch.
+     */
+    private List<ExchangeRequest> sortByFairness(List<ExchangeRequest> requests, Map<String, Double> fairnessScores) {
         return requests.stream()
                 .sorted(Comparator.comparingDouble(r ->
-                        -studentFairnessScores.getOrDefault(r.getStudent().getUserName(), 0.0)))
+                        -fairnessScores.getOrDefault(r.getStudent().getUserName(), 0.0)))
                 .collect(Collectors.toList());
     }
 
     /**
-     * Berechnet den Fairness-Score eines Schülers anhand der durchschnittlichen
-     * Präferenz-Priorität seiner zugewiesenen Kurse.
-     * Höherer Wert = schlechter bedient bei der Erstverteilung = höhere Priorität beim Tausch.
+     * Sperrt die Periode bis zum Ende der Transaktion. Muss die erste Abfrage der Transaktion sein: Erst danach
+     * gelesene Wünsche und Zuweisungen enthalten, was ein vorheriger Lauf committet hat.
      */
-    private double calculateFairnessScore(User student, Long periodId) {
-        List<CourseUserAssignment> assignments =
-                assignmentRepository.findByUserAndCourse_Period_Id(student, periodId);
-
-        if (assignments.isEmpty()) {
-            return 0.0;
-        }
-
-        double totalPriority = 0;
-        int counted = 0;
-
-        for (CourseUserAssignment assignment : assignments) {
-            if (assignment.isPreset()) {
-                continue; // Preset-Kurse zählen nicht zur Fairness
-            }
-
-            Optional<Preference> preference = preferenceRepository
-                    .findByUserAndBlock_IdAndCourse_Id(
-                            student,
-                            assignment.getBlock().getId(),
-                            assignment.getCourse().getId());
-
-            if (preference.isPresent()) {
-                totalPriority += preference.get().getPreferenceIndex();
-                counted++;
-            }
-            // Kein Preference-Eintrag = Schüler hat keine Präferenz abgegeben → ignorieren
-        }
+    private Period lockPeriod(Long periodId) {
+        return periodRepository.findByIdForUpdate(periodId)
+                .orElseThrow(() -> new ServiceException(ErrorCode.NotFound, "Period", periodId));
+    }
 
-        if (counted == 0) {
-            return 0.0; // Nur Preset-Kurse → neutral
+    /**
+     * Speichert eine Änderung des Schülers; hat die laufende Zuordnung oder die Auflösung den Wunsch inzwischen
+     * erledigt, schlägt sie mit {@link ErrorCode#ExchangeRequestNotPending} fehl.
+     */
+    private ExchangeRequest saveIfStillPending(ExchangeRequest request) {
+        try {
+            return exchangeRequestRepository.saveAndFlush(request);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ServiceException(ErrorCode.ExchangeRequestNotPending);
         }
+    }
 
-        return totalPriority / counted;
+    private static boolean isExchangePhaseActive(Period period) {
+        LocalDateTime now = LocalDateTime.now();
+        return period.getExchangePhaseStart() != null && period.getExchangePhaseEnd() != null
+                && !now.isBefore(period.getExchangePhaseStart())
+                && !now.isAfter(period.getExchangePhaseEnd());
     }
 
     /**
@@ -498,42 +524,53 @@ public class CourseExchangeService {
 
     /**
      * Gibt verfügbare Kurse zurück, auf die ein Schüler wechseln könnte
-     * (unter Berücksichtigung, welchen Kurs er abgeben würde)
+     * (unter Berücksichtigung, welchen Kurs er abgeben würde).
+     * <p>
+     * Kurse, Blöcke und Teilnehmerzahlen kommen aus dem {@link ExchangeCourseCatalogCache}; je Aufruf werden nur
+     * die Zuweisungen und Sperren des Schülers geladen und alle Kurse in einem Durchlauf geprüft.
      */
     public List<AvailableCourseDto> getAvailableCoursesForExchange(
             User student,
             Long periodId,
             Long assignmentToGiveUpId) {
 
-        CourseUserAssignment assignmentToGiveUp = assignmentRepository.findById(assignmentToGiveUpId)
+        List<CourseUserAssignment> currentAssignments =
+                assignmentRepository.findByUserAndCourse_Period_Id(student, periodId);
+
+        CourseUserAssignment assignmentToGiveUp = currentAssignments.stream()
+                .filter(a -> a.getId().equals(assignmentToGiveUpId))
+                .findFirst()
                 .orElseThrow(() -> new ServiceException(ErrorCode.NotFound, "Assignment", assignmentToGiveUpId));
 
-        Period period = periodRepository.findById(periodId)
-                .orElseThrow(() -> new ServiceException(ErrorCode.NotFound, "Period", periodId));
+        // Simuliere: Entferne die abzugebende Zuweisung
+        List<CourseUserAssignment> remainingAssignments = currentAssignments.stream()
+                .filter(a -> a != assignmentToGiveUp)
+                .toList();
+        Set<Long> excludedBlockIds = userBlockExclusionService.getExcludedBlockIds(student.getUserName(), periodId);
 
-        // Lade alle Kurse der Periode (außer dem aktuellen)
-        List<Course> allCourses = courseRepository.findAllByPeriod(period).stream()
-                .filter(c -> c.getId() != assignmentToGiveUp.getCourse().getId())
-                .filter(c -> !c.isManualAssignmentOnly())
-                .filter(c -> !c.isPlaceholder())
-                .collect(Collectors.toList());
+        ExchangeCourseCatalog catalog = courseCatalogCache.get(periodId,
+                () -> eligibilityService.loadCourseCatalog(periodId));
 
         List<AvailableCourseDto> result = new ArrayList<>();
 
-        for (Course course : allCourses) {
-            EligibilityResult eligibility = eligibilityService.checkExchangeEligibilityForDisplay(
-                    student, assignmentToGiveUp, course, periodId);
+        for (Course course : catalog.getCourses()) {
+            // Aktueller Kurs, nur manuell zuweisbare Kurse, Platzhalter und Kurse ohne Block nicht anbieten
+            Block block = catalog.getBlockForCourse(course);
+            if (course.getId() == assignmentToGiveUp.getCourse().getId()
+                    || course.isManualAssignmentOnly()
+                    || course.isPlaceholder()
+                    || block == null) {
+                continue;
+            }
+
+            EligibilityResult eligibility = catalog.checkExchangeForDisplay(
+                    student, course, remainingAssignments, excludedBlockIds);
 
             // Kurse mit harten Ausschlüssen (Klassenstufe, Geschlecht etc.) komplett ausblenden
             if (eligibility.isExcludeFromList()) {
                 continue;
             }
 
-            int availableSpots = eligibilityService.getAvailableSpots(course);
-
-            // Block über CourseBlockAssignment ermitteln
-            Block block = eligibilityService.getBlockForCourse(course);
-
             result.add(AvailableCourseDto.builder()
                     .id(course.getId())
                     .courseId(course.getCourseId())
@@ -541,7 +578,7 @@ public class CourseExchangeService {
                     .blockId(block.getId())
                     .blockName(block.getName())
                     .dayOfWeek(block.getDayOfWeek().toString())
-                    .availableSpots(availableSpots)
+                    .availableSpots(catalog.getAvailableSpots(course))
                     .eligible(eligibility.isEligible())
                     .ineligibilityReason(eligibility.getReason())
                     .warning(eligibility.getWarning())
@@ -7,6 +7,10 @@ public class EligibilityResult {
 
     private final boolean eligible;
     private final String reason;
+    /**
+     * Gesetzt, wenn der Kurs nicht wählbar ist
+     */
+    private final IneligibilityCause cause;
     /**
      * Wenn true, soll der Kurs gar nicht in der Liste angezeigt werden
      * (z.B. falsche Klassenstufe, falsches Geschlecht)
@@ -17,36 +21,38 @@ public class EligibilityResult {
      */
     private final String warning;
 
-    private EligibilityResult(boolean eligible, String reason, boolean excludeFromList, String warning) {
+    private EligibilityResult(boolean eligible, String reason, IneligibilityCause cause, boolean excludeFromList,
+                              String warning) {
         this.eligible = eligible;
         this.reason = reason;
+        this.cause = cause;
         this.excludeFromList = excludeFromList;
         this.warning = warning;
     }
 
     public static EligibilityResult eligible() {
-        return new EligibilityResult(true, null, false, null);
+        return new EligibilityResult(true, null, null, false, null);
     }
 
     /**
      * Kurs ist wählbar, aber mit einer Warnung (z.B. "Kurs ist aktuell voll")
      */
     public static EligibilityResult eligibleWithWarning(String warning) {
-        return new EligibilityResult(true, null, false, warning);
+        return new EligibilityResult(true, null, null, false, warning);
     }
 
     /**
      * Kurs ist nicht wählbar und wird in der Liste angezeigt mit Grund
      */
-    public static EligibilityResult ineligible(String reason) {
-        return new EligibilityResult(false, reason, false, null);
+    public static EligibilityResult ineligible(IneligibilityCause cause, String reason) {
+        return new EligibilityResult(false, reason, cause, false, null);
     }
 
     /**
      * Kurs soll gar nicht in der Liste erscheinen (harter Ausschluss)
      */
     public static EligibilityResult excluded(String reason) {
-        return new EligibilityResult(false, reason, true, null);
+        return new EligibilityResult(false, reason, IneligibilityCause.EXCLUDED, true, null);
     }
 
     public boolean isIneligible() {
@@ -0,0 +1,69 @@
+package sandbox27.ila.backend.exchange;
+
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.course.Course;
+import sandbox27.ila.backend.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Kurse einer Periode für die Auswahl beim Wechselwunsch: Kurse samt Element-Collections, Block je Kurs und
+ * Teilnehmerzahl je Kurs in seinem Block. Wird von {@link ExchangeCourseCatalogCache} für alle Schüler geteilt
+ * und danach nicht mehr verändert.
+ */
+final class ExchangeCourseCatalog {
+
+    private final List<Course> courses;
+    private final Map<Long, Block> courseToBlock;
+    private final Map<Long, Integer> attendeesByCourse;
+    private final LocalDateTime loadedAt = LocalDateTime.now();
+
+    ExchangeCourseCatalog(List<Course> courses, Map<Long, Block> courseToBlock, Map<Long, Integer> attendeesByCourse) {
+        this.courses = List.copyOf(courses);
+        this.courseToBlock = Map.copyOf(courseToBlock);
+        this.attendeesByCourse = Map.copyOf(attendeesByCourse);
+    }
+
+    /**
+     * @return alle Kurse der Periode nach Name
+     */
+    List<Course> getCourses() {
+        return courses;
+    }
+
+    /**
+     * @return Block des Kurses oder {@code null}, wenn der Kurs keinem Block zugeordnet ist
+     */
+    Block getBlockForCourse(Course course) {
+        return courseToBlock.get(course.getId());
+    }
+
+    int getAvailableSpots(Course course) {
+        return Math.max(0, course.getMaxAttendees() - getAttendees(course));
+    }
+
+    LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Entspricht {@link CourseEligibilityService#checkExchangeEligibilityForDisplay}, mit den Zuweisungen des
+     * Schülers ohne den abzugebenden Kurs.
+     */
+    EligibilityResult checkExchangeForDisplay(User student, Course desiredCourse,
+                                              List<CourseUserAssignment> remainingAssignments,
+                                              Set<Long> excludedBlockIds) {
+        return CourseEligibilityService.evaluate(student, desiredCourse, getBlockForCourse(desiredCourse),
+                remainingAssignments, false, false,
+                () -> excludedBlockIds,
+                () -> getAttendees(desiredCourse));
+    }
+
+    private int getAttendees(Course course) {
+        return attendeesByCourse.getOrDefault(course.getId(), 0);
+    }
+}
@@ -0,0 +1,88 @@
+package sandbox27.ila.backend.exchange;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sandbox27.ila.backend.assignments.AssignmentsFinalEvent;
+import sandbox27.ila.backend.assignments.events.CourseAssignmentDeleteEvent;
+import sandbox27.ila.backend.assignments.events.CourseAssignmentsChangedEvent;
+import sandbox27.ila.backend.course.events.CourseBlockChangedEvent;
+import sandbox27.ila.backend.course.events.CourseCapacityChangedEvent;
+import sandbox27.ila.backend.course.events.CourseChangedEvent;
+import sandbox27.ila.backend.course.events.CourseDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Hält je Periode einen {@link ExchangeCourseCatalog}, damit die Kursauswahl beim Wechselwunsch in der
+ * Wechselphase nicht für jeden Schüler alle Kurse, Blöcke und Teilnehmerzahlen neu lädt. Einträge verfallen nach
+ * {@link #TIME_TO_LIVE} und werden nach Zuweisungs-, Wechsel- und Kursänderungen verworfen.
+ * <p>
+ * Verworfen wird erst nach dem Commit, damit kein paralleler Aufruf den alten Stand erneut lädt. Gleichzeitige
+ * Aufrufe für eine Periode warten auf denselben Ladevorgang.
+ */
+@Component
+@Slf4j
+public class ExchangeCourseCatalogCache {
+
+    static final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private final Map<Long, ExchangeCourseCatalog> catalogs = new ConcurrentHashMap<>();
+
+    ExchangeCourseCatalog get(Long periodId, Supplier<ExchangeCourseCatalog> loader) {
+        return catalogs.compute(periodId, (id, catalog) -> {
+            if (catalog != null && catalog.getLoadedAt().plus(TIME_TO_LIVE).isAfter(LocalDateTime.now())) {
+                return catalog;
+            }
+            log.info("Loading exchange course catalog for period {}", id);
+            return loader.get();
+        });
+    }
+
+    public void invalidate(Long periodId) {
+        catalogs.remove(periodId);
+    }
+
+    public void invalidateAll() {
+        catalogs.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseAssignmentsChanged(CourseAssignmentsChangedEvent event) {
+        invalidate(event.periodId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssignmentsFinal(AssignmentsFinalEvent event) {
+        invalidate(event.periodId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseBlockChanged(CourseBlockChangedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseCapacityChanged(CourseCapacityChangedEvent event) {
+        invalidate(event.periodId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        invalidate(event.periodId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseDeleted(CourseDeletedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseAssignmentDelete(CourseAssignmentDeleteEvent event) {
+        invalidateAll();
+    }
+}
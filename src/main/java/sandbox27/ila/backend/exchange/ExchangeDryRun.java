@@ -0,0 +1,84 @@
+package sandbox27.ila.backend.exchange;
+
+import sandbox27.ila.backend.course.Course;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offene Wechselwünsche einer Periode und ihr Snapshot für Probeläufe. Jeder Lauf arbeitet auf einer eigenen
+ * {@link #copy()} von Zuweisungen und Wünschen, damit weder die geladenen Entities geändert noch parallel
+ * laufende Strategien gestört werden.
+ */
+final class ExchangeDryRun {
+
+    private final List<ExchangeRequest> sortedRequests;
+    private final ExchangeEligibilitySnapshot snapshot;
+
+    /**
+     * @param sortedRequests offene Wünsche in Fairness-Reihenfolge
+     */
+    ExchangeDryRun(List<ExchangeRequest> sortedRequests, ExchangeEligibilitySnapshot snapshot) {
+        this.sortedRequests = sortedRequests;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Kopiert Zuweisungen und Wünsche; Schüler, Kurse, Blöcke und Optionen werden nur gelesen und geteilt.
+     */
+    ExchangeDryRun copy() {
+        ExchangeEligibilitySnapshot snapshotCopy = snapshot.copy();
+        List<ExchangeRequest> requestCopies = new ArrayList<>(sortedRequests.size());
+        for (ExchangeRequest request : sortedRequests) {
+            requestCopies.add(ExchangeRequest.builder()
+                    .id(request.getId())
+                    .student(request.getStudent())
+                    .period(request.getPeriod())
+                    .currentAssignment(snapshotCopy.findAssignment(request.getStudent(),
+                            request.getCurrentAssignment().getId()))
+                    .desiredCourses(new ArrayList<>(request.getDesiredCourses()))
+                    .createdAt(request.getCreatedAt())
+                    .build());
+        }
+        return new ExchangeDryRun(requestCopies, snapshotCopy);
+    }
+
+    /**
+     * Führt die Strategie auf diesem Stand aus; nur auf einer {@link #copy()} aufrufen.
+     */
+    ExchangeDryRunResult run(ExchangeResolutionStrategy strategy) {
+        // Ausgangskurse vor dem Lauf merken, die Zuweisungen werden dabei umgeschrieben
+        List<String> currentCourseNames = sortedRequests.stream()
+                .map(request -> request.getCurrentAssignment().getCourse().getName())
+                .toList();
+
+        ExchangeResolutionTrace trace = new ExchangeResolutionTrace();
+        ExchangeResolutionResult result = new ExchangeResolver(sortedRequests, snapshot, trace,
+                ExchangeResolver.IN_MEMORY).resolve(strategy);
+
+        List<ExchangeDryRunResult.StudentOutcome> outcomes = new ArrayList<>(sortedRequests.size());
+        for (int i = 0; i < sortedRequests.size(); i++) {
+            ExchangeRequest request = sortedRequests.get(i);
+            Course fulfilledWith = request.getFulfilledWithCourse();
+            outcomes.add(new ExchangeDryRunResult.StudentOutcome(
+                    request.getId(),
+                    request.getStudent().getUserName(),
+                    currentCourseNames.get(i),
+                    fulfilledWith != null
+                            ? ExchangeRequestStatus.FULFILLED.name()
+                            : ExchangeRequestStatus.UNFULFILLABLE.name(),
+                    fulfilledWith != null ? fulfilledWith.getName() : null,
+                    fulfilledWith != null ? getPriority(request, fulfilledWith) : null,
+                    trace.get(request)));
+        }
+        return new ExchangeDryRunResult(strategy, result, outcomes);
+    }
+
+    private static Integer getPriority(ExchangeRequest request, Course course) {
+        return request.getDesiredCourses().stream()
+                .filter(option -> option.getDesiredCourse().getId() == course.getId())
+                .map(ExchangeRequestOption::getPriority)
+                .findFirst()
+                .orElse(null);
+    }
+}
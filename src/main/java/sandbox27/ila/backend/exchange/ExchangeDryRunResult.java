@@ -0,0 +1,29 @@
+package sandbox27.ila.backend.exchange;
+
+import java.util.List;
+
+/**
+ * Ergebnis eines Probelaufs der Wechselwunsch-Auflösung mit einer Strategie; gespeichert wird nichts.
+ *
+ * @param outcomes Ausgang je Wechselwunsch in Fairness-Reihenfolge
+ */
+public record ExchangeDryRunResult(
+        ExchangeResolutionStrategy strategy,
+        ExchangeResolutionResult result,
+        List<StudentOutcome> outcomes
+) {
+
+    /**
+     * @param fulfilledPriority Priorität des zugewiesenen Wunschkurses, {@code null} wenn nicht erfüllt
+     * @param rejectedOptions   gescheiterte Wunschkurse wie in {@link ExchangeRequest#getResolutionTrace()}
+     */
+    public record StudentOutcome(
+            Long requestId,
+            String studentName,
+            String currentCourseName,
+            String status,
+            String fulfilledWithCourseName,
+            Integer fulfilledPriority,
+            List<ExchangeOptionTrace> rejectedOptions
+    ) {}
+}
@@ -0,0 +1,68 @@
+package sandbox27.ila.backend.exchange;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Probelauf der Wechselwunsch-Auflösung: führt eine oder mehrere {@link ExchangeResolutionStrategy Strategien}
+ * auf Kopien der Zuweisungen aus, damit Admins die Erfüllungsquoten vor der echten Auflösung vergleichen können.
+ * Es wird nichts gespeichert, keine Platzzähler geändert und keine Benachrichtigung verschickt.
+ * <p>
+ * Geladen wird einmal; jede Strategie läuft auf einer eigenen Kopie parallel auf dem
+ * {@code exchangeSimulationExecutor}.
+ */
+@Service
+@Slf4j
+public class ExchangeDryRunService {
+
+    private final CourseExchangeService exchangeService;
+    private final ThreadPoolTaskExecutor exchangeSimulationExecutor;
+
+    ExchangeDryRunService(CourseExchangeService exchangeService,
+                          @Qualifier("exchangeSimulationExecutor") ThreadPoolTaskExecutor exchangeSimulationExecutor) {
+        this.exchangeService = exchangeService;
+        this.exchangeSimulationExecutor = exchangeSimulationExecutor;
+    }
+
+    /**
+     * @return ein Ergebnis je Strategie in der angefragten Reihenfolge
+     */
+    public List<ExchangeDryRunResult> simulate(Long periodId, List<ExchangeResolutionStrategy> strategies) {
+        ExchangeDryRun dryRun = exchangeService.loadDryRun(periodId);
+
+        // Kopien hier anlegen, damit die geladenen Entities nur von diesem Thread gelesen werden
+        List<CompletableFuture<ExchangeDryRunResult>> runs = strategies.stream()
+                .distinct()
+                .map(strategy -> {
+                    ExchangeDryRun copy = dryRun.copy();
+                    return CompletableFuture.supplyAsync(() -> run(copy, strategy), exchangeSimulationExecutor);
+                })
+                .toList();
+
+        try {
+            return runs.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private ExchangeDryRunResult run(ExchangeDryRun copy, ExchangeResolutionStrategy strategy) {
+        long start = System.currentTimeMillis();
+        ExchangeDryRunResult result = copy.run(strategy);
+        log.info("Probelauf {}: {} von {} Wechselwünschen erfüllt ({} ms)", strategy,
+                result.result().getFulfilled(), result.result().getTotalRequests(),
+                System.currentTimeMillis() - start);
+        return result;
+    }
+}
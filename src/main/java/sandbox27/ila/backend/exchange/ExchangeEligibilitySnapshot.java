@@ -0,0 +1,130 @@
+package sandbox27.ila.backend.exchange;
+
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.course.Course;
+import sandbox27.ila.backend.user.User;
+import sandbox27.infrastructure.error.ErrorCode;
+import sandbox27.infrastructure.error.ServiceException;
+
+import java.util.*;
+
+/**
+ * Vorgeladener Stand einer Periode für die Eignungsprüfung während der Wechselwunsch-Auflösung: Kurs→Block,
+ * Zuweisungen je Schüler, Sperren je Schüler und Teilnehmerzahlen je Kurs und Block.
+ * <p>
+ * Geprüft wird mit denselben Regeln wie in {@link CourseEligibilityService}, aber ohne Abfragen. Wechsel müssen
+ * über {@link #reassign} laufen, damit die Teilnehmerzahlen aktuell bleiben; die Zuweisungen je Schüler sind
+ * dieselben Entities und spiegeln Änderungen direkt wider. Nicht thread-sicher, gültig für eine Auflösung.
+ */
+final class ExchangeEligibilitySnapshot {
+
+    private record Seat(long courseId, long blockId) {
+    }
+
+    private final Map<Long, Block> courseToBlock;
+    private final Map<String, List<CourseUserAssignment>> assignmentsByStudent;
+    private final Map<String, Set<Long>> excludedBlocksByStudent;
+    private final Map<Seat, Integer> attendees = new HashMap<>();
+
+    ExchangeEligibilitySnapshot(Map<Long, Block> courseToBlock,
+                                List<CourseUserAssignment> assignments,
+                                Map<String, Set<Long>> excludedBlocksByStudent) {
+        this.courseToBlock = courseToBlock;
+        this.excludedBlocksByStudent = excludedBlocksByStudent;
+        this.assignmentsByStudent = new HashMap<>();
+        for (CourseUserAssignment assignment : assignments) {
+            assignmentsByStudent.computeIfAbsent(assignment.getUser().getUserName(), userName -> new ArrayList<>())
+                    .add(assignment);
+            attendees.merge(seat(assignment.getCourse(), assignment.getBlock()), 1, Integer::sum);
+        }
+    }
+
+    Block getBlockForCourse(Course course) {
+        Block block = courseToBlock.get(course.getId());
+        if (block == null) {
+            throw new ServiceException(ErrorCode.NotFound, "Kein Block für Kurs " + course.getName() + " gefunden");
+        }
+        return block;
+    }
+
+    List<CourseUserAssignment> getAssignments(User student) {
+        return assignmentsByStudent.getOrDefault(student.getUserName(), List.of());
+    }
+
+    int getAttendees(Course course, Block block) {
+        return attendees.getOrDefault(seat(course, block), 0);
+    }
+
+    /**
+     * Entspricht {@link CourseEligibilityService#checkExchangeEligibilityForResolution}.
+     */
+    EligibilityResult checkExchange(User student, CourseUserAssignment assignmentToGiveUp, Course desiredCourse) {
+        return check(student, assignmentToGiveUp, desiredCourse, false);
+    }
+
+    /**
+     * Wie {@link #checkExchange}, aber ohne Kapazitätsprüfung: Beim Ringtausch wird der Platz im selben Zug von
+     * einem anderen Beteiligten frei. Einzige Prüfung für Ringtausche.
+     */
+    EligibilityResult checkSwap(User student, CourseUserAssignment assignmentToGiveUp, Course desiredCourse) {
+        return check(student, assignmentToGiveUp, desiredCourse, true);
+    }
+
+    /**
+     * Setzt Kurs und Block der Zuweisung und führt die Teilnehmerzahlen nach.
+     */
+    void reassign(CourseUserAssignment assignment, Course newCourse, Block newBlock) {
+        attendees.merge(seat(assignment.getCourse(), assignment.getBlock()), -1, Integer::sum);
+        assignment.setCourse(newCourse);
+        assignment.setBlock(newBlock);
+        attendees.merge(seat(newCourse, newBlock), 1, Integer::sum);
+    }
+
+    /**
+     * Kopie mit eigenen Zuweisungs-Objekten für Probeläufe; Wechsel in der Kopie ändern weder die Entities noch
+     * diesen Snapshot.
+     */
+    ExchangeEligibilitySnapshot copy() {
+        List<CourseUserAssignment> copies = new ArrayList<>();
+        for (List<CourseUserAssignment> assignments : assignmentsByStudent.values()) {
+            for (CourseUserAssignment assignment : assignments) {
+                copies.add(CourseUserAssignment.builder()
+                        .id(assignment.getId())
+                        .user(assignment.getUser())
+                        .course(assignment.getCourse())
+                        .block(assignment.getBlock())
+                        .preset(assignment.isPreset())
+                        .build());
+            }
+        }
+        return new ExchangeEligibilitySnapshot(courseToBlock, copies, excludedBlocksByStudent);
+    }
+
+    /**
+     * @return die Zuweisung des Schülers mit der ID aus diesem Snapshot
+     */
+    CourseUserAssignment findAssignment(User student, Long assignmentId) {
+        return getAssignments(student).stream()
+                .filter(assignment -> assignment.getId().equals(assignmentId))
+                .findFirst()
+                .orElseThrow(() -> new ServiceException(ErrorCode.NotFound, "Assignment", assignmentId));
+    }
+
+    private EligibilityResult check(User student, CourseUserAssignment assignmentToGiveUp, Course desiredCourse,
+                                    boolean ignoreCapacity) {
+        List<CourseUserAssignment> simulatedAssignments = getAssignments(student).stream()
+                .filter(a -> !a.getId().equals(assignmentToGiveUp.getId()))
+                .toList();
+        Block targetBlock = getBlockForCourse(desiredCourse);
+
+        return CourseEligibilityService.evaluate(student, desiredCourse, targetBlock, simulatedAssignments,
+                true, ignoreCapacity,
+                () -> excludedBlocksByStudent.getOrDefault(student.getUserName(), Set.of()),
+                () -> getAttendees(desiredCourse, targetBlock));
+    }
+
+    private static Seat seat(Course course, Block block) {
+        return new Seat(course.getId(), block.getId());
+    }
+}
@@ -0,0 +1,22 @@
+package sandbox27.ila.backend.exchange;
+
+import java.util.List;
+
+/**
+ * Warum ein Wunschkurs bei der Auflösung nicht zugewiesen wurde; gespeichert je Wechselwunsch in
+ * {@link ExchangeRequest#getResolutionTrace()}.
+ *
+ * @param priority     Priorität der Option
+ * @param courseId     Course.id des Wunschkurses
+ * @param cause        gescheiterte Regel
+ * @param reason       Begründung aus der Eignungsprüfung
+ * @param seatTakenBy  bei vollem Kurs: IDs der Wechselwünsche, die in derselben Auflösung vorher einen Platz in
+ *                     diesem Kurs bekommen haben (leer, wenn der Kurs schon vorher voll war)
+ */
+public record ExchangeOptionTrace(
+        int priority,
+        Long courseId,
+        IneligibilityCause cause,
+        String reason,
+        List<Long> seatTakenBy
+) {}
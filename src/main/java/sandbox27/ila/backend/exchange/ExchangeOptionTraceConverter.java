@@ -0,0 +1,45 @@
+package sandbox27.ila.backend.exchange;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.List;
+
+/**
+ * Speichert den Auflösungs-Trace eines Wechselwunsches als JSON in einer Spalte, damit er mit dem ohnehin
+ * geschriebenen Wechselwunsch ohne zusätzliche Zeilen abgelegt wird.
+ */
+@Converter
+public class ExchangeOptionTraceConverter implements AttributeConverter<List<ExchangeOptionTrace>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<ExchangeOptionTrace>> TYPE = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(List<ExchangeOptionTrace> trace) {
+        if (trace == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(trace);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize exchange trace", e);
+        }
+    }
+
+    @Override
+    public List<ExchangeOptionTrace> convertToEntityAttribute(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(json, TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read exchange trace", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package sandbox27.ila.backend.exchange;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import sandbox27.ila.backend.assignments.CourseUserAssignment;
 import sandbox27.ila.backend.course.Course;
 import sandbox27.ila.backend.period.Period;
@@ -74,6 +75,22 @@ public class ExchangeRequest {
     @Column(length = 500)
     private String rejectionReason;
 
+    /**
+     * Gescheiterte Wunschkurse der letzten Auflösung, siehe {@link ExchangeOptionTrace}
+     */
+    @Convert(converter = ExchangeOptionTraceConverter.class)
+    @Column(columnDefinition = "TEXT")
+    private List<ExchangeOptionTrace> resolutionTrace;
+
+    /**
+     * Statuswechsel kommen vom Schüler, von der laufenden Zuordnung und von der Batch-Auflösung; wer mit einem
+     * veralteten Stand speichert, scheitert statt den anderen Wechsel zu überschreiben.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
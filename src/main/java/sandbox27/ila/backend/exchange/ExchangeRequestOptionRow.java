@@ -0,0 +1,29 @@
+package sandbox27.ila.backend.exchange;
+
+import sandbox27.ila.backend.block.Block;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Wunschkurs eines Wechselwunsches samt Blockname für die Listen und Antworten der Wechsel-Endpoints
+ * ({@link ExchangeRequestRepository#findOptionRows}).
+ */
+public record ExchangeRequestOptionRow(
+        Long requestId,
+        Long id,
+        String courseId,
+        String name,
+        String blockName,
+        int priority
+) {
+
+    /**
+     * Für die Abfrage: der Blockname wird aus den Spalten des Blocks gebildet, {@code null} ohne Block.
+     */
+    public ExchangeRequestOptionRow(Long requestId, Long id, String courseId, String name,
+                                    DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime, int priority) {
+        this(requestId, id, courseId, name,
+                dayOfWeek != null ? Block.formatName(dayOfWeek, startTime, endTime) : null, priority);
+    }
+}
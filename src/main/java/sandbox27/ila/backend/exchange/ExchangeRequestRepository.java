@@ -1,5 +1,7 @@
 package sandbox27.ila.backend.exchange;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -7,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import sandbox27.ila.backend.period.Period;
 import sandbox27.ila.backend.user.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,13 +26,6 @@ public interface ExchangeRequestRepository extends JpaRepository<ExchangeRequest
 
     List<ExchangeRequest> findByCurrentAssignment_Id(Long assignmentId);
 
-    @Query("SELECT er FROM ExchangeRequest er " +
-            "JOIN FETCH er.desiredCourses " +
-            "WHERE er.period = :period AND er.status = :status")
-    List<ExchangeRequest> findByPeriodAndStatusWithOptions(
-            @Param("period") Period period,
-            @Param("status") ExchangeRequestStatus status);
-
     @Query("SELECT er FROM ExchangeRequest er " +
             "JOIN FETCH er.currentAssignment " +
             "JOIN FETCH er.desiredCourses dc " +
@@ -37,6 +33,59 @@ public interface ExchangeRequestRepository extends JpaRepository<ExchangeRequest
             "WHERE er.period = :period AND er.status = 'PENDING'")
     List<ExchangeRequest> findPendingRequestsWithDetails(@Param("period") Period period);
 
+    /**
+     * Zeilen der Admin-Liste in einer Abfrage, optional gefiltert nach Status und nach Kurs (aktueller oder
+     * gewünschter Kurs)
+     */
+    @Query(value = "SELECT new sandbox27.ila.backend.exchange.ExchangeRequestRow(" +
+            "er.id, s.userName, c.name, b.dayOfWeek, b.startTime, b.endTime, er.status, fc.name, er.rejectionReason, " +
+            "er.createdAt, er.resolvedAt) " +
+            "FROM ExchangeRequest er " +
+            "JOIN er.student s " +
+            "JOIN er.currentAssignment ca " +
+            "JOIN ca.course c " +
+            "JOIN ca.block b " +
+            "LEFT JOIN er.fulfilledWithCourse fc " +
+            "WHERE er.period.id = :periodId " +
+            "AND (:status IS NULL OR er.status = :status) " +
+            "AND (:courseId IS NULL OR c.id = :courseId OR EXISTS (" +
+            "SELECT 1 FROM ExchangeRequestOption o WHERE o.exchangeRequest = er AND o.desiredCourse.id = :courseId))",
+            countQuery = "SELECT COUNT(er) FROM ExchangeRequest er " +
+                    "WHERE er.period.id = :periodId " +
+                    "AND (:status IS NULL OR er.status = :status) " +
+                    "AND (:courseId IS NULL OR er.currentAssignment.course.id = :courseId OR EXISTS (" +
+                    "SELECT 1 FROM ExchangeRequestOption o WHERE o.exchangeRequest = er AND o.desiredCourse.id = :courseId))")
+    Page<ExchangeRequestRow> findRows(@Param("periodId") Long periodId,
+                                      @Param("status") ExchangeRequestStatus status,
+                                      @Param("courseId") Long courseId,
+                                      Pageable pageable);
+
+    /**
+     * Wunschkurse der angegebenen Wechselwünsche samt Block, nach Wunsch und Priorität
+     */
+    @Query("SELECT new sandbox27.ila.backend.exchange.ExchangeRequestOptionRow(" +
+            "o.exchangeRequest.id, c.id, c.courseId, c.name, b.dayOfWeek, b.startTime, b.endTime, o.priority) " +
+            "FROM ExchangeRequestOption o " +
+            "JOIN o.desiredCourse c " +
+            "LEFT JOIN CourseBlockAssignment cba ON cba.course = c " +
+            "LEFT JOIN cba.block b " +
+            "WHERE o.exchangeRequest.id IN :requestIds " +
+            "ORDER BY o.exchangeRequest.id, o.priority")
+    List<ExchangeRequestOptionRow> findOptionRows(@Param("requestIds") Collection<Long> requestIds);
+
+    /**
+     * Aufgelöste Wechselwünsche einer Periode mit Auflösungs-Trace, samt Schüler, Kursen und Optionen
+     */
+    @Query("SELECT DISTINCT er FROM ExchangeRequest er " +
+            "JOIN FETCH er.student " +
+            "JOIN FETCH er.currentAssignment ca " +
+            "JOIN FETCH ca.course " +
+            "LEFT JOIN FETCH er.fulfilledWithCourse " +
+            "LEFT JOIN FETCH er.desiredCourses dc " +
+            "LEFT JOIN FETCH dc.desiredCourse " +
+            "WHERE er.period = :period AND er.resolutionTrace IS NOT NULL")
+    List<ExchangeRequest> findTracedRequestsWithDetails(@Param("period") Period period);
+
     /**
      * Prüft, ob ein Schüler bereits einen offenen Wechselwunsch für eine bestimmte Zuweisung hat
      */
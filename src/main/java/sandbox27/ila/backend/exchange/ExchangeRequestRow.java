@@ -0,0 +1,35 @@
+package sandbox27.ila.backend.exchange;
+
+import sandbox27.ila.backend.block.Block;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Zeile der Admin-Liste der Wechselwünsche, direkt per Konstruktor-Abfrage gelesen
+ * ({@link ExchangeRequestRepository#findRows}).
+ */
+public record ExchangeRequestRow(
+        Long id,
+        String studentName,
+        String currentCourseName,
+        String currentBlockName,
+        ExchangeRequestStatus status,
+        String fulfilledWithCourseName,
+        String rejectionReason,
+        LocalDateTime createdAt,
+        LocalDateTime resolvedAt
+) {
+
+    /**
+     * Für die Abfrage: der Blockname wird aus den Spalten des Blocks gebildet.
+     */
+    public ExchangeRequestRow(Long id, String studentName, String currentCourseName,
+                              DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime,
+                              ExchangeRequestStatus status, String fulfilledWithCourseName, String rejectionReason,
+                              LocalDateTime createdAt, LocalDateTime resolvedAt) {
+        this(id, studentName, currentCourseName, Block.formatName(dayOfWeek, startTime, endTime), status,
+                fulfilledWithCourseName, rejectionReason, createdAt, resolvedAt);
+    }
+}
@@ -0,0 +1,25 @@
+package sandbox27.ila.backend.exchange;
+
+/**
+ * Sortierbare Spalten der Admin-Liste der Wechselwünsche.
+ */
+public enum ExchangeRequestSortField {
+    CREATED_AT("createdAt"),
+    RESOLVED_AT("resolvedAt"),
+    STATUS("status"),
+    STUDENT("student.userName"),
+    COURSE("currentAssignment.course.name");
+
+    private final String property;
+
+    ExchangeRequestSortField(String property) {
+        this.property = property;
+    }
+
+    /**
+     * @return Pfad ab {@link ExchangeRequest} für die Sortierung
+     */
+    public String getProperty() {
+        return property;
+    }
+}
@@ -10,6 +10,8 @@ public class ExchangeResolutionResult {
     private int fulfilled;
     private int unfulfillable;
     private int rounds;
+    private int tradingCycles;
+    private int fulfilledByCycles;
 
     public static ExchangeResolutionResult empty() {
         return ExchangeResolutionResult.builder()
@@ -17,6 +19,8 @@ public class ExchangeResolutionResult {
                 .fulfilled(0)
                 .unfulfillable(0)
                 .rounds(0)
+                .tradingCycles(0)
+                .fulfilledByCycles(0)
                 .build();
     }
 
@@ -0,0 +1,23 @@
+package sandbox27.ila.backend.exchange;
+
+/**
+ * Reihenfolge, in der {@link ExchangeResolver} offene Wechselwünsche erfüllt.
+ */
+public enum ExchangeResolutionStrategy {
+    /**
+     * Standardverfahren: freie Plätze in Fairness-Reihenfolge samt Ketten, danach Ringtausche zwischen vollen
+     * Kursen
+     */
+    FAIRNESS_ORDER,
+
+    /**
+     * Erst Ringtausche auf dem Ausgangsstand, danach freie Plätze in Fairness-Reihenfolge
+     */
+    TRADING_CYCLES,
+
+    /**
+     * Freie Plätze stufenweise nach Wunsch-Priorität (alle Erstwünsche vor allen Zweitwünschen), innerhalb einer
+     * Stufe nach Fairness; danach Ringtausche
+     */
+    PRIORITY_WEIGHTED
+}
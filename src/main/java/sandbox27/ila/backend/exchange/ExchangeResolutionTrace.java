@@ -0,0 +1,54 @@
+package sandbox27.ila.backend.exchange;
+
+import sandbox27.ila.backend.course.Course;
+
+import java.util.*;
+
+/**
+ * Sammelt während einer Auflösung im Speicher, an welcher Regel jede Option eines Wechselwunsches zuletzt
+ * gescheitert ist und welche Wünsche die Plätze eines Kurses bekommen haben. Je Option gilt die letzte
+ * Prüfung, also der Stand, mit dem der Wunsch die Auflösung verlassen hat. Nicht thread-sicher, gültig für
+ * eine Auflösung.
+ */
+final class ExchangeResolutionTrace {
+
+    private final Map<ExchangeRequest, Map<Integer, ExchangeOptionTrace>> rejectionsByRequest = new HashMap<>();
+    private final Map<Long, List<Long>> seatTakersByCourse = new HashMap<>();
+
+    void rejected(ExchangeRequest request, ExchangeRequestOption option, IneligibilityCause cause, String reason) {
+        Long courseId = option.getDesiredCourse().getId();
+        List<Long> seatTakenBy = cause == IneligibilityCause.FULL
+                ? List.copyOf(seatTakersByCourse.getOrDefault(courseId, List.of()))
+                : List.of();
+        rejectionsByRequest.computeIfAbsent(request, r -> new TreeMap<>())
+                .put(option.getPriority(), new ExchangeOptionTrace(option.getPriority(), courseId, cause, reason,
+                        seatTakenBy));
+    }
+
+    /**
+     * Merkt sich, dass der Wunsch einen Platz im Kurs bekommen hat.
+     */
+    void seatTaken(ExchangeRequest request, Course course) {
+        seatTakersByCourse.computeIfAbsent(course.getId(), id -> new ArrayList<>()).add(request.getId());
+    }
+
+    /**
+     * @return gescheiterte Optionen des Wunsches nach Priorität; bei erfüllten Wünschen nur die vor dem
+     * zugewiesenen Kurs
+     */
+    List<ExchangeOptionTrace> get(ExchangeRequest request) {
+        Map<Integer, ExchangeOptionTrace> rejections = rejectionsByRequest.getOrDefault(request, Map.of());
+        Course fulfilledWith = request.getFulfilledWithCourse();
+        if (fulfilledWith == null) {
+            return List.copyOf(rejections.values());
+        }
+        int fulfilledPriority = request.getDesiredCourses().stream()
+                .filter(option -> option.getDesiredCourse().getId() == fulfilledWith.getId())
+                .mapToInt(ExchangeRequestOption::getPriority)
+                .findFirst()
+                .orElse(Integer.MAX_VALUE);
+        return rejections.values().stream()
+                .filter(trace -> trace.priority() < fulfilledPriority)
+                .toList();
+    }
+}
@@ -0,0 +1,303 @@
+package sandbox27.ila.backend.exchange;
+
+import lombok.extern.slf4j.Slf4j;
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.course.Course;
+
+import java.util.*;
+
+/**
+ * Verteilt offene Wechselwünsche nach einer {@link ExchangeResolutionStrategy} über einem
+ * {@link ExchangeEligibilitySnapshot}. Geändert werden nur die Zuweisungen und Wünsche im Speicher; Platzzähler,
+ * Speichern und Benachrichtigungen übernehmen die {@link Effects}. So laufen die echte Auflösung und der
+ * Probelauf auf einer Kopie durch denselben Code. Nicht thread-sicher, gültig für eine Auflösung.
+ */
+@Slf4j
+final class ExchangeResolver {
+
+    /**
+     * Auswirkungen eines Wechsels außerhalb des Snapshots.
+     */
+    interface Effects {
+
+        /**
+         * Belegt einen Platz im neuen Kurs und gibt den alten frei; nur für Wechsel auf freie Plätze.
+         *
+         * @return false, wenn der neue Kurs inzwischen voll ist
+         */
+        boolean moveSeat(Course from, Course to);
+
+        /**
+         * Der Wunsch wurde erfüllt; Zuweisung und Wunsch sind bereits geändert.
+         */
+        void exchanged(ExchangeRequest request, Course oldCourse, Block oldBlock);
+
+        default void cycleExecuted(List<TradingCycleResolver.Trade> cycle) {
+        }
+    }
+
+    /**
+     * Für Probeläufe: Plätze werden nur im Snapshot gezählt, nichts wird gespeichert.
+     */
+    static final Effects IN_MEMORY = new Effects() {
+        @Override
+        public boolean moveSeat(Course from, Course to) {
+            return true;
+        }
+
+        @Override
+        public void exchanged(ExchangeRequest request, Course oldCourse, Block oldBlock) {
+        }
+    };
+
+    private final List<ExchangeRequest> sortedRequests;
+    private final ExchangeEligibilitySnapshot snapshot;
+    private final ExchangeResolutionTrace trace;
+    private final Effects effects;
+
+    private int fulfilled;
+    private int fulfilledByCycles;
+    private int tradingCycles;
+    private int rounds;
+
+    /**
+     * @param sortedRequests offene Wünsche in Fairness-Reihenfolge
+     */
+    ExchangeResolver(List<ExchangeRequest> sortedRequests, ExchangeEligibilitySnapshot snapshot,
+                     ExchangeResolutionTrace trace, Effects effects) {
+        this.sortedRequests = sortedRequests;
+        this.snapshot = snapshot;
+        this.trace = trace;
+        this.effects = effects;
+    }
+
+    /**
+     * Führt die Strategie aus. Nicht erfüllte Wünsche bleiben offen; {@code unfulfillable} im Ergebnis zählt sie.
+     */
+    ExchangeResolutionResult resolve(ExchangeResolutionStrategy strategy) {
+        switch (strategy) {
+            case FAIRNESS_ORDER -> {
+                // Wechsel auf freie Plätze, inklusive Ketten über die dabei frei werdenden Plätze
+                fulfilled += fulfillFromFreeSeats(allIndices(), Integer.MAX_VALUE);
+                rounds++;
+                tradeAndRefill();
+            }
+            case TRADING_CYCLES -> {
+                // Erst alle Ringtausche auf dem Ausgangsstand, dann die freien Plätze
+                tradeAndRefill();
+                fulfilled += fulfillFromFreeSeats(allIndices(), Integer.MAX_VALUE);
+                rounds++;
+            }
+            case PRIORITY_WEIGHTED -> {
+                // Alle Erstwünsche vor allen Zweitwünschen usw., innerhalb einer Stufe nach Fairness
+                int maxPriority = sortedRequests.stream()
+                        .flatMap(request -> request.getDesiredCourses().stream())
+                        .mapToInt(ExchangeRequestOption::getPriority)
+                        .max()
+                        .orElse(0);
+                for (int priority = 1; priority <= maxPriority; priority++) {
+                    fulfilled += fulfillFromFreeSeats(allIndices(), priority);
+                    rounds++;
+                }
+                tradeAndRefill();
+            }
+        }
+
+        int pending = (int) sortedRequests.stream()
+                .filter(request -> request.getStatus() == ExchangeRequestStatus.PENDING)
+                .count();
+        return ExchangeResolutionResult.builder()
+                .totalRequests(sortedRequests.size())
+                .fulfilled(fulfilled)
+                .unfulfillable(pending)
+                .rounds(rounds)
+                .tradingCycles(tradingCycles)
+                .fulfilledByCycles(fulfilledByCycles)
+                .build();
+    }
+
+    /**
+     * Erfüllt alle Wünsche, für die jetzt ein Platz frei ist, ohne Ringtausche.
+     *
+     * @return Anzahl erfüllter Wünsche
+     */
+    int fulfillFromFreeSeats() {
+        return fulfillFromFreeSeats(allIndices(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Ringtausche zwischen vollen Kursen; danach können weitere Wünsche getauschter Schüler auf freie Plätze
+     * passen.
+     */
+    private void tradeAndRefill() {
+        List<List<TradingCycleResolver.Trade>> cycles = findTradingCycles();
+        Set<String> tradedStudents = new HashSet<>();
+        for (List<TradingCycleResolver.Trade> cycle : cycles) {
+            effects.cycleExecuted(cycle);
+            // Jeder Kurs im Ring gibt einen Platz ab und erhält einen: die Platzzähler bleiben unverändert
+            for (TradingCycleResolver.Trade trade : cycle) {
+                executeExchange(trade.request(), trade.course());
+                tradedStudents.add(trade.request().getStudent().getUserName());
+                fulfilledByCycles++;
+            }
+        }
+        if (!cycles.isEmpty()) {
+            rounds++;
+        }
+        tradingCycles += cycles.size();
+        fulfilled += cycles.stream().mapToInt(List::size).sum();
+
+        List<Integer> affected = new ArrayList<>();
+        for (int i = 0; i < sortedRequests.size(); i++) {
+            ExchangeRequest request = sortedRequests.get(i);
+            if (request.getStatus() == ExchangeRequestStatus.PENDING
+                    && tradedStudents.contains(request.getStudent().getUserName())) {
+                affected.add(i);
+            }
+        }
+        if (!affected.isEmpty()) {
+            fulfilled += fulfillFromFreeSeats(affected, Integer.MAX_VALUE);
+            rounds++;
+        }
+    }
+
+    /**
+     * Erfüllt Wünsche mit freien Plätzen in Fairness-Reihenfolge. Jeder Wunsch wird zunächst einmal geprüft und
+     * danach nur erneut, wenn ein gewünschter Kurs einen Platz frei gibt oder sich die Zuweisungen des Schülers
+     * ändern. Ein frei werdender Platz geht an den fairsten wartenden Wunsch; so entstehen Ketten in einem
+     * Durchlauf statt in wiederholten Runden über alle Wünsche.
+     *
+     * @param initial     Indizes der zuerst zu prüfenden Wünsche
+     * @param maxPriority nur Optionen bis zu dieser Priorität versuchen
+     * @return Anzahl erfüllter Wünsche
+     */
+    private int fulfillFromFreeSeats(Collection<Integer> initial, int maxPriority) {
+        Map<Long, List<Integer>> waitingByCourse = new HashMap<>();
+        Map<String, List<Integer>> requestsByStudent = new HashMap<>();
+        for (int i = 0; i < sortedRequests.size(); i++) {
+            ExchangeRequest request = sortedRequests.get(i);
+            if (request.getStatus() != ExchangeRequestStatus.PENDING) {
+                continue;
+            }
+            for (ExchangeRequestOption option : request.getDesiredCourses()) {
+                waitingByCourse.computeIfAbsent(option.getDesiredCourse().getId(), id -> new ArrayList<>()).add(i);
+            }
+            requestsByStudent.computeIfAbsent(request.getStudent().getUserName(), userName -> new ArrayList<>()).add(i);
+        }
+
+        PriorityQueue<Integer> queue = new PriorityQueue<>(initial);
+        Set<Integer> queued = new HashSet<>(initial);
+        int count = 0;
+
+        while (!queue.isEmpty()) {
+            int index = queue.poll();
+            queued.remove(index);
+            ExchangeRequest request = sortedRequests.get(index);
+            if (request.getStatus() != ExchangeRequestStatus.PENDING) {
+                continue;
+            }
+
+            long freedCourseId = request.getCurrentAssignment().getCourse().getId();
+            if (tryFulfillRequest(request, maxPriority)) {
+                count++;
+                for (int waiting : waitingByCourse.getOrDefault(freedCourseId, List.of())) {
+                    if (queued.add(waiting)) {
+                        queue.add(waiting);
+                    }
+                }
+                for (int sameStudent : requestsByStudent.get(request.getStudent().getUserName())) {
+                    if (queued.add(sameStudent)) {
+                        queue.add(sameStudent);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sucht Ringtausche unter den offenen Wünschen; je Schüler nimmt nur sein fairster offener Wunsch teil,
+     * damit die Eignung jedes Tausches unabhängig von den übrigen gilt.
+     */
+    private List<List<TradingCycleResolver.Trade>> findTradingCycles() {
+        Set<String> students = new HashSet<>();
+        List<ExchangeRequest> agents = sortedRequests.stream()
+                .filter(request -> request.getStatus() == ExchangeRequestStatus.PENDING)
+                .filter(request -> students.add(request.getStudent().getUserName()))
+                .toList();
+        if (agents.size() < 2) {
+            return List.of();
+        }
+
+        return new TradingCycleResolver(agents, (request, course) -> snapshot
+                .checkSwap(request.getStudent(), request.getCurrentAssignment(), course)
+                .isEligible()).findCycles();
+    }
+
+    private List<Integer> allIndices() {
+        List<Integer> indices = new ArrayList<>(sortedRequests.size());
+        for (int i = 0; i < sortedRequests.size(); i++) {
+            indices.add(i);
+        }
+        return indices;
+    }
+
+    /**
+     * Versucht, einen einzelnen Wechselwunsch zu erfüllen
+     */
+    private boolean tryFulfillRequest(ExchangeRequest request, int maxPriority) {
+        CourseUserAssignment currentAssignment = request.getCurrentAssignment();
+
+        // Gehe durch alle Wunschkurse in Prioritätsreihenfolge
+        for (ExchangeRequestOption option : request.getDesiredCourses()) {
+            if (option.getPriority() > maxPriority) {
+                break;
+            }
+            Course desiredCourse = option.getDesiredCourse();
+
+            // Prüfe Berechtigung zum Zeitpunkt der Auflösung
+            EligibilityResult eligibility = snapshot.checkExchange(request.getStudent(), currentAssignment,
+                    desiredCourse);
+
+            if (eligibility.isEligible()) {
+                // Platz verbindlich reservieren; schlägt fehl, wenn ihn parallel eine andere Zuweisung belegt hat
+                if (!effects.moveSeat(currentAssignment.getCourse(), desiredCourse)) {
+                    log.debug("Kurs {} inzwischen voll für {}", desiredCourse.getName(),
+                            request.getStudent().getUserName());
+                    trace.rejected(request, option, IneligibilityCause.FULL, "Platz inzwischen anderweitig vergeben");
+                    continue;
+                }
+
+                // Wechsel durchführen!
+                executeExchange(request, desiredCourse);
+                return true;
+            } else {
+                log.debug("Kurs {} nicht möglich für {}: {}",
+                        desiredCourse.getName(), request.getStudent().getUserName(), eligibility.getReason());
+                trace.rejected(request, option, eligibility.getCause(), eligibility.getReason());
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Führt den Kurswechsel im Snapshot durch und markiert den Wunsch als erfüllt
+     */
+    private void executeExchange(ExchangeRequest request, Course newCourse) {
+        CourseUserAssignment assignment = request.getCurrentAssignment();
+        Course oldCourse = assignment.getCourse();
+        Block oldBlock = assignment.getBlock();
+
+        // Bestehende Zuweisung aktualisieren (nicht löschen, da ExchangeRequest per FK darauf verweist)
+        snapshot.reassign(assignment, newCourse, snapshot.getBlockForCourse(newCourse));
+        assignment.setPreset(false);
+
+        request.markAsFulfilled(newCourse);
+        request.setResolutionTrace(trace.get(request));
+        trace.seatTaken(request, newCourse);
+
+        effects.exchanged(request, oldCourse, oldBlock);
+    }
+}
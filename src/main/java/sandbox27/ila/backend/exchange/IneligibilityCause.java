@@ -0,0 +1,31 @@
+package sandbox27.ila.backend.exchange;
+
+/**
+ * Art der Regel, an der ein Kurswechsel scheitert.
+ */
+public enum IneligibilityCause {
+    /**
+     * Harter Ausschluss: manuelle Zuweisung, Platzhalter, gesperrter Block, Klassenstufe oder Geschlecht
+     */
+    EXCLUDED,
+
+    /**
+     * Schüler hat am Tag des Kurses bereits einen anderen Kurs
+     */
+    DAY_CONFLICT,
+
+    /**
+     * Nach dem Wechsel wären nicht genügend verschiedene Kategorien belegt
+     */
+    CATEGORY_RULE,
+
+    /**
+     * Schüler hat bereits die maximale Anzahl an Kursen
+     */
+    COURSE_LIMIT,
+
+    /**
+     * Kurs ist voll
+     */
+    FULL
+}
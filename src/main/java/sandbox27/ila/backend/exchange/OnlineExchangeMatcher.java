@@ -0,0 +1,82 @@
+package sandbox27.ila.backend.exchange;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sandbox27.ila.backend.assignments.events.CourseAssignmentsChangedEvent;
+import sandbox27.ila.backend.course.events.CourseCapacityChangedEvent;
+import sandbox27.ila.backend.exchange.events.ExchangeRequestSubmittedEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optionale laufende Zuordnung von Wechselwünschen während der Wechselphase
+ * ({@code ila.exchange.online-matching=true}).
+ * <p>
+ * Sobald ein Platz frei werden kann (Zuweisungen geändert oder gelöscht, Kapazität geändert) oder ein Wunsch
+ * eingeht, versucht {@link CourseExchangeService#fulfillPendingRequests} die offenen Wünsche der Periode zu
+ * erfüllen; der fairste wartende Wunsch eines Kurses bekommt den Platz. Ausgelöst wird nach dem Commit auf einem
+ * eigenen Thread. Je Periode ist höchstens ein Lauf eingeplant, weitere Auslöser bis zu dessen Start werden
+ * zusammengefasst. Hat ein Schüler währenddessen einen Wunsch geändert, wird der Lauf verworfen und neu eingeplant.
+ */
+@Component
+@Slf4j
+public class OnlineExchangeMatcher {
+
+    private final CourseExchangeService exchangeService;
+    private final ThreadPoolTaskExecutor exchangeMatchingExecutor;
+    private final boolean enabled;
+
+    private final Set<Long> scheduledPeriods = ConcurrentHashMap.newKeySet();
+
+    OnlineExchangeMatcher(CourseExchangeService exchangeService,
+                          @Qualifier("exchangeMatchingExecutor") ThreadPoolTaskExecutor exchangeMatchingExecutor,
+                          @Value("${ila.exchange.online-matching:false}") boolean enabled) {
+        this.exchangeService = exchangeService;
+        this.exchangeMatchingExecutor = exchangeMatchingExecutor;
+        this.enabled = enabled;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExchangeRequestSubmitted(ExchangeRequestSubmittedEvent event) {
+        schedule(event.periodId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseAssignmentsChanged(CourseAssignmentsChangedEvent event) {
+        schedule(event.periodId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseCapacityChanged(CourseCapacityChangedEvent event) {
+        schedule(event.periodId());
+    }
+
+    void schedule(long periodId) {
+        if (!enabled || !scheduledPeriods.add(periodId)) {
+            return;
+        }
+        try {
+            exchangeMatchingExecutor.execute(() -> {
+                scheduledPeriods.remove(periodId);
+                try {
+                    exchangeService.fulfillPendingRequests(periodId);
+                } catch (OptimisticLockingFailureException e) {
+                    log.info("Online exchange matching for period {} hit a concurrent change, retrying", periodId);
+                    schedule(periodId);
+                } catch (Exception e) {
+                    log.error("Online exchange matching failed for period {}", periodId, e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            scheduledPeriods.remove(periodId);
+            log.warn("Online exchange matching for period {} rejected: {}", periodId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package sandbox27.ila.backend.exchange;
+
+import sandbox27.ila.backend.course.Course;
+
+import java.util.*;
+import java.util.function.BiPredicate;
+
+/**
+ * Top Trading Cycles über offenen Wechselwünschen: findet Ringtausche zwischen vollen Kursen, bei denen jeder
+ * Beteiligte den Platz eines anderen übernimmt (A will den Kurs von B, B den von C, C den von A).
+ * <p>
+ * Jeder Wunsch zeigt auf seine beste noch mögliche Option, deren Kurs ein anderer Beteiligter abgibt; jeder Kurs
+ * zeigt auf den in der Fairness-Reihenfolge ersten Wunsch, der ihn abgibt. Die Zeiger werden entlang eines Pfades
+ * verfolgt, bis sich ein Kreis schließt. Ein Wunsch ohne passende Option scheidet aus und behält seinen Platz.
+ * Da Zeiger nur vorwärts laufen, wird jede Option höchstens einmal übersprungen: Laufzeit
+ * {@code O(Wünsche × Optionen)} plus die Eignungsprüfungen.
+ * <p>
+ * Ein Ringtausch ändert keine Teilnehmerzahl. Voraussetzung ist, dass jeder Schüler höchstens mit einem Wunsch
+ * beteiligt ist; dann hängt die Eignung eines Tausches nur von den eigenen Zuweisungen ab und bleibt gültig,
+ * bis der Wunsch selbst getauscht wird.
+ */
+final class TradingCycleResolver {
+
+    /**
+     * Ein Schritt eines Ringtauschs: der Wunsch übernimmt einen Platz im Kurs.
+     */
+    record Trade(ExchangeRequest request, Course course) {
+    }
+
+    private final List<ExchangeRequest> agents;
+    private final BiPredicate<ExchangeRequest, Course> canSwapInto;
+
+    private final List<List<Course>> options = new ArrayList<>();
+    private final int[] choice;
+    private final int[] verifiedChoice;
+    private final boolean[] removed;
+    private final boolean[] onPath;
+    private final Map<Long, int[]> holdersByCourse = new HashMap<>();
+    private final Map<Long, Integer> holderPosition = new HashMap<>();
+
+    /**
+     * @param agents      Wünsche in Fairness-Reihenfolge, höchstens einer je Schüler
+     * @param canSwapInto Eignung des Wunsches für den Kurs ohne Kapazitätsprüfung
+     */
+    TradingCycleResolver(List<ExchangeRequest> agents, BiPredicate<ExchangeRequest, Course> canSwapInto) {
+        this.agents = agents;
+        this.canSwapInto = canSwapInto;
+        this.choice = new int[agents.size()];
+        this.verifiedChoice = new int[agents.size()];
+        Arrays.fill(verifiedChoice, -1);
+        this.removed = new boolean[agents.size()];
+        this.onPath = new boolean[agents.size()];
+
+        Map<Long, List<Integer>> holders = new HashMap<>();
+        for (int agent = 0; agent < agents.size(); agent++) {
+            ExchangeRequest request = agents.get(agent);
+            long ownCourseId = request.getCurrentAssignment().getCourse().getId();
+            options.add(request.getDesiredCourses().stream()
+                    .sorted(Comparator.comparingInt(ExchangeRequestOption::getPriority))
+                    .map(ExchangeRequestOption::getDesiredCourse)
+                    .filter(course -> course.getId() != ownCourseId)
+                    .toList());
+            holders.computeIfAbsent(ownCourseId, courseId -> new ArrayList<>()).add(agent);
+        }
+        holders.forEach((courseId, list) -> {
+            holdersByCourse.put(courseId, list.stream().mapToInt(Integer::intValue).toArray());
+            holderPosition.put(courseId, 0);
+        });
+    }
+
+    /**
+     * @return alle gefundenen Ringtausche; jeder Wunsch kommt höchstens in einem vor
+     */
+    List<List<Trade>> findCycles() {
+        List<List<Trade>> cycles = new ArrayList<>();
+        Deque<Integer> path = new ArrayDeque<>();
+
+        for (int start = 0; start < agents.size(); start++) {
+            if (removed[start]) {
+                continue;
+            }
+            path.push(start);
+            onPath[start] = true;
+
+            while (!path.isEmpty()) {
+                int agent = path.peek();
+                int target = nextTarget(agent);
+
+                if (target < 0) {
+                    // Keine Option mehr: scheidet aus und behält seinen Platz
+                    path.pop();
+                    onPath[agent] = false;
+                    removed[agent] = true;
+                } else if (onPath[target]) {
+                    cycles.add(closeCycle(path, target));
+                } else {
+                    path.push(target);
+                    onPath[target] = true;
+                }
+            }
+        }
+        return cycles;
+    }
+
+    /**
+     * Entnimmt den Kreis vom Ende des Pfades bis einschließlich {@code target}.
+     */
+    private List<Trade> closeCycle(Deque<Integer> path, int target) {
+        List<Trade> cycle = new ArrayList<>();
+        int agent;
+        do {
+            agent = path.pop();
+            onPath[agent] = false;
+            removed[agent] = true;
+            cycle.add(new Trade(agents.get(agent), options.get(agent).get(choice[agent])));
+        } while (agent != target);
+        Collections.reverse(cycle);
+        return cycle;
+    }
+
+    /**
+     * Beste Option des Wunsches, deren Kurs noch ein Beteiligter abgibt, und dieser Beteiligte; -1 wenn keine.
+     */
+    private int nextTarget(int agent) {
+        List<Course> agentOptions = options.get(agent);
+        while (choice[agent] < agentOptions.size()) {
+            Course course = agentOptions.get(choice[agent]);
+            int holder = firstHolder(course.getId());
+            if (holder >= 0 && (verifiedChoice[agent] == choice[agent] || canSwapInto.test(agents.get(agent), course))) {
+                verifiedChoice[agent] = choice[agent];
+                return holder;
+            }
+            choice[agent]++;
+        }
+        return -1;
+    }
+
+    private int firstHolder(long courseId) {
+        int[] holders = holdersByCourse.get(courseId);
+        if (holders == null) {
+            return -1;
+        }
+        int position = holderPosition.get(courseId);
+        while (position < holders.length && removed[holders[position]]) {
+            position++;
+        }
+        holderPosition.put(courseId, position);
+        return position < holders.length ? holders[position] : -1;
+    }
+}
@@ -0,0 +1,9 @@
+package sandbox27.ila.backend.exchange.events;
+
+/**
+ * Event das ausgelöst wird, wenn ein Wechselwunsch angelegt oder seine Wunschliste geändert wurde.
+ */
+public record ExchangeRequestSubmittedEvent(
+        Long requestId,
+        Long periodId
+) {}
@@ -34,6 +34,12 @@ public interface UserBlockExclusionRepository extends JpaRepository<UserBlockExc
     Set<Long> findExcludedBlockIdsByUserAndPeriod(@Param("userName") String userName,
                                                   @Param("periodId") Long periodId);
 
+    /**
+     * @return Paare {@code [userName, blockId]} aller Ausnahmen der Period
+     */
+    @Query("SELECT ube.user.userName, ube.block.id FROM UserBlockExclusion ube WHERE ube.period.id = :periodId")
+    List<Object[]> findUserNameAndBlockIdByPeriodId(@Param("periodId") Long periodId);
+
     void deleteByBlock(Block block);
 
     void deleteByPeriod(Period period);
@@ -2,16 +2,21 @@ package sandbox27.ila.backend.exclusion;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sandbox27.ila.backend.block.Block;
 import sandbox27.ila.backend.block.BlockRepository;
+import sandbox27.ila.backend.exclusion.events.BlockExclusionsChangedEvent;
 import sandbox27.ila.backend.period.Period;
 import sandbox27.ila.backend.period.PeriodRepository;
 import sandbox27.ila.backend.user.User;
 import sandbox27.ila.backend.user.UserRepository;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -24,6 +29,7 @@ public class UserBlockExclusionService {
     private final UserRepository userRepository;
     private final BlockRepository blockRepository;
     private final PeriodRepository periodRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void addExclusion(String userName, Long blockId, Long periodId, String reason) {
@@ -41,6 +47,7 @@ public class UserBlockExclusionService {
 
         UserBlockExclusion exclusion = new UserBlockExclusion(user, block, period, reason);
         exclusionRepository.save(exclusion);
+        eventPublisher.publishEvent(new BlockExclusionsChangedEvent(periodId));
         log.info("Ausnahme hinzugefügt für User {} und Block {}", userName, blockId);
     }
 
@@ -72,6 +79,9 @@ public class UserBlockExclusionService {
             }
         }
 
+        if (added > 0) {
+            eventPublisher.publishEvent(new BlockExclusionsChangedEvent(periodId));
+        }
         log.info("Ausnahmen für Klassenstufe {} hinzugefügt: {} neu, {} übersprungen",
                 grade, added, skipped);
         return BatchExclusionResult.success(added, skipped);
@@ -83,6 +93,7 @@ public class UserBlockExclusionService {
                 .orElseThrow(() -> new IllegalArgumentException("Ausnahme nicht gefunden: " + id));
 
         exclusionRepository.delete(exclusion);
+        eventPublisher.publishEvent(new BlockExclusionsChangedEvent(exclusion.getPeriod().getId()));
         log.info("Ausnahme entfernt: ID {}, User {}, Block {}",
                 id, exclusion.getUser().getUserName(), exclusion.getBlock().getId());
     }
@@ -100,6 +111,7 @@ public class UserBlockExclusionService {
                 .orElseThrow(() -> new IllegalArgumentException("Period nicht gefunden: " + periodId));
 
         exclusionRepository.deleteByUserAndBlockAndPeriod(user, block, period);
+        eventPublisher.publishEvent(new BlockExclusionsChangedEvent(periodId));
         log.info("Ausnahme entfernt für User {} und Block {}", userName, blockId);
     }
 
@@ -121,6 +133,18 @@ public class UserBlockExclusionService {
         return exclusionRepository.findExcludedBlockIdsByUserAndPeriod(userName, periodId);
     }
 
+    /**
+     * Gibt die ausgeschlossenen Block-IDs aller User einer Period zurück (eine Abfrage)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Set<Long>> getExcludedBlockIdsByUser(Long periodId) {
+        Map<String, Set<Long>> result = new HashMap<>();
+        for (Object[] row : exclusionRepository.findUserNameAndBlockIdByPeriodId(periodId)) {
+            result.computeIfAbsent((String) row[0], userName -> new HashSet<>()).add((Long) row[1]);
+        }
+        return result;
+    }
+
     /**
      * Prüft ob ein User von einem Block ausgeschlossen ist
      */
@@ -0,0 +1,7 @@
+package sandbox27.ila.backend.exclusion.events;
+
+/**
+ * Block-Sperren der Periode wurden angelegt oder entfernt.
+ */
+public record BlockExclusionsChangedEvent(long periodId) {
+}
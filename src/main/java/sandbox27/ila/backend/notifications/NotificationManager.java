@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.event.TransactionPhase;
@@ -12,6 +13,7 @@ import sandbox27.ila.backend.assignments.AssignmentsFinalEvent;
 import sandbox27.ila.backend.exchange.events.ExchangeRequestFulfilledEvent;
 import sandbox27.ila.backend.exchange.events.ExchangeRequestUnfulfillableEvent;
 import sandbox27.ila.backend.notifications.log.NotificationLogService;
+import sandbox27.ila.backend.notifications.outbox.MailOutboxService;
 import sandbox27.ila.backend.period.Period;
 import sandbox27.ila.backend.period.PeriodService;
 import sandbox27.ila.backend.user.User;
@@ -40,6 +42,7 @@ public class NotificationManager {
     final NotificationLogService notificationLogService;
     final AssignmentFinalEmailModelGenerator assignmentFinalEmailModelGenerator;
     final PeriodService periodService;
+    final MailOutboxService mailOutboxService;
 
     @Async
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
@@ -105,8 +108,11 @@ public class NotificationManager {
         }
     }
 
-    @Async
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    /**
+     * Wechsel-Mails laufen in der Transaktion der Auflösung über die {@link MailOutboxService Outbox}: die
+     * Auflösung wartet nicht auf SMTP, und bei einem Rollback geht keine Mail raus.
+     */
+    @EventListener
     public void onExchangeRequestFulfilled(ExchangeRequestFulfilledEvent event) {
         Map<String, Object> model = new HashMap<>();
         model.put("firstName", event.studentFirstName());
@@ -117,20 +123,10 @@ public class NotificationManager {
         model.put("newBlockName", event.newBlockName());
         model.put("newDayOfWeek", translateDayOfWeek(event.newDayOfWeek()));
         model.put("ilaUrl", ilaUrl);
-        try {
-            mailService.sendHtml(event.studentEmail(),
-                    null,
-                    "exchange-fulfilled",
-                    model,
-                    null);
-            log.info("Wechsel-Erfolg-Email gesendet an {}", event.studentEmail());
-        } catch (Throwable throwable) {
-            errorHandlingService.handleError(throwable);
-        }
+        enqueueExchangeMail(event.studentEmail(), "exchange-fulfilled", model);
     }
 
-    @Async
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    @EventListener
     public void onExchangeRequestUnfulfillable(ExchangeRequestUnfulfillableEvent event) {
         Map<String, Object> model = new HashMap<>();
         model.put("firstName", event.studentFirstName());
@@ -140,16 +136,15 @@ public class NotificationManager {
         model.put("desiredCourseNames", event.desiredCourseNames());
         model.put("reason", event.reason());
         model.put("ilaUrl", ilaUrl);
-        try {
-            mailService.sendHtml(event.studentEmail(),
-                    null,
-                    "exchange-unfulfillable",
-                    model,
-                    null);
-            log.info("Wechsel-Misserfolg-Email gesendet an {}", event.studentEmail());
-        } catch (Throwable throwable) {
-            errorHandlingService.handleError(throwable);
+        enqueueExchangeMail(event.studentEmail(), "exchange-unfulfillable", model);
+    }
+
+    private void enqueueExchangeMail(String email, String templateName, Map<String, Object> model) {
+        if (email == null || email.isBlank()) {
+            log.warn("Keine E-Mail-Adresse für {} - überspringe", templateName);
+            return;
         }
+        mailOutboxService.enqueue(email, templateName, model);
     }
 
     /**
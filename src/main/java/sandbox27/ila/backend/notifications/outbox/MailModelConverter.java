@@ -0,0 +1,44 @@
+package sandbox27.ila.backend.notifications.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Map;
+
+/**
+ * Speichert das Template-Modell einer Mail als JSON. Werte sind Strings, Zahlen oder Listen davon.
+ */
+@Converter
+public class MailModelConverter implements AttributeConverter<Map<String, Object>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> TYPE = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, Object> model) {
+        if (model == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(model);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize mail model", e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> convertToEntityAttribute(String json) {
+        if (json == null || json.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return MAPPER.readValue(json, TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read mail model", e);
+        }
+    }
+}
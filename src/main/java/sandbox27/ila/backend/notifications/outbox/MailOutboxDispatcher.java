@@ -0,0 +1,147 @@
+package sandbox27.ila.backend.notifications.outbox;
+
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import sandbox27.infrastructure.email.MailService;
+import sandbox27.infrastructure.error.ErrorHandlingService;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versendet die fälligen Mails aus {@link MailOutboxService} in Stapeln.
+ * <p>
+ * Ein Stapel wird auf die Threads des {@code mailDispatchExecutor} verteilt; jeder Thread rendert seinen Teil
+ * und schickt ihn über eine einzige SMTP-Verbindung. So sind höchstens so viele Verbindungen offen wie Threads,
+ * und nicht jede Mail baut eine eigene auf. Fehlgeschlagene Mails werden mit wachsendem Abstand erneut
+ * versucht; nach {@code ila.mail.outbox.max-attempts} Versuchen wird der Admin benachrichtigt.
+ */
+@Component
+@Log4j2
+public class MailOutboxDispatcher {
+
+    private final MailOutboxService mailOutboxService;
+    private final MailService mailService;
+    private final ErrorHandlingService errorHandlingService;
+    private final ThreadPoolTaskExecutor mailDispatchExecutor;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    MailOutboxDispatcher(MailOutboxService mailOutboxService,
+                         MailService mailService,
+                         ErrorHandlingService errorHandlingService,
+                         @Qualifier("mailDispatchExecutor") ThreadPoolTaskExecutor mailDispatchExecutor,
+                         @Value("${ila.mail.outbox.batch-size:100}") int batchSize,
+                         @Value("${ila.mail.outbox.max-attempts:5}") int maxAttempts) {
+        this.mailOutboxService = mailOutboxService;
+        this.mailService = mailService;
+        this.errorHandlingService = errorHandlingService;
+        this.mailDispatchExecutor = mailDispatchExecutor;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${ila.mail.outbox.poll-interval-ms:10000}")
+    public void dispatch() {
+        List<MailOutboxEntry> due;
+        do {
+            due = mailOutboxService.findDue(batchSize);
+            if (!due.isEmpty()) {
+                dispatchBatch(due);
+            }
+        } while (due.size() == batchSize);
+    }
+
+    private void dispatchBatch(List<MailOutboxEntry> entries) {
+        int threads = Math.min(mailDispatchExecutor.getMaxPoolSize(), entries.size());
+        List<List<MailOutboxEntry>> chunks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            chunks.add(new ArrayList<>());
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            chunks.get(i % threads).add(entries.get(i));
+        }
+
+        List<CompletableFuture<Map<Long, String>>> sends = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> send(chunk), mailDispatchExecutor))
+                .toList();
+
+        Set<Long> sentIds = new HashSet<>();
+        Map<Long, String> errorsById = new HashMap<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            Map<Long, String> errors;
+            try {
+                errors = sends.get(i).join();
+            } catch (RuntimeException e) {
+                errors = new HashMap<>();
+                for (MailOutboxEntry entry : chunks.get(i)) {
+                    errors.put(entry.getId(), e.getMessage());
+                }
+            }
+            errorsById.putAll(errors);
+            for (MailOutboxEntry entry : chunks.get(i)) {
+                if (!errors.containsKey(entry.getId())) {
+                    sentIds.add(entry.getId());
+                }
+            }
+        }
+
+        List<MailOutboxEntry> givenUp = mailOutboxService.recordResults(sentIds, errorsById, maxAttempts);
+        log.info("Mail-Outbox: {} versendet, {} fehlgeschlagen", sentIds.size(), errorsById.size());
+        for (MailOutboxEntry entry : givenUp) {
+            errorHandlingService.handleWarning("Mail " + entry.getTemplateName() + " an " + entry.getRecipient()
+                    + " nach " + entry.getAttempts() + " Versuchen aufgegeben: " + entry.getLastError());
+        }
+    }
+
+    /**
+     * Rendert die Mails und sendet sie über eine SMTP-Verbindung.
+     *
+     * @return Fehlermeldung je fehlgeschlagener Mail
+     */
+    private Map<Long, String> send(List<MailOutboxEntry> entries) {
+        Map<Long, String> errors = new HashMap<>();
+        Map<MimeMessage, Long> idsByMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>();
+        for (MailOutboxEntry entry : entries) {
+            try {
+                MimeMessage message = mailService.createHtml(entry.getRecipient(), null, entry.getTemplateName(),
+                        entry.getModel());
+                idsByMessage.put(message, entry.getId());
+                messages.add(message);
+            } catch (Exception e) {
+                errors.put(entry.getId(), e.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return errors;
+        }
+
+        try {
+            mailService.send(messages);
+        } catch (MailSendException e) {
+            // Nur die einzeln fehlgeschlagenen Nachrichten; ohne Einzelangaben gilt der ganze Teil als gescheitert
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                messages.forEach(message -> errors.put(idsByMessage.get(message), e.getMessage()));
+            } else {
+                failedMessages.forEach((message, cause) -> {
+                    Long id = idsByMessage.get(message);
+                    if (id != null) {
+                        errors.put(id, cause.getMessage());
+                    }
+                });
+            }
+        } catch (MailException e) {
+            messages.forEach(message -> errors.put(idsByMessage.get(message), e.getMessage()));
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,62 @@
+package sandbox27.ila.backend.notifications.outbox;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Eine noch zu versendende Mail. Wird in der Transaktion des auslösenden Vorgangs geschrieben und von
+ * {@link MailOutboxDispatcher} versendet.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "mail_outbox", indexes = {
+        @Index(name = "idx_mail_outbox_due", columnList = "status, nextAttemptAt")
+})
+public class MailOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String templateName;
+
+    @Convert(converter = MailModelConverter.class)
+    @Column(columnDefinition = "TEXT")
+    private Map<String, Object> model;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MailOutboxStatus status = MailOutboxStatus.PENDING;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    public MailOutboxEntry(String recipient, String templateName, Map<String, Object> model) {
+        setRecipient(recipient);
+        setTemplateName(templateName);
+        setModel(model);
+        setCreatedAt(LocalDateTime.now());
+        setNextAttemptAt(getCreatedAt());
+    }
+}
@@ -0,0 +1,20 @@
+package sandbox27.ila.backend.notifications.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutboxEntry, Long> {
+
+    /**
+     * Fällige Mails in Eingangsreihenfolge
+     */
+    @Query("select e from MailOutboxEntry e where e.status = 'PENDING' and e.nextAttemptAt <= :now order by e.id")
+    List<MailOutboxEntry> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+}
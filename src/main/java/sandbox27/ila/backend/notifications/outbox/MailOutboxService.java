@@ -0,0 +1,85 @@
+package sandbox27.ila.backend.notifications.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ablage für zu versendende Mails. Vorgänge, die viele Mails auslösen (z.B. die Wechselwunsch-Auflösung),
+ * schreiben nur eine Zeile je Mail in ihrer eigenen Transaktion und warten nicht auf SMTP; wird die Transaktion
+ * zurückgerollt, geht auch keine Mail raus. Versendet wird von {@link MailOutboxDispatcher}.
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class MailOutboxService {
+
+    static final Duration FIRST_RETRY_DELAY = Duration.ofMinutes(1);
+    static final Duration MAX_RETRY_DELAY = Duration.ofHours(1);
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    /**
+     * Legt eine Mail in der laufenden Transaktion ab.
+     */
+    @Transactional
+    public void enqueue(String recipient, String templateName, Map<String, Object> model) {
+        mailOutboxRepository.save(new MailOutboxEntry(recipient, templateName, model));
+    }
+
+    @Transactional(readOnly = true)
+    List<MailOutboxEntry> findDue(int limit) {
+        return mailOutboxRepository.findDue(LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Übernimmt das Ergebnis eines Versands: versendete Mails werden abgeschlossen, fehlgeschlagene mit
+     * wachsendem Abstand erneut eingeplant oder nach {@code maxAttempts} Versuchen aufgegeben.
+     *
+     * @return Mails, die aufgegeben wurden
+     */
+    @Transactional
+    List<MailOutboxEntry> recordResults(Collection<Long> sentIds, Map<Long, String> errorsById, int maxAttempts) {
+        LocalDateTime now = LocalDateTime.now();
+        for (MailOutboxEntry entry : mailOutboxRepository.findAllById(sentIds)) {
+            entry.setStatus(MailOutboxStatus.SENT);
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setSentAt(now);
+            entry.setLastError(null);
+        }
+
+        List<MailOutboxEntry> failed = mailOutboxRepository.findAllById(errorsById.keySet());
+        for (MailOutboxEntry entry : failed) {
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setLastError(abbreviate(errorsById.get(entry.getId())));
+            if (entry.getAttempts() >= maxAttempts) {
+                entry.setStatus(MailOutboxStatus.FAILED);
+            } else {
+                entry.setNextAttemptAt(now.plus(retryDelay(entry.getAttempts())));
+            }
+        }
+        return failed.stream()
+                .filter(entry -> entry.getStatus() == MailOutboxStatus.FAILED)
+                .toList();
+    }
+
+    static Duration retryDelay(int attempts) {
+        Duration delay = FIRST_RETRY_DELAY.multipliedBy(1L << Math.min(attempts - 1, 10));
+        return delay.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : delay;
+    }
+
+    private static String abbreviate(String error) {
+        if (error == null || error.length() <= 500) {
+            return error;
+        }
+        return error.substring(0, 497) + "...";
+    }
+}
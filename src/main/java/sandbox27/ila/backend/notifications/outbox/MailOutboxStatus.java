@@ -0,0 +1,18 @@
+package sandbox27.ila.backend.notifications.outbox;
+
+public enum MailOutboxStatus {
+    /**
+     * Wartet auf (erneuten) Versand
+     */
+    PENDING,
+
+    /**
+     * Versendet
+     */
+    SENT,
+
+    /**
+     * Nach der maximalen Anzahl an Versuchen aufgegeben
+     */
+    FAILED
+}
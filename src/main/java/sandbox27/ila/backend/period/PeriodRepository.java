@@ -1,7 +1,11 @@
 package sandbox27.ila.backend.period;
 
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.OrderBy;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +16,12 @@ public interface PeriodRepository extends JpaRepository<Period, Long> {
     Optional<Period> findByName(String name);
 
     Optional<Period> findByCurrent(boolean b);
+
+    /**
+     * Lädt die Periode mit Schreibsperre bis zum Ende der Transaktion; serialisiert Abläufe je Periode, auch über
+     * mehrere Instanzen hinweg.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Period p WHERE p.id = :id")
+    Optional<Period> findByIdForUpdate(@Param("id") Long id);
 }
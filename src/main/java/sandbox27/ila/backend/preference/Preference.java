@@ -6,6 +6,8 @@ import sandbox27.ila.backend.block.Block;
 import sandbox27.ila.backend.course.Course;
 import sandbox27.ila.backend.user.User;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Getter
 @Setter
@@ -30,6 +32,18 @@ public class Preference {
 
     private int preferenceIndex;
 
+    /**
+     * Zeitpunkt der letzten Änderung; die inkrementelle Zuweisung erkennt daran Schüler, deren Präferenzen sich
+     * seit dem letzten Lauf geändert haben.
+     */
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
 }
 
 
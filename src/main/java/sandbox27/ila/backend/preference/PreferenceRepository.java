@@ -54,4 +54,8 @@ public interface PreferenceRepository extends JpaRepository<Preference, Long> {
     Optional<Preference> findByUserAndBlock_IdAndCourse_Id(User user, long id, long id1);
 
     List<Preference> findByCourse(Course course);
+
+    @Query("select p from Preference p join fetch p.user join fetch p.course join fetch p.block " +
+            "where p.block.period.id=:periodId")
+    List<Preference> findAllByPeriodIdWithDetails(@Param("periodId") long periodId);
 }
@@ -3,6 +3,7 @@ package sandbox27.ila.backend.preference;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.web.bind.annotation.*;
 import sandbox27.ila.backend.assignments.CourseUserAssignment;
@@ -18,6 +19,7 @@ import sandbox27.ila.backend.course.events.CourseBlockChangedEvent;
 import sandbox27.ila.backend.courseexclusions.CourseExclusionRepository;
 import sandbox27.ila.backend.period.Period;
 import sandbox27.ila.backend.period.PeriodRepository;
+import sandbox27.ila.backend.preference.events.PreferencesChangedEvent;
 import sandbox27.ila.backend.user.User;
 import sandbox27.infrastructure.error.ErrorCode;
 import sandbox27.infrastructure.error.ErrorHandlingService;
@@ -44,6 +46,7 @@ public class PreferenceService {
     private final CourseUserAssignmentRepository courseUserAssignmentRepository;
     private final CourseExclusionRepository courseExclusionRepository;
     private final ErrorHandlingService errorHandlingService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @GetMapping("/{blockId}")
     public PreferencePayload getPreferences(@PathVariable("blockId") Long blockId,
@@ -99,6 +102,7 @@ public class PreferenceService {
                     .build();
             pref = preferenceRepository.save(pref);
         }
+        eventPublisher.publishEvent(new PreferencesChangedEvent(user.getUserName(), block.getPeriod().getId()));
         return getPreferences(blockId, user);
     }
 
@@ -0,0 +1,7 @@
+package sandbox27.ila.backend.preference.events;
+
+/**
+ * Ein Schüler hat seine Präferenzen für einen Block der Periode gespeichert.
+ */
+public record PreferencesChangedEvent(String userName, long periodId) {
+}
@@ -9,6 +9,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import sandbox27.ila.backend.user.events.StudentsChangedEvent;
 import sandbox27.ila.backend.user.events.UserCreatedEvent;
 import sandbox27.ila.backend.user.events.UserPasswordResetEvent;
 import sandbox27.infrastructure.error.ErrorCode;
@@ -79,7 +80,9 @@ public class UserManagementService implements UserManagement {
             user.setIlaMember(false);
             user.getRoles().remove(Role.STUDENT);
         }
-        return userRepository.save(user);
+        user = userRepository.save(user);
+        eventPublisher.publishEvent(new StudentsChangedEvent());
+        return user;
     }
 
     public Page<User> getAllUsers(boolean internalOnly, Pageable page) {
@@ -4,6 +4,7 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import sandbox27.ila.backend.user.events.StudentsChangedEvent;
 
 import java.util.List;
 
@@ -35,6 +37,7 @@ public class UserMetaInfoManagement {
 
     final UserRepository userRepository;
     final UserManagementService userManagement;
+    final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void syncUsers() {
@@ -161,6 +164,9 @@ public class UserMetaInfoManagement {
 
         log.info("Group {} sync completed: {} users updated, {} users not found",
                 groupName, updatedCount, notFoundCount);
+        if (updatedCount > 0) {
+            eventPublisher.publishEvent(new StudentsChangedEvent());
+        }
     }
 
     private List<IServUser> fetchUsersFromIServ(String groupId) {
@@ -39,5 +39,12 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     Optional<User> findByFirstNameAndLastNameAndEmail(String firstName, String lastName, String email);
 
+    /**
+     * iLA-Mitglieder mit Klassenstufe und Rolle, Rollen per Fetch-Join in einer Abfrage.
+     */
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles " +
+            "WHERE u.ilaMember = true AND u.grade > 0 AND :role MEMBER OF u.roles")
+    List<User> findAllIlaMembersWithGradeByRole(@Param("role") Role role);
+
 
 }
@@ -0,0 +1,4 @@
+package sandbox27.ila.backend.user.events;
+
+public record StudentsChangedEvent() {
+}
@@ -35,6 +35,7 @@ public class CourseImporter {
     final UserManagementService userManagementService;
     final CourseBlockAssignmentRepository courseBlockAssignmentRepository;
     private final UserRepository userRepository;
+    private final CourseSeatService courseSeatService;
     Period periodToImportInto;
 
     @Transactional
@@ -42,6 +43,8 @@ public class CourseImporter {
         this.periodToImportInto = periodToImportInto;
         List<ImportedCourseDto> importedCourses = importFromFile();
         importedCourses.forEach(this::storeImportedCourse);
+        // Kurse können dabei den Block gewechselt haben
+        courseSeatService.resync(periodToImportInto.getId());
     }
 
     private Optional<User> findOrCreateInstructor(ImportedCourseDto importedCourseDto) {
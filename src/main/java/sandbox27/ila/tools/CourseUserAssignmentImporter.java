@@ -12,6 +12,7 @@ import sandbox27.ila.backend.course.Course;
 import sandbox27.ila.backend.course.CourseBlockAssignment;
 import sandbox27.ila.backend.course.CourseBlockAssignmentRepository;
 import sandbox27.ila.backend.course.CourseRepository;
+import sandbox27.ila.backend.course.CourseSeatService;
 import sandbox27.ila.backend.period.Period;
 import sandbox27.ila.backend.user.User;
 import sandbox27.ila.backend.user.UserRepository;
@@ -33,6 +34,7 @@ public class CourseUserAssignmentImporter {
     private final ObjectMapper objectMapper;
     private final CourseBlockAssignmentRepository courseBlockAssignmentRepository;
     private final CourseUserAssignmentRepository courseUserAssignmentRepository;
+    private final CourseSeatService courseSeatService;
 
     public void runImport(Period period) throws IOException {
         InputStream inputStream = new ClassPathResource("course_assignments.json").getInputStream();
@@ -71,6 +73,8 @@ public class CourseUserAssignmentImporter {
                 assignmentRepository.save(assignment);
             }
         }
+        // Zuweisungen wurden direkt geschrieben, Platzzähler nachziehen
+        courseSeatService.resync(period.getId());
     }
 
     // DTO für JSON-Einträge
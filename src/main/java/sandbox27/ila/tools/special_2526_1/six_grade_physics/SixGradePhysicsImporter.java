@@ -12,6 +12,7 @@ import sandbox27.ila.backend.block.Block;
 import sandbox27.ila.backend.course.Course;
 import sandbox27.ila.backend.course.CourseBlockAssignmentRepository;
 import sandbox27.ila.backend.course.CourseRepository;
+import sandbox27.ila.backend.course.CourseSeatService;
 import sandbox27.ila.backend.period.Period;
 import sandbox27.ila.backend.user.User;
 import sandbox27.ila.backend.user.UserRepository;
@@ -32,6 +33,7 @@ public class SixGradePhysicsImporter {
     final CourseRepository courseRepository;
     final CourseBlockAssignmentRepository courseBlockAssignmentRepository;
     final CourseUserAssignmentRepository courseUserAssignmentRepository;
+    final CourseSeatService courseSeatService;
 
     @Transactional
     public void runImport(Period period) throws IOException {
@@ -43,6 +45,8 @@ public class SixGradePhysicsImporter {
                 e.printStackTrace();
             }
         }
+        // Zuweisungen wurden direkt geschrieben, Platzzähler nachziehen
+        courseSeatService.resync(period.getId());
     }
 
     @Transactional
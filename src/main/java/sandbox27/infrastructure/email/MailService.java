@@ -14,6 +14,7 @@ import org.thymeleaf.context.Context;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -37,6 +38,32 @@ public class MailService {
 
     public void sendHtml(String to, @Nullable String subject, String templateName, Map<String, Object> model,
                          @Nullable File attachment) throws MessagingException {
+        MimeMessageHelper helper = createHtmlHelper(to, subject, templateName, model);
+        if (attachment != null) {
+            helper.addAttachment(attachment.getName(), attachment);
+        }
+
+        mailSender.send(helper.getMimeMessage());
+    }
+
+    /**
+     * Rendert eine HTML-Mail, ohne sie zu versenden; siehe {@link #send(List)}.
+     */
+    public MimeMessage createHtml(String to, @Nullable String subject, String templateName,
+                                  Map<String, Object> model) throws MessagingException {
+        return createHtmlHelper(to, subject, templateName, model).getMimeMessage();
+    }
+
+    /**
+     * Sendet mehrere Mails über eine SMTP-Verbindung. Fehlgeschlagene Mails stehen in
+     * {@link org.springframework.mail.MailSendException#getFailedMessages()}.
+     */
+    public void send(List<MimeMessage> messages) {
+        mailSender.send(messages.toArray(MimeMessage[]::new));
+    }
+
+    private MimeMessageHelper createHtmlHelper(String to, @Nullable String subject, String templateName,
+                                               Map<String, Object> model) throws MessagingException {
         MimeMessage mime = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(mime, true, StandardCharsets.UTF_8.name());
         helper.setTo(to);
@@ -47,11 +74,6 @@ public class MailService {
         model.forEach(ctx::setVariable);
         String html = thymeleaf.process(templateName, ctx);
         helper.setText(html, true);
-
-        if (attachment != null) {
-            helper.addAttachment(attachment.getName(), attachment);
-        }
-
-        mailSender.send(mime);
+        return helper;
     }
 }
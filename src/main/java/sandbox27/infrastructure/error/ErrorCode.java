@@ -25,7 +25,9 @@ public enum ErrorCode {
     ExchangePhaseEnded,
     ExchangeRequestAlreadyExists,
     ExchangeRequestNotPending,
-    PresetCourseNotExchangeable
+    ExchangeRequestsChanged,
+    PresetCourseNotExchangeable,
+    CourseFull
 
 
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package sandbox27.ila.backend.absence;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalAbsenceIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 2, 0, 0);
+
+    private final List<ExternalAbsence> absences = new ArrayList<>();
+    private long nextId = 1;
+
+    @Test
+    void overlappingIntervalsReturnLatestStartedCoveringAbsence() {
+        ExternalAbsence wholeDay = absence("s1", 7, 16);
+        ExternalAbsence morning = absence("s1", 8, 12);
+        ExternalAbsence lesson = absence("s1", 9, 10);
+        ExternalAbsenceIndex index = index();
+
+        assertSame(lesson, find(index, "s1", 9, 30));
+        assertSame(morning, find(index, "s1", 11, 0));
+        // Nur der früh begonnene, lange Zeitraum reicht noch bis hierhin
+        assertSame(wholeDay, find(index, "s1", 13, 0));
+        assertNull(find(index, "s1", 16, 30));
+        assertNull(find(index, "s1", 6, 59));
+    }
+
+    @Test
+    void boundariesAreInclusive() {
+        ExternalAbsence absence = absence("s1", 8, 10);
+        ExternalAbsenceIndex index = index();
+
+        assertSame(absence, index.findActive("s1", DAY.withHour(8)).orElse(null));
+        assertSame(absence, index.findActive("s1", DAY.withHour(10)).orElse(null));
+        assertTrue(index.findActive("s1", DAY.withHour(8).minusNanos(1)).isEmpty());
+        assertTrue(index.findActive("s1", DAY.withHour(10).plusNanos(1)).isEmpty());
+    }
+
+    @Test
+    void touchingIntervalsPreferTheOneStartingAtTheBoundary() {
+        absence("s1", 8, 10);
+        ExternalAbsence later = absence("s1", 10, 12);
+        ExternalAbsenceIndex index = index();
+
+        assertSame(later, index.findActive("s1", DAY.withHour(10)).orElse(null));
+    }
+
+    @Test
+    void studentsWithoutAbsencesAreNeverAbsent() {
+        absence("s1", 8, 10);
+        ExternalAbsence incomplete = absence("s2", 8, 10);
+        incomplete.setToDateTime(null);
+        ExternalAbsenceIndex index = index();
+
+        assertTrue(index.findActive("s2", DAY.withHour(9)).isEmpty());
+        assertTrue(index.findActive("s3", DAY.withHour(9)).isEmpty());
+    }
+
+    @Test
+    void emptyRepositoryYieldsNoAbsences() {
+        assertTrue(index().findActive("s1", DAY.withHour(9)).isEmpty());
+    }
+
+    @Test
+    void absencesOfOtherStudentsAreIgnored() {
+        absence("s1", 8, 10);
+        ExternalAbsence other = absence("s2", 9, 11);
+        ExternalAbsenceIndex index = index();
+
+        assertNull(find(index, "s1", 10, 30));
+        assertSame(other, find(index, "s2", 10, 30));
+    }
+
+    private ExternalAbsence find(ExternalAbsenceIndex index, String student, int hour, int minute) {
+        Optional<ExternalAbsence> active = index.findActive(student, DAY.withHour(hour).withMinute(minute));
+        return active.orElse(null);
+    }
+
+    private ExternalAbsence absence(String student, int fromHour, int toHour) {
+        ExternalAbsence absence = ExternalAbsence.builder()
+                .id(nextId++)
+                .studentLocalId(student)
+                .fromDateTime(DAY.withHour(fromHour))
+                .toDateTime(DAY.withHour(toHour))
+                .date(DAY.toLocalDate())
+                .build();
+        absences.add(absence);
+        return absence;
+    }
+
+    /**
+     * Index über einem Repository, das nur {@code findAll} beantwortet.
+     */
+    private ExternalAbsenceIndex index() {
+        ExternalAbsenceRepository repository = (ExternalAbsenceRepository) Proxy.newProxyInstance(
+                ExternalAbsenceRepository.class.getClassLoader(), new Class<?>[]{ExternalAbsenceRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && (args == null || args.length == 0)) {
+                        return List.copyOf(absences);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return new ExternalAbsenceIndex(repository);
+    }
+}
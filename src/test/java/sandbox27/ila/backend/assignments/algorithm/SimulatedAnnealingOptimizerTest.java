@@ -0,0 +1,239 @@
+package sandbox27.ila.backend.assignments.algorithm;
+
+import org.junit.jupiter.api.Test;
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.course.Course;
+import sandbox27.ila.backend.course.CourseCategory;
+import sandbox27.ila.backend.preference.Preference;
+import sandbox27.ila.backend.user.Gender;
+import sandbox27.ila.backend.user.User;
+
+import java.time.DayOfWeek;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sandbox27.ila.backend.assignments.algorithm.CourseAssignmentService.COURSES_PER_STUDENT;
+import static sandbox27.ila.backend.assignments.algorithm.CourseAssignmentService.MIN_CATEGORIES;
+
+class SimulatedAnnealingOptimizerTest {
+
+    private static final DayOfWeek[] DAYS = {DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+            DayOfWeek.THURSDAY, DayOfWeek.FRIDAY};
+
+    @Test
+    void optimizeNeverWorsensCostAndKeepsAllRules() {
+        int acceptedMoves = 0;
+        for (long seed = 1; seed <= 20; seed++) {
+            AssignmentModel model = createModel(new Random(seed));
+            AssignmentState state = new AssignmentState(model);
+            state.applyPresets();
+            assignGreedy(state);
+
+            long costBefore = cost(state);
+            int[] categoriesBefore = new int[model.studentCount()];
+            for (int student = 0; student < model.studentCount(); student++) {
+                categoriesBefore[student] = Integer.bitCount(state.categoryMask[student]);
+            }
+            int[] countBefore = state.assignmentCount.clone();
+
+            acceptedMoves += new SimulatedAnnealingOptimizer(state, new Random(seed))
+                    .optimize(50_000, 60_000, AssignmentProgress.NONE);
+
+            assertTrue(cost(state) <= costBefore, "Kosten verschlechtert bei Seed " + seed);
+            assertArrayEquals(countBefore, state.assignmentCount, "Anzahl Zuweisungen geändert bei Seed " + seed);
+            assertValid(state, categoriesBefore, seed);
+        }
+        assertTrue(acceptedMoves > 0, "Lokale Suche hat keinen Zug ausgeführt");
+    }
+
+    @Test
+    void optimizeIsReproducibleForSameSeed() {
+        AssignmentModel model = createModel(new Random(7));
+        AssignmentState first = new AssignmentState(model);
+        AssignmentState second = new AssignmentState(model);
+        for (AssignmentState state : List.of(first, second)) {
+            state.applyPresets();
+            assignGreedy(state);
+            new SimulatedAnnealingOptimizer(state, new Random(99)).optimize(50_000, 60_000, AssignmentProgress.NONE);
+        }
+
+        assertArrayEquals(first.slotCourse, second.slotCourse);
+        assertArrayEquals(first.slotPriority, second.slotPriority);
+    }
+
+    @Test
+    void optimizeDoesNotMoveLockedSlots() {
+        AssignmentModel model = createModel(new Random(11));
+        AssignmentState state = new AssignmentState(model);
+        state.applyPresets();
+        assignGreedy(state);
+        state.lockAssignments();
+        int[] coursesBefore = state.slotCourse.clone();
+
+        new SimulatedAnnealingOptimizer(state, new Random(11)).optimize(50_000, 60_000, AssignmentProgress.NONE);
+
+        assertArrayEquals(coursesBefore, state.slotCourse);
+    }
+
+    /**
+     * Prüft den Zustand unabhängig von den inkrementell geführten Zählern und Masken.
+     */
+    private static void assertValid(AssignmentState state, int[] categoriesBefore, long seed) {
+        AssignmentModel model = state.model;
+        int[] attendees = new int[model.courseCount()];
+        for (int i = 0; i < model.presetCourse.length; i++) {
+            if (model.presetStudent[i] < 0 && model.courseBlock[model.presetCourse[i]] == model.presetBlock[i]) {
+                attendees[model.presetCourse[i]]++;
+            }
+        }
+
+        for (int student = 0; student < model.studentCount(); student++) {
+            int days = 0;
+            int categories = 0;
+            int from = student * state.slotCapacity;
+            for (int slot = from; slot < from + state.getAssignmentCount(student); slot++) {
+                int course = state.slotCourse[slot];
+                int block = state.slotBlock[slot];
+                int dayBit = model.blockDayMask[block];
+
+                assertEquals(0, days & dayBit, "Zwei Kurse am selben Tag bei Seed " + seed);
+                days |= dayBit;
+                categories |= model.courseCategoryMask[course];
+                if (model.courseBlock[course] == block) {
+                    attendees[course]++;
+                }
+                if (state.slotPriority[slot] >= 0) {
+                    assertEquals(model.courseBlock[course], block, "Kurs im falschen Block bei Seed " + seed);
+                    assertFalse(model.isBlockExcluded(student, block), "Gesperrter Block bei Seed " + seed);
+                    assertTrue(model.isCourseAllowed(student, course), "Klasse/Geschlecht verletzt bei Seed " + seed);
+                    assertEquals(state.getPriorityForCourse(student, course), state.slotPriority[slot],
+                            "Priorität passt nicht zur Präferenz bei Seed " + seed);
+                }
+            }
+            assertEquals(days, state.dayMask[student]);
+            assertEquals(categories, state.categoryMask[student]);
+            if (state.getAssignmentCount(student) >= COURSES_PER_STUDENT) {
+                assertTrue(Integer.bitCount(categories) >= Math.min(MIN_CATEGORIES, categoriesBefore[student]),
+                        "Kategorien-Regel verletzt bei Seed " + seed);
+            }
+        }
+
+        for (int course = 0; course < model.courseCount(); course++) {
+            assertEquals(attendees[course], state.getCourseAttendees(course));
+            assertTrue(attendees[course] <= model.courseCapacity[course], "Kapazität überschritten bei Seed " + seed);
+        }
+    }
+
+    private static long cost(AssignmentState state) {
+        long cost = 0;
+        for (int slot = 0; slot < state.slotPriority.length; slot++) {
+            int student = slot / state.slotCapacity;
+            if (slot % state.slotCapacity < state.getAssignmentCount(student) && state.slotPriority[slot] >= 0) {
+                long p = state.slotPriority[slot] + 1L;
+                cost += p * p;
+            }
+        }
+        return cost;
+    }
+
+    private static void assignGreedy(AssignmentState state) {
+        boolean assigned = true;
+        while (assigned) {
+            assigned = false;
+            for (int student = 0; student < state.model.studentCount(); student++) {
+                if (state.getAssignmentCount(student) >= COURSES_PER_STUDENT) {
+                    continue;
+                }
+                int pref = state.findBestPreference(student, true);
+                if (pref >= 0) {
+                    state.assign(student, state.model.prefBlock[pref], state.model.prefCourse[pref],
+                            state.model.prefPriority[pref]);
+                    assigned = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Kleine Schule mit knappen Plätzen, damit Tausch, Kette und 3er-Zyklus tatsächlich vorkommen.
+     */
+    private static AssignmentModel createModel(Random random) {
+        List<Block> blocks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            blocks.add(Block.builder().id((long) i + 1).dayOfWeek(DAYS[i % DAYS.length]).build());
+        }
+
+        List<Course> courses = new ArrayList<>();
+        Map<Long, Block> courseToBlock = new HashMap<>();
+        CourseCategory[] categories = CourseCategory.values();
+        for (int i = 0; i < 40; i++) {
+            Set<Integer> grades = new HashSet<>();
+            if (random.nextInt(4) == 0) {
+                grades.addAll(List.of(5, 6, 7));
+            }
+            Set<Gender> excludedGenders = new HashSet<>();
+            if (random.nextInt(10) == 0) {
+                excludedGenders.add(Gender.male);
+            }
+            Course course = Course.builder()
+                    .id(100L + i)
+                    .name("Kurs " + i)
+                    .courseCategories(new HashSet<>(Set.of(categories[random.nextInt(categories.length)])))
+                    .grades(grades)
+                    .excludedGenders(excludedGenders)
+                    .maxAttendees(3 + random.nextInt(6))
+                    .build();
+            courses.add(course);
+            courseToBlock.put(course.getId(), blocks.get(i % blocks.size()));
+        }
+
+        List<User> students = new ArrayList<>();
+        Map<String, List<Preference>> preferences = new HashMap<>();
+        Map<String, Set<Long>> exclusions = new HashMap<>();
+        List<CourseUserAssignment> presets = new ArrayList<>();
+        Gender[] genders = {Gender.male, Gender.female};
+        long preferenceId = 1000;
+        for (int i = 0; i < 80; i++) {
+            User student = new User();
+            student.setUserName("schueler" + i);
+            student.setGrade(5 + random.nextInt(5));
+            student.setGender(genders[random.nextInt(genders.length)]);
+            students.add(student);
+
+            if (random.nextInt(8) == 0) {
+                exclusions.put(student.getUserName(), new HashSet<>(Set.of(blocks.get(random.nextInt(blocks.size())).getId())));
+            }
+            if (random.nextInt(10) == 0) {
+                Course course = courses.get(random.nextInt(courses.size()));
+                presets.add(CourseUserAssignment.builder()
+                        .course(course)
+                        .user(student)
+                        .block(courseToBlock.get(course.getId()))
+                        .preset(true)
+                        .build());
+            }
+
+            List<Preference> studentPreferences = new ArrayList<>();
+            for (Block block : blocks) {
+                List<Course> inBlock = new ArrayList<>(courses.stream()
+                        .filter(course -> courseToBlock.get(course.getId()) == block)
+                        .toList());
+                Collections.shuffle(inBlock, random);
+                int count = random.nextInt(Math.min(3, inBlock.size()) + 1);
+                for (int priority = 0; priority < count; priority++) {
+                    studentPreferences.add(Preference.builder()
+                            .id(preferenceId++)
+                            .user(student)
+                            .block(block)
+                            .course(inBlock.get(priority))
+                            .preferenceIndex(priority)
+                            .build());
+                }
+            }
+            preferences.put(student.getUserName(), studentPreferences);
+        }
+
+        return AssignmentModel.of(students, courses, blocks, preferences, exclusions, courseToBlock, presets);
+    }
+}
@@ -0,0 +1,174 @@
+package sandbox27.ila.backend.besteschule;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Läuft gegen einen lokalen HTTP-Server, der je Seite nur {@code last_page} als Text liefert.
+ */
+class BesteSchulePageFetcherTest {
+
+    private record Page(int number, int lastPage) {
+    }
+
+    /**
+     * Verhalten des Servers für eine Seite: Wartezeit in ms, negativ für einen Fehler 500.
+     */
+    private interface PageBehaviour {
+        long delayMillis(int page);
+    }
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Queue<Long> startNanos = new ConcurrentLinkedQueue<>();
+    private HttpServer server;
+    private String baseUrl;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.stop(0);
+        }
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void pagesArriveOutOfOrderAndAreAllDelivered() throws IOException {
+        int lastPage = 8;
+        // Spätere Seiten antworten schneller
+        startServer(lastPage, page -> page == 1 ? 0 : (lastPage - page) * 40L);
+        BesteSchulePageFetcher fetcher = new BesteSchulePageFetcher(lastPage, 1000);
+
+        List<Integer> received = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+        int pages = fetcher.fetchAll(baseUrl, 100, this::loadPage, Page::lastPage, page -> {
+            assertSame(caller, Thread.currentThread());
+            received.add(page.number());
+        });
+
+        assertEquals(lastPage, pages);
+        assertEquals(1, received.get(0));
+        assertEquals(lastPage, received.get(1), "Schnellste Seite zuerst weitergereicht");
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8), received.stream().sorted().toList());
+    }
+
+    @Test
+    void maxPagesLimitsTheFetch() throws IOException {
+        startServer(20, page -> 0);
+        BesteSchulePageFetcher fetcher = new BesteSchulePageFetcher(4, 1000);
+
+        List<Integer> received = new ArrayList<>();
+        int pages = fetcher.fetchAll(baseUrl, 5, this::loadPage, Page::lastPage, page -> received.add(page.number()));
+
+        assertEquals(5, pages);
+        assertEquals(List.of(1, 2, 3, 4, 5), received.stream().sorted().toList());
+        assertEquals(5, startNanos.size());
+    }
+
+    @Test
+    void concurrentRequestsStayWithinCap() throws IOException {
+        startServer(13, page -> 100);
+        BesteSchulePageFetcher fetcher = new BesteSchulePageFetcher(3, 1000);
+
+        int pages = fetcher.fetchAll(baseUrl, 100, this::loadPage, Page::lastPage, page -> {
+        });
+
+        assertEquals(13, pages);
+        assertTrue(maxInFlight.get() <= 3, "Höchstens 3 gleichzeitig, waren " + maxInFlight.get());
+        assertTrue(maxInFlight.get() >= 2, "Seiten wurden nicht parallel geladen");
+    }
+
+    @Test
+    void requestStartsAreSpacedByRateLimit() throws IOException {
+        startServer(11, page -> 0);
+        BesteSchulePageFetcher fetcher = new BesteSchulePageFetcher(8, 20);
+
+        fetcher.fetchAll(baseUrl, 100, this::loadPage, Page::lastPage, page -> {
+        });
+
+        List<Long> starts = startNanos.stream().sorted().toList();
+        assertEquals(11, starts.size());
+        long spanMillis = TimeUnit.NANOSECONDS.toMillis(starts.get(starts.size() - 1) - starts.get(0));
+        // 20 Anfragen pro Sekunde: 10 Abstände zu je 50 ms, mit etwas Spielraum für die Messung
+        assertTrue(spanMillis >= 450, "Anfragen zu dicht: " + spanMillis + " ms für 11 Seiten");
+    }
+
+    @Test
+    void failingPageCancelsRemainingPages() throws IOException {
+        int lastPage = 30;
+        startServer(lastPage, page -> page == 3 ? -1 : 200);
+        BesteSchulePageFetcher fetcher = new BesteSchulePageFetcher(2, 1000);
+
+        long start = System.nanoTime();
+        assertThrows(RestClientException.class,
+                () -> fetcher.fetchAll(baseUrl, 100, this::loadPage, Page::lastPage, page -> {
+                }));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        int startedAtFailure = startNanos.size();
+        sleep(400);
+        assertEquals(startedAtFailure, startNanos.size(), "Nach dem Fehler wurden weitere Seiten angefragt");
+        assertTrue(startedAtFailure < lastPage, "Alle Seiten angefragt trotz Fehler");
+        assertTrue(elapsedMillis < lastPage * 200L / 2, "Abbruch dauerte " + elapsedMillis + " ms");
+    }
+
+    private Page loadPage(int page) {
+        String body = restTemplate.getForObject(baseUrl + "/absences?page=" + page, String.class);
+        return new Page(page, Integer.parseInt(Objects.requireNonNull(body).trim()));
+    }
+
+    private void startServer(int lastPage, PageBehaviour behaviour) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/absences", exchange -> handle(exchange, lastPage, behaviour));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api";
+    }
+
+    private void handle(HttpExchange exchange, int lastPage, PageBehaviour behaviour) throws IOException {
+        startNanos.add(System.nanoTime());
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            int page = Integer.parseInt(exchange.getRequestURI().getQuery().replaceAll(".*page=(\\d+).*", "$1"));
+            long delay = behaviour.delayMillis(page);
+            if (delay < 0) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            sleep(delay);
+            byte[] body = Integer.toString(lastPage).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package sandbox27.ila.backend.course;
+
+import org.junit.jupiter.api.Test;
+import sandbox27.ila.backend.block.Block;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseSeatServiceTest {
+
+    private final Block monday = Block.builder().id(1).build();
+    private final Block tuesday = Block.builder().id(2).build();
+
+    @Test
+    void onlyAssignmentsInCourseBlockCount() {
+        // Kurs 10 liegt montags, hat aber noch zwei Zuweisungen aus dem Dienstag
+        List<Object[]> rows = List.of(
+                new Object[]{10L, 1L, 3L},
+                new Object[]{10L, 2L, 2L},
+                new Object[]{11L, 2L, 4L});
+
+        Map<Long, Integer> attendees = CourseSeatService.countAttendeesInCourseBlock(rows,
+                Map.of(10L, monday, 11L, tuesday));
+
+        assertEquals(Map.of(10L, 3, 11L, 4), attendees);
+    }
+
+    @Test
+    void courseOnlyAssignedOutsideItsBlockHasNoAttendees() {
+        List<Object[]> rows = List.<Object[]>of(new Object[]{10L, 2L, 5L});
+
+        Map<Long, Integer> attendees = CourseSeatService.countAttendeesInCourseBlock(rows, Map.of(10L, monday));
+
+        assertFalse(attendees.containsKey(10L));
+    }
+
+    @Test
+    void courseWithoutBlockIsSkipped() {
+        List<Object[]> rows = List.<Object[]>of(new Object[]{10L, 1L, 5L});
+
+        assertTrue(CourseSeatService.countAttendeesInCourseBlock(rows, Map.of()).isEmpty());
+    }
+}
@@ -0,0 +1,191 @@
+package sandbox27.ila.backend.exchange;
+
+import org.junit.jupiter.api.Test;
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.course.Course;
+import sandbox27.ila.backend.course.CourseCategory;
+import sandbox27.ila.backend.user.Gender;
+import sandbox27.ila.backend.user.User;
+
+import java.time.DayOfWeek;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeResolverTest {
+
+    private final Block monday = Block.builder().id(1).dayOfWeek(DayOfWeek.MONDAY).build();
+    private final Block tuesday = Block.builder().id(2).dayOfWeek(DayOfWeek.TUESDAY).build();
+
+    private final Map<Long, Block> courseToBlock = new HashMap<>();
+    private final List<CourseUserAssignment> assignments = new ArrayList<>();
+    private long nextId = 1;
+
+    @Test
+    void twoCycleBetweenFullCoursesIsTraded() {
+        Course c1 = course(monday, 1);
+        Course c2 = course(monday, 1);
+        ExchangeRequest a = request(assign(student(), c1), c2);
+        ExchangeRequest b = request(assign(student(), c2), c1);
+
+        ExchangeResolutionResult result = resolve(List.of(a, b), ExchangeResolutionStrategy.TRADING_CYCLES);
+
+        assertEquals(1, result.getTradingCycles());
+        assertEquals(2, result.getFulfilledByCycles());
+        assertFulfilledWith(a, c2);
+        assertFulfilledWith(b, c1);
+    }
+
+    @Test
+    void threeCycleBetweenFullCoursesIsTraded() {
+        Course c1 = course(monday, 1);
+        Course c2 = course(monday, 1);
+        Course c3 = course(monday, 1);
+        ExchangeRequest a = request(assign(student(), c1), c2);
+        ExchangeRequest b = request(assign(student(), c2), c3);
+        ExchangeRequest c = request(assign(student(), c3), c1);
+
+        ExchangeResolutionResult result = resolve(List.of(a, b, c), ExchangeResolutionStrategy.TRADING_CYCLES);
+
+        assertEquals(1, result.getTradingCycles());
+        assertEquals(3, result.getFulfilled());
+        assertFulfilledWith(a, c2);
+        assertFulfilledWith(b, c3);
+        assertFulfilledWith(c, c1);
+    }
+
+    @Test
+    void ineligibleAgentKeepsSeatWhileOthersTrade() {
+        Course c1 = course(monday, 1);
+        Course c2 = course(monday, 2);
+        c1.getExcludedGenders().add(Gender.male);
+        ExchangeRequest a = request(assign(student(), c1), c2);
+        // b gibt c2 als Erster ab, darf aber nicht in c1
+        User excluded = student();
+        excluded.setGender(Gender.male);
+        ExchangeRequest b = request(assign(excluded, c2), c1);
+        ExchangeRequest c = request(assign(student(), c2), c1);
+
+        ExchangeResolutionResult result = resolve(List.of(a, b, c), ExchangeResolutionStrategy.TRADING_CYCLES);
+
+        assertEquals(1, result.getTradingCycles());
+        assertFulfilledWith(a, c2);
+        assertFulfilledWith(c, c1);
+        assertEquals(ExchangeRequestStatus.PENDING, b.getStatus());
+        assertSame(c2, b.getCurrentAssignment().getCourse());
+    }
+
+    @Test
+    void freedSeatRequeuesWaitingRequestInSamePass() {
+        Course c1 = course(monday, 1);
+        Course c2 = course(monday, 1);
+        Course c3 = course(monday, 1);
+        // a ist fairer, findet c2 aber zunächst voll; erst b macht c2 frei
+        ExchangeRequest a = request(assign(student(), c1), c2);
+        ExchangeRequest b = request(assign(student(), c2), c3);
+
+        ExchangeResolutionResult result = resolve(List.of(a, b), ExchangeResolutionStrategy.FAIRNESS_ORDER);
+
+        assertEquals(2, result.getFulfilled());
+        assertEquals(0, result.getTradingCycles());
+        assertEquals(1, result.getRounds());
+        assertFulfilledWith(a, c2);
+        assertFulfilledWith(b, c3);
+    }
+
+    @Test
+    void onlyFairestRequestOfStudentTakesPartInCycles() {
+        Course c1 = course(monday, 1);
+        Course c2 = course(monday, 1);
+        Course c3 = course(tuesday, 1);
+        Course c4 = course(tuesday, 1);
+        User student = student();
+        ExchangeRequest first = request(assign(student, c1), c2);
+        ExchangeRequest second = request(assign(student, c3), c4);
+        ExchangeRequest partner = request(assign(student(), c2), c1);
+        // Würde mit second einen Ring bilden, wenn der Schüler zweimal teilnehmen dürfte
+        ExchangeRequest otherPartner = request(assign(student(), c4), c3);
+
+        ExchangeResolutionResult result = resolve(List.of(first, second, partner, otherPartner),
+                ExchangeResolutionStrategy.TRADING_CYCLES);
+
+        assertEquals(1, result.getTradingCycles());
+        assertFulfilledWith(first, c2);
+        assertFulfilledWith(partner, c1);
+        assertEquals(ExchangeRequestStatus.PENDING, second.getStatus());
+        assertEquals(ExchangeRequestStatus.PENDING, otherPartner.getStatus());
+    }
+
+    @Test
+    void assignmentsOutsideCourseBlockDoNotTakeSeats() {
+        Course c1 = course(monday, 1);
+        Course c2 = course(monday, 1);
+        // Veraltete Zuweisung in c2 aus dem Dienstag belegt keinen Platz im Montagsblock
+        CourseUserAssignment stale = assign(student(), c2);
+        stale.setBlock(tuesday);
+        ExchangeRequest a = request(assign(student(), c1), c2);
+
+        ExchangeResolutionResult result = resolve(List.of(a), ExchangeResolutionStrategy.FAIRNESS_ORDER);
+
+        assertEquals(1, result.getFulfilled());
+        assertFulfilledWith(a, c2);
+    }
+
+    private ExchangeResolutionResult resolve(List<ExchangeRequest> sortedRequests, ExchangeResolutionStrategy strategy) {
+        ExchangeEligibilitySnapshot snapshot = new ExchangeEligibilitySnapshot(courseToBlock, assignments, Map.of());
+        return new ExchangeResolver(sortedRequests, snapshot, new ExchangeResolutionTrace(), ExchangeResolver.IN_MEMORY)
+                .resolve(strategy);
+    }
+
+    private static void assertFulfilledWith(ExchangeRequest request, Course course) {
+        assertEquals(ExchangeRequestStatus.FULFILLED, request.getStatus());
+        assertSame(course, request.getFulfilledWithCourse());
+        assertSame(course, request.getCurrentAssignment().getCourse());
+    }
+
+    private Course course(Block block, int maxAttendees) {
+        long id = nextId++;
+        Course course = Course.builder()
+                .id(id)
+                .name("Kurs " + id)
+                .courseCategories(new HashSet<>(Set.of(CourseCategory.values()[0])))
+                .grades(new HashSet<>())
+                .excludedGenders(new HashSet<>())
+                .maxAttendees(maxAttendees)
+                .build();
+        courseToBlock.put(id, block);
+        return course;
+    }
+
+    private User student() {
+        User student = new User();
+        student.setUserName("schueler" + nextId++);
+        student.setGrade(7);
+        student.setGender(Gender.female);
+        return student;
+    }
+
+    private CourseUserAssignment assign(User student, Course course) {
+        CourseUserAssignment assignment = CourseUserAssignment.builder()
+                .id(nextId++)
+                .user(student)
+                .course(course)
+                .block(courseToBlock.get(course.getId()))
+                .build();
+        assignments.add(assignment);
+        return assignment;
+    }
+
+    private ExchangeRequest request(CourseUserAssignment assignment, Course... desired) {
+        ExchangeRequest request = ExchangeRequest.builder()
+                .id(nextId++)
+                .student(assignment.getUser())
+                .currentAssignment(assignment)
+                .build();
+        for (int i = 0; i < desired.length; i++) {
+            request.addDesiredCourse(desired[i], i + 1);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,136 @@
+package sandbox27.ila.backend.exchange;
+
+import org.junit.jupiter.api.Test;
+import sandbox27.ila.backend.assignments.CourseUserAssignment;
+import sandbox27.ila.backend.block.Block;
+import sandbox27.ila.backend.course.Course;
+import sandbox27.ila.backend.course.CourseCategory;
+import sandbox27.ila.backend.user.User;
+
+import java.time.DayOfWeek;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradingCycleResolverTest {
+
+    private static final BiPredicate<ExchangeRequest, Course> ALWAYS = (request, course) -> true;
+
+    private final Block block = Block.builder().id(1).dayOfWeek(DayOfWeek.MONDAY).build();
+    private long nextId = 1;
+
+    @Test
+    void twoCycleSwapsBothRequests() {
+        Course c1 = course();
+        Course c2 = course();
+        ExchangeRequest a = request(c1, c2);
+        ExchangeRequest b = request(c2, c1);
+
+        List<List<TradingCycleResolver.Trade>> cycles = new TradingCycleResolver(List.of(a, b), ALWAYS).findCycles();
+
+        assertEquals(1, cycles.size());
+        assertCycle(cycles.get(0), a, c2, b, c1);
+    }
+
+    @Test
+    void threeCycleIsFound() {
+        Course c1 = course();
+        Course c2 = course();
+        Course c3 = course();
+        ExchangeRequest a = request(c1, c2);
+        ExchangeRequest b = request(c2, c3);
+        ExchangeRequest c = request(c3, c1);
+
+        List<List<TradingCycleResolver.Trade>> cycles = new TradingCycleResolver(List.of(a, b, c), ALWAYS).findCycles();
+
+        assertEquals(1, cycles.size());
+        assertCycle(cycles.get(0), a, c2, b, c3, c, c1);
+    }
+
+    @Test
+    void agentWithoutEligibleOptionIsRemovedAndNextHolderIsUsed() {
+        Course c1 = course();
+        Course c2 = course();
+        ExchangeRequest a = request(c1, c2);
+        // b gibt c2 als Erster ab, darf aber nicht in c1
+        ExchangeRequest b = request(c2, c1);
+        ExchangeRequest c = request(c2, c1);
+        BiPredicate<ExchangeRequest, Course> canSwapInto = (request, course) -> request != b;
+
+        List<List<TradingCycleResolver.Trade>> cycles = new TradingCycleResolver(List.of(a, b, c), canSwapInto)
+                .findCycles();
+
+        assertEquals(1, cycles.size());
+        assertCycle(cycles.get(0), a, c2, c, c1);
+    }
+
+    @Test
+    void optionWithoutHolderFormsNoCycle() {
+        Course c1 = course();
+        Course c2 = course();
+        Course c3 = course();
+        ExchangeRequest a = request(c1, c2);
+        ExchangeRequest b = request(c2, c3);
+
+        assertTrue(new TradingCycleResolver(List.of(a, b), ALWAYS).findCycles().isEmpty());
+    }
+
+    @Test
+    void fairerRequestTakesFirstPlaceInCycle() {
+        Course c1 = course();
+        Course c2 = course();
+        ExchangeRequest a = request(c1, c2);
+        ExchangeRequest b = request(c2, c1);
+        ExchangeRequest c = request(c2, c1);
+
+        List<List<TradingCycleResolver.Trade>> cycles = new TradingCycleResolver(List.of(a, b, c), ALWAYS).findCycles();
+
+        assertEquals(1, cycles.size());
+        assertCycle(cycles.get(0), a, c2, b, c1);
+    }
+
+    /**
+     * @param expected abwechselnd Wunsch und erwarteter Kurs, in Reihenfolge des Rings
+     */
+    private static void assertCycle(List<TradingCycleResolver.Trade> cycle, Object... expected) {
+        assertEquals(expected.length / 2, cycle.size());
+        for (int i = 0; i < cycle.size(); i++) {
+            assertSame(expected[2 * i], cycle.get(i).request());
+            assertSame(expected[2 * i + 1], cycle.get(i).course());
+        }
+    }
+
+    private Course course() {
+        long id = nextId++;
+        return Course.builder()
+                .id(id)
+                .name("Kurs " + id)
+                .courseCategories(new HashSet<>(Set.of(CourseCategory.values()[0])))
+                .grades(new HashSet<>())
+                .excludedGenders(new HashSet<>())
+                .maxAttendees(1)
+                .build();
+    }
+
+    private ExchangeRequest request(Course own, Course... desired) {
+        User student = new User();
+        student.setUserName("schueler" + nextId);
+        ExchangeRequest request = ExchangeRequest.builder()
+                .id(nextId++)
+                .student(student)
+                .currentAssignment(CourseUserAssignment.builder()
+                        .id(nextId++)
+                        .user(student)
+                        .course(own)
+                        .block(block)
+                        .build())
+                .build();
+        for (int i = 0; i < desired.length; i++) {
+            request.addDesiredCourse(desired[i], i + 1);
+        }
+        return request;
+    }
+}